@@ -7,6 +7,8 @@ plugins {
 
     id("com.google.protobuf") version "0.9.4"
     id("org.pkl-lang") version "0.26.3"
+
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "ac.at.uibk.dps.cirrina"
@@ -26,6 +28,14 @@ jacoco {
     toolVersion = "0.8.11"
 }
 
+jmh {
+    includeTests = true
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+}
+
 pkl {
     project {
         packagers {
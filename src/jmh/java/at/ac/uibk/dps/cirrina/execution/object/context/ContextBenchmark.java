@@ -0,0 +1,58 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures assigning to and retrieving a context variable of the persistent context implementations that do not require a server.
+ * <p>
+ * Run with the GC profiler to report the allocation rate in bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+  @Param({"InMemory", "File"})
+  public String implementation;
+
+  private Context context;
+
+  private int value = 0;
+
+  @Setup
+  public void setUp() throws IOException {
+    context = switch (implementation) {
+      case "InMemory" -> new InMemoryContext(false);
+      case "File" -> new FileContext(false, Files.createTempDirectory("context"));
+      default -> throw new IllegalArgumentException("Unknown context implementation '%s'".formatted(implementation));
+    };
+
+    context.create("v", value);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    context.close();
+  }
+
+  @Benchmark
+  public int assign() throws IOException {
+    return context.assign("v", ++value);
+  }
+
+  @Benchmark
+  public Object get() throws IOException {
+    return context.get("v");
+  }
+}
@@ -0,0 +1,85 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the number of events per second sent through NATS in bursts and received by another event handler, with and without batching.
+ * <p>
+ * Requires a NATS server, for example a local server started with {@code nats-server}. The connection string is read from the
+ * {@code NATS_SERVER_URL} environment variable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventPublishBenchmark {
+
+  private static final int BURST_SIZE = 100;
+
+  private static final int PAYLOAD_SIZE = 1024;
+
+  @Param({"0", "1", "5"})
+  public long lingerInMs;
+
+  private final AtomicLong received = new AtomicLong();
+
+  private NatsEventHandler sender;
+
+  private NatsEventHandler receiver;
+
+  private Event event;
+
+  private long sent = 0;
+
+  @Setup
+  public void setUp() throws IOException {
+    final var natsUrl = Objects.requireNonNullElse(System.getenv("NATS_SERVER_URL"), "nats://localhost:4222/");
+
+    sender = new NatsEventHandler(natsUrl, lingerInMs, 64);
+    receiver = new NatsEventHandler(natsUrl);
+
+    receiver.addListener(receivedEvent -> {
+      received.incrementAndGet();
+      return true;
+    });
+    receiver.subscribe("source", "e");
+
+    event = new Event("e", EventChannel.EXTERNAL, List.of(new ContextVariable("payload", new byte[PAYLOAD_SIZE])));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    sender.close();
+    receiver.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST_SIZE)
+  public void sendBurst() throws IOException {
+    for (int i = 0; i < BURST_SIZE; ++i) {
+      sender.sendEvent(event, "source");
+    }
+
+    sent += BURST_SIZE;
+
+    // Wait until the burst is received
+    while (received.get() < sent) {
+      Thread.onSpinWait();
+    }
+  }
+}
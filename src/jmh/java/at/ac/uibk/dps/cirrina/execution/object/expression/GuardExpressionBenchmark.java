@@ -0,0 +1,52 @@
+package at.ac.uibk.dps.cirrina.execution.object.expression;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the evaluation of typical guard expressions against an extent of a persistent, a state machine instance-local and a
+ * state-local context.
+ * <p>
+ * Run with the GC profiler to report the allocation rate in bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GuardExpressionBenchmark {
+
+  @Param({"x > 5 && $y == 'a'", "v >= 100", "x > 5 && v < 100 && $y != 'b'"})
+  public String source;
+
+  private Expression expression;
+
+  private Extent extent;
+
+  @Setup
+  public void setUp() throws IOException {
+    final var persistentContext = new InMemoryContext(false);
+    final var stateMachineContext = new InMemoryContext(true);
+    final var stateContext = new InMemoryContext(true);
+
+    persistentContext.create("v", 42);
+    stateMachineContext.create("x", 10);
+    stateMachineContext.create("$y", "a");
+
+    extent = new Extent(persistentContext, stateMachineContext).extend(stateContext);
+    expression = ExpressionBuilder.from(source).build();
+  }
+
+  @Benchmark
+  public Object evaluate() {
+    return expression.execute(extent);
+  }
+}
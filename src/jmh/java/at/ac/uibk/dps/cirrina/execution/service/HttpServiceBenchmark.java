@@ -0,0 +1,115 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Method;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.service.HttpServiceImplementation.Parameters;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the number of concurrent HTTP service invocations per second, per HTTP version.
+ * <p>
+ * The invoked service echoes the context variables it receives. By default, a local stand-in service is started, the built-in JDK server
+ * for HTTP/1.1 and the h2c echo server of the tests for HTTP/2. To compare against a different service, provide its URL through the
+ * {@code HTTP_SERVICE_URL} environment variable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HttpServiceBenchmark {
+
+  private static final int CONCURRENT_INVOCATIONS = 64;
+
+  @Param({"HTTP_1_1", "HTTP_2"})
+  public Version version;
+
+  private HttpServer httpServer;
+
+  private H2cEchoServer h2cEchoServer;
+
+  private HttpServiceTransport transport;
+
+  private HttpServiceImplementation service;
+
+  private final List<ContextVariable> input = List.of(new ContextVariable("payload", new byte[1024]));
+
+  @Setup
+  public void setUp() throws IOException {
+    final var serviceUrl = System.getenv("HTTP_SERVICE_URL");
+
+    final URI uri;
+
+    if (serviceUrl != null) {
+      uri = URI.create(serviceUrl);
+    } else if (version == Version.HTTP_2) {
+      // Start the h2c stand-in service, echoing the request body
+      h2cEchoServer = new H2cEchoServer();
+
+      uri = URI.create("http://localhost:%d/echo".formatted(h2cEchoServer.getPort()));
+    } else {
+      // Start the stand-in service, echoing the request body
+      httpServer = HttpServer.create(new InetSocketAddress(0), 0);
+      httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+
+      httpServer.createContext("/echo", exchange -> {
+        final var payload = exchange.getRequestBody().readAllBytes();
+
+        exchange.sendResponseHeaders(200, payload.length);
+        exchange.getResponseBody().write(payload);
+        exchange.close();
+      });
+
+      httpServer.start();
+
+      uri = URI.create("http://localhost:%d/echo".formatted(httpServer.getAddress().getPort()));
+    }
+
+    transport = new HttpServiceTransport();
+
+    service = new HttpServiceImplementation(
+        new Parameters("echo", 1.0, false, uri.getScheme(), uri.getHost(), uri.getPort(), uri.getPath(), Method.POST, version),
+        transport);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    transport.close();
+
+    if (httpServer != null) {
+      httpServer.stop(0);
+    }
+
+    if (h2cEchoServer != null) {
+      h2cEchoServer.close();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CONCURRENT_INVOCATIONS)
+  public void invoke() {
+    final var invocations = new CompletableFuture<?>[CONCURRENT_INVOCATIONS];
+
+    for (int i = 0; i < CONCURRENT_INVOCATIONS; ++i) {
+      invocations[i] = service.invoke(input, "benchmark");
+    }
+
+    CompletableFuture.allOf(invocations).join();
+  }
+}
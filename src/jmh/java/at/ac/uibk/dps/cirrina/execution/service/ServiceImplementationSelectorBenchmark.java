@@ -0,0 +1,67 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Method;
+import at.ac.uibk.dps.cirrina.execution.service.HttpServiceImplementation.Parameters;
+import com.google.common.collect.ArrayListMultimap;
+import java.net.http.HttpClient.Version;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the number of service implementation selections per second, per service implementation selector and number of candidate service
+ * implementations.
+ * <p>
+ * Selections are made concurrently, the selected service implementations are not invoked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ServiceImplementationSelectorBenchmark {
+
+  @Param({"Random", "Optimal", "PowerOfTwoChoices", "LeastOutstandingRequests", "WeightedRoundRobin"})
+  public String selector;
+
+  @Param({"2", "16"})
+  public int candidates;
+
+  private ServiceImplementationSelector serviceImplementationSelector;
+
+  @Setup
+  public void setUp() {
+    final var serviceImplementations = ArrayListMultimap.<String, ServiceImplementation>create();
+
+    for (int i = 0; i < candidates; ++i) {
+      serviceImplementations.put("service", new HttpServiceImplementation(
+          new Parameters("service", 1.0 + i, i % 2 == 0, "http", "localhost", 8000 + i, "/service", Method.POST, Version.HTTP_1_1)));
+    }
+
+    serviceImplementationSelector = switch (selector) {
+      case "Random" -> new RandomServiceImplementationSelector(serviceImplementations);
+      case "Optimal" -> new OptimalServiceImplementationSelector(serviceImplementations);
+      case "PowerOfTwoChoices" -> new PowerOfTwoChoicesServiceImplementationSelector(serviceImplementations);
+      case "LeastOutstandingRequests" -> new LeastOutstandingRequestsServiceImplementationSelector(serviceImplementations);
+      case "WeightedRoundRobin" -> new WeightedRoundRobinServiceImplementationSelector(serviceImplementations);
+      default -> throw new IllegalArgumentException("Unknown service implementation selector '%s'".formatted(selector));
+    };
+  }
+
+  @Benchmark
+  public Optional<ServiceImplementation> select() {
+    return serviceImplementationSelector.select("service", false);
+  }
+
+  @Benchmark
+  public Optional<ServiceImplementation> selectLocal() {
+    return serviceImplementationSelector.select("service", true);
+  }
+}
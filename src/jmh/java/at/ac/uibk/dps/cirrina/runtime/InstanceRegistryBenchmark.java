@@ -0,0 +1,164 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.utils.Id;
+import com.google.common.collect.ArrayListMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of fanning out an internal event to nested state machine instances, which requires looking up each nested state
+ * machine instance by its ID.
+ * <p>
+ * The linear benchmark reproduces the previous lookup, a scan over a queue of all state machine instances. The registry benchmark looks
+ * each instance up in the runtime's indexed registry, the runtime itself iterates the registry's parent instance ID index instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstanceRegistryBenchmark {
+
+  private static final String IDLE_DESCRIPTION = """
+      amends "modulepath:/pkl/CollaborativeStateMachineDescription.pkl"
+      import "modulepath:/pkl/CollaborativeStateMachineDescription.pkl" as CSM
+
+      name = "benchmark"
+      version = "2.0"
+      stateMachines {
+          new CSM.StateMachineDescription {
+              name = "idle"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "never"
+                              target = "a"
+                          }
+                      }
+                  }
+              }
+          }
+      }
+      """;
+
+  @Param({"10000"})
+  public int numInstances;
+
+  @Param({"16"})
+  public int numNested;
+
+  private OfflineRuntime runtime;
+
+  private Queue<StateMachine> linearStateMachines;
+
+  private List<Id> nestedIds;
+
+  @Setup
+  public void setUp() {
+    final var parser = new DescriptionParser<>(CollaborativeStateMachineDescription.class);
+    final var collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(IDLE_DESCRIPTION)).build();
+
+    runtime = new OfflineRuntime("benchmark", new NoOpEventHandler(), new InMemoryContext(true),
+        RuntimeOptions.defaults().withExecutionMode(ExecutionMode.EventLoop));
+
+    final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
+    final var ids = new ArrayList<Id>(numInstances);
+
+    for (var i = 0; i < numInstances; ++i) {
+      ids.addAll(runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector));
+    }
+
+    linearStateMachines = new ConcurrentLinkedQueue<>();
+
+    for (final var id : ids) {
+      linearStateMachines.add(runtime.findInstance(id).orElseThrow());
+    }
+
+    // Nested instances are spread over the whole collection
+    final var random = new Random(42);
+
+    nestedIds = new ArrayList<>(numNested);
+
+    for (var i = 0; i < numNested; ++i) {
+      nestedIds.add(ids.get(random.nextInt(ids.size())));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    runtime.shutdown();
+  }
+
+  @Benchmark
+  public void fanOutLinear(Blackhole blackhole) {
+    for (final var nestedId : nestedIds) {
+      blackhole.consume(linearStateMachines.stream()
+          .filter(stateMachine -> stateMachine.getStateMachineInstanceId().equals(nestedId))
+          .findFirst()
+          .orElseThrow());
+    }
+  }
+
+  @Benchmark
+  public void fanOutRegistry(Blackhole blackhole) {
+    for (final var nestedId : nestedIds) {
+      blackhole.consume(runtime.findInstance(nestedId).orElseThrow());
+    }
+  }
+
+  private static final class NoOpEventHandler extends EventHandler {
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void sendEvent(Event event, String source) {
+
+    }
+
+    @Override
+    public void subscribe(String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+
+    }
+
+    @Override
+    public void subscribe(String source, String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String source, String subject) {
+
+    }
+  }
+}
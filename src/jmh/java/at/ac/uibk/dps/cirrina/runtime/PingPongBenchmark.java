@@ -0,0 +1,235 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import com.google.common.collect.ArrayListMultimap;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the number of transitions per second of two state machine instances playing ping-pong through global events.
+ * <p>
+ * Every increment of the shared variable is accompanied by two transitions, a single run therefore takes approximately twice as many
+ * transitions as the variable limit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PingPongBenchmark {
+
+  private static final int LIMIT = 1000;
+
+  private static final int TRANSITIONS_PER_RUN = 2 * LIMIT;
+
+  private static final String PING_PONG_DESCRIPTION = """
+      amends "modulepath:/pkl/CollaborativeStateMachineDescription.pkl"
+      import "modulepath:/pkl/CollaborativeStateMachineDescription.pkl" as CSM
+
+      name = "benchmark"
+      version = "2.0"
+      stateMachines {
+          new CSM.StateMachineDescription {
+              name = "ping"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                      entry {
+                          new CSM.AssignActionDescription {
+                              variable {
+                                  name = "v"
+                                  value = "v + 1"
+                              }
+                          }
+                          new CSM.RaiseActionDescription {
+                              event {
+                                  name = "e1"
+                                  channel = "global"
+                              }
+                          }
+                      }
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e2"
+                              target = "b"
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "b"
+                      entry {
+                          new CSM.RaiseActionDescription {
+                              event {
+                                  name = "e3"
+                                  channel = "global"
+                              }
+                          }
+                      }
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e4"
+                              target = "a"
+                          }
+                      }
+                      always {
+                          new CSM.TransitionDescription {
+                              target = "c"
+                              guards {
+                                  new CSM.GuardDescription {
+                                      expression = "v >= %1$d"
+                                  }
+                              }
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "c"
+                      terminal = true
+                  }
+              }
+          }
+          new CSM.StateMachineDescription {
+              name = "pong"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                      entry {
+                          new CSM.RaiseActionDescription {
+                              event {
+                                  name = "e4"
+                                  channel = "global"
+                              }
+                          }
+                      }
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e1"
+                              target = "b"
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "b"
+                      entry {
+                          new CSM.AssignActionDescription {
+                              variable {
+                                  name = "v"
+                                  value = "v + 1"
+                              }
+                          }
+                          new CSM.RaiseActionDescription {
+                              event {
+                                  name = "e2"
+                                  channel = "global"
+                              }
+                          }
+                      }
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e3"
+                              target = "a"
+                          }
+                      }
+                      always {
+                          new CSM.TransitionDescription {
+                              target = "c"
+                              guards {
+                                  new CSM.GuardDescription {
+                                      expression = "v >= %1$d"
+                                  }
+                              }
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "c"
+                      terminal = true
+                  }
+              }
+          }
+      }
+      """.formatted(LIMIT);
+
+  @Param({"Platform", "Virtual", "EventLoop"})
+  public ExecutionMode executionMode;
+
+  private CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  private OfflineRuntime runtime;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    final var parser = new DescriptionParser<>(CollaborativeStateMachineDescription.class);
+
+    collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(PING_PONG_DESCRIPTION)).build();
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpInvocation() throws IOException {
+    final var persistentContext = new InMemoryContext(true);
+
+    persistentContext.create("v", 0);
+
+    runtime = new OfflineRuntime("benchmark", new LoopbackEventHandler(), persistentContext,
+        RuntimeOptions.defaults().withExecutionMode(executionMode));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSITIONS_PER_RUN)
+  public boolean pingPong() {
+    runtime.newInstance(collaborativeStateMachineClass, new OptimalServiceImplementationSelector(ArrayListMultimap.create()));
+
+    // Shuts the runtime down once both instances have completed
+    return runtime.waitForCompletion(60000);
+  }
+
+  private static final class LoopbackEventHandler extends EventHandler {
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void sendEvent(Event event, String source) {
+      propagateEvent(event);
+    }
+
+    @Override
+    public void subscribe(String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+
+    }
+
+    @Override
+    public void subscribe(String source, String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String source, String subject) {
+
+    }
+  }
+}
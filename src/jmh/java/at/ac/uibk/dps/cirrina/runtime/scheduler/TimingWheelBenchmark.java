@@ -0,0 +1,85 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures arming and cancelling one million timers, as done when a large number of state machine instances enter and leave states with
+ * after actions.
+ * <p>
+ * The scheduled executor benchmark reproduces the previous approach, where timers are kept in a priority queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimingWheelBenchmark {
+
+  private static final int NUM_TIMERS = 1_000_000;
+
+  private static final Runnable NO_OP = () -> {
+  };
+
+  private TimingWheel timingWheel;
+
+  private ScheduledThreadPoolExecutor scheduledExecutor;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    timingWheel = new TimingWheel();
+
+    scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+    scheduledExecutor.setRemoveOnCancelPolicy(true);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    timingWheel.shutdown();
+    scheduledExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TIMERS)
+  public void timingWheel() {
+    final var timeouts = new ArrayList<TimingWheel.Timeout>(NUM_TIMERS);
+
+    for (var i = 0; i < NUM_TIMERS; ++i) {
+      timeouts.add(timingWheel.schedule(NO_OP, delayInMs(i), delayInMs(i)));
+    }
+
+    for (final var timeout : timeouts) {
+      timeout.cancel();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TIMERS)
+  public void scheduledExecutor() {
+    final List<ScheduledFuture<?>> futures = new ArrayList<>(NUM_TIMERS);
+
+    for (var i = 0; i < NUM_TIMERS; ++i) {
+      futures.add(scheduledExecutor.scheduleWithFixedDelay(NO_OP, delayInMs(i), delayInMs(i), TimeUnit.MILLISECONDS));
+    }
+
+    for (final var future : futures) {
+      future.cancel(false);
+    }
+  }
+
+  private static long delayInMs(int i) {
+    // Between one and sixty seconds, so that no timer expires while being measured
+    return 1000 + (i * 7919L) % 59000;
+  }
+}
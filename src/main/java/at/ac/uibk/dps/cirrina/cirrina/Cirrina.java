@@ -2,6 +2,13 @@ package at.ac.uibk.dps.cirrina.cirrina;
 
 import at.ac.uibk.dps.cirrina.cirrina.Cirrina.Args.EventHandler;
 import at.ac.uibk.dps.cirrina.cirrina.Cirrina.Args.PersistentContext;
+import at.ac.uibk.dps.cirrina.execution.object.context.CachedNatsContext.Consistency;
+import at.ac.uibk.dps.cirrina.execution.object.context.FileContext.SyncPolicy;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox.OverflowPolicy;
+import at.ac.uibk.dps.cirrina.runtime.ExecutionMode;
+import at.ac.uibk.dps.cirrina.runtime.LocalContexts;
+import at.ac.uibk.dps.cirrina.runtime.ServiceSelection;
+import at.ac.uibk.dps.cirrina.runtime.TimeoutDelivery;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParametersDelegate;
@@ -20,6 +27,16 @@ public abstract class Cirrina {
 
     @Parameter(names = {"--nats-event-url"}, description = "NATS server connection string for event handling")
     String natsUrl = "nats://localhost:4222/";
+
+    @Parameter(names = {"--nats-event-linger"}, description = "Linger window for batching outbound events in ms, 0 disables batching")
+    long lingerInMs = 0;
+
+    @Parameter(names = {"--nats-event-batch-size"}, description = "Maximum number of outbound events in a batch")
+    int maxBatchSize = 64;
+
+    @Parameter(names = {"--nats-event-interest-only"}, arity = 1,
+        description = "Flag to only send hybrid events through NATS to subjects announced by other hybrid event handlers")
+    boolean interestOnly = false;
   }
 
   /**
@@ -32,6 +49,30 @@ public abstract class Cirrina {
 
     @Parameter(names = {"--nats-bucket"}, description = "Bucket name used for storing the persistent context")
     String bucketName = "persistent";
+
+    @Parameter(names = {"--nats-context-cache"}, arity = 1, description = "Flag to cache the persistent context locally")
+    boolean cache = false;
+
+    @Parameter(names = {"--nats-context-consistency"}, description = "Specifies the consistency of the cached persistent context")
+    Consistency consistency = Consistency.Strong;
+
+    @Parameter(names = {"--nats-context-max-staleness"}, description = "Maximum staleness of the cached persistent context in ms")
+    long maxStalenessInMs = 100;
+
+    @Parameter(names = {"--nats-context-flush-interval"}, description = "Write-behind interval of the cached persistent context in ms")
+    long flushIntervalInMs = 10;
+  }
+
+  /**
+   * File persistent context-specific arguments.
+   */
+  final static class FilePersistentContextArgs {
+
+    @Parameter(names = {"--file-context-path"}, description = "Directory used for storing the persistent context")
+    String path = "persistent";
+
+    @Parameter(names = {"--file-context-sync"}, description = "Specifies when the persistent context is written to the storage device")
+    SyncPolicy syncPolicy = SyncPolicy.OnClose;
   }
 
   /**
@@ -60,6 +101,9 @@ public abstract class Cirrina {
     @ParametersDelegate
     final NatsPersistentContextArgs natsPersistentContextArgs = new NatsPersistentContextArgs();
 
+    @ParametersDelegate
+    final FilePersistentContextArgs filePersistentContextArgs = new FilePersistentContextArgs();
+
     @ParametersDelegate
     final ZooKeeperArgs zooKeeperArgs = new ZooKeeperArgs();
 
@@ -71,6 +115,27 @@ public abstract class Cirrina {
 
     @Parameter(names = {"--delete-job", "-d"}, arity = 1, description = "Flag to delete the job after it is consumed")
     boolean deleteJob = true;
+
+    @Parameter(names = {"--execution-mode", "-x"}, description = "Specifies how state machine instances are executed")
+    ExecutionMode executionMode = ExecutionMode.Platform;
+
+    @Parameter(names = {"--event-queue-capacity"}, description = "Event queue capacity per state machine instance, 0 is unbounded")
+    int eventQueueCapacity = 0;
+
+    @Parameter(names = {"--event-queue-overflow"}, description = "Specifies what happens when a bounded event queue is full")
+    OverflowPolicy eventQueueOverflowPolicy = OverflowPolicy.Block;
+
+    @Parameter(names = {"--timeout-delivery"}, description = "Specifies on which thread the actions of expired timeouts are executed")
+    TimeoutDelivery timeoutDelivery = TimeoutDelivery.Scheduler;
+
+    @Parameter(names = {"--batch-persistent-writes"}, arity = 1, description = "Flag to batch persistent context writes per event")
+    boolean batchPersistentWrites = false;
+
+    @Parameter(names = {"--local-contexts"}, description = "Specifies how local contexts of state machine instances are implemented")
+    LocalContexts localContexts = LocalContexts.Concurrent;
+
+    @Parameter(names = {"--service-selection"}, description = "Specifies how service implementations are selected")
+    ServiceSelection serviceSelection = ServiceSelection.Random;
   }
 
   /**
@@ -95,11 +160,14 @@ public abstract class Cirrina {
     }
 
     enum EventHandler {
-      Nats
+      Nats,
+      InMemory,
+      Hybrid
     }
 
     enum PersistentContext {
-      Nats
+      Nats,
+      File
     }
   }
 
@@ -1,15 +1,21 @@
 package at.ac.uibk.dps.cirrina.cirrina;
 
+import at.ac.uibk.dps.cirrina.execution.object.context.CachedNatsContext;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
+import at.ac.uibk.dps.cirrina.execution.object.context.FileContext;
 import at.ac.uibk.dps.cirrina.execution.object.context.NatsContext;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.event.HybridEventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.event.InMemoryEventHandler;
 import at.ac.uibk.dps.cirrina.execution.object.event.NatsEventHandler;
 import at.ac.uibk.dps.cirrina.runtime.OnlineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeOptions;
 import at.ac.uibk.dps.cirrina.utils.Id;
 import info.schnatterer.mobynamesgenerator.MobyNamesGenerator;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
 import java.io.IOException;
+import java.nio.file.Path;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
@@ -46,8 +52,8 @@ public class CirrinaRuntime extends Cirrina {
   public void run() {
     // Connect to event system
     try (final var eventHandler = newEventHandler()) {
-      eventHandler.subscribe(NatsEventHandler.GLOBAL_SOURCE, "*");
-      eventHandler.subscribe(NatsEventHandler.PERIPHERAL_SOURCE, "*");
+      eventHandler.subscribe(EventHandler.GLOBAL_SOURCE, "*");
+      eventHandler.subscribe(EventHandler.PERIPHERAL_SOURCE, "*");
 
       // Connect to persistent context system and ZooKeeper
       try (final var persistentContext = newPersistentContext()
@@ -68,7 +74,14 @@ public class CirrinaRuntime extends Cirrina {
             persistentContext,
             openTelemetry,
             curatorFramework,
-            args.runtimeArgs.deleteJob);
+            args.runtimeArgs.deleteJob,
+            RuntimeOptions.defaults()
+                .withExecutionMode(args.runtimeArgs.executionMode)
+                .withEventQueue(args.runtimeArgs.eventQueueCapacity, args.runtimeArgs.eventQueueOverflowPolicy)
+                .withTimeoutDelivery(args.runtimeArgs.timeoutDelivery)
+                .withLocalContexts(args.runtimeArgs.localContexts)
+                .withBatchPersistentWrites(args.runtimeArgs.batchPersistentWrites)
+                .withServiceSelection(args.runtimeArgs.serviceSelection));
 
         logger.info("Starting runtime: {}", name);
 
@@ -98,6 +111,12 @@ public class CirrinaRuntime extends Cirrina {
       case Nats -> {
         return newNatsEventHandler();
       }
+      case InMemory -> {
+        return new InMemoryEventHandler();
+      }
+      case Hybrid -> {
+        return newHybridEventHandler();
+      }
     }
 
     throw new IllegalArgumentException("Unknown event handler '%s'".formatted(args.runtimeArgs.eventHandler));
@@ -110,7 +129,21 @@ public class CirrinaRuntime extends Cirrina {
    * @throws IOException If the event handler could not be constructed.
    */
   private NatsEventHandler newNatsEventHandler() throws IOException {
-    return new NatsEventHandler(args.runtimeArgs.natsEventHandlerArgs.natsUrl);
+    final var natsEventHandlerArgs = args.runtimeArgs.natsEventHandlerArgs;
+
+    return new NatsEventHandler(natsEventHandlerArgs.natsUrl, natsEventHandlerArgs.lingerInMs, natsEventHandlerArgs.maxBatchSize);
+  }
+
+  /**
+   * Constructs a new hybrid event handler according to the provided arguments.
+   *
+   * @return Event handler.
+   * @throws IOException If the event handler could not be constructed.
+   */
+  private HybridEventHandler newHybridEventHandler() throws IOException {
+    final var natsEventHandlerArgs = args.runtimeArgs.natsEventHandlerArgs;
+
+    return new HybridEventHandler(natsEventHandlerArgs.natsUrl, natsEventHandlerArgs.interestOnly);
   }
 
   /**
@@ -125,6 +158,9 @@ public class CirrinaRuntime extends Cirrina {
       case Nats -> {
         return newNatsPersistentContext();
       }
+      case File -> {
+        return newFilePersistentContext();
+      }
     }
 
     throw new IllegalArgumentException("Unknown persistent context '%s'".formatted(args.runtimeArgs.eventHandler));
@@ -136,9 +172,44 @@ public class CirrinaRuntime extends Cirrina {
    * @return Persistent context.
    * @throws IOException If the persistent context could not be constructed.
    */
-  private NatsContext newNatsPersistentContext() throws IOException {
-    return new NatsContext(false, args.runtimeArgs.natsPersistentContextArgs.natsUrl,
-        args.runtimeArgs.natsPersistentContextArgs.bucketName);
+  private Context newNatsPersistentContext() throws IOException {
+    final var natsPersistentContextArgs = args.runtimeArgs.natsPersistentContextArgs;
+
+    final var natsContext = new NatsContext(false, natsPersistentContextArgs.natsUrl, natsPersistentContextArgs.bucketName);
+
+    if (!natsPersistentContextArgs.cache) {
+      return natsContext;
+    }
+
+    try {
+      return new CachedNatsContext(
+          natsContext,
+          natsPersistentContextArgs.consistency,
+          natsPersistentContextArgs.maxStalenessInMs,
+          natsPersistentContextArgs.flushIntervalInMs
+      );
+    } catch (IOException | RuntimeException e) {
+      // Do not leak the connection of the NATS context
+      try {
+        natsContext.close();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * Constructs a new file persistent context according to the provided arguments.
+   *
+   * @return Persistent context.
+   * @throws IOException If the persistent context could not be constructed.
+   */
+  private FileContext newFilePersistentContext() throws IOException {
+    final var filePersistentContextArgs = args.runtimeArgs.filePersistentContextArgs;
+
+    return new FileContext(false, Path.of(filePersistentContextArgs.path), filePersistentContextArgs.syncPolicy);
   }
 
   /**
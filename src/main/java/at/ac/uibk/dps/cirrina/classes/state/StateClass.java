@@ -1,9 +1,12 @@
 package at.ac.uibk.dps.cirrina.classes.state;
 
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextDescription;
+import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
+import at.ac.uibk.dps.cirrina.execution.command.CommandFactory;
 import at.ac.uibk.dps.cirrina.execution.object.action.Action;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraph;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraphBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.io.plantuml.Exportable;
 import at.ac.uibk.dps.cirrina.io.plantuml.PlantUmlVisitor;
 import jakarta.annotation.Nullable;
@@ -65,6 +68,31 @@ public final class StateClass implements Exportable {
    */
   private final ActionGraph afterActionGraph;
 
+  /**
+   * The entry action commands, in order of execution.
+   */
+  private final List<ActionCommand> entryActionCommands;
+
+  /**
+   * The exit action commands, in order of execution.
+   */
+  private final List<ActionCommand> exitActionCommands;
+
+  /**
+   * The while action commands, in order of execution.
+   */
+  private final List<ActionCommand> whileActionCommands;
+
+  /**
+   * The timeout actions, in order of execution.
+   */
+  private final List<TimeoutAction> timeoutActions;
+
+  /**
+   * The action commands of the timeout actions, in the order of the timeout actions.
+   */
+  private final List<ActionCommand> timeoutActionCommands;
+
   /**
    * Initializes this state class instance.
    *
@@ -84,6 +112,12 @@ public final class StateClass implements Exportable {
     this.exitActionGraph = ActionGraphBuilder.from(baseParameters.exitActions).build();
     this.whileActionGraph = ActionGraphBuilder.from(baseParameters.whileActions).build();
     this.afterActionGraph = ActionGraphBuilder.from(baseParameters.afterActions).build();
+
+    this.entryActionCommands = CommandFactory.createActionCommands(entryActionGraph.getOrderedActions());
+    this.exitActionCommands = CommandFactory.createActionCommands(exitActionGraph.getOrderedActions());
+    this.whileActionCommands = CommandFactory.createActionCommands(whileActionGraph.getOrderedActions());
+    this.timeoutActions = orderedTimeoutActions(afterActionGraph);
+    this.timeoutActionCommands = CommandFactory.createActionCommands(timeoutActions.stream().map(TimeoutAction::getAction).toList());
   }
 
   /**
@@ -107,6 +141,24 @@ public final class StateClass implements Exportable {
     this.exitActionGraph = ActionGraphBuilder.extend(new ActionGraph(baseState.exitActionGraph), childParameters.exitActions).build();
     this.whileActionGraph = ActionGraphBuilder.extend(new ActionGraph(baseState.whileActionGraph), childParameters.whileActions).build();
     this.afterActionGraph = ActionGraphBuilder.extend(new ActionGraph(baseState.afterActionGraph), childParameters.afterActions).build();
+
+    this.entryActionCommands = CommandFactory.createActionCommands(entryActionGraph.getOrderedActions());
+    this.exitActionCommands = CommandFactory.createActionCommands(exitActionGraph.getOrderedActions());
+    this.whileActionCommands = CommandFactory.createActionCommands(whileActionGraph.getOrderedActions());
+    this.timeoutActions = orderedTimeoutActions(afterActionGraph);
+    this.timeoutActionCommands = CommandFactory.createActionCommands(timeoutActions.stream().map(TimeoutAction::getAction).toList());
+  }
+
+  /**
+   * Returns the timeout actions contained in an after action graph in order of execution.
+   *
+   * @param afterActionGraph After action graph.
+   * @return Immutable list of timeout actions.
+   */
+  private static List<TimeoutAction> orderedTimeoutActions(ActionGraph afterActionGraph) {
+    return afterActionGraph.getOrderedActions().stream()
+        .map(TimeoutAction.class::cast)
+        .toList();
   }
 
   /**
@@ -210,6 +262,53 @@ public final class StateClass implements Exportable {
     return afterActionGraph;
   }
 
+  /**
+   * Returns the precomputed entry action commands, in order of execution.
+   * <p>
+   * Action commands are stateless and shared by all state instances of this state class.
+   *
+   * @return Entry action commands.
+   */
+  public List<ActionCommand> getEntryActionCommands() {
+    return entryActionCommands;
+  }
+
+  /**
+   * Returns the precomputed exit action commands, in order of execution.
+   *
+   * @return Exit action commands.
+   */
+  public List<ActionCommand> getExitActionCommands() {
+    return exitActionCommands;
+  }
+
+  /**
+   * Returns the precomputed while action commands, in order of execution.
+   *
+   * @return While action commands.
+   */
+  public List<ActionCommand> getWhileActionCommands() {
+    return whileActionCommands;
+  }
+
+  /**
+   * Returns the timeout actions, in order of execution.
+   *
+   * @return Timeout actions.
+   */
+  public List<TimeoutAction> getTimeoutActions() {
+    return timeoutActions;
+  }
+
+  /**
+   * Returns the precomputed action commands of the timeout actions, in the order of the timeout actions.
+   *
+   * @return Timeout action commands.
+   */
+  public List<ActionCommand> getTimeoutActionCommands() {
+    return timeoutActionCommands;
+  }
+
   /**
    * Returns the actions of a specific type.
    *
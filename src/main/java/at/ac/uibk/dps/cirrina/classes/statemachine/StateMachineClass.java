@@ -47,6 +47,11 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    */
   private final @Nullable ContextDescription localContextClass;
 
+  /**
+   * The compiled transition table, can be null in case the transition table has not been compiled yet.
+   */
+  private @Nullable TransitionTable transitionTable;
+
   /**
    * Initializes this state machine class instance.
    *
@@ -107,6 +112,10 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    * @return The list of on-transitions.
    */
   public List<OnTransitionClass> findOnTransitionsFromStateByEventName(StateClass fromStateClass, String eventName) {
+    if (transitionTable != null) {
+      return transitionTable.findOnTransitions(fromStateClass, eventName);
+    }
+
     return outgoingEdgesOf(fromStateClass).stream()
         .filter(OnTransitionClass.class::isInstance)
         .map(OnTransitionClass.class::cast)
@@ -121,11 +130,23 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    * @return The list of always-transitions.
    */
   public List<TransitionClass> findAlwaysTransitionsFromState(StateClass fromStateClass) {
+    if (transitionTable != null) {
+      return transitionTable.findAlwaysTransitions(fromStateClass);
+    }
+
     return outgoingEdgesOf(fromStateClass).stream()
         .filter(transition -> !(transition instanceof OnTransitionClass))
         .toList();
   }
 
+  /**
+   * Compiles the transition table, used to find transitions once the structure of this state machine class is complete. Any later change in
+   * structure requires recompilation.
+   */
+  void compileTransitionTable() {
+    transitionTable = new TransitionTable(this);
+  }
+
   /**
    * Returns the collection of nested state machine classes.
    *
@@ -128,6 +128,9 @@ public final class StateMachineClassBuilder {
           processTransitions.accept(stateClass.getAlways());
         });
 
+    // The structure is complete, compile the transition table shared by all instances
+    stateMachine.compileTransitionTable();
+
     return stateMachine;
   }
 }
@@ -0,0 +1,132 @@
+package at.ac.uibk.dps.cirrina.classes.statemachine;
+
+import at.ac.uibk.dps.cirrina.classes.state.StateClass;
+import at.ac.uibk.dps.cirrina.classes.transition.OnTransitionClass;
+import at.ac.uibk.dps.cirrina.classes.transition.TransitionClass;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transition table, the outgoing transitions of a state machine class compiled into lookup tables.
+ * <p>
+ * On transitions are indexed by state index and event ID, always transitions by state index. All transition lists are immutable and
+ * computed once, looking up transitions does not allocate. A transition table is shared by all instances of a state machine class.
+ * <p>
+ * The transition table reflects the state machine class at the time of compilation.
+ */
+final class TransitionTable {
+
+  /**
+   * State indices by state class, state classes are compared by identity.
+   */
+  private final Map<StateClass, Integer> stateIndices = new IdentityHashMap<>();
+
+  /**
+   * Event IDs by event name.
+   */
+  private final Map<String, Integer> eventIds = new HashMap<>();
+
+  /**
+   * On transitions by state index and event ID.
+   */
+  private final List<OnTransitionClass>[][] onTransitions;
+
+  /**
+   * Always transitions by state index.
+   */
+  private final List<TransitionClass>[] alwaysTransitions;
+
+  /**
+   * Compiles the transition table of a state machine class.
+   *
+   * @param stateMachineClass State machine class.
+   */
+  @SuppressWarnings("unchecked")
+  TransitionTable(StateMachineClass stateMachineClass) {
+    final var stateClasses = List.copyOf(stateMachineClass.vertexSet());
+
+    // Assign state indices and event IDs
+    for (var i = 0; i < stateClasses.size(); ++i) {
+      stateIndices.put(stateClasses.get(i), i);
+    }
+
+    for (final var transitionClass : stateMachineClass.edgeSet()) {
+      if (transitionClass instanceof OnTransitionClass onTransitionClass) {
+        eventIds.putIfAbsent(onTransitionClass.getEventName(), eventIds.size());
+      }
+    }
+
+    onTransitions = new List[stateClasses.size()][eventIds.size()];
+    alwaysTransitions = new List[stateClasses.size()];
+
+    // Compile the outgoing transitions of each state, maintaining their order
+    for (var i = 0; i < stateClasses.size(); ++i) {
+      final var onTransitionsByEventId = new ArrayList<List<OnTransitionClass>>(eventIds.size());
+      final var stateAlwaysTransitions = new ArrayList<TransitionClass>();
+
+      for (var j = 0; j < eventIds.size(); ++j) {
+        onTransitionsByEventId.add(new ArrayList<>());
+      }
+
+      for (final var transitionClass : stateMachineClass.outgoingEdgesOf(stateClasses.get(i))) {
+        if (transitionClass instanceof OnTransitionClass onTransitionClass) {
+          onTransitionsByEventId.get(eventIds.get(onTransitionClass.getEventName())).add(onTransitionClass);
+        } else {
+          stateAlwaysTransitions.add(transitionClass);
+        }
+      }
+
+      for (var j = 0; j < eventIds.size(); ++j) {
+        onTransitions[i][j] = List.copyOf(onTransitionsByEventId.get(j));
+      }
+
+      alwaysTransitions[i] = List.copyOf(stateAlwaysTransitions);
+    }
+  }
+
+  /**
+   * Returns the on transitions from a state that are triggered by a given event name.
+   *
+   * @param fromStateClass From state.
+   * @param eventName      Event name.
+   * @return The list of on transitions.
+   * @throws IllegalArgumentException If the state is not part of the compiled state machine class.
+   */
+  List<OnTransitionClass> findOnTransitions(StateClass fromStateClass, String eventName) throws IllegalArgumentException {
+    final var stateIndex = stateIndexOf(fromStateClass);
+    final var eventId = eventIds.get(eventName);
+
+    return eventId == null ? List.of() : onTransitions[stateIndex][eventId];
+  }
+
+  /**
+   * Returns the always transitions from a state.
+   *
+   * @param fromStateClass From state.
+   * @return The list of always transitions.
+   * @throws IllegalArgumentException If the state is not part of the compiled state machine class.
+   */
+  List<TransitionClass> findAlwaysTransitions(StateClass fromStateClass) throws IllegalArgumentException {
+    return alwaysTransitions[stateIndexOf(fromStateClass)];
+  }
+
+  /**
+   * Returns the index of a state.
+   *
+   * @param stateClass State.
+   * @return State index.
+   * @throws IllegalArgumentException If the state is not part of the compiled state machine class.
+   */
+  private int stateIndexOf(StateClass stateClass) throws IllegalArgumentException {
+    final var stateIndex = stateIndices.get(stateClass);
+
+    if (stateIndex == null) {
+      throw new IllegalArgumentException("The state '%s' is not part of the state machine".formatted(stateClass.getName()));
+    }
+
+    return stateIndex;
+  }
+}
@@ -1,6 +1,8 @@
 package at.ac.uibk.dps.cirrina.classes.transition;
 
 import at.ac.uibk.dps.cirrina.classes.state.StateClass;
+import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
+import at.ac.uibk.dps.cirrina.execution.command.CommandFactory;
 import at.ac.uibk.dps.cirrina.execution.object.action.Action;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraph;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraphBuilder;
@@ -46,6 +48,11 @@ public class TransitionClass extends DefaultEdge implements Exportable {
    */
   private final ActionGraph actionGraph;
 
+  /**
+   * The action commands, in order of execution.
+   */
+  private final List<ActionCommand> actionCommands;
+
   /**
    * Initializes this transition object.
    *
@@ -60,6 +67,8 @@ public class TransitionClass extends DefaultEdge implements Exportable {
     this.elseTargetStateName = elseTargetStateName;
 
     this.actionGraph = ActionGraphBuilder.from(actions).build();
+
+    this.actionCommands = CommandFactory.createActionCommands(actionGraph.getOrderedActions());
   }
 
   /**
@@ -132,6 +141,17 @@ public class TransitionClass extends DefaultEdge implements Exportable {
     return actionGraph;
   }
 
+  /**
+   * Returns the precomputed action commands, in order of execution.
+   * <p>
+   * Action commands are stateless and shared by all state machine instances.
+   *
+   * @return Action commands.
+   */
+  public List<ActionCommand> getActionCommands() {
+    return actionCommands;
+  }
+
   /**
    * Returns the name of the target state.
    *
@@ -3,51 +3,121 @@ package at.ac.uibk.dps.cirrina.execution.command;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_DATA_LATENCY;
 
 import at.ac.uibk.dps.cirrina.execution.object.action.AssignAction;
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
 import at.ac.uibk.dps.cirrina.execution.object.expression.Expression;
+import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
 import at.ac.uibk.dps.cirrina.utils.Time;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Action assign command, assigns a value to a context variable.
+ * <p>
+ * An assignment of which the value expression references the assigned variable is a read-modify-write, and is applied as an update of the
+ * variable, such that contexts supporting compare-and-set do not lose concurrent updates. An increment of the form {@code x + delta}, where
+ * the delta is a literal or a different variable, is applied by adding the delta to the current value, without re-evaluating the
+ * expression.
+ */
 public final class ActionAssignCommand extends ActionCommand {
 
   private static final Logger logger = LogManager.getLogger();
 
+  /**
+   * Pattern of an increment expression, a sum of which the right operand is a number, string literal or variable.
+   */
+  private static final Pattern INCREMENT_PATTERN = Pattern.compile(
+      "^\\s*([A-Za-z_$][\\w$]*)\\s*\\+\\s*(-?\\d+(?:\\.\\d+)?|'[^']*'|\"[^\"]*\"|[A-Za-z_$][\\w$.]*)\\s*$");
+
   private final AssignAction assignAction;
 
-  ActionAssignCommand(ExecutionContext executionContext, AssignAction assignAction) {
-    super(executionContext);
+  /**
+   * Flag that indicates if the value expression references the assigned variable.
+   */
+  private final boolean isReadModifyWrite;
+
+  /**
+   * Delta expression in case the value expression is an increment of the assigned variable, otherwise null.
+   */
+  private final @Nullable Expression deltaExpression;
 
+  ActionAssignCommand(AssignAction assignAction) {
     this.assignAction = assignAction;
-  }
 
-  @Override
-  public List<ActionCommand> execute() throws UnsupportedOperationException {
-    final var start = Time.timeInMillisecondsSinceStart();
+    final var variable = assignAction.getVariable();
 
-    final var commands = new ArrayList<ActionCommand>();
+    isReadModifyWrite = variable.isLazy() && ((Expression) variable.value()).references(variable.name());
 
-    try {
-      final var variable = assignAction.getVariable();
-      final var variableName = variable.name();
+    deltaExpression = isReadModifyWrite ? incrementDelta(variable.name(), ((Expression) variable.value()).getSource()) : null;
+  }
 
-      final var extent = executionContext.scope().getExtent();
+  /**
+   * Returns the delta expression of an increment of a variable.
+   *
+   * @param name   Name of the variable.
+   * @param source Source of the value expression.
+   * @return Delta expression or null in case the value expression is not an increment of the variable.
+   */
+  private static @Nullable Expression incrementDelta(String name, String source) {
+    final var matcher = INCREMENT_PATTERN.matcher(source);
+
+    if (!matcher.matches() || !matcher.group(1).equals(name)) {
+      return null;
+    }
 
-      // Acquire the value, in case the variable is lazy, we have to find the value through evaluating the value expression
-      Object value = null;
-      if (variable.isLazy()) {
-        final var expression = variable.value();
+    final var deltaExpression = ExpressionBuilder.from(matcher.group(2)).build();
 
-        assert expression instanceof Expression;
-        value = ((Expression) expression).execute(extent);
-      } else {
-        value = variable.value();
+    return deltaExpression.references(name) ? null : deltaExpression;
+  }
+
+  /**
+   * Adds a delta to a value, supporting integral and floating point numbers and string concatenation.
+   *
+   * @param value Value.
+   * @param delta Delta.
+   * @return Sum or null in case the sum is not supported for the provided types.
+   */
+  private static @Nullable Object add(Object value, Object delta) {
+    if (isIntegral(value) && isIntegral(delta)) {
+      final var sum = ((Number) value).longValue() + ((Number) delta).longValue();
+
+      // Keep integers as integers, unless the sum overflows
+      if (value instanceof Integer && delta instanceof Integer && sum == (int) sum) {
+        return (int) sum;
       }
 
-      // Attempt to set the variable
-      final var result = extent.trySet(variableName, value);
+      return sum;
+    }
+
+    if (isNumeric(value) && isNumeric(delta)) {
+      return ((Number) value).doubleValue() + ((Number) delta).doubleValue();
+    }
+
+    if (value instanceof String string && delta instanceof String otherString) {
+      return string + otherString;
+    }
+
+    return null;
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  private static boolean isNumeric(Object value) {
+    return isIntegral(value) || value instanceof Double || value instanceof Float;
+  }
+
+  @Override
+  public List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException {
+    final var start = Time.timeInMillisecondsSinceStart();
+
+    try {
+      final var result = assign(executionContext.scope().getExtent());
 
       // Measure latency
       final var now = Time.timeInMillisecondsSinceStart();
@@ -66,6 +136,88 @@ public final class ActionAssignCommand extends ActionCommand {
       logger.error("Data assignment failed: {}", e.getMessage());
     }
 
-    return commands;
+    return List.of();
+  }
+
+  /**
+   * Assigns the value to the variable, a read-modify-write is applied as an update of the current value.
+   *
+   * @param extent Extent.
+   * @return Set result.
+   * @throws IOException If the variable could not be assigned to.
+   */
+  Extent.SetResult assign(Extent extent) throws IOException {
+    final var variable = assignAction.getVariable();
+    final var variableName = variable.name();
+
+    if (isReadModifyWrite) {
+      return update(variableName, (Expression) variable.value(), extent);
+    }
+
+    // Acquire the value, in case the variable is lazy, we have to find the value through evaluating the value expression
+    Object value = null;
+    if (variable.isLazy()) {
+      final var expression = variable.value();
+
+      assert expression instanceof Expression;
+      value = ((Expression) expression).execute(extent);
+    } else {
+      value = variable.value();
+    }
+
+    return extent.trySet(variableName, value);
+  }
+
+  /**
+   * Updates a variable, applying the value expression to its current value.
+   *
+   * @param variableName Name of the variable.
+   * @param expression   Value expression.
+   * @param extent       Extent.
+   * @return Set result.
+   * @throws IOException If the variable could not be updated.
+   */
+  private Extent.SetResult update(String variableName, Expression expression, Extent extent) throws IOException {
+    // The delta does not depend on the current value, evaluate it once
+    final var delta = deltaExpression != null ? deltaExpression.execute(extent) : null;
+
+    return extent.tryUpdate(variableName, currentValue -> {
+      if (delta != null) {
+        final var sum = add(currentValue, delta);
+
+        if (sum != null) {
+          return sum;
+        }
+      }
+
+      // Evaluate the value expression against the current value, which may differ from the value resolved through the extent
+      final var currentValueContext = new InMemoryContext(true);
+
+      try {
+        currentValueContext.create(variableName, currentValue);
+      } catch (IOException e) {
+        throw new IllegalStateException(e); // This should not happen
+      }
+
+      return expression.execute(extent.extend(currentValueContext));
+    });
+  }
+
+  /**
+   * Returns whether the value expression is an increment of the assigned variable, which is applied without re-evaluating the expression.
+   *
+   * @return True if an increment, otherwise false.
+   */
+  boolean isIncrement() {
+    return deltaExpression != null;
+  }
+
+  /**
+   * Returns whether the value expression references the assigned variable, which is applied as an update of the current value.
+   *
+   * @return True if a read-modify-write, otherwise false.
+   */
+  boolean isReadModifyWrite() {
+    return isReadModifyWrite;
   }
 }
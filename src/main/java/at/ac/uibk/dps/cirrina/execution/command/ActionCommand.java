@@ -5,14 +5,11 @@ import java.util.List;
 /**
  * ActionCommand, represents the interface to commands that can be entered into a state machine's actionCommand queue. Commands can be
  * executed and may produce new commands and have side effects.
+ * <p>
+ * An action command holds no execution state, it is executed against the execution context provided. Therefore, an action command is
+ * created once per action and shared by all state machine instances.
  */
 public abstract class ActionCommand {
 
-  protected final ExecutionContext executionContext;
-
-  public ActionCommand(ExecutionContext executionContext) {
-    this.executionContext = executionContext;
-  }
-
-  public abstract List<ActionCommand> execute() throws UnsupportedOperationException;
+  public abstract List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException;
 }
@@ -9,9 +9,14 @@ import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementation;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationStatistics;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceInvocationCoalescer;
 import at.ac.uibk.dps.cirrina.utils.Time;
-import java.util.ArrayList;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -33,48 +38,101 @@ public final class ActionInvokeCommand extends ActionCommand {
   /**
    * Initializes this action invoke commands.
    *
-   * @param executionContext Execution context.
-   * @param invokeAction     Invoke action.
+   * @param invokeAction Invoke action.
    */
-  ActionInvokeCommand(ExecutionContext executionContext, InvokeAction invokeAction) {
-    super(executionContext);
-
+  ActionInvokeCommand(InvokeAction invokeAction) {
     this.invokeAction = invokeAction;
   }
 
   @Override
-  public List<ActionCommand> execute() throws UnsupportedOperationException {
-    incrementInvocationCounter();
+  public List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException {
+    incrementInvocationCounter(executionContext);
     final var start = Time.timeInMillisecondsSinceStart();
 
     try {
-      final var serviceImplementation = selectServiceImplementation();
-
-      final var commands = new ArrayList<ActionCommand>();
-
       final var extent = executionContext.scope().getExtent();
       final var eventListener = executionContext.eventListener();
 
       List<ContextVariable> input = prepareInput(extent);
 
-      // Invoke (asynchronously)
-      serviceImplementation.invoke(input, executionContext.scope().getId())
+      final var id = executionContext.scope().getId();
+
+      // The selected service implementation, remains null if the output of an identical invocation in-flight is shared
+      final var serviceImplementation = new AtomicReference<ServiceImplementation>();
+
+      final ServiceInvocationCoalescer.Invoker invoker = () -> {
+        serviceImplementation.set(selectServiceImplementation(executionContext));
+
+        return invoke(serviceImplementation.get(), input, id);
+      };
+
+      // Invoke (asynchronously), sharing an identical invocation in-flight if coalescing, in which case a service implementation is only
+      // selected if the invocation is performed
+      final var invocation = invokeAction.isCoalesce() ?
+          executionContext.serviceImplementationSelector().getInvocationCoalescer().invoke(
+              invokeAction.getServiceType(), invokeAction.isLocal(), input, invoker) :
+          invoker.invoke();
+
+      invocation
           .exceptionally(e -> {
-            logger.error("Service invocation failed for service '{}': {}",
-                serviceImplementation.getInformationString(), e.getMessage(), e);
+            logger.error("Service invocation failed for service '{}': {}", serviceImplementation.get() != null ?
+                serviceImplementation.get().getInformationString() : invokeAction.getServiceType(), e.getMessage(), e);
             return null;
           }).thenAccept(output -> {
-            assignServiceOutput(output, extent);
+            // A failed invocation has no output, and is already logged
+            if (output == null) {
+              return;
+            }
+
+            // Assign the output through the mutation executor, the extent may only be mutated by the owning state machine instance. The
+            // owning state machine instance executes enqueued mutations before handling the next event, including the raised done events
+            executionContext.mutationExecutor().execute(() -> assignServiceOutput(output, extent));
+
             raiseEvents(output, eventListener);
-            measurePerformance(start, serviceImplementation);
+            measurePerformance(executionContext, start, serviceImplementation.get());
           });
 
-      return commands;
+      return List.of();
     } catch (Exception e) {
       throw new UnsupportedOperationException("Could not execute invoke action", e);
     }
   }
 
+  /**
+   * Invokes a service implementation, measuring its statistics.
+   * <p>
+   * The latency is measured from the invocation of the service implementation, excluding the time spent selecting it and preparing the
+   * input.
+   *
+   * @param serviceImplementation Service implementation.
+   * @param input                 Input to the service invocation.
+   * @param id                    Sender ID.
+   * @return The service invocation output.
+   * @throws IOException If the service invocation failed.
+   */
+  private CompletableFuture<List<ContextVariable>> invoke(
+      ServiceImplementation serviceImplementation,
+      List<ContextVariable> input,
+      String id
+  ) throws IOException {
+    final var statistics = serviceImplementation.getStatistics();
+
+    statistics.begin();
+
+    final var start = Time.timeInMillisecondsSinceStart();
+
+    final CompletableFuture<List<ContextVariable>> invocation;
+
+    try {
+      invocation = serviceImplementation.invoke(input, id);
+    } catch (IOException | RuntimeException e) {
+      measureStatistics(statistics, start, true);
+      throw e;
+    }
+
+    return invocation.whenComplete((output, e) -> measureStatistics(statistics, start, e != null));
+  }
+
   /**
    * Evaluate all input variables.
    *
@@ -88,8 +146,10 @@ public final class ActionInvokeCommand extends ActionCommand {
 
   /**
    * Increment the invocation counter.
+   *
+   * @param executionContext Execution context.
    */
-  private void incrementInvocationCounter() {
+  private void incrementInvocationCounter(ExecutionContext executionContext) {
     executionContext.counters().getCounter(COUNTER_INVOCATIONS)
         .add(1, executionContext.counters().attributesForInvocation());
   }
@@ -97,9 +157,10 @@ public final class ActionInvokeCommand extends ActionCommand {
   /**
    * Selects the service implementation for the service type of this action.
    *
+   * @param executionContext Execution context.
    * @return The service implementation.
    */
-  private ServiceImplementation selectServiceImplementation() {
+  private ServiceImplementation selectServiceImplementation(ExecutionContext executionContext) {
     final var serviceType = invokeAction.getServiceType();
     final var isLocal = invokeAction.isLocal();
     final var serviceImplementationSelector = executionContext.serviceImplementationSelector();
@@ -152,20 +213,37 @@ public final class ActionInvokeCommand extends ActionCommand {
         .forEach(eventListener::onReceiveEvent);
   }
 
+  /**
+   * Measure the statistics of the service implementation as the invocation completes, such that the measured latency does not include the
+   * time until the owning state machine instance handles the output.
+   *
+   * @param statistics Service implementation statistics.
+   * @param start      Start time.
+   * @param failed     True if the invocation failed, otherwise false.
+   */
+  private void measureStatistics(ServiceImplementationStatistics statistics, double start, boolean failed) {
+    statistics.end(Time.timeInMillisecondsSinceStart() - start, failed);
+  }
+
   /**
    * Measure the performance of the service invocation.
    *
+   * @param executionContext      Execution context.
    * @param start                 Start time.
-   * @param serviceImplementation Service implementation.
+   * @param serviceImplementation Service implementation, or null if the output of an identical invocation is shared.
    */
-  private void measurePerformance(double start, ServiceImplementation serviceImplementation) {
+  private void measurePerformance(
+      ExecutionContext executionContext,
+      double start,
+      @Nullable ServiceImplementation serviceImplementation
+  ) {
     // Measure latency
     final var now = Time.timeInMillisecondsSinceStart();
     final var gauges = executionContext.gauges();
 
     gauges.getGauge(GAUGE_ACTION_INVOKE_LATENCY).set(now - start,
         gauges.attributesForInvocation(
-            serviceImplementation.isLocal() ? "local" : "remote"
+            serviceImplementation == null ? "coalesced" : serviceImplementation.isLocal() ? "local" : "remote"
         ));
 
     // Measure inclusive response time
@@ -1,8 +1,12 @@
 package at.ac.uibk.dps.cirrina.execution.command;
 
 import at.ac.uibk.dps.cirrina.execution.object.action.MatchAction;
+import at.ac.uibk.dps.cirrina.execution.object.expression.Expression;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -12,32 +16,36 @@ public final class ActionMatchCommand extends ActionCommand {
 
   private final MatchAction matchAction;
 
-  ActionMatchCommand(ExecutionContext executionContext, MatchAction matchAction) {
-    super(executionContext);
+  private final Map<Expression, ActionCommand> caseActionCommands;
 
+  ActionMatchCommand(MatchAction matchAction) {
     this.matchAction = matchAction;
+
+    // Precompute the case action commands, maintaining the order of cases
+    final var caseActionCommands = new LinkedHashMap<Expression, ActionCommand>();
+
+    for (var entry : matchAction.getCase().entrySet()) {
+      caseActionCommands.put(entry.getKey(), CommandFactory.createActionCommand(entry.getValue()));
+    }
+
+    this.caseActionCommands = Collections.unmodifiableMap(caseActionCommands);
   }
 
   @Override
-  public List<ActionCommand> execute() throws UnsupportedOperationException {
+  public List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException {
     final var commands = new ArrayList<ActionCommand>();
 
     try {
       final var extent = executionContext.scope().getExtent();
       final var conditionValue = matchAction.getValue().execute(extent);
 
-      final var commandFactory = new CommandFactory(executionContext);
-
       // Find matching conditions and append the commands to the set of new commands
-      for (var entry : matchAction.getCase().entrySet()) {
+      for (var entry : caseActionCommands.entrySet()) {
         final var caseValue = entry.getKey().execute(extent);
-        final var caseAction = entry.getValue();
 
         // In case the case condition matches, add the case action
         if (conditionValue == caseValue) {
-          final var command = commandFactory.createActionCommand(caseAction);
-
-          commands.add(command);
+          commands.add(entry.getValue());
         }
       }
     } catch (UnsupportedOperationException e) {
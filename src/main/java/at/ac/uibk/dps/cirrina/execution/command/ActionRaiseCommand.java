@@ -4,9 +4,7 @@ import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescript
 import at.ac.uibk.dps.cirrina.execution.object.action.RaiseAction;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -16,18 +14,12 @@ public final class ActionRaiseCommand extends ActionCommand {
 
   private final RaiseAction raiseAction;
 
-  private final AtomicReference<Double> latency = new AtomicReference<>();
-
-  ActionRaiseCommand(ExecutionContext executionContext, RaiseAction raiseAction) {
-    super(executionContext);
-
+  ActionRaiseCommand(RaiseAction raiseAction) {
     this.raiseAction = raiseAction;
   }
 
   @Override
-  public List<ActionCommand> execute() throws UnsupportedOperationException {
-    final var commands = new ArrayList<ActionCommand>();
-
+  public List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException {
     try {
       final var event = raiseAction.getEvent();
 
@@ -48,6 +40,6 @@ public final class ActionRaiseCommand extends ActionCommand {
       logger.error("Data creation failed: {}", e.getMessage());
     }
 
-    return commands;
+    return List.of();
   }
 }
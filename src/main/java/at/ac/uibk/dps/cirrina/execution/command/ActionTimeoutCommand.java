@@ -5,18 +5,14 @@ import java.util.List;
 
 public final class ActionTimeoutCommand extends ActionCommand {
 
-  private final TimeoutAction timeoutAction;
+  private final List<ActionCommand> timeoutActionCommands;
 
-  ActionTimeoutCommand(ExecutionContext executionContext, TimeoutAction timeoutAction) {
-    super(executionContext);
-
-    this.timeoutAction = timeoutAction;
+  ActionTimeoutCommand(TimeoutAction timeoutAction) {
+    this.timeoutActionCommands = List.of(CommandFactory.createActionCommand(timeoutAction.getAction()));
   }
 
   @Override
-  public List<ActionCommand> execute() throws UnsupportedOperationException {
-    final var commandFactory = new CommandFactory(executionContext);
-
-    return List.of(commandFactory.createActionCommand(timeoutAction.getAction()));
+  public List<ActionCommand> execute(ExecutionContext executionContext) throws UnsupportedOperationException {
+    return timeoutActionCommands;
   }
 }
@@ -7,36 +7,46 @@ import at.ac.uibk.dps.cirrina.execution.object.action.InvokeAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.MatchAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.RaiseAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
+import java.util.List;
 
-public class CommandFactory {
+public final class CommandFactory {
 
-  private ExecutionContext executionContext;
-
-  public CommandFactory(ExecutionContext executionContext) {
-    this.executionContext = executionContext;
+  private CommandFactory() {
   }
 
-  public ActionCommand createActionCommand(Action action) {
+  public static ActionCommand createActionCommand(Action action) {
     switch (action) {
       case AssignAction assignAction -> {
-        return new ActionAssignCommand(executionContext, assignAction);
+        return new ActionAssignCommand(assignAction);
       }
       case CreateAction createAction -> {
-        return new ActionCreateCommand(executionContext, createAction);
+        return new ActionCreateCommand(createAction);
       }
       case InvokeAction invokeAction -> {
-        return new ActionInvokeCommand(executionContext, invokeAction);
+        return new ActionInvokeCommand(invokeAction);
       }
       case MatchAction matchAction -> {
-        return new ActionMatchCommand(executionContext, matchAction);
+        return new ActionMatchCommand(matchAction);
       }
       case RaiseAction raiseAction -> {
-        return new ActionRaiseCommand(executionContext, raiseAction);
+        return new ActionRaiseCommand(raiseAction);
       }
       case TimeoutAction timeoutAction -> {
-        return new ActionTimeoutCommand(executionContext, timeoutAction);
+        return new ActionTimeoutCommand(timeoutAction);
       }
       default -> throw new IllegalArgumentException("Unexpected action");
     }
   }
+
+  /**
+   * Creates the action commands for a list of actions, maintaining their order.
+   *
+   * @param actions Actions.
+   * @return Immutable list of action commands.
+   */
+  public static List<ActionCommand> createActionCommands(List<Action> actions) {
+    return actions.stream()
+        .map(CommandFactory::createActionCommand)
+        .toList();
+  }
 }
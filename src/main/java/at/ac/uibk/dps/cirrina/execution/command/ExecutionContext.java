@@ -8,6 +8,7 @@ import at.ac.uibk.dps.cirrina.tracing.Counters;
 import at.ac.uibk.dps.cirrina.tracing.Gauges;
 import jakarta.annotation.Nullable;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 public record ExecutionContext(
     Scope scope,
@@ -17,7 +18,8 @@ public record ExecutionContext(
     EventListener eventListener,
     Gauges gauges,
     Counters counters,
-    boolean isWhile
+    boolean isWhile,
+    Executor mutationExecutor
 ) {
 
   public ExecutionContext {
@@ -27,15 +29,21 @@ public record ExecutionContext(
     Objects.requireNonNull(eventListener, "EventListener cannot be null");
     Objects.requireNonNull(gauges, "Gauges cannot be null");
     Objects.requireNonNull(counters, "Counters cannot be null");
+    Objects.requireNonNull(mutationExecutor, "MutationExecutor cannot be null");
   }
 
   public ExecutionContext withScope(Scope scope) {
     return new ExecutionContext(scope, raisingEvent, serviceImplementationSelector, eventHandler,
-        eventListener, gauges, counters, isWhile);
+        eventListener, gauges, counters, isWhile, mutationExecutor);
+  }
+
+  public ExecutionContext withRaisingEvent(@Nullable Event raisingEvent) {
+    return new ExecutionContext(scope, raisingEvent, serviceImplementationSelector, eventHandler,
+        eventListener, gauges, counters, isWhile, mutationExecutor);
   }
 
   public ExecutionContext withIsWhile(boolean isWhile) {
     return new ExecutionContext(scope, raisingEvent, serviceImplementationSelector, eventHandler,
-        eventListener, gauges, counters, isWhile);
+        eventListener, gauges, counters, isWhile, mutationExecutor);
   }
 }
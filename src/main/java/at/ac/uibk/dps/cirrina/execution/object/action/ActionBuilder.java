@@ -136,6 +136,7 @@ public final class ActionBuilder {
         final var parameters = new InvokeAction.Parameters(
             invoke.getServiceType(),
             invoke.isIsLocal(),
+            invoke.isCoalesce(),
             input,
             done,
             invoke.getOutput()
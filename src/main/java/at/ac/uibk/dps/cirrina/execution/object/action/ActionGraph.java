@@ -1,8 +1,11 @@
 package at.ac.uibk.dps.cirrina.execution.object.action;
 
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.traverse.TopologicalOrderIterator;
 
 /**
  * Abstract action graph, contains actions as vertices and edges indicating the order of execution.
@@ -17,6 +20,11 @@ import org.jgrapht.graph.SimpleDirectedGraph;
  */
 public final class ActionGraph extends SimpleDirectedGraph<Action, DefaultEdge> {
 
+  /**
+   * The actions in topological order, can be null in case the order has not been computed since the last change in structure.
+   */
+  private @Nullable List<Action> orderedActions;
+
   /**
    * Initializes an empty action graph.
    */
@@ -40,6 +48,69 @@ public final class ActionGraph extends SimpleDirectedGraph<Action, DefaultEdge>
         edge -> addEdge(actionGraph.getEdgeSource(edge), actionGraph.getEdgeTarget(edge), edge));
   }
 
+  @Override
+  public boolean addVertex(Action action) {
+    orderedActions = null;
+
+    return super.addVertex(action);
+  }
+
+  @Override
+  public DefaultEdge addEdge(Action sourceAction, Action targetAction) {
+    orderedActions = null;
+
+    return super.addEdge(sourceAction, targetAction);
+  }
+
+  @Override
+  public boolean addEdge(Action sourceAction, Action targetAction, DefaultEdge edge) {
+    orderedActions = null;
+
+    return super.addEdge(sourceAction, targetAction, edge);
+  }
+
+  @Override
+  public boolean removeVertex(Action action) {
+    orderedActions = null;
+
+    return super.removeVertex(action);
+  }
+
+  @Override
+  public DefaultEdge removeEdge(Action sourceAction, Action targetAction) {
+    orderedActions = null;
+
+    return super.removeEdge(sourceAction, targetAction);
+  }
+
+  @Override
+  public boolean removeEdge(DefaultEdge edge) {
+    orderedActions = null;
+
+    return super.removeEdge(edge);
+  }
+
+  /**
+   * Returns the actions contained in this action graph in order of execution.
+   * <p>
+   * The topological order is computed once and reused until the structure of this action graph changes.
+   *
+   * @return Immutable list of actions in order of execution.
+   */
+  public List<Action> getOrderedActions() {
+    var result = orderedActions;
+
+    if (result == null) {
+      final var actions = new ArrayList<Action>(vertexSet().size());
+
+      new TopologicalOrderIterator<>(this).forEachRemaining(actions::add);
+
+      result = orderedActions = List.copyOf(actions);
+    }
+
+    return result;
+  }
+
   /**
    * Returns the actions containing in this action graph that have a certain type. The order of actions is maintained.
    *
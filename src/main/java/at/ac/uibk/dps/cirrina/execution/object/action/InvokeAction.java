@@ -15,6 +15,8 @@ public final class InvokeAction extends Action {
 
   private final boolean isLocal;
 
+  private final boolean isCoalesce;
+
   private final List<ContextVariable> input;
 
   private final List<Event> done;
@@ -24,6 +26,7 @@ public final class InvokeAction extends Action {
   InvokeAction(Parameters parameters) {
     this.serviceType = parameters.serviceType();
     this.isLocal = parameters.isLocal();
+    this.isCoalesce = parameters.isCoalesce();
     this.input = parameters.input();
     this.done = parameters.done();
     this.output = parameters.output();
@@ -37,6 +40,10 @@ public final class InvokeAction extends Action {
     return isLocal;
   }
 
+  public boolean isCoalesce() {
+    return isCoalesce;
+  }
+
   public List<ContextVariable> getInput() {
     return input;
   }
@@ -52,6 +59,7 @@ public final class InvokeAction extends Action {
   public record Parameters(
       String serviceType,
       boolean isLocal,
+      boolean isCoalesce,
       List<ContextVariable> input,
       List<Event> done,
       List<ContextVariableReferenceDescription> output
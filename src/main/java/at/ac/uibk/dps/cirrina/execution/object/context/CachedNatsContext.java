@@ -0,0 +1,605 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import at.ac.uibk.dps.cirrina.execution.object.exchange.ValueExchange;
+import io.nats.client.JetStreamApiException;
+import io.nats.client.KeyValue;
+import io.nats.client.api.KeyValueEntry;
+import io.nats.client.api.KeyValueOperation;
+import io.nats.client.api.KeyValueWatcher;
+import io.nats.client.impl.NatsKeyValueWatchSubscription;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A caching decorator of a NATS context, keeping a decoded local copy of the variables of the NATS bucket.
+ * <p>
+ * The local copy is kept fresh by watching all keys of the bucket, updates are decoded on the watch thread, and reads are served according
+ * to the consistency mode:
+ * <ul>
+ *   <li>{@link Consistency#Strong}, reads the latest revision from the bucket, decoding is skipped if the revision is cached.</li>
+ *   <li>{@link Consistency#BoundedStaleness}, reads the local copy unless it was last confirmed longer than the maximum staleness ago.</li>
+ *   <li>{@link Consistency#LocalFirst}, reads the local copy, assignments are applied locally and written behind in batches.</li>
+ * </ul>
+ * Creations and deletions are always written through.
+ */
+public final class CachedNatsContext extends Context {
+
+  /**
+   * The cached NATS context logger.
+   */
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * The decorated NATS context.
+   */
+  private final NatsContext natsContext;
+
+  /**
+   * The key-value of the decorated NATS context.
+   */
+  private final KeyValue keyValue;
+
+  /**
+   * The consistency mode.
+   */
+  private final Consistency consistency;
+
+  /**
+   * The maximum staleness of a cached value in nanoseconds, for bounded staleness consistency.
+   */
+  private final long maxStalenessInNanos;
+
+  /**
+   * The cached values by variable name.
+   */
+  private final Map<String, CachedValue> cachedValues = new ConcurrentHashMap<>();
+
+  /**
+   * The assignments that are not yet written to the bucket by variable name, for local-first consistency. Only the latest assignment of
+   * each variable is written.
+   */
+  private final Map<String, Object> pendingWrites = new ConcurrentHashMap<>();
+
+  /**
+   * The executor that periodically writes pending assignments, for local-first consistency.
+   */
+  private final @Nullable ScheduledExecutorService writeBehindExecutor;
+
+  /**
+   * The subscription watching all keys of the bucket.
+   */
+  private final NatsKeyValueWatchSubscription watchSubscription;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * The delay between the last observed update being stored in the bucket and being applied to the local copy, in milliseconds.
+   */
+  private volatile long stalenessInMs = 0;
+
+  /**
+   * Initializes a cached NATS context.
+   *
+   * @param natsContext       NATS context to decorate.
+   * @param consistency       Consistency mode.
+   * @param maxStalenessInMs  Maximum staleness of a cached value in milliseconds, for bounded staleness consistency.
+   * @param flushIntervalInMs Interval between writing pending assignments in milliseconds, for local-first consistency.
+   * @throws IOException If the bucket could not be watched.
+   */
+  public CachedNatsContext(
+      NatsContext natsContext,
+      Consistency consistency,
+      long maxStalenessInMs,
+      long flushIntervalInMs
+  ) throws IOException {
+    super(natsContext.isLocal());
+
+    this.natsContext = natsContext;
+    this.keyValue = natsContext.getKeyValue();
+    this.consistency = consistency;
+    this.maxStalenessInNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessInMs);
+
+    // Watch all keys, the watch initially delivers the current value of each key
+    try {
+      watchSubscription = keyValue.watchAll(new CacheWatcher());
+    } catch (IOException | JetStreamApiException | InterruptedException e) {
+      throw new IOException("Failed to watch the persistent context bucket", e);
+    }
+
+    // Periodically write pending assignments
+    if (consistency == Consistency.LocalFirst) {
+      writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("nats-context-write-behind").daemon().factory());
+
+      writeBehindExecutor.scheduleWithFixedDelay(this::flush, flushIntervalInMs, flushIntervalInMs, TimeUnit.MILLISECONDS);
+    } else {
+      writeBehindExecutor = null;
+    }
+  }
+
+  /**
+   * Retrieve a context variable.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the context variable could not be retrieved.
+   */
+  @Override
+  public Object get(String name) throws IOException {
+    final var value = read(name);
+
+    if (value == null) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    return value;
+  }
+
+  /**
+   * Looks up a context variable, served according to the consistency mode like {@link #get(String)}.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable or null if it does not exist.
+   * @throws UncheckedIOException If the context variable could not be retrieved.
+   */
+  @Override
+  public @Nullable Object lookup(String name) {
+    try {
+      return read(name);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Creates a context variable.
+   *
+   * @param name  Name of the context variable.
+   * @param value Value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same name already exists.
+   * @throws IOException If the variable could not be created.
+   */
+  @Override
+  public int create(String name, Object value) throws IOException {
+    // Keep the order of mutations
+    natsContext.writeBatchedAssignments();
+
+    try {
+      final var data = toBytes(value);
+
+      final var revision = keyValue.create(name, data);
+
+      confirm(name, value, revision);
+
+      structureChanged();
+
+      return data.length;
+    } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+      throw new IOException("Failed to create variable '%s'".formatted(name), e);
+    }
+  }
+
+  /**
+   * Assigns to a context variable.
+   * <p>
+   * In case of local-first consistency, the assignment is applied to the local copy and written behind. The byte size is then only returned
+   * for binary (byte array) data, and is 0 otherwise.
+   *
+   * @param name  Name of the context variable.
+   * @param value New value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be assigned to.
+   */
+  @Override
+  public int assign(String name, Object value) throws IOException {
+    if (consistency == Consistency.LocalFirst) {
+      // The variable is required to exist, retrieving it also caches it
+      get(name);
+
+      // Keep the revision, such that any later update of the bucket supersedes the local assignment
+      cachedValues.compute(name, (key, cachedValue) ->
+          new CachedValue(value, cachedValue != null ? cachedValue.revision() : 0, System.nanoTime()));
+
+      pendingWrites.put(name, value);
+
+      // We only return the byte size for byte arrays
+      if (value instanceof byte[] bytes) {
+        return bytes.length;
+      }
+
+      return 0;
+    }
+
+    // Batch the assignment, if the current thread is batching. The local copy is updated once the watch delivers the assignment
+    if (natsContext.isBatching()) {
+      return natsContext.assign(name, value);
+    }
+
+    try {
+      final var data = toBytes(value);
+
+      final var revision = keyValue.put(name, data);
+
+      confirm(name, value, revision);
+
+      return data.length;
+    } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+      throw new IOException("Failed to assign to the variable '%s'".formatted(name), e);
+    }
+  }
+
+  /**
+   * Updates a context variable.
+   * <p>
+   * In case of local-first consistency, the update is applied to the local copy and written behind. Otherwise, the update is applied using
+   * compare-and-set, starting from the cached revision.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be updated.
+   */
+  @Override
+  public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    if (consistency == Consistency.LocalFirst) {
+      // The variable is required to exist, retrieving it also caches it
+      get(name);
+
+      final var cachedValue = cachedValues.computeIfPresent(name, (key, currentValue) ->
+          new CachedValue(updateFunction.apply(currentValue.value()), currentValue.revision(), System.nanoTime()));
+
+      if (cachedValue == null) {
+        throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+      }
+
+      pendingWrites.put(name, cachedValue.value());
+
+      // We only return the byte size for byte arrays
+      if (cachedValue.value() instanceof byte[] bytes) {
+        return bytes.length;
+      }
+
+      return 0;
+    }
+
+    final var cachedValue = cachedValues.get(name);
+
+    final var result = cachedValue != null
+        ? natsContext.compareAndSet(name, updateFunction, cachedValue.value(), cachedValue.revision())
+        : natsContext.compareAndSet(name, updateFunction, null, 0);
+
+    confirm(name, result.value(), result.revision());
+
+    return result.size();
+  }
+
+  /**
+   * Deletes a context variable.
+   *
+   * @param name Name of the context variable.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be deleted.
+   */
+  @Override
+  public void delete(String name) throws IOException {
+    // A pending assignment must not recreate the variable
+    pendingWrites.remove(name);
+
+    natsContext.delete(name);
+
+    cachedValues.remove(name);
+
+    structureChanged();
+  }
+
+  /**
+   * Returns all context variables.
+   * <p>
+   * Pending assignments are written before retrieving the variables.
+   *
+   * @return Context variables.
+   * @throws IOException If the variables could not be retrieved.
+   */
+  @Override
+  public List<ContextVariable> getAll() throws IOException {
+    flush();
+
+    return natsContext.getAll();
+  }
+
+  /**
+   * Begins batching the assignments of the current thread, unless assignments are written behind.
+   */
+  @Override
+  public void beginBatch() {
+    if (consistency != Consistency.LocalFirst) {
+      natsContext.beginBatch();
+    }
+  }
+
+  /**
+   * Writes the batched assignments of the current thread and ends batching.
+   *
+   * @throws IOException If the batched assignments could not be written.
+   */
+  @Override
+  public void flushBatch() throws IOException {
+    natsContext.flushBatch();
+  }
+
+  /**
+   * Writes all pending assignments to the bucket. Assignments that could not be written remain pending, unless superseded.
+   */
+  public void flush() {
+    for (final var name : pendingWrites.keySet()) {
+      final var value = pendingWrites.remove(name);
+
+      if (value == null) {
+        continue;
+      }
+
+      try {
+        final var revision = keyValue.put(name, toBytes(value));
+
+        confirm(name, value, revision);
+      } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+        logger.error("Failed to write the variable '{}': {}", name, e.getMessage());
+
+        pendingWrites.putIfAbsent(name, value);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    // Write all pending assignments
+    if (writeBehindExecutor != null) {
+      writeBehindExecutor.shutdown();
+    }
+
+    flush();
+
+    try {
+      watchSubscription.unsubscribe();
+    } catch (IllegalStateException e) {
+      logger.warn("Failed to stop watching the persistent context bucket: {}", e.getMessage());
+    }
+
+    natsContext.close();
+  }
+
+  /**
+   * Reads a context variable from the batched assignments of the current thread, the local copy if allowed by the consistency mode, or
+   * the bucket.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable or null if it does not exist.
+   * @throws IOException If the context variable could not be retrieved.
+   */
+  private @Nullable Object read(String name) throws IOException {
+    // Batched assignments are visible to the batching thread
+    final var batchedAssignment = natsContext.getBatchedAssignment(name);
+
+    if (batchedAssignment != null) {
+      return batchedAssignment.value();
+    }
+
+    // Serve the local copy if allowed by the consistency mode
+    final var cachedValue = cachedValues.get(name);
+
+    if (cachedValue != null && switch (consistency) {
+      case Strong -> false;
+      case BoundedStaleness -> System.nanoTime() - cachedValue.confirmedTime() <= maxStalenessInNanos;
+      case LocalFirst -> true;
+    }) {
+      hits.incrementAndGet();
+
+      return cachedValue.value();
+    }
+
+    return readLatest(name);
+  }
+
+  /**
+   * Reads the latest revision of a context variable from the bucket, decoding it only if the revision is not cached.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable or null if it does not exist.
+   * @throws IOException If the context variable could not be retrieved.
+   */
+  private @Nullable Object readLatest(String name) throws IOException {
+    try {
+      final var entry = keyValue.get(name);
+
+      if (entry == null || entry.getOperation() != KeyValueOperation.PUT) {
+        return null;
+      }
+
+      // The cached revision is current, skip decoding
+      final var cachedValue = cachedValues.get(name);
+
+      if (cachedValue != null && cachedValue.revision() == entry.getRevision()) {
+        hits.incrementAndGet();
+
+        confirm(name, cachedValue.value(), entry.getRevision());
+
+        return cachedValue.value();
+      }
+
+      misses.incrementAndGet();
+
+      final var value = fromBytes(entry.getValue());
+
+      confirm(name, value, entry.getRevision());
+
+      return value;
+    } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+      throw new IOException("Failed to retrieve the variable '%s'".formatted(name), e);
+    }
+  }
+
+  /**
+   * Caches a value confirmed to be stored in the bucket at a revision. An older revision never replaces a newer revision, and a pending
+   * assignment is never replaced.
+   *
+   * @param name     Name of the context variable.
+   * @param value    Value of the context variable.
+   * @param revision Revision of the value.
+   */
+  private void confirm(String name, Object value, long revision) {
+    if (pendingWrites.containsKey(name)) {
+      return;
+    }
+
+    cachedValues.merge(name, new CachedValue(value, revision, System.nanoTime()),
+        (cachedValue, confirmedValue) -> confirmedValue.revision() >= cachedValue.revision() ? confirmedValue : cachedValue);
+  }
+
+  private byte[] toBytes(Object value) throws UnsupportedOperationException {
+    return new ValueExchange(value).toBytes();
+  }
+
+  private Object fromBytes(byte[] bytes) throws UnsupportedOperationException {
+    return ValueExchange.fromBytes(bytes).getValue();
+  }
+
+  /**
+   * Returns the number of reads served without decoding a value from the bucket.
+   *
+   * @return Number of cache hits.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of reads that required decoding a value from the bucket.
+   *
+   * @return Number of cache misses.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the ratio of reads served without decoding a value from the bucket.
+   *
+   * @return Hit ratio, or 0 if there were no reads.
+   */
+  public double getHitRatio() {
+    final var hitCount = hits.get();
+    final var total = hitCount + misses.get();
+
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the delay between the last observed update being stored in the bucket and being applied to the local copy.
+   *
+   * @return Staleness in milliseconds.
+   */
+  public long getStalenessInMs() {
+    return stalenessInMs;
+  }
+
+  /**
+   * Returns the number of assignments that are not yet written to the bucket.
+   *
+   * @return Number of pending writes.
+   */
+  public int getPendingWrites() {
+    return pendingWrites.size();
+  }
+
+  /**
+   * Consistency mode of a cached NATS context.
+   */
+  public enum Consistency {
+    /**
+     * Every read is checked against the latest revision in the bucket.
+     */
+    Strong,
+
+    /**
+     * Reads may be served from the local copy up to a maximum staleness.
+     */
+    BoundedStaleness,
+
+    /**
+     * Reads are served from the local copy, and assignments are written behind.
+     */
+    LocalFirst
+  }
+
+  /**
+   * A cached value.
+   *
+   * @param value         Decoded value.
+   * @param revision      Revision of the value in the bucket.
+   * @param confirmedTime Time at which the value was last confirmed, in nanoseconds.
+   */
+  private record CachedValue(Object value, long revision, long confirmedTime) {
+
+  }
+
+  /**
+   * Watcher applying updates of the bucket to the local copy.
+   */
+  private final class CacheWatcher implements KeyValueWatcher {
+
+    @Override
+    public void watch(KeyValueEntry entry) {
+      final var name = entry.getKey();
+
+      switch (entry.getOperation()) {
+        case PUT -> {
+          final var isCreated = !cachedValues.containsKey(name);
+
+          try {
+            confirm(name, fromBytes(entry.getValue()), entry.getRevision());
+          } catch (UnsupportedOperationException e) {
+            logger.warn("Failed to decode the variable '{}': {}", name, e.getMessage());
+            return;
+          }
+
+          // Record the delay of applying the update
+          stalenessInMs = Math.max(0, Duration.between(entry.getCreated(), ZonedDateTime.now()).toMillis());
+
+          if (isCreated) {
+            structureChanged();
+          }
+        }
+        case DELETE, PURGE -> {
+          if (cachedValues.computeIfPresent(name,
+              (key, cachedValue) -> cachedValue.revision() <= entry.getRevision() ? null : cachedValue) == null) {
+            structureChanged();
+          }
+        }
+      }
+    }
+
+    @Override
+    public void endOfData() {
+
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package at.ac.uibk.dps.cirrina.execution.object.context;
 
+import jakarta.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 /**
  * Base context, containing context variables.
@@ -10,6 +14,11 @@ public abstract class Context implements AutoCloseable {
 
   private final boolean isLocal;
 
+  /**
+   * Structure version, incremented whenever a variable is created or deleted.
+   */
+  private final AtomicLong structureVersion = new AtomicLong();
+
   /**
    * Initializes this context object.
    *
@@ -28,6 +37,36 @@ public abstract class Context implements AutoCloseable {
    */
   public abstract Object get(String name) throws IOException;
 
+  /**
+   * Attempts to retrieve a context variable.
+   * <p>
+   * Unlike {@link #get(String)}, a missing variable is not reported as an exception.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or empty in case the variable does not exist or could not be retrieved.
+   */
+  public Optional<Object> tryGet(String name) {
+    return Optional.ofNullable(lookup(name));
+  }
+
+  /**
+   * Looks up a context variable without allocating.
+   * <p>
+   * Unlike {@link #get(String)}, a missing variable is not reported as an exception. Implementations should override this method if a
+   * missing variable can be detected without an exception, and may then report a failure to retrieve a variable as an
+   * {@link java.io.UncheckedIOException}.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or null in case the variable does not exist or could not be retrieved.
+   */
+  public @Nullable Object lookup(String name) {
+    try {
+      return get(name);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
   /**
    * Creates a context variable.
    *
@@ -48,6 +87,21 @@ public abstract class Context implements AutoCloseable {
    */
   public abstract int assign(String name, Object value) throws IOException;
 
+  /**
+   * Updates a context variable, assigning the result of an update function applied to its current value.
+   * <p>
+   * The default implementation is not atomic, implementations should override this method if an update can be applied atomically. The
+   * update function may be applied more than once, and should therefore be free of side effects.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Byte size of stored data.
+   * @throws IOException If the variable could not be updated.
+   */
+  public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    return assign(name, updateFunction.apply(get(name)));
+  }
+
   /**
    * Deletes a context variable.
    *
@@ -64,6 +118,41 @@ public abstract class Context implements AutoCloseable {
    */
   public abstract List<ContextVariable> getAll() throws IOException;
 
+  /**
+   * Begins batching the assignments of the current thread. Batched assignments are written when the batch is flushed.
+   * <p>
+   * Contexts that do not benefit from batching write assignments immediately, which is the default.
+   */
+  public void beginBatch() {
+
+  }
+
+  /**
+   * Writes the batched assignments of the current thread and ends batching.
+   *
+   * @throws IOException If the batched assignments could not be written.
+   */
+  public void flushBatch() throws IOException {
+
+  }
+
+  /**
+   * Returns the structure version of this context. The structure version changes whenever a variable is created or deleted, allowing
+   * resolved variable locations to be cached.
+   *
+   * @return Structure version.
+   */
+  public long getStructureVersion() {
+    return structureVersion.get();
+  }
+
+  /**
+   * Indicates that a variable has been created or deleted, to be called by implementations.
+   */
+  protected void structureChanged() {
+    structureVersion.incrementAndGet();
+  }
+
   /**
    * Returns a flag that indicates if this context is local.
    *
@@ -1,9 +1,12 @@
 package at.ac.uibk.dps.cirrina.execution.object.context;
 
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextDescription;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextVariableDescription;
 import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
 import jakarta.annotation.Nullable;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Context builder, builder for various context implementations.
@@ -61,6 +64,25 @@ public class ContextBuilder {
     return this;
   }
 
+  /**
+   * Build a single-writer context, reserving slots for the variables declared in the context class.
+   *
+   * @param isLocal True if this context is local, otherwise false.
+   * @return This builder.
+   * @see SingleWriterContext
+   */
+  public ContextBuilder singleWriterContext(boolean isLocal) {
+    final var declaredNames = contextClass == null
+        ? List.<String>of()
+        : contextClass.getVariables().stream()
+            .map(ContextVariableDescription::getName)
+            .toList();
+
+    context = new SingleWriterContext(isLocal, declaredNames);
+
+    return this;
+  }
+
   /**
    * Build a NATS context.
    *
@@ -77,6 +99,21 @@ public class ContextBuilder {
     return this;
   }
 
+  /**
+   * Build a file context.
+   *
+   * @param isLocal   True if this context is local, otherwise false.
+   * @param directory Directory containing the context log.
+   * @return This builder.
+   * @throws IOException If the context could not be built.
+   * @see FileContext
+   */
+  public ContextBuilder fileContext(boolean isLocal, Path directory) throws IOException {
+    context = new FileContext(isLocal, directory);
+
+    return this;
+  }
+
   /**
    * Builds the current context.
    *
@@ -1,36 +1,58 @@
 package at.ac.uibk.dps.cirrina.execution.object.context;
 
+import jakarta.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Extent, an ordered chain of contexts from low to high priority. Variables are resolved in the highest priority context that contains
+ * them.
+ * <p>
+ * An extent is immutable, extending an extent produces a new extent. The location of resolved variables is cached and the cache is
+ * invalidated whenever a variable is created in or deleted from any of the contexts in this extent.
+ */
 public class Extent {
 
-  private List<Context> extent;
+  private final Context[] extent;
+
+  private final Map<String, Location> locations = new ConcurrentHashMap<>();
 
   public Extent() {
-    extent = new ArrayList<>();
+    extent = new Context[0];
   }
 
   public Extent(Context low) {
-    extent = List.of(low);
+    extent = new Context[]{low};
   }
 
   public Extent(Context low, Context high) {
-    extent = List.of(low, high);
+    extent = new Context[]{low, high};
   }
 
   public Extent(List<Context> low, Context high) {
-    extent = Stream.concat(
-            low.stream(),
-            Stream.of(high))
-        .toList();
+    extent = new Context[low.size() + 1];
+
+    for (var i = 0; i < low.size(); ++i) {
+      extent[i] = low.get(i);
+    }
+
+    extent[low.size()] = high;
+  }
+
+  private Extent(Context[] low, Context high) {
+    extent = new Context[low.length + 1];
+
+    System.arraycopy(low, 0, extent, 0, low.length);
+
+    extent[low.length] = high;
   }
 
   public int setOrCreate(String name, Object value) throws IOException {
-    final var last = extent.getLast();
+    final var last = getHigh();
 
     try {
       return last.assign(name, value);
@@ -40,9 +62,24 @@ public class Extent {
   }
 
   public SetResult trySet(String name, Object value) throws IOException {
+    // Attempt to assign to the context the variable was last resolved in
+    final var location = locations.get(name);
+
+    if (location != null && location.structureVersion() == getStructureVersion()) {
+      final var context = extent[location.index()];
+
+      try {
+        return new SetResult(context.assign(name, value), context);
+      } catch (IOException ignored) {
+        // Fall back to searching all contexts
+      }
+    }
+
     IOException lastException = null;
 
-    for (final var context : extent.reversed()) {
+    for (var i = extent.length - 1; i >= 0; --i) {
+      final var context = extent[i];
+
       try {
         final var size = context.assign(name, value);
         return new SetResult(size, context);
@@ -58,33 +95,143 @@ public class Extent {
     }
   }
 
+  /**
+   * Updates a variable in the highest priority context that contains it, applying the update function to its current value.
+   * <p>
+   * The location of the variable is not resolved by reading its value beforehand, the current value is only read by the update itself. The
+   * update is attempted in the context the variable was last resolved in, otherwise in each context from high to low priority.
+   *
+   * @param name           Name of the variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Set result.
+   * @throws IOException If no context contains the variable.
+   * @throws IOException If the variable could not be updated.
+   * @see Context#update(String, UnaryOperator)
+   */
+  public SetResult tryUpdate(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    final var structureVersion = getStructureVersion();
+
+    // Attempt to update in the context the variable was last resolved in
+    final var location = locations.get(name);
+
+    if (location != null && location.structureVersion() == structureVersion) {
+      final var context = extent[location.index()];
+
+      try {
+        return new SetResult(context.update(name, updateFunction), context);
+      } catch (IOException ignored) {
+        // Fall back to searching all contexts
+      }
+    }
+
+    IOException lastException = null;
+
+    for (var i = extent.length - 1; i >= 0; --i) {
+      final var context = extent[i];
+
+      try {
+        final var size = context.update(name, updateFunction);
+
+        locations.put(name, new Location(i, structureVersion));
+
+        return new SetResult(size, context);
+      } catch (IOException e) {
+        lastException = e;
+      }
+    }
+
+    if (lastException != null) {
+      throw lastException;
+    } else {
+      throw new IOException("Could not update variable value, no context could be found that contains '%s'".formatted(name));
+    }
+  }
+
   public Extent extend(Context high) {
     return new Extent(extent, high);
   }
 
   public Context getLow() {
-    return extent.getFirst();
+    return extent[0];
   }
 
   public Context getHigh() {
-    return extent.getLast();
+    return extent[extent.length - 1];
   }
 
+  /**
+   * Resolves a variable in the highest priority context that contains it.
+   * <p>
+   * A missing variable is reported as empty, not as an exception.
+   *
+   * @param name Name of the variable.
+   * @return Variable value or empty in case no context contains the variable.
+   */
   public Optional<Object> resolve(String name) {
-    return extent.reversed().stream()
-        .map(context -> {
-          try {
-            return Optional.ofNullable(context.get(name));
-          } catch (IOException e) {
-            return Optional.empty();
-          }
-        })
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .findFirst();
+    return Optional.ofNullable(lookup(name));
+  }
+
+  /**
+   * Looks up a variable in the highest priority context that contains it, without allocating in case the location of the variable is
+   * cached.
+   *
+   * @param name Name of the variable.
+   * @return Variable value or null in case no context contains the variable.
+   */
+  public @Nullable Object lookup(String name) {
+    final var structureVersion = getStructureVersion();
+
+    // Attempt the context the variable was last resolved in, unless any context has changed in structure since
+    final var location = locations.get(name);
+
+    if (location != null && location.structureVersion() == structureVersion) {
+      final var value = extent[location.index()].lookup(name);
+
+      if (value != null) {
+        return value;
+      }
+    }
+
+    // Search all contexts from high to low
+    for (var i = extent.length - 1; i >= 0; --i) {
+      final var value = extent[i].lookup(name);
+
+      if (value != null) {
+        locations.put(name, new Location(i, structureVersion));
+        return value;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the combined structure version of all contexts. Structure versions only increase, therefore any creation or deletion of a
+   * variable changes the combined structure version.
+   *
+   * @return Combined structure version.
+   */
+  private long getStructureVersion() {
+    var structureVersion = 0L;
+
+    for (final var context : extent) {
+      structureVersion += context.getStructureVersion();
+    }
+
+    return structureVersion;
   }
 
   public record SetResult(int size, Context context) {
 
   }
+
+  /**
+   * Location of a resolved variable.
+   *
+   * @param index            Index of the context containing the variable.
+   * @param structureVersion Combined structure version at the time of resolution.
+   */
+  private record Location(int index, long structureVersion) {
+
+  }
 }
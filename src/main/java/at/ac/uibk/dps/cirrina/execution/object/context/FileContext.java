@@ -0,0 +1,604 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import at.ac.uibk.dps.cirrina.execution.object.exchange.ValueExchange;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent context contained within a local file, for single-node deployments and testing without a NATS server.
+ * <p>
+ * Mutations are appended to a memory-mapped log, values are stored in the value exchange format. The decoded values are indexed in memory,
+ * reads therefore never access the log.
+ * <p>
+ * Each record of the log consists of a length, a checksum and a body, containing the operation, the variable name and the encoded value.
+ * On opening, the log is replayed up to the first incomplete or corrupt record, which is discarded. The log is compacted once the majority
+ * of it is superseded by later records, by writing the live records to a new log that atomically replaces the current log.
+ * <p>
+ * The sync policy determines which failures a mutation survives. An appended record is written to the memory-mapped log, which survives a
+ * crash of the process but not a crash of the operating system or a power loss, unless the log is written to the storage device. With the
+ * {@link SyncPolicy#OnClose} policy this only happens when the context is closed or compacted, with the {@link SyncPolicy#EveryWrite}
+ * policy each mutation is written to the storage device before it completes.
+ */
+public final class FileContext extends Context {
+
+  /**
+   * The file context logger.
+   */
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * File name of the log within the context directory.
+   */
+  private static final String LOG_FILE_NAME = "context.log";
+
+  /**
+   * File name of a log being compacted within the context directory.
+   */
+  private static final String COMPACTED_LOG_FILE_NAME = "context.log.compact";
+
+  /**
+   * Initial capacity of the memory-mapped log in bytes.
+   */
+  private static final int INITIAL_CAPACITY = 1 << 20;
+
+  /**
+   * Minimum log size in bytes before compacting.
+   */
+  private static final int MINIMUM_COMPACTION_SIZE = 1 << 20;
+
+  /**
+   * Size of a record header, the body length and checksum.
+   */
+  private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+  private static final byte OPERATION_PUT = 1;
+
+  private static final byte OPERATION_DELETE = 2;
+
+  /**
+   * The decoded values by variable name.
+   */
+  private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+  /**
+   * The sizes of the live records by variable name, guarded by the write lock.
+   */
+  private final Map<String, Integer> recordSizes = new HashMap<>();
+
+  /**
+   * Write lock, guards appending to and compacting the log. A lock is used instead of an object monitor, since a virtual thread waiting on
+   * a monitor pins its carrier thread.
+   */
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private final Path directory;
+
+  private final SyncPolicy syncPolicy;
+
+  private FileChannel channel;
+
+  private MappedByteBuffer log;
+
+  /**
+   * Position of the end of the last record in the log.
+   */
+  private int position = 0;
+
+  /**
+   * Number of bytes of the log occupied by live records.
+   */
+  private long liveBytes = 0;
+
+  /**
+   * Initializes a file context, recovering the variables contained in an existing log. The log is written to the storage device once the
+   * context is closed.
+   *
+   * @param isLocal   True if this context is local, otherwise false.
+   * @param directory Directory containing the log, created if it does not exist.
+   * @throws IOException If the log could not be opened or recovered.
+   */
+  public FileContext(boolean isLocal, Path directory) throws IOException {
+    this(isLocal, directory, SyncPolicy.OnClose);
+  }
+
+  /**
+   * Initializes a file context, recovering the variables contained in an existing log.
+   *
+   * @param isLocal    True if this context is local, otherwise false.
+   * @param directory  Directory containing the log, created if it does not exist.
+   * @param syncPolicy Policy determining when the log is written to the storage device.
+   * @throws IOException If the log could not be opened or recovered.
+   */
+  public FileContext(boolean isLocal, Path directory, SyncPolicy syncPolicy) throws IOException {
+    super(isLocal);
+
+    this.directory = directory;
+    this.syncPolicy = syncPolicy;
+
+    Files.createDirectories(directory);
+
+    // A compacted log that exists was not yet moved into place, the current log is still complete
+    Files.deleteIfExists(directory.resolve(COMPACTED_LOG_FILE_NAME));
+
+    open(directory.resolve(LOG_FILE_NAME));
+  }
+
+  /**
+   * Computes the checksum of a record body.
+   *
+   * @param buffer Buffer containing the body.
+   * @param offset Offset of the body.
+   * @param length Length of the body.
+   * @return Checksum.
+   */
+  private static int checksumOf(ByteBuffer buffer, int offset, int length) {
+    final var checksum = new CRC32C();
+
+    checksum.update(buffer.slice(offset, length));
+
+    return (int) checksum.getValue();
+  }
+
+  /**
+   * Encodes a record.
+   *
+   * @param operation Operation.
+   * @param name      Variable name.
+   * @param data      Encoded value.
+   * @return Encoded record.
+   */
+  private static ByteBuffer encodeRecord(byte operation, String name, byte[] data) {
+    final var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+
+    final var bodyLength = 1 + Integer.BYTES + nameBytes.length + data.length;
+
+    final var record = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+
+    record.putInt(bodyLength);
+    record.putInt(0); // Checksum, computed once the body is written
+    record.put(operation);
+    record.putInt(nameBytes.length);
+    record.put(nameBytes);
+    record.put(data);
+
+    record.putInt(Integer.BYTES, checksumOf(record, HEADER_SIZE, bodyLength));
+
+    return record.flip();
+  }
+
+  /**
+   * Retrieve a context variable.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public Object get(String name) throws IOException {
+    final var value = values.get(name);
+
+    if (value == null) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    return value;
+  }
+
+  /**
+   * Looks up a context variable without allocating.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or null in case the variable does not exist.
+   */
+  @Override
+  public Object lookup(String name) {
+    return values.get(name);
+  }
+
+  /**
+   * Creates a context variable.
+   *
+   * @param name  Name of the context variable.
+   * @param value Value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same name already exists.
+   * @throws IOException If the variable could not be created.
+   */
+  @Override
+  public int create(String name, Object value) throws IOException {
+    writeLock.lock();
+    try {
+      if (values.containsKey(name)) {
+        throw new IOException("A variable with the name '%s' already exists".formatted(name));
+      }
+
+      final var size = put(name, value);
+
+      structureChanged();
+
+      return size;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Assigns to a context variable.
+   *
+   * @param name  Name of the context variable.
+   * @param value New value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be assigned to.
+   */
+  @Override
+  public int assign(String name, Object value) throws IOException {
+    writeLock.lock();
+    try {
+      if (!values.containsKey(name)) {
+        throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+      }
+
+      return put(name, value);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Updates a context variable, assigning the result of an update function applied to its current value.
+   * <p>
+   * The update is atomic, reading the current value, applying the update function and appending the record happen while holding the write
+   * lock.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be updated.
+   */
+  @Override
+  public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    writeLock.lock();
+    try {
+      final var value = values.get(name);
+
+      if (value == null) {
+        throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+      }
+
+      return put(name, Objects.requireNonNull(updateFunction.apply(value), "Updated value cannot be null"));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Deletes a context variable.
+   *
+   * @param name Name of the context variable.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be deleted.
+   */
+  @Override
+  public void delete(String name) throws IOException {
+    writeLock.lock();
+    try {
+      if (!values.containsKey(name)) {
+        throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+      }
+
+      append(encodeRecord(OPERATION_DELETE, name, new byte[0]));
+
+      values.remove(name);
+      liveBytes -= recordSizes.remove(name);
+
+      structureChanged();
+
+      compactIfSuperseded();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns all context variables.
+   *
+   * @return Context variables.
+   */
+  @Override
+  public List<ContextVariable> getAll() {
+    return values.entrySet().stream()
+        .map(entry -> new ContextVariable(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  /**
+   * Writes the log to the storage device and closes it.
+   *
+   * @throws IOException If the log could not be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    writeLock.lock();
+    try {
+      log.force();
+      channel.close();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Compacts the log, keeping only the live records.
+   *
+   * @throws IOException If the log could not be compacted.
+   */
+  public void compact() throws IOException {
+    writeLock.lock();
+    try {
+      final var logPath = directory.resolve(LOG_FILE_NAME);
+      final var compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+
+      // Write the live records to a new log
+      try (final var compactedChannel = FileChannel.open(compactedLogPath,
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        for (final var entry : values.entrySet()) {
+          final var record = encodeRecord(OPERATION_PUT, entry.getKey(), toBytes(entry.getValue()));
+
+          while (record.hasRemaining()) {
+            compactedChannel.write(record);
+          }
+        }
+
+        compactedChannel.force(true);
+      }
+
+      // Replace the current log atomically, a crash before the move keeps the current log
+      log.force();
+      channel.close();
+
+      Files.move(compactedLogPath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+      open(logPath);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Opens and replays a log.
+   *
+   * @param logPath Path of the log.
+   * @throws IOException If the log could not be opened.
+   */
+  private void open(Path logPath) throws IOException {
+    channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    final var size = channel.size();
+
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The log '%s' exceeds the maximum size".formatted(logPath));
+    }
+
+    log = channel.map(MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, size));
+
+    values.clear();
+    recordSizes.clear();
+
+    position = 0;
+    liveBytes = 0;
+
+    replay();
+
+    // Discard anything following the last complete record, such that the remainder of a torn write is never mistaken for a record once
+    // new records are appended
+    final var discarded = discardTail();
+
+    if (discarded > 0) {
+      logger.warn("Discarded {} bytes following the last complete record of the log '{}'", discarded, logPath);
+    }
+  }
+
+  /**
+   * Zeroes the log following the last complete record.
+   *
+   * @return Number of non-zero bytes that were discarded.
+   */
+  private int discardTail() {
+    var discarded = 0;
+
+    for (int i = position; i < log.capacity(); ++i) {
+      if (log.get(i) != 0) {
+        log.put(i, (byte) 0);
+        ++discarded;
+      }
+    }
+
+    return discarded;
+  }
+
+  /**
+   * Replays the log, stopping at the first incomplete or corrupt record.
+   */
+  private void replay() {
+    while (position + HEADER_SIZE <= log.capacity()) {
+      final var bodyLength = log.getInt(position);
+
+      // The remainder of the log is empty or the record is incomplete
+      if (bodyLength <= 0 || position + HEADER_SIZE + bodyLength > log.capacity()) {
+        return;
+      }
+
+      if (log.getInt(position + Integer.BYTES) != checksumOf(log, position + HEADER_SIZE, bodyLength)) {
+        return;
+      }
+
+      // Decode the body
+      final var body = log.slice(position + HEADER_SIZE, bodyLength);
+
+      final var operation = body.get();
+
+      final var nameBytes = new byte[body.getInt()];
+      body.get(nameBytes);
+
+      final var name = new String(nameBytes, StandardCharsets.UTF_8);
+
+      final var recordSize = HEADER_SIZE + bodyLength;
+
+      switch (operation) {
+        case OPERATION_PUT -> {
+          final var data = new byte[body.remaining()];
+          body.get(data);
+
+          values.put(name, fromBytes(data));
+
+          final var previousSize = recordSizes.put(name, recordSize);
+
+          liveBytes += recordSize - (previousSize != null ? previousSize : 0);
+        }
+        case OPERATION_DELETE -> {
+          values.remove(name);
+
+          final var previousSize = recordSizes.remove(name);
+
+          liveBytes -= previousSize != null ? previousSize : 0;
+        }
+        default -> {
+          return;
+        }
+      }
+
+      position += recordSize;
+    }
+  }
+
+  /**
+   * Appends a put record and indexes the value, the write lock must be held.
+   *
+   * @param name  Name of the context variable.
+   * @param value Value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If the record could not be appended.
+   */
+  private int put(String name, Object value) throws IOException {
+    try {
+      final var data = toBytes(value);
+
+      final var record = encodeRecord(OPERATION_PUT, name, data);
+      final var recordSize = record.remaining();
+
+      append(record);
+
+      values.put(name, value);
+
+      final var previousSize = recordSizes.put(name, recordSize);
+
+      liveBytes += recordSize - (previousSize != null ? previousSize : 0);
+
+      compactIfSuperseded();
+
+      return data.length;
+    } catch (UnsupportedOperationException e) {
+      throw new IOException("Failed to store the variable '%s'".formatted(name), e);
+    }
+  }
+
+  /**
+   * Appends a record to the log, growing the mapping if required. The record is written to the storage device if required by the sync
+   * policy. The write lock must be held.
+   *
+   * @param record Encoded record.
+   * @throws IOException If the mapping could not be grown.
+   */
+  private void append(ByteBuffer record) throws IOException {
+    final var required = (long) position + record.remaining();
+
+    if (required > log.capacity()) {
+      var capacity = (long) log.capacity();
+
+      while (capacity < required) {
+        capacity <<= 1;
+      }
+
+      if (capacity > Integer.MAX_VALUE) {
+        throw new IOException("The log exceeds the maximum size");
+      }
+
+      log = channel.map(MapMode.READ_WRITE, 0, capacity);
+    }
+
+    final var recordSize = record.remaining();
+
+    log.put(position, record, 0, recordSize);
+
+    if (syncPolicy == SyncPolicy.EveryWrite) {
+      log.force(position, recordSize);
+    }
+
+    position += recordSize;
+  }
+
+  /**
+   * Compacts the log in case the majority of it is superseded. The write lock must be held.
+   *
+   * @throws IOException If the log could not be compacted.
+   */
+  private void compactIfSuperseded() throws IOException {
+    if (position >= MINIMUM_COMPACTION_SIZE && liveBytes * 2 < position) {
+      compact();
+    }
+  }
+
+  private byte[] toBytes(Object value) throws UnsupportedOperationException {
+    return new ValueExchange(value).toBytes();
+  }
+
+  private Object fromBytes(byte[] bytes) throws UnsupportedOperationException {
+    return ValueExchange.fromBytes(bytes).getValue();
+  }
+
+  /**
+   * Returns the number of bytes of the log occupied by records.
+   *
+   * @return Log size in bytes.
+   */
+  public int getLogSize() {
+    return position;
+  }
+
+  /**
+   * Policy determining when the log of a file context is written to the storage device.
+   */
+  public enum SyncPolicy {
+    /**
+     * The log is written to the storage device when the context is closed or compacted. Mutations survive a crash of the process, but may
+     * be lost on a crash of the operating system or a power loss.
+     */
+    OnClose,
+
+    /**
+     * Each mutation is written to the storage device before it completes. Mutations survive a crash of the operating system or a power
+     * loss, at the cost of a write to the storage device per mutation.
+     */
+    EveryWrite
+  }
+}
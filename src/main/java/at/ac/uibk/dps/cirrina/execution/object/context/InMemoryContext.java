@@ -1,9 +1,12 @@
 package at.ac.uibk.dps.cirrina.execution.object.context;
 
+import jakarta.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 /**
  * An in-memory context, where context variables are contained in a hash map.
@@ -31,10 +34,23 @@ public class InMemoryContext extends Context {
    */
   @Override
   public Object get(String name) throws IOException {
-    if (!values.containsKey(name)) {
+    final var value = values.get(name);
+
+    if (value == null) {
       throw new IOException("A variable with the name '%s' does not exist".formatted(name));
     }
 
+    return value;
+  }
+
+  /**
+   * Looks up a context variable without allocating.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or null in case the variable does not exist.
+   */
+  @Override
+  public @Nullable Object lookup(String name) {
     return values.get(name);
   }
 
@@ -51,11 +67,12 @@ public class InMemoryContext extends Context {
    */
   @Override
   public int create(String name, Object value) throws IOException {
-    if (values.containsKey(name)) {
+    // Check and insert atomically, with a single hash lookup
+    if (values.putIfAbsent(name, value) != null) {
       throw new IOException("A variable with the name '%s' already exists".formatted(name));
     }
 
-    values.put(name, value);
+    structureChanged();
 
     // We only return the byte size for byte arrays
     if (value instanceof byte[]) {
@@ -78,11 +95,37 @@ public class InMemoryContext extends Context {
    */
   @Override
   public int assign(String name, Object value) throws IOException {
-    if (!values.containsKey(name)) {
+    // Only replaces an existing mapping, atomically
+    if (values.replace(name, value) == null) {
       throw new IOException("A variable with the name '%s' does not exist".formatted(name));
     }
 
-    values.put(name, value);
+    // We only return the byte size for byte arrays
+    if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+
+    return 0;
+  }
+
+  /**
+   * Updates a context variable atomically.
+   * <p>
+   * The byte size is only returned for binary (byte array) data, and is 0 otherwise.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    final var value = values.computeIfPresent(name, (key, currentValue) ->
+        Objects.requireNonNull(updateFunction.apply(currentValue), "Updated value cannot be null"));
+
+    if (value == null) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
 
     // We only return the byte size for byte arrays
     if (value instanceof byte[]) {
@@ -101,11 +144,11 @@ public class InMemoryContext extends Context {
    */
   @Override
   public void delete(String name) throws IOException {
-    if (!values.containsKey(name)) {
+    if (values.remove(name) == null) {
       throw new IOException("A variable with the name '%s' does not exist".formatted(name));
     }
 
-    values.remove(name);
+    structureChanged();
   }
 
   /**
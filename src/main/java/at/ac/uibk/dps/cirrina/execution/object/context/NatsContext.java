@@ -2,13 +2,23 @@ package at.ac.uibk.dps.cirrina.execution.object.context;
 
 import at.ac.uibk.dps.cirrina.execution.object.exchange.ValueExchange;
 import io.nats.client.Connection;
+import io.nats.client.JetStream;
 import io.nats.client.JetStreamApiException;
 import io.nats.client.KeyValue;
 import io.nats.client.Nats;
 import io.nats.client.api.KeyValueConfiguration;
+import io.nats.client.api.KeyValueOperation;
+import io.nats.client.api.PublishAck;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -22,6 +32,16 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   private static final Logger logger = LogManager.getLogger();
 
+  /**
+   * Maximum number of attempts of a compare-and-set update before giving up.
+   */
+  private static final int MAX_UPDATE_ATTEMPTS = 16;
+
+  /**
+   * JetStream API error code indicating that the revision of a key did not match the expected revision.
+   */
+  private static final int WRONG_LAST_SEQUENCE_ERROR_CODE = 10071;
+
   /**
    * The NATS connection.
    */
@@ -32,6 +52,16 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   private final KeyValue keyValue;
 
+  /**
+   * The JetStream context, used to publish batched assignments asynchronously.
+   */
+  private final JetStream jetStream;
+
+  /**
+   * The batched assignments of the current thread by variable name, or null if the current thread is not batching.
+   */
+  private final ThreadLocal<Map<String, BatchedAssignment>> batchedAssignments = new ThreadLocal<>();
+
   /**
    * Initializes an empty persistent context.
    *
@@ -64,6 +94,8 @@ public final class NatsContext extends Context implements AutoCloseable {
 
       // Retrieve the bucket
       keyValue = connection.keyValue(bucketName);
+
+      jetStream = connection.jetStream();
     } catch (IOException | JetStreamApiException e) {
       throw new IOException("Failed to create the persistent context bucket: %s".formatted(e.getMessage()));
     }
@@ -81,8 +113,53 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   @Override
   public Object get(String name) throws IOException {
+    final var value = read(name);
+
+    if (value == null) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    return value;
+  }
+
+  /**
+   * Looks up a context variable, a missing variable is reported as null instead of an exception.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or null in case the variable does not exist.
+   * @throws UncheckedIOException If the context variable could not be retrieved.
+   */
+  @Override
+  public @Nullable Object lookup(String name) throws UncheckedIOException {
+    try {
+      return read(name);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads a context variable, including the assignments batched by the current thread.
+   *
+   * @param name Name of the context variable.
+   * @return The read context variable or null in case the variable does not exist.
+   * @throws IOException If the context variable could not be retrieved.
+   */
+  private @Nullable Object read(String name) throws IOException {
+    // Batched assignments are visible to the batching thread
+    final var batchedAssignment = getBatchedAssignment(name);
+
+    if (batchedAssignment != null) {
+      return batchedAssignment.value();
+    }
+
     try {
-      var entry = keyValue.get(name);
+      final var entry = keyValue.get(name);
+
+      // A variable that does not exist or is deleted is not an error
+      if (entry == null || entry.getOperation() != KeyValueOperation.PUT) {
+        return null;
+      }
 
       return fromBytes(entry.getValue());
     } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
@@ -103,11 +180,16 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   @Override
   public int create(String name, Object value) throws IOException {
+    // Keep the order of mutations, creations are never batched since a failure must be reported immediately
+    writeBatchedAssignments();
+
     try {
       final var data = toBytes(value);
 
       keyValue.create(name, data);
 
+      structureChanged();
+
       return data.length;
     } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
       throw new IOException("Failed to create variable '%s'".formatted(name), e);
@@ -128,6 +210,15 @@ public final class NatsContext extends Context implements AutoCloseable {
     try {
       final var data = toBytes(value);
 
+      // Batch the assignment, if the current thread is batching
+      final var assignments = batchedAssignments.get();
+
+      if (assignments != null) {
+        assignments.put(name, new BatchedAssignment(value, data));
+
+        return data.length;
+      }
+
       keyValue.put(name, data);
 
       return data.length;
@@ -136,6 +227,86 @@ public final class NatsContext extends Context implements AutoCloseable {
     }
   }
 
+  /**
+   * Updates a context variable using compare-and-set.
+   * <p>
+   * The current revision is read, the update function is applied and the result is only stored if the revision did not change in the
+   * meantime. Otherwise, the update is retried with the latest revision, up to a maximum number of attempts.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be updated.
+   */
+  @Override
+  public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+    return compareAndSet(name, updateFunction, null, 0).size();
+  }
+
+  /**
+   * Updates a context variable using compare-and-set, starting from a known value and revision.
+   * <p>
+   * The known value is used for the first attempt, avoiding a read in case it is current. If no value is known, the first attempt reads the
+   * current revision.
+   *
+   * @param name           Name of the context variable.
+   * @param updateFunction Update function, receives the current value and returns the new value.
+   * @param knownValue     Known value or null.
+   * @param knownRevision  Revision of the known value.
+   * @return Update result.
+   * @throws IOException If a variable with the same does not exist.
+   * @throws IOException If the variable could not be updated.
+   */
+  Update compareAndSet(
+      String name,
+      UnaryOperator<Object> updateFunction,
+      @Nullable Object knownValue,
+      long knownRevision
+  ) throws IOException {
+    // Keep the order of mutations
+    writeBatchedAssignments();
+
+    var currentValue = knownValue;
+    var currentRevision = knownRevision;
+
+    try {
+      for (var attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; ++attempt) {
+        // Read the current revision, unless known
+        if (currentValue == null) {
+          final var entry = keyValue.get(name);
+
+          if (entry == null || entry.getOperation() != KeyValueOperation.PUT) {
+            throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+          }
+
+          currentValue = fromBytes(entry.getValue());
+          currentRevision = entry.getRevision();
+        }
+
+        final var value = updateFunction.apply(currentValue);
+        final var data = toBytes(value);
+
+        try {
+          final var revision = keyValue.update(name, data, currentRevision);
+
+          return new Update(value, revision, data.length);
+        } catch (JetStreamApiException e) {
+          if (e.getApiErrorCode() != WRONG_LAST_SEQUENCE_ERROR_CODE) {
+            throw e;
+          }
+
+          // The variable was updated concurrently, retry with the latest revision
+          currentValue = null;
+        }
+      }
+    } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+      throw new IOException("Failed to update the variable '%s'".formatted(name), e);
+    }
+
+    throw new IOException("Failed to update the variable '%s', it was updated concurrently %d times".formatted(name, MAX_UPDATE_ATTEMPTS));
+  }
+
   /**
    * Deletes a context variable.
    *
@@ -145,8 +316,13 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   @Override
   public void delete(String name) throws IOException {
+    // Keep the order of mutations
+    writeBatchedAssignments();
+
     try {
       keyValue.delete(name);
+
+      structureChanged();
     } catch (IOException | JetStreamApiException e) {
       throw new IOException("Failed to delete the variable '%s'".formatted(name), e);
     }
@@ -160,6 +336,8 @@ public final class NatsContext extends Context implements AutoCloseable {
    */
   @Override
   public List<ContextVariable> getAll() throws IOException {
+    writeBatchedAssignments();
+
     var ret = new ArrayList<ContextVariable>();
 
     try {
@@ -180,6 +358,90 @@ public final class NatsContext extends Context implements AutoCloseable {
     return ret;
   }
 
+  /**
+   * Begins batching the assignments of the current thread.
+   * <p>
+   * Batched assignments are visible to the current thread only, until the batch is flushed.
+   */
+  @Override
+  public void beginBatch() {
+    if (batchedAssignments.get() == null) {
+      batchedAssignments.set(new LinkedHashMap<>());
+    }
+  }
+
+  /**
+   * Writes the batched assignments of the current thread and ends batching.
+   *
+   * @throws IOException If the batched assignments could not be written.
+   */
+  @Override
+  public void flushBatch() throws IOException {
+    try {
+      writeBatchedAssignments();
+    } finally {
+      batchedAssignments.remove();
+    }
+  }
+
+  /**
+   * Writes the batched assignments of the current thread, without ending batching.
+   * <p>
+   * All assignments are published asynchronously before awaiting their acknowledgements, such that writing a batch takes a single round
+   * trip.
+   *
+   * @throws IOException If the batched assignments could not be written.
+   */
+  void writeBatchedAssignments() throws IOException {
+    final var assignments = batchedAssignments.get();
+
+    if (assignments == null || assignments.isEmpty()) {
+      return;
+    }
+
+    // Publish all assignments to the subjects of their keys
+    final var acknowledgements = new ArrayList<CompletableFuture<PublishAck>>(assignments.size());
+
+    for (final var assignment : assignments.entrySet()) {
+      acknowledgements.add(
+          jetStream.publishAsync("$KV.%s.%s".formatted(keyValue.getBucketName(), assignment.getKey()), assignment.getValue().data()));
+    }
+
+    assignments.clear();
+
+    // Await all acknowledgements
+    try {
+      CompletableFuture.allOf(acknowledgements.toArray(CompletableFuture[]::new)).get();
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to write the batched assignments", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw new IOException("Interrupted while writing the batched assignments", e);
+    }
+  }
+
+  /**
+   * Returns the batched assignment of a variable by the current thread.
+   *
+   * @param name Name of the context variable.
+   * @return Batched assignment or null in case the variable is not assigned in the batch of the current thread.
+   */
+  @Nullable BatchedAssignment getBatchedAssignment(String name) {
+    final var assignments = batchedAssignments.get();
+
+    return assignments != null ? assignments.get(name) : null;
+  }
+
+  /**
+   * Returns a flag that indicates if the current thread is batching assignments.
+   *
+   * @return True if batching, otherwise false.
+   */
+  boolean isBatching() {
+    return batchedAssignments.get() != null;
+  }
+
   private byte[] toBytes(Object value) throws UnsupportedOperationException {
     return new ValueExchange(value).toBytes();
   }
@@ -201,4 +463,34 @@ public final class NatsContext extends Context implements AutoCloseable {
       throw new IOException("Failed to close NATS persistent context", e);
     }
   }
+
+  /**
+   * Returns the key-value, allowing the bucket to be watched.
+   *
+   * @return Key-value.
+   */
+  KeyValue getKeyValue() {
+    return keyValue;
+  }
+
+  /**
+   * Result of a compare-and-set update.
+   *
+   * @param value    Stored value.
+   * @param revision Revision of the stored value.
+   * @param size     Byte size of stored data.
+   */
+  record Update(Object value, long revision, int size) {
+
+  }
+
+  /**
+   * An assignment batched by a thread.
+   *
+   * @param value Assigned value.
+   * @param data  Encoded value.
+   */
+  record BatchedAssignment(Object value, byte[] data) {
+
+  }
 }
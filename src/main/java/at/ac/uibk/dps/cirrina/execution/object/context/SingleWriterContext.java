@@ -0,0 +1,376 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A single-writer in-memory context, where context variables are contained in an open-addressing hash table.
+ * <p>
+ * Slots are reserved upfront for the variables declared in the context description, these slots are computed once on construction and
+ * are kept when a variable is deleted, so that repeatedly creating and deleting a declared variable does not change the structure of the
+ * table. Collisions are resolved by linear probing.
+ * <p>
+ * This context is not synchronized, it must only be mutated by a single thread, typically the thread of the owning state machine
+ * instance. Other threads may read concurrently, for example nested state machine instances resolving variables through their extent. The
+ * table is published through a volatile field and its slots are written with release and read with acquire semantics, such that a reader
+ * never observes a key without its value, but a reader is not guaranteed to observe the latest assignment.
+ */
+public final class SingleWriterContext extends Context {
+
+  /**
+   * Minimum capacity of the table, must be a power of two.
+   */
+  private static final int MINIMUM_CAPACITY = 8;
+
+  /**
+   * Marker for a reserved slot without a value.
+   */
+  private static final Object UNSET = new Object();
+
+  private volatile Table table;
+
+  /**
+   * Initializes an empty single-writer context.
+   *
+   * @param isLocal True if this context is local, otherwise false.
+   */
+  public SingleWriterContext(boolean isLocal) {
+    this(isLocal, List.of());
+  }
+
+  /**
+   * Initializes an empty single-writer context, reserving slots for the declared variables.
+   *
+   * @param isLocal       True if this context is local, otherwise false.
+   * @param declaredNames Names of the declared context variables.
+   */
+  public SingleWriterContext(boolean isLocal, Collection<String> declaredNames) {
+    super(isLocal);
+
+    // Size the table such that the declared variables remain below the load factor
+    table = new Table(capacityFor(declaredNames.size()));
+
+    for (final var name : declaredNames) {
+      if (table.indexOf(name) < 0) {
+        table.insert(name, UNSET);
+      }
+    }
+  }
+
+  /**
+   * Returns the capacity of a table holding the provided number of entries.
+   *
+   * @param entries Number of entries.
+   * @return Table capacity.
+   */
+  private static int capacityFor(int entries) {
+    var capacity = MINIMUM_CAPACITY;
+
+    while (capacity * 3 <= entries * 4) {
+      capacity <<= 1;
+    }
+
+    return capacity;
+  }
+
+  /**
+   * Returns the byte size of a value, only binary (byte array) data has a byte size.
+   *
+   * @param value Value.
+   * @return Byte size.
+   */
+  private static int byteSizeOf(Object value) {
+    if (value instanceof byte[] bytes) {
+      return bytes.length;
+    }
+
+    return 0;
+  }
+
+  /**
+   * Retrieve a context variable.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public Object get(String name) throws IOException {
+    final var value = lookup(name);
+
+    if (value == null) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    return value;
+  }
+
+  /**
+   * Looks up a context variable without allocating.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable or null in case the variable does not exist.
+   */
+  @Override
+  public @Nullable Object lookup(String name) {
+    final var current = table;
+
+    final var index = current.indexOf(name);
+
+    if (index < 0) {
+      return null;
+    }
+
+    final var value = current.getValue(index);
+
+    return value == UNSET ? null : value;
+  }
+
+  /**
+   * Creates a context variable.
+   * <p>
+   * The byte size is only returned for binary (byte array) data, and is 0 otherwise.
+   *
+   * @param name  Name of the context variable.
+   * @param value Value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same name already exists.
+   */
+  @Override
+  public int create(String name, Object value) throws IOException {
+    var current = table;
+
+    final var index = current.indexOf(name);
+
+    if (index >= 0) {
+      if (current.getValue(index) != UNSET) {
+        throw new IOException("A variable with the name '%s' already exists".formatted(name));
+      }
+
+      // Reuse the reserved slot
+      current.setValue(index, value);
+    } else {
+      // Grow the table before exceeding the load factor
+      if ((current.size + 1) * 4 > current.keys.length * 3) {
+        current = current.resize(current.keys.length << 1);
+        table = current;
+      }
+
+      current.insert(name, value);
+    }
+
+    structureChanged();
+
+    return byteSizeOf(value);
+  }
+
+  /**
+   * Assigns to a context variable.
+   * <p>
+   * The byte size is only returned for binary (byte array) data, and is 0 otherwise.
+   *
+   * @param name  Name of the context variable.
+   * @param value New value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public int assign(String name, Object value) throws IOException {
+    final var current = table;
+
+    final var index = current.indexOf(name);
+
+    if (index < 0 || current.getValue(index) == UNSET) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    current.setValue(index, value);
+
+    return byteSizeOf(value);
+  }
+
+  /**
+   * Deletes a context variable.
+   * <p>
+   * The slot of the variable remains reserved, a later creation of a variable with the same name reuses it.
+   *
+   * @param name Name of the context variable.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public void delete(String name) throws IOException {
+    final var current = table;
+
+    final var index = current.indexOf(name);
+
+    if (index < 0 || current.getValue(index) == UNSET) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    current.setValue(index, UNSET);
+
+    structureChanged();
+  }
+
+  /**
+   * Returns all context variables.
+   *
+   * @return Context variables.
+   */
+  @Override
+  public List<ContextVariable> getAll() {
+    final var current = table;
+
+    final var variables = new ArrayList<ContextVariable>(current.size);
+
+    for (int i = 0; i < current.keys.length; ++i) {
+      final var key = current.getKey(i);
+      final var value = current.getValue(i);
+
+      if (key != null && value != UNSET) {
+        variables.add(new ContextVariable(key, value));
+      }
+    }
+
+    return variables;
+  }
+
+  @Override
+  public void close() {
+
+  }
+
+  /**
+   * Open-addressing hash table, keys are never removed from a table. Slots are written with release and read with acquire semantics.
+   */
+  private static final class Table {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(String[].class);
+
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final String[] keys;
+
+    private final Object[] values;
+
+    private final int mask;
+
+    private int size = 0;
+
+    /**
+     * Initializes an empty table.
+     *
+     * @param capacity Capacity, must be a power of two.
+     */
+    Table(int capacity) {
+      keys = new String[capacity];
+      values = new Object[capacity];
+      mask = capacity - 1;
+    }
+
+    /**
+     * Returns the home slot of a key, spreading the higher bits of the hash code.
+     *
+     * @param key Key.
+     * @return Home slot.
+     */
+    private int slotOf(String key) {
+      final var hash = key.hashCode();
+
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot index of a key.
+     *
+     * @param key Key.
+     * @return Slot index or -1 if the key is not contained.
+     */
+    int indexOf(String key) {
+      for (int i = slotOf(key); ; i = (i + 1) & mask) {
+        final var candidate = getKey(i);
+
+        if (candidate == null) {
+          return -1;
+        }
+
+        if (candidate.equals(key)) {
+          return i;
+        }
+      }
+    }
+
+    /**
+     * Inserts a key that is not contained, the table must have a free slot.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    void insert(String key, Object value) {
+      var i = slotOf(key);
+
+      while (keys[i] != null) {
+        i = (i + 1) & mask;
+      }
+
+      // Store the value before the key, concurrent readers must never observe a key without its value
+      setValue(i, value);
+      KEYS.setRelease(keys, i, key);
+
+      ++size;
+    }
+
+    /**
+     * Returns a copy of this table with a different capacity.
+     *
+     * @param capacity New capacity, must be a power of two.
+     * @return Resized table.
+     */
+    Table resize(int capacity) {
+      final var resized = new Table(capacity);
+
+      for (int i = 0; i < keys.length; ++i) {
+        if (keys[i] != null) {
+          resized.insert(keys[i], values[i]);
+        }
+      }
+
+      return resized;
+    }
+
+    /**
+     * Returns the key of a slot.
+     *
+     * @param index Slot index.
+     * @return Key or null if the slot is free.
+     */
+    String getKey(int index) {
+      return (String) KEYS.getAcquire(keys, index);
+    }
+
+    /**
+     * Returns the value of a slot.
+     *
+     * @param index Slot index.
+     * @return Value.
+     */
+    Object getValue(int index) {
+      return VALUES.getAcquire(values, index);
+    }
+
+    /**
+     * Sets the value of a slot.
+     *
+     * @param index Slot index.
+     * @param value Value.
+     */
+    void setValue(int index, Object value) {
+      VALUES.setRelease(values, index, value);
+    }
+  }
+}
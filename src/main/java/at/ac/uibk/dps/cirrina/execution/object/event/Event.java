@@ -6,9 +6,11 @@ import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescript
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.utils.Time;
+import jakarta.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Event, resembles an event as it is sent to state machine instances.
@@ -36,9 +38,14 @@ public final class Event {
   private final EventChannel channel;
 
   /**
-   * Event data.
+   * Event data, null until decoded in case the data is decoded lazily.
    */
-  private final List<ContextVariable> data;
+  private volatile @Nullable List<ContextVariable> data;
+
+  /**
+   * Decoder of the event data in case the data is decoded lazily, otherwise null.
+   */
+  private final @Nullable Supplier<List<ContextVariable>> dataDecoder;
 
   /**
    * Initializes this event. A random ID will be assigned to identify this event.
@@ -53,6 +60,7 @@ public final class Event {
     this.name = name;
     this.channel = channel;
     this.data = data;
+    this.dataDecoder = null;
   }
 
   /**
@@ -69,6 +77,7 @@ public final class Event {
     this.name = name;
     this.channel = channel;
     this.data = data;
+    this.dataDecoder = null;
   }
 
   /**
@@ -86,6 +95,27 @@ public final class Event {
     this.name = name;
     this.channel = channel;
     this.data = data;
+    this.dataDecoder = null;
+  }
+
+  /**
+   * Initializes this event, of which the data is decoded on first access.
+   * <p>
+   * Decoding may happen concurrently in case the data is accessed concurrently, the decoder must therefore be free of side effects.
+   *
+   * @param createdTime Event created time.
+   * @param id          Event ID.
+   * @param name        Event name.
+   * @param channel     Event channel.
+   * @param dataDecoder Event data decoder.
+   */
+  public Event(double createdTime, String id, String name, EventChannel channel, Supplier<List<ContextVariable>> dataDecoder) {
+    this.createdTime = createdTime;
+    this.id = id;
+    this.name = name;
+    this.channel = channel;
+    this.data = null;
+    this.dataDecoder = dataDecoder;
   }
 
   /**
@@ -132,7 +162,7 @@ public final class Event {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(id, name, channel, data);
+    return Objects.hash(id, name, channel, getData());
   }
 
   /**
@@ -172,11 +202,31 @@ public final class Event {
   }
 
   /**
-   * Returns the data.
+   * Returns the data, decoding it if not yet decoded.
    *
    * @return Data.
+   * @throws UnsupportedOperationException If the data could not be decoded.
+   */
+  public List<ContextVariable> getData() throws UnsupportedOperationException {
+    var current = data;
+
+    if (current == null) {
+      assert dataDecoder != null;
+
+      // Decoding concurrently is harmless, both threads decode the same data
+      current = dataDecoder.get();
+      data = current;
+    }
+
+    return current;
+  }
+
+  /**
+   * Returns whether the data is decoded.
+   *
+   * @return True if the data is decoded, otherwise false.
    */
-  public List<ContextVariable> getData() {
-    return data;
+  public boolean isDataDecoded() {
+    return data != null;
   }
 }
@@ -1,25 +1,165 @@
 package at.ac.uibk.dps.cirrina.execution.object.event;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Event handler, sends events and propagates received events to its listeners.
+ * <p>
+ * Listeners are indexed by the names of the events they are interested in, such that a received event is only propagated to the listeners
+ * interested in it. Listeners that are interested in all events are kept separately. Propagation does not lock, listeners may be added and
+ * removed concurrently.
+ */
 public abstract class EventHandler implements AutoCloseable {
 
-  private final List<EventListener> listeners = new ArrayList<>();
+  /**
+   * Source of global events, shared by all runtimes.
+   */
+  public static final String GLOBAL_SOURCE = "global";
 
-  private final ReentrantLock lock = new ReentrantLock();
+  /**
+   * Source of peripheral events, sent by components outside of the runtimes.
+   */
+  public static final String PERIPHERAL_SOURCE = "peripheral";
+
+  /**
+   * Listeners interested in all events.
+   */
+  private final Set<EventListener> wildcardListeners = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Listeners by the name of the events they are interested in.
+   */
+  private final Map<String, Set<EventListener>> listenersByEventName = new ConcurrentHashMap<>();
+
+  /**
+   * Event names by listener, for listeners with a specific interest.
+   */
+  private final Map<EventListener, Set<String>> eventNamesByListener = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the subject of an event, a source-qualified event name of the form {@code source.eventName}. Global events use the global
+   * source.
+   *
+   * @param event  Event.
+   * @param source Source of the event.
+   * @return Subject.
+   * @throws IllegalArgumentException If the channel of the event is not supported.
+   */
+  protected static String subjectOf(Event event, String source) throws IllegalArgumentException {
+    return switch (event.getChannel()) {
+      case EXTERNAL -> "%s.%s".formatted(source, event.getName());
+      case GLOBAL -> "%s.%s".formatted(GLOBAL_SOURCE, event.getName());
+      default -> throw new IllegalArgumentException("Unsupported channel '%s'".formatted(event.getChannel()));
+    };
+  }
+
+  /**
+   * Returns whether a subject matches a subscribed subject, following the NATS wildcard semantics. A {@code *} token matches exactly one
+   * token and a trailing {@code >} token matches one or more tokens. For more information, refer to the NATS documentation:
+   * https://docs.nats.io/using-nats/developer/receiving/wildcards
+   *
+   * @param pattern Subscribed subject, may contain wildcards.
+   * @param subject Subject.
+   * @return True if the subject matches, otherwise false.
+   */
+  protected static boolean subjectMatches(String pattern, String subject) {
+    var patternStart = 0;
+    var subjectStart = 0;
+
+    while (true) {
+      final var patternEnd = endOfToken(pattern, patternStart);
+      final var subjectEnd = endOfToken(subject, subjectStart);
+
+      final var isFullWildcard = patternEnd - patternStart == 1 && pattern.charAt(patternStart) == '>';
+
+      // A full wildcard matches the remaining tokens, of which there must be at least one
+      if (isFullWildcard && patternEnd == pattern.length()) {
+        return subjectStart < subject.length();
+      }
+
+      final var isWildcard = patternEnd - patternStart == 1 && pattern.charAt(patternStart) == '*';
+
+      // Any other token must match literally
+      if (!isWildcard && (patternEnd - patternStart != subjectEnd - subjectStart
+          || !pattern.regionMatches(patternStart, subject, subjectStart, patternEnd - patternStart))) {
+        return false;
+      }
+
+      final var isLastPatternToken = patternEnd == pattern.length();
+      final var isLastSubjectToken = subjectEnd == subject.length();
+
+      if (isLastPatternToken || isLastSubjectToken) {
+        return isLastPatternToken && isLastSubjectToken;
+      }
+
+      patternStart = patternEnd + 1;
+      subjectStart = subjectEnd + 1;
+    }
+  }
+
+  /**
+   * Returns the end of a subject token.
+   *
+   * @param subject Subject.
+   * @param start   Start of the token.
+   * @return End of the token, exclusive.
+   */
+  private static int endOfToken(String subject, int start) {
+    final var end = subject.indexOf('.', start);
+
+    return end < 0 ? subject.length() : end;
+  }
 
   public abstract void sendEvent(Event event, String source) throws IOException;
 
+  /**
+   * Adds a listener, indexed by the names of the events it is interested in.
+   *
+   * @param listener Listener to add.
+   */
   public void addListener(EventListener listener) {
-    try {
-      lock.lock();
+    final var eventNames = listener.getSubscribedEventNames();
+
+    if (eventNames.isEmpty()) {
+      wildcardListeners.add(listener);
+      return;
+    }
+
+    eventNamesByListener.put(listener, eventNames.get());
 
-      listeners.add(listener);
-    } finally {
-      lock.unlock();
+    for (final var eventName : eventNames.get()) {
+      listenersByEventName.compute(eventName, (name, listeners) -> {
+        final var result = listeners == null ? ConcurrentHashMap.<EventListener>newKeySet() : listeners;
+        result.add(listener);
+        return result;
+      });
+    }
+  }
+
+  /**
+   * Removes a listener. Removing a listener that is not added has no effect.
+   *
+   * @param listener Listener to remove.
+   */
+  public void removeListener(EventListener listener) {
+    if (wildcardListeners.remove(listener)) {
+      return;
+    }
+
+    final var eventNames = eventNamesByListener.remove(listener);
+
+    if (eventNames == null) {
+      return;
+    }
+
+    for (final var eventName : eventNames) {
+      listenersByEventName.computeIfPresent(eventName, (name, listeners) -> {
+        listeners.remove(listener);
+        return listeners.isEmpty() ? null : listeners;
+      });
     }
   }
 
@@ -31,13 +171,32 @@ public abstract class EventHandler implements AutoCloseable {
 
   public abstract void unsubscribe(String source, String subject);
 
+  /**
+   * Propagates an event to all listeners interested in it. A listener that does not accept the event is removed.
+   *
+   * @param event Event to propagate.
+   */
   protected void propagateEvent(Event event) {
-    try {
-      lock.lock();
+    propagateEvent(event, wildcardListeners);
+
+    final var listeners = listenersByEventName.get(event.getName());
+
+    if (listeners != null) {
+      propagateEvent(event, listeners);
+    }
+  }
 
-      listeners.removeIf(eventListener -> !eventListener.onReceiveEvent(event));
-    } finally {
-      lock.unlock();
+  /**
+   * Propagates an event to a collection of listeners. A listener that does not accept the event is removed.
+   *
+   * @param event     Event to propagate.
+   * @param listeners Listeners.
+   */
+  private void propagateEvent(Event event, Set<EventListener> listeners) {
+    for (final var listener : listeners) {
+      if (!listener.onReceiveEvent(event)) {
+        removeListener(listener);
+      }
     }
   }
 }
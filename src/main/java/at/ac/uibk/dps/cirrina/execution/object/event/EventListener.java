@@ -1,6 +1,21 @@
 package at.ac.uibk.dps.cirrina.execution.object.event;
 
+import java.util.Optional;
+import java.util.Set;
+
 public interface EventListener {
 
   boolean onReceiveEvent(Event event);
+
+  /**
+   * Returns the names of the events this listener is interested in. An event handler only propagates events with these names to this
+   * listener.
+   * <p>
+   * The interest of a listener is determined once, when it is added to an event handler.
+   *
+   * @return Event names or empty if this listener is interested in all events.
+   */
+  default Optional<Set<String>> getSubscribedEventNames() {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,243 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static at.ac.uibk.dps.cirrina.utils.Uuid.insecureUuid;
+
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import io.nats.client.Message;
+import io.nats.client.Nats;
+import io.nats.client.impl.Headers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Hybrid event handler, propagates events in-memory to the state machine instances within the same process and sends events through NATS
+ * to other processes.
+ * <p>
+ * By default, every event is also sent through NATS, since the subscriptions of remote NATS event handlers and other NATS clients are
+ * unknown. Events received through NATS that originate from this event handler are ignored, as these are already propagated in-memory.
+ * <p>
+ * Optionally, events are only sent through NATS if a remote hybrid event handler is subscribed to their subject. Hybrid event handlers
+ * exchange their subscriptions through NATS, a newly connected event handler queries the subscriptions of the others. Subscriptions are
+ * exchanged asynchronously, an event sent right after a remote subscription may not yet reach the remote subscriber. Only hybrid event
+ * handlers announce their subscriptions, therefore remote NATS event handlers and other NATS clients no longer receive events from a hybrid
+ * event handler sending only to announced subscriptions.
+ */
+public class HybridEventHandler extends InMemoryEventHandler {
+
+  /**
+   * Prefix of the subjects on which subscriptions are exchanged.
+   */
+  private static final String INTEREST_SUBJECT_PREFIX = "_cirrina.interest";
+
+  /**
+   * Header containing the ID of the event handler that sent an event.
+   */
+  private static final String ORIGIN_HEADER = "Cirrina-Origin";
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * ID of this event handler.
+   */
+  private final String id = insecureUuid().toString();
+
+  /**
+   * Subscribed subjects of the remote event handlers, by event handler ID.
+   */
+  private final Map<String, Set<String>> remoteSubscriptions = new ConcurrentHashMap<>();
+
+  /**
+   * Flag that indicates if events are only sent through NATS if a remote hybrid event handler is subscribed to their subject.
+   */
+  private final boolean isInterestOnly;
+
+  private final Connection connection;
+
+  private final Dispatcher dispatcher;
+
+  private final Dispatcher interestDispatcher;
+
+  /**
+   * Initializes this hybrid event handler, sending every event through NATS.
+   *
+   * @param natsUrl NATS server connection string.
+   * @throws IOException If the event handler could not connect to the NATS server.
+   */
+  public HybridEventHandler(String natsUrl) throws IOException {
+    this(natsUrl, false);
+  }
+
+  /**
+   * Initializes this hybrid event handler.
+   *
+   * @param natsUrl        NATS server connection string.
+   * @param isInterestOnly True if events are only sent through NATS if a remote hybrid event handler is subscribed to their subject,
+   *                       otherwise false.
+   * @throws IOException If the event handler could not connect to the NATS server.
+   */
+  public HybridEventHandler(String natsUrl, boolean isInterestOnly) throws IOException {
+    this.isInterestOnly = isInterestOnly;
+
+    // Attempt to connect to the NATS server
+    try {
+      connection = Nats.connect(natsUrl);
+    } catch (InterruptedException | IOException e) {
+      Thread.currentThread().interrupt();
+
+      throw new IOException("Could not connect to the NATS server", e);
+    }
+
+    // Create a message dispatcher for events and one for the subscriptions of the remote event handlers (asynchronous)
+    dispatcher = connection.createDispatcher(this::handle);
+
+    interestDispatcher = connection.createDispatcher(this::handleInterest);
+    interestDispatcher.subscribe("%s.>".formatted(INTEREST_SUBJECT_PREFIX));
+
+    // Query the subscriptions of the remote event handlers
+    publishInterest("query", id);
+  }
+
+  private void handle(Message message) {
+    // Events that originate from this event handler are already propagated in-memory
+    final var headers = message.getHeaders();
+
+    if (headers != null && id.equals(headers.getFirst(ORIGIN_HEADER))) {
+      return;
+    }
+
+    // Reconstruct the events from the message data, if possible, remote NATS event handlers may send event batches
+    try {
+      for (final var event : NatsEventHandler.eventsOf(message)) {
+        propagateEvent(event);
+      }
+    } catch (UnsupportedOperationException e) {
+      logger.debug("A message could not be read as an event: {}", e.getMessage());
+    }
+  }
+
+  private void handleInterest(Message message) {
+    final var operation = message.getSubject().substring(INTEREST_SUBJECT_PREFIX.length() + 1);
+
+    // The data is the ID of the event handler, optionally followed by a subject
+    final var data = new String(message.getData(), StandardCharsets.UTF_8).split(" ", 2);
+
+    final var remoteId = data[0];
+
+    if (remoteId.equals(id)) {
+      return;
+    }
+
+    switch (operation) {
+      case "add" -> remoteSubscriptions.computeIfAbsent(remoteId, key -> ConcurrentHashMap.newKeySet()).add(data[1]);
+      case "remove" -> remoteSubscriptions.computeIfPresent(remoteId, (key, subjects) -> {
+        subjects.remove(data[1]);
+        return subjects.isEmpty() ? null : subjects;
+      });
+      case "clear" -> remoteSubscriptions.remove(remoteId);
+      case "query" -> getSubscriptions().forEach(subject -> publishInterest("add", "%s %s".formatted(id, subject)));
+      default -> logger.debug("Unknown subscription operation '{}'", operation);
+    }
+  }
+
+  /**
+   * Returns whether a remote event handler is subscribed to a subject.
+   *
+   * @param subject Subject.
+   * @return True if a remote event handler is subscribed, otherwise false.
+   */
+  private boolean isSubscribedRemotely(String subject) {
+    for (final var subjects : remoteSubscriptions.values()) {
+      for (final var subscription : subjects) {
+        if (subjectMatches(subscription, subject)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Publishes a subscription operation to the remote event handlers.
+   *
+   * @param operation Operation.
+   * @param data      Operation data.
+   */
+  private void publishInterest(String operation, String data) {
+    connection.publish("%s.%s".formatted(INTEREST_SUBJECT_PREFIX, operation), data.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Sends an event, propagating it in-memory and sending it through NATS. If only sending to announced subscriptions, the event is only sent
+   * through NATS if a remote hybrid event handler is subscribed to its subject.
+   *
+   * @param event  Event to send.
+   * @param source Source of the event.
+   * @throws IOException If the event could not be sent.
+   */
+  @Override
+  public void sendEvent(Event event, String source) throws IOException {
+    super.sendEvent(event, source);
+
+    try {
+      final var subject = subjectOf(event, source);
+
+      if (isInterestOnly && !isSubscribedRemotely(subject)) {
+        return;
+      }
+
+      final var headers = new Headers();
+      headers.put(ORIGIN_HEADER, id);
+
+      connection.publish(subject, headers, new EventExchange(event).toBytes());
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      throw new IOException("Could not send event through NATS", e);
+    }
+  }
+
+  /**
+   * Closes this event handler, retracting its subscriptions from the remote event handlers.
+   *
+   * @throws IOException If the event handler could not be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      publishInterest("clear", id);
+
+      connection.closeDispatcher(interestDispatcher);
+      connection.closeDispatcher(dispatcher);
+
+      connection.close();
+    } catch (InterruptedException e) {
+      throw new IOException("Failed to close NATS event handler", e);
+    } finally {
+      super.close();
+    }
+  }
+
+  @Override
+  protected void subscribeSubject(String subject) {
+    super.subscribeSubject(subject);
+
+    dispatcher.subscribe(subject);
+
+    publishInterest("add", "%s %s".formatted(id, subject));
+  }
+
+  @Override
+  protected void unsubscribeSubject(String subject) {
+    super.unsubscribeSubject(subject);
+
+    dispatcher.unsubscribe(subject);
+
+    publishInterest("remove", "%s %s".formatted(id, subject));
+  }
+}
@@ -0,0 +1,122 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * In-memory event handler, propagates events between state machine instances within the same process.
+ * <p>
+ * Subscriptions follow the subject semantics of the NATS event handler, including wildcards, but events are passed by reference instead of
+ * being serialized. As with a NATS dispatcher, matching events are propagated in order on a single dispatcher thread, such that the sender
+ * never runs the listeners itself.
+ */
+public class InMemoryEventHandler extends EventHandler {
+
+  /**
+   * Subscribed subjects, may contain wildcards.
+   */
+  private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Dispatcher, propagates events to the listeners.
+   */
+  private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("in-memory-event-dispatcher").daemon().factory());
+
+  /**
+   * Returns whether a subject matches any subscribed subject.
+   *
+   * @param subject Subject.
+   * @return True if a subscribed subject matches, otherwise false.
+   */
+  protected boolean isSubscribed(String subject) {
+    for (final var subscription : subscriptions) {
+      if (subjectMatches(subscription, subject)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Sends an event, propagating it to the listeners of this event handler if its subject is subscribed to.
+   *
+   * @param event  Event to send.
+   * @param source Source of the event.
+   * @throws IOException If the event could not be sent.
+   */
+  @Override
+  public void sendEvent(Event event, String source) throws IOException {
+    try {
+      final var subject = subjectOf(event, source);
+
+      if (isSubscribed(subject)) {
+        dispatcher.execute(() -> propagateEvent(event));
+      }
+    } catch (IllegalArgumentException | RejectedExecutionException e) {
+      throw new IOException("Could not send event in-memory", e);
+    }
+  }
+
+  @Override
+  public void subscribe(String eventName) {
+    subscribeSubject("*.%s".formatted(eventName));
+  }
+
+  @Override
+  public void unsubscribe(String eventName) {
+    unsubscribeSubject("*.%s".formatted(eventName));
+  }
+
+  @Override
+  public void subscribe(String source, String eventName) {
+    subscribeSubject("%s.%s".formatted(source, eventName));
+  }
+
+  @Override
+  public void unsubscribe(String source, String eventName) {
+    unsubscribeSubject("%s.%s".formatted(source, eventName));
+  }
+
+  /**
+   * Closes this event handler, events that are already sent are still propagated.
+   *
+   * @throws IOException If the event handler could not be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    dispatcher.shutdown();
+  }
+
+  /**
+   * Subscribes to a subject.
+   *
+   * @param subject Subject, may contain wildcards.
+   */
+  protected void subscribeSubject(String subject) {
+    subscriptions.add(subject);
+  }
+
+  /**
+   * Unsubscribes from a subject.
+   *
+   * @param subject Subject, may contain wildcards.
+   */
+  protected void unsubscribeSubject(String subject) {
+    subscriptions.remove(subject);
+  }
+
+  /**
+   * Returns the subscribed subjects.
+   *
+   * @return Subscribed subjects.
+   */
+  protected Set<String> getSubscriptions() {
+    return Set.copyOf(subscriptions);
+  }
+}
@@ -1,19 +1,41 @@
 package at.ac.uibk.dps.cirrina.execution.object.event;
 
 import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventProtos;
 import io.nats.client.Connection;
 import io.nats.client.Dispatcher;
 import io.nats.client.Message;
 import io.nats.client.Nats;
+import io.nats.client.impl.Headers;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * NATS event handler, sends and receives events through NATS subjects.
+ * <p>
+ * Outbound events can optionally be batched. Events sent to the same subject within a linger window are then coalesced into a single event
+ * batch message, which is sent once the linger window ends or the batch reaches its maximum size. Batching trades latency for fewer, larger
+ * messages when events are sent in bursts. A single event is always sent as a plain event message.
+ * <p>
+ * A batch remains pending until it is published successfully. A batch that fails to publish is published again once another linger
+ * window ends, or when this event handler is flushed.
+ */
 public class NatsEventHandler extends EventHandler {
 
-  public static final String GLOBAL_SOURCE = "global";
-  public static final String PERIPHERAL_SOURCE = "peripheral";
+  /**
+   * Header marking a message containing an event batch.
+   */
+  static final String BATCH_HEADER = "Cirrina-Batch";
 
   private static final Logger logger = LogManager.getLogger();
 
@@ -21,7 +43,63 @@ public class NatsEventHandler extends EventHandler {
 
   private final Dispatcher dispatcher;
 
+  /**
+   * Linger window in milliseconds, 0 if batching is disabled.
+   */
+  private final long lingerInMs;
+
+  /**
+   * Maximum number of events in a batch.
+   */
+  private final int maxBatchSize;
+
+  /**
+   * Pending batches by subject, guarded by the batch lock.
+   */
+  private final Map<String, List<EventProtos.Event>> pendingBatches = new HashMap<>();
+
+  /**
+   * Batch lock, guards the pending batches. Batches are published while holding the lock, such that batches of the same subject are
+   * published in order.
+   */
+  private final ReentrantLock batchLock = new ReentrantLock();
+
+  /**
+   * Scheduler for publishing batches once their linger window ends, null if batching is disabled.
+   */
+  private final @Nullable ScheduledExecutorService lingerScheduler;
+
+  /**
+   * Initializes this NATS event handler without batching.
+   *
+   * @param natsUrl NATS server connection string.
+   * @throws IOException If the event handler could not connect to the NATS server.
+   */
   public NatsEventHandler(String natsUrl) throws IOException {
+    this(natsUrl, 0, 1);
+  }
+
+  /**
+   * Initializes this NATS event handler.
+   *
+   * @param natsUrl      NATS server connection string.
+   * @param lingerInMs   Linger window in milliseconds, 0 disables batching.
+   * @param maxBatchSize Maximum number of events in a batch.
+   * @throws IOException              If the event handler could not connect to the NATS server.
+   * @throws IllegalArgumentException If the linger window is negative or the maximum batch size is not positive.
+   */
+  public NatsEventHandler(String natsUrl, long lingerInMs, int maxBatchSize) throws IOException, IllegalArgumentException {
+    if (lingerInMs < 0) {
+      throw new IllegalArgumentException("The linger window must not be negative");
+    }
+
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("The maximum batch size must be positive");
+    }
+
+    this.lingerInMs = lingerInMs;
+    this.maxBatchSize = maxBatchSize;
+
     // Attempt to connect to the NATS server
     try {
       connection = Nats.connect(natsUrl);
@@ -33,14 +111,36 @@ public class NatsEventHandler extends EventHandler {
 
     // Create a message dispatcher (asynchronous)
     dispatcher = connection.createDispatcher(this::handle);
+
+    lingerScheduler = isBatching()
+        ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("nats-event-linger").daemon().factory())
+        : null;
+  }
+
+  /**
+   * Reconstructs the events contained in a message, being either a single event or an event batch. The event data is only decoded once
+   * accessed.
+   *
+   * @param message Message.
+   * @return Events.
+   * @throws UnsupportedOperationException If the message could not be read as events.
+   */
+  static List<Event> eventsOf(Message message) throws UnsupportedOperationException {
+    final var headers = message.getHeaders();
+
+    if (headers != null && headers.containsKey(BATCH_HEADER)) {
+      return EventExchange.fromBatchBytesLazily(message.getData());
+    }
+
+    return List.of(EventExchange.fromBytesLazily(message.getData()));
   }
 
   private void handle(Message message) {
-    // Reconstruct the event from the message data, if possible
+    // Reconstruct the events from the message data, if possible
     try {
-      var event = EventExchange.fromBytes(message.getData()).getEvent();
-
-      propagateEvent(event);
+      for (final var event : eventsOf(message)) {
+        propagateEvent(event);
+      }
     } catch (UnsupportedOperationException e) {
       logger.debug("A message could not be read as an event: {}", e.getMessage());
     }
@@ -49,21 +149,33 @@ public class NatsEventHandler extends EventHandler {
   @Override
   public void sendEvent(Event event, String source) throws IOException {
     try {
-      var data = new EventExchange(event).toBytes();
-
-      // * is used as a wildcard, for more information, refer to the NATS documentation:
-      // https://docs.nats.io/using-nats/developer/receiving/wildcards
-      var subject = Stream.of(event.getChannel())
-          .map(channel -> switch (channel) {
-            case EXTERNAL -> String.format("%s.%s", source, event.getName());
-            case GLOBAL -> String.format("%s.%s", GLOBAL_SOURCE, event.getName());
-            default -> throw new IllegalArgumentException(String.format("Unsupported channel '%s'", channel));
-          })
-          .findFirst()
-          .orElseThrow(() -> new IllegalArgumentException("No channel specified for the event"));
-
-      connection.publish(subject, data);
-    } catch (IllegalArgumentException | IllegalStateException e) {
+      final var subject = subjectOf(event, source);
+
+      if (!isBatching()) {
+        connection.publish(subject, new EventExchange(event).toBytes());
+        return;
+      }
+
+      // Serialize now, such that the batch does not depend on the event afterward
+      final var proto = new EventExchange(event).toProto();
+
+      batchLock.lock();
+      try {
+        final var batch = pendingBatches.computeIfAbsent(subject, key -> new ArrayList<>());
+
+        batch.add(proto);
+
+        if (batch.size() >= maxBatchSize) {
+          publishBatch(subject);
+        } else if (batch.size() == 1) {
+          // Publish the batch once the linger window of its first event ends
+          assert lingerScheduler != null;
+          lingerScheduler.schedule(() -> publishBatch(subject, batch), lingerInMs, TimeUnit.MILLISECONDS);
+        }
+      } finally {
+        batchLock.unlock();
+      }
+    } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
       throw new IOException("Could not send event through NATS", e);
     }
   }
@@ -88,9 +200,38 @@ public class NatsEventHandler extends EventHandler {
     dispatcher.unsubscribe(String.format("%s.%s", source, eventName));
   }
 
+  /**
+   * Publishes all pending batches. Batches that fail to publish remain pending.
+   */
+  public void flush() {
+    batchLock.lock();
+    try {
+      for (final var subject : List.copyOf(pendingBatches.keySet())) {
+        try {
+          publishBatch(subject);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          logger.error("Failed to publish an event batch: {}", e.getMessage());
+        }
+      }
+    } finally {
+      batchLock.unlock();
+    }
+  }
+
+  /**
+   * Closes this event handler, publishing all pending batches.
+   *
+   * @throws IOException If the event handler could not be closed.
+   */
   @Override
   public void close() throws IOException {
     try {
+      if (lingerScheduler != null) {
+        lingerScheduler.shutdownNow();
+      }
+
+      flush();
+
       connection.closeDispatcher(dispatcher);
 
       connection.close();
@@ -98,4 +239,66 @@ public class NatsEventHandler extends EventHandler {
       throw new IOException("Failed to close NATS persistent context", e);
     }
   }
+
+  /**
+   * Publishes a batch once its linger window ends, unless it is already published.
+   *
+   * @param subject Subject.
+   * @param batch   Batch.
+   */
+  private void publishBatch(String subject, List<EventProtos.Event> batch) {
+    batchLock.lock();
+    try {
+      if (pendingBatches.get(subject) == batch) {
+        publishBatch(subject);
+      }
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      logger.error("Failed to publish an event batch: {}", e.getMessage());
+    } finally {
+      batchLock.unlock();
+    }
+  }
+
+  /**
+   * Publishes the pending batch of a subject, the batch lock must be held.
+   * <p>
+   * The batch is removed once published. If publishing fails, the batch remains pending and is published again once another linger window
+   * ends.
+   *
+   * @param subject Subject.
+   * @throws IllegalArgumentException If the batch could not be published.
+   * @throws IllegalStateException    If the batch could not be published.
+   */
+  private void publishBatch(String subject) throws IllegalArgumentException, IllegalStateException {
+    final var batch = pendingBatches.get(subject);
+
+    if (batch == null) {
+      return;
+    }
+
+    try {
+      // A single event is published as is
+      if (batch.size() == 1) {
+        connection.publish(subject, batch.getFirst().toByteArray());
+      } else {
+        final var headers = new Headers();
+        headers.put(BATCH_HEADER, Integer.toString(batch.size()));
+
+        connection.publish(subject, headers, EventExchange.toBatchBytes(batch));
+      }
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      // Retry once the next linger window ends, unless closed
+      if (lingerScheduler != null && !lingerScheduler.isShutdown()) {
+        lingerScheduler.schedule(() -> publishBatch(subject, batch), lingerInMs, TimeUnit.MILLISECONDS);
+      }
+
+      throw e;
+    }
+
+    pendingBatches.remove(subject);
+  }
+
+  private boolean isBatching() {
+    return lingerInMs > 0;
+  }
 }
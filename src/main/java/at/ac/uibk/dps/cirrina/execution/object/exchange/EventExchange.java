@@ -3,7 +3,13 @@ package at.ac.uibk.dps.cirrina.execution.object.exchange;
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Event exchange, responsible for converting an event object to a consistent exchange format, using Protocol Buffers.
@@ -12,6 +18,18 @@ import com.google.protobuf.InvalidProtocolBufferException;
  */
 public class EventExchange {
 
+  private static final int CREATED_TIME_TAG = EventProtos.Event.CREATEDTIME_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_FIXED64;
+
+  private static final int ID_TAG = EventProtos.Event.ID_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+  private static final int NAME_TAG = EventProtos.Event.NAME_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+  private static final int CHANNEL_TAG = EventProtos.Event.CHANNEL_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+
+  private static final int DATA_TAG = EventProtos.Event.DATA_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+  private static final int EVENTS_TAG = EventProtos.EventBatch.EVENTS_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
   /**
    * The event object.
    */
@@ -44,6 +62,140 @@ public class EventExchange {
     }
   }
 
+  /**
+   * Construct an event from byte data, of which the data is decoded on first access.
+   * <p>
+   * Only the name, channel, ID and created time are read upfront. The encoded data variables are kept as views of the byte data, which must
+   * therefore not be modified afterward. Binary values are copied once, when the data is decoded.
+   *
+   * @param data Byte data.
+   * @return Event object.
+   * @throws UnsupportedOperationException If the event could not be read.
+   * @throws UnsupportedOperationException If the event has an unrecognized channel.
+   */
+  public static Event fromBytesLazily(byte[] data) throws UnsupportedOperationException {
+    final var input = CodedInputStream.newInstance(data);
+    input.enableAliasing(true);
+
+    return fromInputLazily(input);
+  }
+
+  /**
+   * Construct events from the byte data of an event batch, of which the data is decoded on first access.
+   *
+   * @param data Byte data.
+   * @return Event objects.
+   * @throws UnsupportedOperationException If the event batch could not be read.
+   * @throws UnsupportedOperationException If an event has an unrecognized channel.
+   * @see #fromBytesLazily(byte[])
+   */
+  public static List<Event> fromBatchBytesLazily(byte[] data) throws UnsupportedOperationException {
+    try {
+      final var input = CodedInputStream.newInstance(data);
+      input.enableAliasing(true);
+
+      final var events = new ArrayList<Event>();
+
+      for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+        if (tag == EVENTS_TAG) {
+          final var eventInput = input.readBytes().newCodedInput();
+          eventInput.enableAliasing(true);
+
+          events.add(fromInputLazily(eventInput));
+        } else if (!input.skipField(tag)) {
+          break;
+        }
+      }
+
+      return events;
+    } catch (IOException e) {
+      throw new UnsupportedOperationException("Received an event batch with an unsupported payload", e);
+    }
+  }
+
+  /**
+   * Converts event protos to the bytes of an event batch.
+   *
+   * @param events Event protos.
+   * @return Bytes.
+   */
+  public static byte[] toBatchBytes(List<EventProtos.Event> events) {
+    return EventProtos.EventBatch.newBuilder()
+        .addAllEvents(events)
+        .build()
+        .toByteArray();
+  }
+
+  /**
+   * Construct an event from an input, of which the data is decoded on first access.
+   *
+   * @param input Input, aliasing the byte data.
+   * @return Event object.
+   * @throws UnsupportedOperationException If the event could not be read.
+   * @throws UnsupportedOperationException If the event has an unrecognized channel.
+   */
+  private static Event fromInputLazily(CodedInputStream input) throws UnsupportedOperationException {
+    try {
+      var createdTime = 0.0;
+      var id = "";
+      var name = "";
+      var channel = EventProtos.Event.Channel.INTERNAL;
+
+      final var encodedData = new ArrayList<ByteString>();
+
+      // Read the fields, skipping unknown fields as the generated parser does
+      for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+        if (tag == CREATED_TIME_TAG) {
+          createdTime = input.readDouble();
+        } else if (tag == ID_TAG) {
+          id = input.readStringRequireUtf8();
+        } else if (tag == NAME_TAG) {
+          name = input.readStringRequireUtf8();
+        } else if (tag == CHANNEL_TAG) {
+          channel = EventProtos.Event.Channel.forNumber(input.readEnum());
+        } else if (tag == DATA_TAG) {
+          encodedData.add(input.readBytes());
+        } else if (!input.skipField(tag)) {
+          break;
+        }
+      }
+
+      if (channel == null) {
+        throw new UnsupportedOperationException("Event has an unrecognized channel");
+      }
+
+      return new Event(createdTime, id, name, EventChannel.valueOf(channel.name()), () -> decodeData(encodedData));
+    } catch (IOException e) {
+      throw new UnsupportedOperationException("Received an event with an unsupported payload", e);
+    } catch (IllegalArgumentException e) {
+      throw new UnsupportedOperationException("Event has an unrecognized channel", e);
+    }
+  }
+
+  /**
+   * Decodes encoded event data variables.
+   *
+   * @param encodedData Encoded event data variables.
+   * @return Event data variables.
+   * @throws UnsupportedOperationException If the event data could not be read.
+   */
+  private static List<ContextVariable> decodeData(List<ByteString> encodedData) throws UnsupportedOperationException {
+    try {
+      final var data = new ArrayList<ContextVariable>(encodedData.size());
+
+      for (final var encodedVariable : encodedData) {
+        final var input = encodedVariable.newCodedInput();
+        input.enableAliasing(true);
+
+        data.add(ContextVariableExchange.fromProto(ContextVariableProtos.ContextVariable.parseFrom(input)));
+      }
+
+      return List.copyOf(data);
+    } catch (IOException e) {
+      throw new UnsupportedOperationException("Received an event with unsupported data", e);
+    }
+  }
+
   /**
    * Construct an event object from a proto.
    *
@@ -76,20 +228,23 @@ public class EventExchange {
    * @throws IllegalStateException If the event has unevaluated data.
    */
   public byte[] toBytes() throws IllegalStateException {
-    if (event.getData().stream().anyMatch(ContextVariable::isLazy)) {
-      throw new IllegalStateException("Event '%s' has unevaluated event data".formatted(event.getName()));
-    }
-
     return toProto().toByteArray();
   }
 
   /**
    * Returns a proto from this exchange.
+   * <p>
+   * Event data must be evaluated before conversion to a proto can succeed.
    *
    * @return Proto.
+   * @throws IllegalStateException         If the event has unevaluated data.
    * @throws UnsupportedOperationException If the event has an unrecognized channel.
    */
-  public EventProtos.Event toProto() throws UnsupportedOperationException {
+  public EventProtos.Event toProto() throws IllegalStateException, UnsupportedOperationException {
+    if (event.getData().stream().anyMatch(ContextVariable::isLazy)) {
+      throw new IllegalStateException("Event '%s' has unevaluated event data".formatted(event.getName()));
+    }
+
     EventProtos.Event.Channel channel;
 
     try {
@@ -88,6 +88,7 @@ public class ValueExchange {
         return proto.getBool();
       }
       case BYTES -> {
+        // Binary values are byte arrays for contexts and expressions, this is the single copy of a received binary payload
         return proto.getBytes().toByteArray();
       }
       case ARRAY -> {
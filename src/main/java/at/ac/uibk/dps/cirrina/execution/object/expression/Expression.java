@@ -34,6 +34,14 @@ public abstract class Expression {
    */
   public abstract Object execute(Extent extent) throws UnsupportedOperationException;
 
+  /**
+   * Returns a flag that indicates if this expression references a variable.
+   *
+   * @param name Name of the variable.
+   * @return True if the variable is referenced, otherwise false.
+   */
+  public abstract boolean references(String name);
+
   @Override
   public String toString() {
     return source;
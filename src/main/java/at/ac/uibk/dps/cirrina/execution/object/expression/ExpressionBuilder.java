@@ -1,12 +1,33 @@
 package at.ac.uibk.dps.cirrina.execution.object.expression;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Expression builder, builds an expression based on an expression source string. Built expressions are cached, repeatedly building the same
  * expression will return the same expression.
+ * <p>
+ * The cache is bounded and shared by all runtimes within the process, expressions are immutable and can be executed concurrently.
  */
 public final class ExpressionBuilder {
 
+  /**
+   * Maximum number of cached expressions, the least recently used expressions are evicted first.
+   */
+  private static final int MAXIMUM_CACHE_SIZE = 4096;
+
+  /**
+   * Compiled expressions by source string.
+   */
+  private static final Cache<String, Expression> EXPRESSION_CACHE = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_CACHE_SIZE)
+      .recordStats()
+      .build();
+
   private String expressionDescription;
 
   private ExpressionBuilder(String expressionDescription) {
@@ -18,12 +39,42 @@ public final class ExpressionBuilder {
   }
 
   /**
-   * Builds the collaborative state machine.
+   * Returns the statistics of the expression cache.
+   *
+   * @return Cache statistics.
+   */
+  public static CacheStats getCacheStats() {
+    return EXPRESSION_CACHE.stats();
+  }
+
+  /**
+   * Returns the approximate number of cached expressions.
+   *
+   * @return Number of cached expressions.
+   */
+  public static long getCacheSize() {
+    return EXPRESSION_CACHE.size();
+  }
+
+  /**
+   * Builds the expression, or returns the cached expression in case an expression with the same source was built before.
    *
    * @return Built expression.
-   * @throws IllegalArgumentException In case the expression could not be built.
+   * @throws IllegalArgumentException      In case the expression could not be built.
+   * @throws UnsupportedOperationException In case the expression could not be parsed.
    */
-  public Expression build() throws IllegalArgumentException {
-    return new JexlExpression(expressionDescription);
+  public Expression build() throws IllegalArgumentException, UnsupportedOperationException {
+    try {
+      return EXPRESSION_CACHE.get(expressionDescription, () -> new JexlExpression(expressionDescription));
+    } catch (UncheckedExecutionException e) {
+      // Rethrow the original exception, expressions that failed to build are not cached
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      throw new IllegalArgumentException("The expression '%s' could not be built".formatted(expressionDescription), e);
+    } catch (ExecutionException | ExecutionError e) {
+      throw new IllegalArgumentException("The expression '%s' could not be built".formatted(expressionDescription), e);
+    }
   }
 }
@@ -1,9 +1,12 @@
 package at.ac.uibk.dps.cirrina.execution.object.expression;
 
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import jakarta.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
@@ -20,8 +23,18 @@ public class JexlExpression extends Expression {
 
   private static final int CACHE_SIZE = 512; //TODO Determine the maximum amount of cached expressions
   private static final JexlEngine JEXL_ENGINE = getJexlEngine();
+
+  /**
+   * Reusable JEXL context per thread, avoids allocating a JEXL context for every execution.
+   */
+  private static final ThreadLocal<ExtentJexlContext> JEXL_CONTEXT = ThreadLocal.withInitial(ExtentJexlContext::new);
   private final JexlScript jexlScript;
 
+  /**
+   * Names of the variables referenced by this expression.
+   */
+  private final Set<String> variableNames;
+
   /**
    * Initializes the JEXL expression.
    *
@@ -36,6 +49,11 @@ public class JexlExpression extends Expression {
     } catch (Exception e) {
       throw new UnsupportedOperationException("The JEXL expression '%s' could not be parsed".formatted(source), e);
     }
+
+    // Collect the referenced variable names, a variable is referenced as a path of which the first element is the variable name
+    this.variableNames = jexlScript.getVariables().stream()
+        .map(path -> path.get(0))
+        .collect(Collectors.toUnmodifiableSet());
   }
 
   /**
@@ -70,25 +88,58 @@ public class JexlExpression extends Expression {
    */
   @Override
   public Object execute(Extent extent) throws UnsupportedOperationException {
+    // Reuse the JEXL context of this thread, unless it is in use by an enclosing execution
+    final var reusableJexlContext = JEXL_CONTEXT.get();
+    final var jexlContext = reusableJexlContext.isInUse() ? new ExtentJexlContext() : reusableJexlContext;
+
+    jexlContext.enter(extent);
+
     try {
-      return jexlScript.execute(new ExtentJexlContext(extent));
+      return jexlScript.execute(jexlContext);
     } catch (Exception e) {
       throw new UnsupportedOperationException(
           "The JEXL expression '%s' could not be executed".formatted(jexlScript.getSourceText()), e);
+    } finally {
+      jexlContext.exit();
     }
   }
 
+  /**
+   * Returns a flag that indicates if this expression references a variable.
+   *
+   * @param name Name of the variable.
+   * @return True if the variable is referenced, otherwise false.
+   */
+  @Override
+  public boolean references(String name) {
+    return variableNames.contains(name);
+  }
+
   /**
    * JEXL context, which has access to all variables within an Extent.
+   * <p>
+   * JEXL checks whether a variable exists before retrieving it, the most recently looked up variable is therefore remembered to resolve
+   * each variable only once.
    *
    * @see Extent
    */
-  private record ExtentJexlContext(Extent extent) implements JexlContext {
+  private static final class ExtentJexlContext implements JexlContext {
+
+    private @Nullable Extent extent;
+
+    private @Nullable String lastKey;
+
+    private @Nullable Object lastValue;
 
     @Override
     public Object get(String key) {
-      return extent.resolve(key)
-          .orElseThrow(() -> new NoSuchElementException(String.format("Variable not found: %s", key)));
+      final var value = lookup(key);
+
+      if (value == null) {
+        throw new NoSuchElementException(String.format("Variable not found: %s", key));
+      }
+
+      return value;
     }
 
     @Override
@@ -97,7 +148,30 @@ public class JexlExpression extends Expression {
 
     @Override
     public boolean has(String key) {
-      return extent.resolve(key).isPresent();
+      return lookup(key) != null;
+    }
+
+    private @Nullable Object lookup(String key) {
+      if (!key.equals(lastKey)) {
+        lastValue = extent.lookup(key);
+        lastKey = key;
+      }
+
+      return lastValue;
+    }
+
+    private boolean isInUse() {
+      return extent != null;
+    }
+
+    private void enter(Extent extent) {
+      this.extent = extent;
+    }
+
+    private void exit() {
+      extent = null;
+      lastKey = null;
+      lastValue = null;
     }
   }
 }
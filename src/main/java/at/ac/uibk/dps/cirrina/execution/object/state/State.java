@@ -2,33 +2,38 @@ package at.ac.uibk.dps.cirrina.execution.object.state;
 
 import at.ac.uibk.dps.cirrina.classes.state.StateClass;
 import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
-import at.ac.uibk.dps.cirrina.execution.command.CommandFactory;
 import at.ac.uibk.dps.cirrina.execution.command.Scope;
 import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.context.SingleWriterContext;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
-import java.util.ArrayList;
 import java.util.List;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 
 public final class State implements Scope {
 
-  private final Context localContext = new InMemoryContext(true);
-
   private final StateClass stateClassObject;
 
   private final StateMachine parent;
 
+  private final Context localContext;
+
+  private final Extent extent;
+
   public State(StateClass stateClassObject, StateMachine parent) {
     this.stateClassObject = stateClassObject;
     this.parent = parent;
+
+    // The local context is single-writer in case all mutations are executed by the parent state machine instance
+    this.localContext = parent.isSingleWriter() ? new SingleWriterContext(true) : new InMemoryContext(true);
+
+    this.extent = parent.getExtent().extend(localContext);
   }
 
   @Override
   public Extent getExtent() {
-    return parent.getExtent().extend(localContext);
+    return extent;
   }
 
   @Override
@@ -40,39 +45,23 @@ public final class State implements Scope {
     return stateClassObject;
   }
 
-  public List<ActionCommand> getEntryActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getEntryActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getEntryActionCommands() {
+    return stateClassObject.getEntryActionCommands();
   }
 
-  public List<ActionCommand> getWhileActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getWhileActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getWhileActionCommands() {
+    return stateClassObject.getWhileActionCommands();
   }
 
-  public List<ActionCommand> getExitActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getExitActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getExitActionCommands() {
+    return stateClassObject.getExitActionCommands();
   }
 
   public List<TimeoutAction> getTimeoutActionObjects() {
-    List<TimeoutAction> timeoutActionObjects = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getAfterActionGraph()).forEachRemaining(
-        timeoutActionObject -> timeoutActionObjects.add((TimeoutAction) timeoutActionObject));
+    return stateClassObject.getTimeoutActions();
+  }
 
-    return timeoutActionObjects;
+  public List<ActionCommand> getTimeoutActionCommands() {
+    return stateClassObject.getTimeoutActionCommands();
   }
 }
@@ -0,0 +1,221 @@
+package at.ac.uibk.dps.cirrina.execution.object.statemachine;
+
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import jakarta.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded event mailbox, backed by a lock-free ring buffer.
+ * <p>
+ * The ring buffer follows Vyukov's bounded queue: each slot carries a sequence number that tells producers and consumers whether the slot is
+ * free or filled for their position. A slot is free for position {@code p} if its sequence number is {@code 2p} and filled for position
+ * {@code p} if its sequence number is {@code 2p + 1}, which keeps both states distinct even if the ring buffer consists of a single slot.
+ * Although a state machine instance is the only regular consumer, a producer may consume the oldest event
+ * when applying the drop oldest overflow policy, hence consuming is also safe for multiple threads.
+ * <p>
+ * The capacity is rounded up to the next power of two.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class BoundedEventMailbox extends EventMailbox {
+
+  /**
+   * Time to park a blocked producer before retrying, in nanoseconds.
+   */
+  private static final long BLOCK_PARK_TIME_IN_NS = 10_000;
+
+  /**
+   * Slots.
+   */
+  private final AtomicReferenceArray<Event> slots;
+
+  /**
+   * Slot sequence numbers.
+   */
+  private final AtomicLongArray sequences;
+
+  /**
+   * Slot index mask.
+   */
+  private final int mask;
+
+  /**
+   * Overflow policy.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * Next enqueue position.
+   */
+  private final AtomicLong enqueuePosition = new AtomicLong();
+
+  /**
+   * Next dequeue position.
+   */
+  private final AtomicLong dequeuePosition = new AtomicLong();
+
+  /**
+   * Initializes this bounded event mailbox.
+   *
+   * @param capacity       Capacity, rounded up to the next power of two.
+   * @param overflowPolicy Overflow policy.
+   * @throws IllegalArgumentException If the capacity is not positive or too large.
+   */
+  public BoundedEventMailbox(int capacity, OverflowPolicy overflowPolicy) throws IllegalArgumentException {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid event mailbox capacity '%d'".formatted(capacity));
+    }
+
+    final var size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+    this.slots = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    this.mask = size - 1;
+    this.overflowPolicy = overflowPolicy;
+
+    for (var i = 0; i < size; ++i) {
+      sequences.set(i, 2L * i);
+    }
+  }
+
+  /**
+   * Offers an event, applying the overflow policy if this event mailbox is full.
+   *
+   * @param event    Event to offer.
+   * @param mayBlock Whether the producer may be blocked.
+   * @return Offer result.
+   */
+  @Override
+  public OfferResult offer(Event event, boolean mayBlock) {
+    if (tryOffer(event)) {
+      return OfferResult.Accepted;
+    }
+
+    return switch (overflowPolicy) {
+      case Block -> mayBlock ? offerBlocking(event) : OfferResult.Rejected;
+      case DropOldest -> offerDroppingOldest(event);
+      case DropNewest -> OfferResult.DroppedNewest;
+      case Reject -> OfferResult.Rejected;
+    };
+  }
+
+  @Override
+  public @Nullable Event poll() {
+    var position = dequeuePosition.get();
+
+    while (true) {
+      final var index = (int) (position & mask);
+      final var difference = sequences.get(index) - (2 * position + 1);
+
+      if (difference == 0) {
+        // The slot is filled for this position, attempt to claim it
+        if (dequeuePosition.compareAndSet(position, position + 1)) {
+          final var event = slots.get(index);
+
+          // Release the slot for the producer one lap ahead
+          slots.set(index, null);
+          sequences.set(index, 2 * (position + mask + 1));
+
+          return event;
+        }
+
+        position = dequeuePosition.get();
+      } else if (difference < 0) {
+        // The slot is not yet filled, the mailbox is empty
+        return null;
+      } else {
+        position = dequeuePosition.get();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    final var size = enqueuePosition.get() - dequeuePosition.get();
+
+    return (int) Math.max(0, Math.min(size, mask + 1));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the capacity.
+   *
+   * @return Capacity.
+   */
+  public int getCapacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Attempts to add an event without applying the overflow policy.
+   *
+   * @param event Event to add.
+   * @return True if added, false if this event mailbox is full.
+   */
+  private boolean tryOffer(Event event) {
+    var position = enqueuePosition.get();
+
+    while (true) {
+      final var index = (int) (position & mask);
+      final var difference = sequences.get(index) - 2 * position;
+
+      if (difference == 0) {
+        // The slot is free for this position, attempt to claim it
+        if (enqueuePosition.compareAndSet(position, position + 1)) {
+          slots.set(index, event);
+
+          // Publish the slot to the consumer
+          sequences.set(index, 2 * position + 1);
+
+          return true;
+        }
+
+        position = enqueuePosition.get();
+      } else if (difference < 0) {
+        // The slot is still filled from the previous lap, the mailbox is full
+        return false;
+      } else {
+        position = enqueuePosition.get();
+      }
+    }
+  }
+
+  /**
+   * Adds an event, blocking until space is available. Blocking ends early if the producer is interrupted.
+   *
+   * @param event Event to add.
+   * @return Offer result.
+   */
+  private OfferResult offerBlocking(Event event) {
+    while (!tryOffer(event)) {
+      if (Thread.currentThread().isInterrupted()) {
+        return OfferResult.Rejected;
+      }
+
+      LockSupport.parkNanos(BLOCK_PARK_TIME_IN_NS);
+    }
+
+    return OfferResult.Accepted;
+  }
+
+  /**
+   * Adds an event, dropping the oldest events until space is available.
+   *
+   * @param event Event to add.
+   * @return Offer result.
+   */
+  private OfferResult offerDroppingOldest(Event event) {
+    do {
+      poll();
+    } while (!tryOffer(event));
+
+    return OfferResult.DroppedOldest;
+  }
+}
@@ -0,0 +1,108 @@
+package at.ac.uibk.dps.cirrina.execution.object.statemachine;
+
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import jakarta.annotation.Nullable;
+
+/**
+ * Event mailbox, contains the events received by a state machine instance that are yet to be handled.
+ * <p>
+ * Events are offered by any number of producers and polled by the state machine instance.
+ *
+ * @see UnboundedEventMailbox
+ * @see BoundedEventMailbox
+ */
+public abstract class EventMailbox {
+
+  /**
+   * Constructs a new event mailbox. A positive capacity results in a bounded event mailbox, otherwise an unbounded event mailbox results.
+   *
+   * @param capacity       Capacity, or zero for an unbounded event mailbox.
+   * @param overflowPolicy Overflow policy of a bounded event mailbox.
+   * @return Event mailbox.
+   */
+  public static EventMailbox newEventMailbox(int capacity, OverflowPolicy overflowPolicy) {
+    return capacity > 0 ? new BoundedEventMailbox(capacity, overflowPolicy) : new UnboundedEventMailbox();
+  }
+
+  /**
+   * Offers an event to this event mailbox.
+   * <p>
+   * If the producer may not block, a full event mailbox with a blocking overflow policy rejects the event instead.
+   *
+   * @param event    Event to offer.
+   * @param mayBlock Whether the producer may be blocked.
+   * @return Offer result.
+   */
+  public abstract OfferResult offer(Event event, boolean mayBlock);
+
+  /**
+   * Retrieves and removes the oldest event.
+   *
+   * @return Oldest event or null if this event mailbox is empty.
+   */
+  public abstract @Nullable Event poll();
+
+  /**
+   * Returns the number of events in this event mailbox.
+   *
+   * @return Number of events.
+   */
+  public abstract int size();
+
+  /**
+   * Returns a flag that indicates if this event mailbox is empty.
+   *
+   * @return True if empty, otherwise false.
+   */
+  public abstract boolean isEmpty();
+
+  /**
+   * Overflow policy, determines what happens when an event is offered to a full event mailbox.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Block the producer until space is available.
+     */
+    Block,
+
+    /**
+     * Drop the oldest event to make space.
+     */
+    DropOldest,
+
+    /**
+     * Drop the offered event.
+     */
+    DropNewest,
+
+    /**
+     * Reject the offered event.
+     */
+    Reject
+  }
+
+  /**
+   * Offer result, the outcome of offering an event.
+   */
+  public enum OfferResult {
+    /**
+     * The event was added.
+     */
+    Accepted,
+
+    /**
+     * The event was added after dropping the oldest event.
+     */
+    DroppedOldest,
+
+    /**
+     * The event was dropped.
+     */
+    DroppedNewest,
+
+    /**
+     * The event was rejected.
+     */
+    Rejected
+  }
+}
@@ -1,12 +1,15 @@
 package at.ac.uibk.dps.cirrina.execution.object.statemachine;
 
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_DROPPED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_HANDLED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_RECEIVED;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_REJECTED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_INVOCATIONS;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_STATE_MACHINE_INSTANCES;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_DATA_LATENCY;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_INVOKE_LATENCY;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_RAISE_LATENCY;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_QUEUE_DEPTH;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE;
 
@@ -16,20 +19,24 @@ import at.ac.uibk.dps.cirrina.classes.transition.TransitionClass;
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
 import at.ac.uibk.dps.cirrina.execution.command.ActionRaiseCommand;
-import at.ac.uibk.dps.cirrina.execution.command.CommandFactory;
 import at.ac.uibk.dps.cirrina.execution.command.ExecutionContext;
 import at.ac.uibk.dps.cirrina.execution.command.Scope;
 import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox.OfferResult;
 import at.ac.uibk.dps.cirrina.execution.object.state.State;
 import at.ac.uibk.dps.cirrina.execution.object.transition.Transition;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.runtime.LocalContexts;
 import at.ac.uibk.dps.cirrina.runtime.Runtime;
+import at.ac.uibk.dps.cirrina.runtime.TimeoutDelivery;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.StateMachineScheduler;
 import at.ac.uibk.dps.cirrina.tracing.Counters;
 import at.ac.uibk.dps.cirrina.tracing.Gauges;
 import at.ac.uibk.dps.cirrina.utils.Id;
@@ -43,18 +50,31 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public final class StateMachine implements Runnable, EventListener, Scope {
+public final class StateMachine implements EventListener, Scope {
 
   /**
    * Event data variable prefix, prepended to an even data variable name to indicate that the variable resembles event data.
    */
   public static final String EVENT_DATA_VARIABLE_PREFIX = "$";
 
+  /**
+   * Timeout event name prefix, reserved for synthetic timeout events that deliver expired timeouts through the event queue.
+   */
+  public static final String TIMEOUT_EVENT_PREFIX = "$timeout.";
+
   /**
    * State machine logger.
    */
@@ -68,18 +88,72 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   /**
    * Timeout action manager, contains currently running timeout actions.
    */
-  private final TimeoutActionManager timeoutActionManager = new TimeoutActionManager();
+  private final TimeoutActionManager timeoutActionManager;
+
+  /**
+   * Executor of the timeout actions delivered by the timing wheel.
+   */
+  private final Executor timeoutActionExecutor;
+
+  /**
+   * Timeout action commands of started timeout actions by synthetic timeout event name, in case expired timeouts are delivered through the
+   * event queue.
+   */
+  private final Map<String, ActionCommand> timeoutActionCommands = new ConcurrentHashMap<>();
+
+  /**
+   * Synthetic timeout event names of started timeout actions by timeout action name.
+   */
+  private final Map<String, String> timeoutEventNames = new ConcurrentHashMap<>();
+
+  /**
+   * Timeout generation, distinguishes timeout events of a restarted timeout action from timeout events of a previous start that are still
+   * queued.
+   */
+  private final AtomicLong timeoutGeneration = new AtomicLong();
+
+  /**
+   * Owner tasks, mutations of local contexts enqueued by other threads that are executed by this state machine instance in between
+   * handling events.
+   */
+  private final Queue<Runnable> ownerTasks = new ConcurrentLinkedQueue<>();
 
   /**
    * Event queue, contains events received by the state machine.
    */
-  private final Queue<Event> eventQueue = new ConcurrentLinkedQueue<>();
+  private final EventMailbox eventQueue;
+
+  /**
+   * Event queue lock, guards waiting for and signalling of newly received events when executed on a dedicated thread. A lock is used
+   * instead of an object monitor, since a virtual thread waiting on a monitor pins its carrier thread.
+   */
+  private final ReentrantLock eventQueueLock = new ReentrantLock();
+
+  /**
+   * Event queue condition, signalled when an event is added to the event queue.
+   */
+  private final Condition eventQueueNotEmpty = eventQueueLock.newCondition();
+
+  /**
+   * Flag that indicates if this state machine instance is stopped.
+   */
+  private final AtomicBoolean isStopped = new AtomicBoolean(false);
+
+  /**
+   * Thread currently executing this state machine instance, or null if not executing.
+   */
+  private volatile @Nullable Thread executingThread;
 
   /**
    * Parent runtime.
    */
   private final Runtime parentRuntime;
 
+  /**
+   * Scheduler of this state machine instance, signalled whenever an event is received.
+   */
+  private final StateMachineScheduler stateMachineScheduler;
+
   /**
    * State machine class of this instance.
    */
@@ -102,17 +176,41 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
   private final StateMachineEventHandler stateMachineEventHandler;
 
+  /**
+   * Flag that indicates if the local contexts of this instance and its states are single-writer contexts. All mutations of single-writer
+   * contexts are executed by this state machine instance.
+   */
+  private final boolean isSingleWriter;
+
   private final Context localContext;
 
+  /**
+   * Persistent context of which the assignments made while handling an event are batched, or null if not batching.
+   */
+  private final @Nullable Context batchedPersistentContext;
+
+  /**
+   * Extent of this state machine instance, built once as the local context extends the parent extent.
+   */
+  private final Extent extent;
+
   private final Map<String, State> stateInstances;
 
   private final Gauges gauges;
 
   private final Counters counters;
 
-  private State activeState;
+  /**
+   * State machine instance-scoped execution context without a raising event, reused for every execution of commands.
+   */
+  private final ExecutionContext executionContext;
+
+  /**
+   * State instance-scoped execution contexts without a raising event, reused for every execution of commands.
+   */
+  private final Map<State, ExecutionContext> stateExecutionContexts;
 
-  private List<Id> nestedStateMachineIds = new ArrayList<>();
+  private State activeState;
 
   /**
    * Initializes this state machine instance object. A state machine instance is associated with a state machine object that describes its
@@ -126,6 +224,8 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    * Additionally, a state machine instance may be parented in a state machine instance, forming a nested state machine instance.
    *
    * @param parentRuntime                 Parent runtime.
+   * @param stateMachineScheduler         Scheduler of this state machine instance.
+   * @param eventQueue                    Event queue of this state machine instance.
    * @param stateMachineClass             StateClass machine object
    * @param serviceImplementationSelector Service implementation selector.
    * @param parentStateMachine            Parent state machine instance or null.
@@ -134,6 +234,8 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   public StateMachine(
       Runtime parentRuntime,
+      StateMachineScheduler stateMachineScheduler,
+      EventMailbox eventQueue,
       StateMachineClass stateMachineClass,
       ServiceImplementationSelector serviceImplementationSelector,
       OpenTelemetry openTelemetry,
@@ -141,24 +243,43 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       double endTimeInMs
   ) {
     this.parentRuntime = parentRuntime;
+    this.stateMachineScheduler = stateMachineScheduler;
+    this.eventQueue = eventQueue;
     this.stateMachineClass = stateMachineClass;
     this.serviceImplementationSelector = serviceImplementationSelector;
     this.parentStateMachine = parentStateMachine;
     this.endTimeInMs = endTimeInMs;
 
+    timeoutActionManager = new TimeoutActionManager(parentRuntime.getTimingWheel());
+    timeoutActionExecutor = parentRuntime.getTimeoutActionExecutor();
+
     stateMachineEventHandler = new StateMachineEventHandler(this, this.parentRuntime.getEventHandler());
 
+    // Nested state machine instances access the local context of this instance from their own thread, the local context can therefore
+    // only be single-writer in case there are no nested state machine instances
+    isSingleWriter = parentRuntime.getOptions().localContexts() == LocalContexts.SingleWriter
+        && stateMachineClass.getNestedStateMachineClasses().isEmpty();
+
     // Build the local context
     try {
-      localContext = stateMachineClass.getLocalContextClass()
+      final var contextBuilder = stateMachineClass.getLocalContextClass()
           .map(ContextBuilder::from)
-          .orElseGet(ContextBuilder::from)
-          .inMemoryContext(true)
+          .orElseGet(ContextBuilder::from);
+
+      localContext = (isSingleWriter ? contextBuilder.singleWriterContext(true) : contextBuilder.inMemoryContext(true))
           .build();
     } catch (IOException ignored) {
       throw new IllegalStateException(); // This should not happen
     }
 
+    batchedPersistentContext = parentRuntime.getOptions().batchPersistentWrites() ? parentRuntime.getPersistentContext() : null;
+
+    // Build the extent, the parent state machine instance or runtime extent extended with the local context
+    extent = Optional.ofNullable(parentStateMachine)
+        .map(StateMachine::getExtent)
+        .orElseGet(parentRuntime::getExtent)
+        .extend(localContext);
+
     // Construct state instances
     stateInstances = stateMachineClass.vertexSet().stream()
         .collect(Collectors.toMap(StateClass::getName, state -> new State(state, this)));
@@ -171,6 +292,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
     gauges.addGauge(GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE);
     gauges.addGauge(GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE);
+    gauges.addGauge(GAUGE_EVENT_QUEUE_DEPTH);
     gauges.addGauge(GAUGE_ACTION_DATA_LATENCY);
     gauges.addGauge(GAUGE_ACTION_INVOKE_LATENCY);
     gauges.addGauge(GAUGE_ACTION_RAISE_LATENCY);
@@ -180,8 +302,16 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
     counters.addCounter(COUNTER_EVENTS_RECEIVED);
     counters.addCounter(COUNTER_EVENTS_HANDLED);
+    counters.addCounter(COUNTER_EVENTS_DROPPED);
+    counters.addCounter(COUNTER_EVENTS_REJECTED);
     counters.addCounter(COUNTER_INVOCATIONS);
     counters.addCounter(COUNTER_STATE_MACHINE_INSTANCES);
+
+    // Create the reusable execution contexts
+    executionContext = newExecutionContext(this);
+
+    stateExecutionContexts = stateInstances.values().stream()
+        .collect(Collectors.toMap(Function.identity(), this::newExecutionContext));
   }
 
   /**
@@ -202,19 +332,40 @@ public final class StateMachine implements Runnable, EventListener, Scope {
         counters.attributesForEvent(
             event.getChannel().toString()));
 
-    // Add to the internal event queue
-    eventQueue.add(event);
+    // Add to the internal event queue and signal the scheduler, the event queue may be full
+    final var offerResult = eventQueue.offer(event, stateMachineScheduler.mayBlock(this));
+
+    switch (offerResult) {
+      case Accepted -> stateMachineScheduler.signal(this);
+      case DroppedOldest -> {
+        counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+            counters.attributesForEvent(
+                event.getChannel().toString()));
 
-    synchronized (this) {
-      notify();
+        stateMachineScheduler.signal(this);
+      }
+      case DroppedNewest -> counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+          counters.attributesForEvent(
+              event.getChannel().toString()));
+      case Rejected -> {
+        counters.getCounter(COUNTER_EVENTS_REJECTED).add(1,
+            counters.attributesForEvent(
+                event.getChannel().toString()));
+
+        logger.warn("{} rejected event '{}', its event queue is full", stateMachineId.toString(), event.getName());
+      }
     }
 
     // Propagate internal events to nested state machines
     if (event.getChannel() == EventChannel.INTERNAL) {
-      for (final var nestedStateMachineId : nestedStateMachineIds) {
-        final var nestedStateMachineInstance = parentRuntime.findInstance(nestedStateMachineId)
-            .orElseThrow(() -> new IllegalStateException("Nested state machine could not be found, could not propagate event"));
+      final var nestedStateMachineInstances = parentRuntime.findNestedInstances(stateMachineId);
+
+      // Nested state machine instances handle the event concurrently, the batched persistent context assignments are written first
+      if (!nestedStateMachineInstances.isEmpty()) {
+        writePersistentBatch();
+      }
 
+      for (final var nestedStateMachineInstance : nestedStateMachineInstances) {
         nestedStateMachineInstance.onReceiveEvent(event);
       }
     }
@@ -222,12 +373,261 @@ public final class StateMachine implements Runnable, EventListener, Scope {
     return true;
   }
 
+  /**
+   * Returns the names of the events this state machine instance has on transitions for. Other events cannot be handled and are therefore not
+   * propagated to this state machine instance.
+   *
+   * @return Input event names.
+   */
+  @Override
+  public Optional<Set<String>> getSubscribedEventNames() {
+    return Optional.of(Set.copyOf(stateMachineClass.getInputEvents()));
+  }
+
+  /**
+   * Starts this state machine instance by entering the initial state.
+   * <p>
+   * Any always transition selected due to entering the initial state is handled. If the state machine instance is terminated afterward, or
+   * a fatal error occurs, it is stopped.
+   *
+   * @thread Scheduler.
+   */
+  public void start() {
+    // Increment state machine instances counter
+    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(1,
+        counters.attributesForInstances());
+
+    executingThread = Thread.currentThread();
+
+    try {
+      // Acquire the initial state instance
+      final var initialStateInstance = stateInstances.get(stateMachineClass.getInitialState().getName());
+
+      // Transition into the initial state, if there is a follow-up transition, handle it recursively
+      beginPersistentBatch();
+
+      try {
+        doEnter(initialStateInstance, null)
+            .ifPresent(transition -> handleTransition(transition, null));
+      } finally {
+        flushPersistentBatch();
+      }
+    } catch (Exception e) {
+      logger.error("%s received a fatal error".formatted(stateMachineId.toString()), e);
+
+      stop();
+      return;
+    } finally {
+      executingThread = null;
+    }
+
+    if (isTerminated()) {
+      stop();
+    }
+  }
+
+  /**
+   * Handles a bounded number of events from the event queue.
+   * <p>
+   * Draining ends when the event queue is empty, the maximum number of events has been handled or the state machine instance is terminated.
+   * If the state machine instance is terminated, or a fatal error occurs, it is stopped.
+   *
+   * @param maxEvents Maximum number of events to handle.
+   * @return Number of handled events.
+   * @thread Scheduler.
+   */
+  public int drain(int maxEvents) {
+    var numHandled = 0;
+
+    // Record the event queue depth
+    gauges.getGauge(GAUGE_EVENT_QUEUE_DEPTH).set(eventQueue.size(),
+        gauges.attributesForEventQueue());
+
+    executingThread = Thread.currentThread();
+
+    try {
+      while (numHandled < maxEvents && !isTerminated()) {
+        // Execute mutations enqueued by other threads before handling the next event
+        executeOwnerTasks();
+
+        final var event = eventQueue.poll();
+
+        if (event == null) {
+          break;
+        }
+
+        // If a transition is selected, handle it. The transition will be handled recursively; any transition selected due to entering a
+        // next state is handled recursively. Persistent context assignments are written once the event is handled
+        beginPersistentBatch();
+
+        try {
+          handleEvent(event)
+              .ifPresent(transition -> handleTransition(transition, event));
+        } finally {
+          flushPersistentBatch();
+        }
+
+        ++numHandled;
+
+        // Record event handling time
+        final var delta = Time.timeInMillisecondsSinceEpoch() - event.getCreatedTime();
+
+        gauges.getGauge(GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE).set(delta,
+            gauges.attributesForEvent(
+                event.getChannel().toString()
+            ));
+      }
+    } catch (Exception e) {
+      logger.error("%s received a fatal error".formatted(stateMachineId.toString()), e);
+
+      stop();
+      return numHandled;
+    } finally {
+      executingThread = null;
+    }
+
+    if (isTerminated()) {
+      stop();
+    }
+
+    return numHandled;
+  }
+
+  /**
+   * Blocks until the event queue contains at least one event.
+   *
+   * @throws InterruptedException If interrupted while waiting for an event.
+   * @thread Scheduler.
+   */
+  public void awaitEvent() throws InterruptedException {
+    eventQueueLock.lock();
+    try {
+      while (!hasPendingEvents()) {
+        eventQueueNotEmpty.await();
+      }
+    } finally {
+      eventQueueLock.unlock();
+    }
+  }
+
+  /**
+   * Wakes up a thread blocked in {@link #awaitEvent()}.
+   *
+   * @thread Events.
+   */
+  public void signalEvent() {
+    eventQueueLock.lock();
+    try {
+      eventQueueNotEmpty.signal();
+    } finally {
+      eventQueueLock.unlock();
+    }
+  }
+
+  /**
+   * Stops this state machine instance and removes it from its runtime. Stopping a stopped state machine instance has no effect.
+   */
+  public void stop() {
+    if (!isStopped.compareAndSet(false, true)) {
+      return;
+    }
+
+    logger.info("{} has stopped", stateMachineId.toString());
+
+    // Release all timeouts of this state machine instance
+    stopAllTimeoutActions();
+
+    // Decrement state machine instances counter
+    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(-1,
+        counters.attributesForInstances());
+
+    // Remove the state machine instance from the runtime
+    parentRuntime.remove(this);
+  }
+
+  /**
+   * Executes a mutation of the local contexts of this state machine instance or its states.
+   * <p>
+   * If the local contexts are single-writer contexts and this state machine instance is not executing on the current thread, the mutation
+   * is enqueued and executed by this state machine instance in between handling events. Otherwise, the mutation is executed immediately.
+   *
+   * @param mutation Mutation.
+   */
+  public void executeMutation(Runnable mutation) {
+    if (!isSingleWriter || isExecutingOnCurrentThread()) {
+      mutation.run();
+      return;
+    }
+
+    ownerTasks.offer(mutation);
+
+    stateMachineScheduler.signal(this);
+  }
+
+  /**
+   * Returns a flag that indicates if this state machine instance has events or mutations pending.
+   *
+   * @return True if events or mutations are pending, otherwise false.
+   */
+  public boolean hasPendingEvents() {
+    return !eventQueue.isEmpty() || !ownerTasks.isEmpty();
+  }
+
+  /**
+   * Returns a flag that indicates if the local contexts of this state machine instance and its states are single-writer contexts.
+   *
+   * @return True if the local contexts are single-writer contexts, otherwise false.
+   */
+  public boolean isSingleWriter() {
+    return isSingleWriter;
+  }
+
+  /**
+   * Returns a flag that indicates if this state machine instance is currently executing on the current thread.
+   *
+   * @return True if executing on the current thread, otherwise false.
+   */
+  public boolean isExecutingOnCurrentThread() {
+    return executingThread == Thread.currentThread();
+  }
+
+  /**
+   * Writes the persistent context assignments batched so far while handling the current event, if enabled, and continues batching.
+   * <p>
+   * Must be called before an event leaves this state machine instance while it is handled, such that the receivers of the event observe the
+   * assignments made before raising it. Has no effect if this state machine instance is not executing on the current thread, since only the
+   * executing thread batches.
+   */
+  void writePersistentBatch() {
+    if (batchedPersistentContext == null || !isExecutingOnCurrentThread()) {
+      return;
+    }
+
+    flushPersistentBatch();
+
+    batchedPersistentContext.beginBatch();
+  }
+
+  /**
+   * Returns a flag that indicates if this state machine instance is stopped.
+   *
+   * @return True if the state machine instance is stopped, otherwise false.
+   */
+  public boolean isStopped() {
+    return isStopped.get();
+  }
+
   /**
    * Returns a flag that indicates if this state machine instance is terminated.
    *
    * @return True if the state machine instance is terminated, otherwise false.
    */
   public boolean isTerminated() {
+    // A stopped state machine instance is terminated
+    if (isStopped.get()) {
+      return true;
+    }
+
     // The active state is null initially, this indicates that the state machine instance is not terminated
     if (activeState == null) {
       return false;
@@ -249,70 +649,98 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   }
 
   /**
-   * Creates a state machine instance-scoped command factory.
+   * Creates an execution context without a raising event.
    *
-   * @param stateMachine StateClass machine instance (scope).
-   * @param raisingEvent The raising event.
-   * @return Command factory.
+   * @param scope Scope, either this state machine instance or one of its state instances.
+   * @return Execution context.
    */
-  private CommandFactory stateMachineScopedCommandFactory(StateMachine stateMachine, @Nullable Event raisingEvent) {
-    return new CommandFactory(new ExecutionContext(
-        stateMachine,                  // Scope
-        raisingEvent,                  // Raising event
+  private ExecutionContext newExecutionContext(Scope scope) {
+    return new ExecutionContext(
+        scope,                         // Scope
+        null,                          // Raising event
         serviceImplementationSelector, // Service implementation selector
         stateMachineEventHandler,      // Event handler
         this,                          // Event listener
         gauges,                        // Gauges
         counters,                      // Counters
-        false                          // Is while?
-    ));
+        false,                         // Is while?
+        this::executeMutation          // Mutation executor
+    );
   }
 
   /**
-   * Creates a state instance-scoped command factory.
+   * Returns the state machine instance-scoped execution context.
+   * <p>
+   * The reusable execution context is returned unless a raising event is provided.
    *
-   * @param state        StateClass instance (scope).
-   * @param raisingEvent The raising event.
-   * @param isWhile      Whether the command factory build while actions.
-   * @return Command factory.
-   */
-  private CommandFactory stateScopedCommandFactory(State state, @Nullable Event raisingEvent, boolean isWhile) {
-    return new CommandFactory(new ExecutionContext(
-        state,                         // Scope
-        raisingEvent,                  // Raising event
-        serviceImplementationSelector, // Service implementation selector
-        stateMachineEventHandler,      // Event handler
-        this,                          // Event listener
-        gauges,                        // Gauges
-        counters,                      // Counters
-        false                          // Is while?
-    ));
+   * @param raisingEvent The raising event or null.
+   * @return Execution context.
+   */
+  private ExecutionContext stateMachineScopedExecutionContext(@Nullable Event raisingEvent) {
+    return raisingEvent == null ? executionContext : executionContext.withRaisingEvent(raisingEvent);
   }
 
   /**
-   * Attempts to return a state instance by name.
+   * Returns a state instance-scoped execution context.
+   * <p>
+   * The reusable execution context is returned unless a raising event is provided.
    *
-   * @param name Name to find.
-   * @return StateClass instance or empty.
+   * @param state        StateClass instance (scope).
+   * @param raisingEvent The raising event or null.
+   * @return Execution context.
    */
-  private Optional<State> findStateInstanceByName(String name) {
-    return stateInstances.containsKey(name) ? Optional.of(stateInstances.get(name)) : Optional.empty();
+  private ExecutionContext stateScopedExecutionContext(State state, @Nullable Event raisingEvent) {
+    final var stateExecutionContext = stateExecutionContexts.get(state);
+
+    return raisingEvent == null ? stateExecutionContext : stateExecutionContext.withRaisingEvent(raisingEvent);
+  }
+
+  /**
+   * Begins batching persistent context assignments, if enabled.
+   */
+  private void beginPersistentBatch() {
+    if (batchedPersistentContext != null) {
+      batchedPersistentContext.beginBatch();
+    }
   }
 
   /**
-   * Attempts to select an on transition based on an event.
+   * Writes the batched persistent context assignments, if enabled. A failure to write is logged, as is the failure of an unbatched
+   * assignment.
+   */
+  private void flushPersistentBatch() {
+    if (batchedPersistentContext == null) {
+      return;
+    }
+
+    try {
+      batchedPersistentContext.flushBatch();
+    } catch (IOException e) {
+      logger.error("{} failed to write persistent context assignments: {}", stateMachineId.toString(), e.getMessage());
+    }
+  }
+
+  /**
+   * Executes all mutations enqueued by other threads.
    *
-   * @param event  Event to find an on transition for.
-   * @param extent Extent.
-   * @return On transition or empty in case no matching on transition can be selected.
-   * @throws IllegalStateException If non-determinism is detected.
+   * @thread Scheduler.
    */
-  private Optional<Transition> trySelectOnTransition(Event event, Extent extent) throws IllegalStateException {
-    // Find the transitions from the active state for the given event
-    final var transitionObjects = stateMachineClass
-        .findOnTransitionsFromStateByEventName(activeState.getStateObject(), event.getName());
+  private void executeOwnerTasks() {
+    Runnable ownerTask;
 
-    return trySelectTransition(transitionObjects, extent);
+    while ((ownerTask = ownerTasks.poll()) != null) {
+      ownerTask.run();
+    }
+  }
+
+  /**
+   * Attempts to return a state instance by name.
+   *
+   * @param name Name to find.
+   * @return StateClass instance or empty.
+   */
+  private Optional<State> findStateInstanceByName(String name) {
+    return stateInstances.containsKey(name) ? Optional.of(stateInstances.get(name)) : Optional.empty();
   }
 
   /**
@@ -374,17 +802,23 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    * Commands are executed recursively. Any command that is the result of a command execution is executed immediately following the command
    * that created it.
    *
-   * @param actionCommands Commands to execute.
+   * @param actionCommands   Commands to execute.
+   * @param executionContext Execution context to execute the commands in.
    * @throws UnsupportedOperationException If the action commands cannot be executed.
    */
-  private void execute(List<ActionCommand> actionCommands) throws UnsupportedOperationException {
+  private void execute(
+      List<ActionCommand> actionCommands,
+      ExecutionContext executionContext
+  ) throws UnsupportedOperationException {
     try {
       for (final var actionCommand : actionCommands) {
         // Execute and acquire new commands
-        final var newCommands = actionCommand.execute();
+        final var newCommands = actionCommand.execute(executionContext);
 
         // Execute any subsequent command
-        execute(newCommands);
+        if (!newCommands.isEmpty()) {
+          execute(newCommands, executionContext);
+        }
       }
     } catch (UnsupportedOperationException e) {
       throw new UnsupportedOperationException("Could not execute action commands", e);
@@ -396,15 +830,19 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    * <p>
    * Timeout actions are executed until stopped.
    *
-   * @param timeoutActionObjects Timeout action objects to start.
+   * @param timeoutActionObjects        Timeout action objects to start.
+   * @param timeoutActionObjectCommands Action commands of the timeout actions, in the order of the timeout action objects.
    * @throws UnsupportedOperationException If the delay expression does not evaluate to a numeric value.
    * @throws IllegalArgumentException      If the timeout action is not a raise action.
    * @throws IllegalArgumentException      If the timeout action does not have a name.
    */
   private void startAllTimeoutActions(
-      List<TimeoutAction> timeoutActionObjects
+      List<TimeoutAction> timeoutActionObjects,
+      List<ActionCommand> timeoutActionObjectCommands
   ) throws UnsupportedOperationException, IllegalArgumentException {
-    for (final var timeoutActionObject : timeoutActionObjects) {
+    for (var i = 0; i < timeoutActionObjects.size(); ++i) {
+      final var timeoutActionObject = timeoutActionObjects.get(i);
+
       // The evaluated delay value is required to be numeric
       final var delay = timeoutActionObject.getDelay().execute(getExtent());
 
@@ -413,9 +851,8 @@ public final class StateMachine implements Runnable, EventListener, Scope {
             "The delay expression '%s' did not evaluate to a numeric value".formatted(timeoutActionObject.getDelay()));
       }
 
-      // Create action command
-      final var actionTimeoutCommand = stateMachineScopedCommandFactory(this, null)
-          .createActionCommand(timeoutActionObject.getAction());
+      // Acquire the precomputed action command
+      final var actionTimeoutCommand = timeoutActionObjectCommands.get(i);
 
       if (!(actionTimeoutCommand instanceof ActionRaiseCommand)) {
         throw new IllegalArgumentException("A timeout action must be a raise action");
@@ -424,10 +861,30 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       // Acquire the name
       final var actionName = timeoutActionObject.getName();
 
-      // Start the timeout task
-      timeoutActionManager.start(actionName, (Number) delay, () -> {
-        execute(List.of(actionTimeoutCommand));
-      });
+      // Start the timeout task, either executing the timeout action on the timing wheel or delivering it through the event queue. Timeouts
+      // are always delivered through the event queue for single-writer local contexts
+      final var timeoutDelivery = isSingleWriter ? TimeoutDelivery.Mailbox : parentRuntime.getOptions().timeoutDelivery();
+
+      switch (timeoutDelivery) {
+        case Scheduler -> timeoutActionManager.start(actionName, (Number) delay, () -> {
+          // Hand off the timeout action, raising may block on a full event queue or publish through the event handler
+          timeoutActionExecutor.execute(() -> {
+            try {
+              execute(List.of(actionTimeoutCommand), executionContext);
+            } catch (UnsupportedOperationException e) {
+              logger.error("{} failed to execute timeout action '{}': {}", stateMachineId.toString(), actionName, e.getMessage(), e);
+            }
+          });
+        });
+        case Mailbox -> {
+          final var timeoutEventName = TIMEOUT_EVENT_PREFIX + actionName + "#" + timeoutGeneration.incrementAndGet();
+
+          timeoutActionManager.start(actionName, (Number) delay, () -> offerTimeoutEvent(timeoutEventName));
+
+          timeoutActionCommands.put(timeoutEventName, actionTimeoutCommand);
+          timeoutEventNames.put(actionName, timeoutEventName);
+        }
+      }
     }
   }
 
@@ -439,6 +896,13 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   private void stopTimeoutAction(String actionName) throws IllegalArgumentException {
     timeoutActionManager.stop(actionName);
+
+    // Queued timeout events of this timeout action are ignored from now on
+    final var timeoutEventName = timeoutEventNames.remove(actionName);
+
+    if (timeoutEventName != null) {
+      timeoutActionCommands.remove(timeoutEventName);
+    }
   }
 
   /**
@@ -446,6 +910,80 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   private void stopAllTimeoutActions() {
     timeoutActionManager.stopAll();
+
+    // Queued timeout events are ignored from now on
+    timeoutActionCommands.clear();
+    timeoutEventNames.clear();
+  }
+
+  /**
+   * Enqueues a synthetic timeout event, delivering an expired timeout through the event queue.
+   * <p>
+   * The timing wheel thread is never blocked. A timeout event that is rejected by a full event queue is handed off and offered again by a
+   * thread that may block, as timeout actions delivered by the scheduler are, such that the timeout is not lost if the event queue blocks
+   * when full.
+   *
+   * @param timeoutEventName Synthetic timeout event name.
+   * @thread Timing wheel.
+   */
+  private void offerTimeoutEvent(String timeoutEventName) {
+    final var event = new Event(timeoutEventName, EventChannel.INTERNAL, List.of());
+
+    final var offerResult = eventQueue.offer(event, false);
+
+    if (offerResult == OfferResult.Rejected) {
+      timeoutActionExecutor.execute(() -> onOfferTimeoutEvent(event, eventQueue.offer(event, stateMachineScheduler.mayBlock(this))));
+      return;
+    }
+
+    onOfferTimeoutEvent(event, offerResult);
+  }
+
+  /**
+   * Handles the result of offering a synthetic timeout event to the event queue.
+   *
+   * @param event       Synthetic timeout event.
+   * @param offerResult Offer result.
+   */
+  private void onOfferTimeoutEvent(Event event, OfferResult offerResult) {
+    switch (offerResult) {
+      case Accepted -> stateMachineScheduler.signal(this);
+      case DroppedOldest -> {
+        counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+            counters.attributesForEvent(
+                event.getChannel().toString()));
+
+        stateMachineScheduler.signal(this);
+      }
+      case DroppedNewest -> {
+        counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+            counters.attributesForEvent(
+                event.getChannel().toString()));
+
+        logger.warn("{} dropped timeout event '{}', its event queue is full", stateMachineId.toString(), event.getName());
+      }
+      case Rejected -> {
+        counters.getCounter(COUNTER_EVENTS_REJECTED).add(1,
+            counters.attributesForEvent(
+                event.getChannel().toString()));
+
+        logger.warn("{} rejected timeout event '{}', its event queue is full", stateMachineId.toString(), event.getName());
+      }
+    }
+  }
+
+  /**
+   * Handles a synthetic timeout event by executing the timeout action. Timeout events of stopped timeout actions are ignored.
+   *
+   * @param event Synthetic timeout event.
+   * @throws UnsupportedOperationException If the timeout action could not be executed.
+   */
+  private void handleTimeoutEvent(Event event) throws UnsupportedOperationException {
+    final var actionTimeoutCommand = timeoutActionCommands.get(event.getName());
+
+    if (actionTimeoutCommand != null) {
+      execute(List.of(actionTimeoutCommand), executionContext);
+    }
   }
 
   /**
@@ -477,8 +1015,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   private void doExit(State exitingState, @Nullable Event raisingEvent) throws UnsupportedOperationException {
     // Gather action commands
-    final var exitActionCommands = exitingState.getExitActionCommands(
-        stateScopedCommandFactory(exitingState, raisingEvent, false));
+    final var exitActionCommands = exitingState.getExitActionCommands();
 
     // Stop timeout actions
     stopAllTimeoutActions();
@@ -487,7 +1024,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
     // Execute in order
     try {
-      execute(exitActionCommands);
+      execute(exitActionCommands, stateScopedExecutionContext(exitingState, raisingEvent));
     } catch (UnsupportedOperationException e) {
       throw new UnsupportedOperationException("Could not execute exit actions", e);
     }
@@ -509,12 +1046,11 @@ public final class StateMachine implements Runnable, EventListener, Scope {
     }
 
     // Gather action commands
-    final var transitionActionCommands = transition.getActionCommands(
-        stateMachineScopedCommandFactory(this, raisingEvent));
+    final var transitionActionCommands = transition.getActionCommands();
 
     // Execute in order
     try {
-      execute(transitionActionCommands);
+      execute(transitionActionCommands, stateMachineScopedExecutionContext(raisingEvent));
     } catch (UnsupportedOperationException e) {
       throw new UnsupportedOperationException("Could not execute transition actions", e);
     }
@@ -539,25 +1075,25 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       @Nullable Event raisingEvent
   ) throws UnsupportedOperationException, IllegalArgumentException {
     // Gather action commands
-    final var entryActionCommands = enteringState.getEntryActionCommands(
-        stateScopedCommandFactory(enteringState, raisingEvent, false));
+    final var entryActionCommands = enteringState.getEntryActionCommands();
+
+    final var whileActionCommands = enteringState.getWhileActionCommands();
 
-    final var whileActionCommands = enteringState.getWhileActionCommands(
-        stateScopedCommandFactory(enteringState, raisingEvent, true));
+    final var stateExecutionContext = stateScopedExecutionContext(enteringState, raisingEvent);
 
     final var timeoutActionObjects = enteringState.getTimeoutActionObjects();
 
     // Execute in order
     try {
-      execute(entryActionCommands);
-      execute(whileActionCommands);
+      execute(entryActionCommands, stateExecutionContext);
+      execute(whileActionCommands, stateExecutionContext);
     } catch (UnsupportedOperationException e) {
       throw new UnsupportedOperationException("Could not execute entry/while actions", e);
     }
 
     // Start timeout actions
     try {
-      startAllTimeoutActions(timeoutActionObjects);
+      startAllTimeoutActions(timeoutActionObjects, enteringState.getTimeoutActionCommands());
     } catch (UnsupportedOperationException | IllegalArgumentException e) {
       throw new UnsupportedOperationException("Could not start timeout actions", e);
     }
@@ -632,36 +1168,63 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
   /**
    * Handles an event.
-   * <p>
-   * This function blocks until a new event is received.
    *
-   * @throws InterruptedException          If interrupted while waiting for an event.
+   * @param event Event to handle.
+   * @return The selected on transition or empty in case no on transition can be selected.
    * @throws UnsupportedOperationException If an on transition could not be selected.
    */
-  private Optional<Transition> handleEvent(Event event) throws InterruptedException, UnsupportedOperationException {
+  private Optional<Transition> handleEvent(Event event) throws UnsupportedOperationException {
+    // Synthetic timeout events never select a transition
+    if (event.getChannel() == EventChannel.INTERNAL && event.getName().startsWith(TIMEOUT_EVENT_PREFIX)) {
+      handleTimeoutEvent(event);
+      return Optional.empty();
+    }
+
     // Increment events received counter
     counters.getCounter(COUNTER_EVENTS_HANDLED).add(1,
         counters.attributesForEvent(
             event.getChannel().toString()));
 
+    // Find the on transitions from the active state for the event, the event data is only decoded if there are any
+    final var transitionObjects = stateMachineClass
+        .findOnTransitionsFromStateByEventName(activeState.getStateObject(), event.getName());
+
+    if (transitionObjects.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final List<ContextVariable> data;
+
+    try {
+      data = event.getData();
+    } catch (UnsupportedOperationException e) {
+      counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+          counters.attributesForEvent(
+              event.getChannel().toString()));
+
+      logger.warn("{} dropped event '{}', its data could not be decoded: {}", stateMachineId.toString(), event.getName(), e.getMessage());
+
+      return Optional.empty();
+    }
+
     // Find a matching transition
     try {
       // Create a temporary in-memory context containing the event data
       final var eventDataContext = new InMemoryContext(true);
 
-      for (var contextVariable : event.getData()) {
+      for (var contextVariable : data) {
         eventDataContext.create(EVENT_DATA_VARIABLE_PREFIX + contextVariable.name(), contextVariable.value());
       }
 
       // Create a temporary extent that contains the event data
       final var extent = getExtent().extend(eventDataContext);
 
-      final var onTransition = trySelectOnTransition(event, extent);
+      final var onTransition = trySelectTransition(transitionObjects, extent);
 
       // Set the event data in the actual extent
       onTransition.ifPresent(transition -> {
         try {
-          for (var contextVariable : event.getData()) {
+          for (var contextVariable : data) {
             getExtent().setOrCreate(EVENT_DATA_VARIABLE_PREFIX + contextVariable.name(), contextVariable.value());
           }
         } catch (IOException e) {
@@ -675,77 +1238,6 @@ public final class StateMachine implements Runnable, EventListener, Scope {
     }
   }
 
-  /**
-   * Runs this state machine instance.
-   * <p>
-   * Execution ends when the state machine instance has reached a terminal state or when it is interrupted.
-   */
-  @Override
-  public void run() {
-    // Increment state machine instances counter
-    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(1,
-        counters.attributesForInstances());
-
-    try {
-      // Acquire the initial state instance
-      final var initialStateInstance = stateInstances.get(stateMachineClass.getInitialState().getName());
-
-      // TransitionClass into the initial state
-      var nextTransition = doEnter(initialStateInstance, null);
-
-      while (!isTerminated()) {
-        Event event = null;
-
-        // Wait for a next event, if no transition is selected. No transition is selected initially if the initial state has no selectable
-        // always transition or thereafter if we've handled the selected transition
-        if (nextTransition.isEmpty()) {
-          synchronized (this) {
-            while (eventQueue.isEmpty()) {
-              wait();
-            }
-            event = eventQueue.poll();
-          }
-
-          nextTransition = handleEvent(event);
-        }
-
-        // If a transition is selected, handle it. The transition will be handled recursively; any transition selected due to entering a
-        // next state is handled recursively. Therefore, if we're done handling this transition, we indicate that we need to wait for a new
-        // event again
-        if (nextTransition.isPresent()) {
-          handleTransition(nextTransition.get(), event);
-
-          nextTransition = Optional.empty();
-        }
-
-        // Record event handling time
-        if (event != null) {
-          final var delta = Time.timeInMillisecondsSinceEpoch() - event.getCreatedTime();
-
-          gauges.getGauge(GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE).set(delta,
-              gauges.attributesForEvent(
-                  event.getChannel().toString()
-              ));
-        }
-      }
-    } catch (InterruptedException e) {
-      logger.info("{} is interrupted", stateMachineId.toString());
-
-      Thread.currentThread().interrupt();
-    } catch (Exception e) {
-      logger.error("%s received a fatal error".formatted(stateMachineId.toString()), e);
-    }
-
-    logger.info("{} has stopped", stateMachineId.toString());
-
-    // Decrement state machine instances counter
-    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(-1,
-        counters.attributesForInstances());
-
-    // Remove the state machine instance from the runtime
-    parentRuntime.remove(this);
-  }
-
   /**
    * Returns this scope's extent.
    *
@@ -753,9 +1245,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   @Override
   public Extent getExtent() {
-    return Optional.ofNullable(parentStateMachine)
-        .map(parent -> parent.getExtent().extend(localContext))
-        .orElseGet(() -> parentRuntime.getExtent().extend(localContext));
+    return extent;
   }
 
   @Override
@@ -780,13 +1270,4 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   public StateMachineClass getStateMachineClass() {
     return stateMachineClass;
   }
-
-  /**
-   * Sets the collection of nested state machine instance IDs.
-   *
-   * @param nestedStateMachineIds Nested state machine instance IDs.
-   */
-  public void setNestedStateMachineIds(List<Id> nestedStateMachineIds) {
-    this.nestedStateMachineIds = nestedStateMachineIds;
-  }
 }
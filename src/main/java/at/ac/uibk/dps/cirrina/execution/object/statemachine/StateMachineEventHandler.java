@@ -16,6 +16,9 @@ public class StateMachineEventHandler {
   }
 
   public void sendEvent(Event event) throws IOException {
+    // The receivers of the event must observe the persistent context assignments made before raising it
+    stateMachine.writePersistentBatch();
+
     eventHandler.sendEvent(event, stateMachine.getStateMachineInstanceId().toString());
   }
 }
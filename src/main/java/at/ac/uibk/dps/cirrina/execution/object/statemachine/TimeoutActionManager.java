@@ -1,34 +1,37 @@
 package at.ac.uibk.dps.cirrina.execution.object.statemachine;
 
-import java.util.Map;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.TimingWheel;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.TimingWheel.Timeout;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Timeout action manager, a manager for timeout tasks that encapsulate the execution of timeout actions.
  * <p>
+ * Timeout tasks are scheduled on the timing wheel shared by all state machine instances of a runtime.
+ * <p>
  * This class is thread-safe.
  */
 public final class TimeoutActionManager {
 
   /**
-   * The number of threads in the timeout scheduled thread pool.
+   * Timing wheel, shared by all state machine instances of a runtime.
    */
-  private final int NUM_THREADS = 1;
+  private final TimingWheel timingWheel;
 
   /**
-   * Timeout task scheduler, configured with a pre-defined number of threads.
+   * A collection of running timeout tasks encapsulating the execution of timeout actions. The keys are timeout action names.
    */
-  private final ScheduledExecutorService timeoutTaskScheduler = Executors.newScheduledThreadPool(NUM_THREADS);
+  private final ConcurrentMap<String, Timeout> timeoutTasks = new ConcurrentHashMap<>();
 
   /**
-   * A collection of running timeout tasks encapsulating the execution of timeout actions. The keys are timeout action names.
+   * Initializes this timeout action manager.
+   *
+   * @param timingWheel Timing wheel to schedule timeout tasks on.
    */
-  private final ConcurrentMap<String, ScheduledFuture<?>> timeoutTasks = new ConcurrentHashMap<>();
+  public TimeoutActionManager(TimingWheel timingWheel) {
+    this.timingWheel = timingWheel;
+  }
 
   /**
    * Starts the provided timeout action.
@@ -41,16 +44,31 @@ public final class TimeoutActionManager {
    * @throws IllegalArgumentException If two timeout actions with the same name have been started without being stopped.
    */
   public void start(String actionName, Number delayInMs, Runnable task) throws IllegalArgumentException {
-    // Ensure unique timeout action names
-    if (timeoutTasks.containsKey(actionName)) {
-      throw new IllegalArgumentException("Duplicate timeout action name '%s'".formatted(actionName));
-    }
+    // Schedule at an interval, ensuring unique timeout action names
+    timeoutTasks.compute(actionName, (name, timeout) -> {
+      if (timeout != null) {
+        throw new IllegalArgumentException("Duplicate timeout action name '%s'".formatted(actionName));
+      }
+
+      return timingWheel.schedule(task, delayInMs.longValue(), delayInMs.longValue());
+    });
+  }
 
-    // Schedule at an interval
-    final var future = timeoutTaskScheduler.scheduleWithFixedDelay(task, delayInMs.intValue(), delayInMs.intValue(), TimeUnit.MILLISECONDS);
+  /**
+   * Restarts a timeout action with the provided name, its delay starts anew.
+   * <p>
+   * A timeout action with the provided name must have been started.
+   *
+   * @param actionName Name of action to restart.
+   * @param delayInMs  Delay in milliseconds.
+   * @throws IllegalArgumentException If no timeout action was found with the provided name.
+   */
+  public void reset(String actionName, Number delayInMs) throws IllegalArgumentException {
+    final var timeout = timeoutTasks.computeIfPresent(actionName, (name, current) -> current.reset(delayInMs.longValue()));
 
-    // Keep the task
-    timeoutTasks.put(actionName, future);
+    if (timeout == null) {
+      throw new IllegalArgumentException("Expected exactly one timeout action with the name '%s'".formatted(actionName));
+    }
   }
 
   /**
@@ -62,23 +80,15 @@ public final class TimeoutActionManager {
    * @throws IllegalArgumentException If not exactly one timeout action was found with the provided name.
    */
   public void stop(String actionName) throws IllegalArgumentException {
-    // Retrieve the timeout task
-    final var timeoutTasksWithName = timeoutTasks.entrySet().stream()
-        .filter(entry -> entry.getKey().equals(actionName))
-        .map(Map.Entry::getValue)
-        .toList();
+    // Remove the task
+    final var timeout = timeoutTasks.remove(actionName);
 
-    if (timeoutTasksWithName.size() != 1) {
+    if (timeout == null) {
       throw new IllegalArgumentException("Expected exactly one timeout action with the name '%s'".formatted(actionName));
     }
 
-    final var timeoutTask = timeoutTasksWithName.getFirst();
-
     // Cancel the task
-    timeoutTask.cancel(true);
-
-    // Remove the task
-    timeoutTasks.remove(actionName);
+    timeout.cancel();
   }
 
   /**
@@ -87,7 +97,7 @@ public final class TimeoutActionManager {
   public void stopAll() {
     // Cancel all tasks
     timeoutTasks.values()
-        .forEach(future -> future.cancel(true));
+        .forEach(Timeout::cancel);
 
     // And clear
     timeoutTasks.clear();
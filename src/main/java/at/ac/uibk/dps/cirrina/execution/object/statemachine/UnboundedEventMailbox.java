@@ -0,0 +1,54 @@
+package at.ac.uibk.dps.cirrina.execution.object.statemachine;
+
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import jakarta.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unbounded event mailbox, backed by a concurrent linked queue. Offering an event always succeeds.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class UnboundedEventMailbox extends EventMailbox {
+
+  /**
+   * Events.
+   */
+  private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Number of events, kept separately since determining the size of a concurrent linked queue requires a traversal.
+   */
+  private final AtomicInteger size = new AtomicInteger();
+
+  @Override
+  public OfferResult offer(Event event, boolean mayBlock) {
+    events.add(event);
+    size.incrementAndGet();
+
+    return OfferResult.Accepted;
+  }
+
+  @Override
+  public @Nullable Event poll() {
+    final var event = events.poll();
+
+    if (event != null) {
+      size.decrementAndGet();
+    }
+
+    return event;
+  }
+
+  @Override
+  public int size() {
+    return Math.max(0, size.get());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return events.isEmpty();
+  }
+}
@@ -2,11 +2,8 @@ package at.ac.uibk.dps.cirrina.execution.object.transition;
 
 import at.ac.uibk.dps.cirrina.classes.transition.TransitionClass;
 import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
-import at.ac.uibk.dps.cirrina.execution.command.CommandFactory;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 
 public final class Transition {
 
@@ -33,13 +30,8 @@ public final class Transition {
     return isElse ? transitionClass.getElse() : transitionClass.getTargetStateName();
   }
 
-  public List<ActionCommand> getActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(transitionClass.getActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getActionCommands() {
+    return transitionClass.getActionCommands();
   }
 
   public boolean isElse() {
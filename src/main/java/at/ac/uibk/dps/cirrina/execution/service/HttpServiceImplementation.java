@@ -17,8 +17,7 @@ import java.net.http.HttpResponse;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP service implementation, a service implementation that is accessible through HTTP.
@@ -30,16 +29,19 @@ import java.util.concurrent.Executors;
 public class HttpServiceImplementation extends ServiceImplementation {
 
   /**
-   * HTTP client.
+   * Transport, provides the HTTP client and handle executor.
    */
-  private final HttpClient httpClient = HttpClient.newBuilder()
-      .executor(Executors.newCachedThreadPool())
-      .build();
+  private final HttpServiceTransport transport;
 
   /**
-   * Handle executor.
+   * HTTP clients, shared with all service implementations of the same origin and HTTP version.
    */
-  private final Executor handleExecutor = Executors.newCachedThreadPool();
+  private final List<HttpClient> httpClients;
+
+  /**
+   * Index of the next HTTP client, invocations are distributed round-robin among the HTTP clients.
+   */
+  private final AtomicInteger nextHttpClient = new AtomicInteger();
 
   /**
    * HTTP scheme.
@@ -67,11 +69,26 @@ public class HttpServiceImplementation extends ServiceImplementation {
   private final Method method;
 
   /**
-   * Initializes this HTTP service implementation.
+   * HTTP version.
+   */
+  private final Version version;
+
+  /**
+   * Initializes this HTTP service implementation, using the default transport.
    *
    * @param parameters Initialization parameters.
    */
   public HttpServiceImplementation(Parameters parameters) {
+    this(parameters, HttpServiceTransport.getDefault());
+  }
+
+  /**
+   * Initializes this HTTP service implementation.
+   *
+   * @param parameters Initialization parameters.
+   * @param transport  Transport.
+   */
+  public HttpServiceImplementation(Parameters parameters, HttpServiceTransport transport) {
     super(parameters.name, parameters.cost, parameters.local);
 
     this.scheme = parameters.scheme;
@@ -79,6 +96,10 @@ public class HttpServiceImplementation extends ServiceImplementation {
     this.port = (int) parameters.port;
     this.endPoint = parameters.endPoint;
     this.method = parameters.method;
+    this.version = parameters.version;
+
+    this.transport = transport;
+    this.httpClients = transport.getHttpClients(scheme, host, port, version);
   }
 
   /**
@@ -147,27 +168,31 @@ public class HttpServiceImplementation extends ServiceImplementation {
       final var uri = new URI(scheme, null, host, port, endPoint, null, null);
 
       final var request = HttpRequest.newBuilder()
-          .version(Version.HTTP_1_1)
+          .version(version)
           .header("Cirrina-Sender-ID", id)
           .method(method.toString(), BodyPublishers.ofByteArray(payload))
           .uri(uri)
           .build();
 
+      final var httpClient = httpClients.get(Math.floorMod(nextHttpClient.getAndIncrement(), httpClients.size()));
+
       return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-          .thenApplyAsync(HttpServiceImplementation::handleResponse, handleExecutor);
+          .thenApplyAsync(HttpServiceImplementation::handleResponse, transport.getExecutor());
     } catch (URISyntaxException | UnsupportedOperationException e) {
       throw new UnsupportedOperationException("Failed to perform HTTP service invocation", e);
     }
   }
 
   /**
-   * Returns the dynamic performance of this service implementation.
+   * Returns the dynamic performance of this service implementation, derived from the measured latency, invocations in-flight and error
+   * rate.
    *
    * @return Performance.
+   * @see ServiceImplementationStatistics#getPerformance()
    */
   @Override
   public float getPerformance() {
-    return 1.0f; // TODO: Implement measuring of performance
+    return getStatistics().getPerformance();
   }
 
   /**
@@ -194,7 +219,8 @@ public class HttpServiceImplementation extends ServiceImplementation {
       String host,
       long port,
       String endPoint,
-      Method method
+      Method method,
+      Version version
   ) {
 
   }
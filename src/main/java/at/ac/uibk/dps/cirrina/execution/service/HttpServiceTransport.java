@@ -0,0 +1,180 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import jakarta.annotation.Nullable;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP service transport, shares HTTP clients between HTTP service implementations.
+ * <p>
+ * HTTP clients are kept per scheme, host, port and HTTP version, such that all service implementations of the same origin reuse the same
+ * connections, regardless of the job they are created for. Requests and responses are handled on virtual threads, which are not pooled
+ * and therefore do not need to be bounded.
+ * <p>
+ * An HTTP/1.1 client keeps a pool of keep-alive connections, of which each carries a single request at a time. An HTTP/2 client
+ * multiplexes all concurrent requests as streams over a single connection, using h2c for plain-text origins. To avoid all requests to an
+ * origin depending on a single connection, a small number of HTTP/2 clients is kept per origin, among which requests are distributed.
+ * <p>
+ * Service implementations use the default transport unless provided with a different one. The default transport is retained by each
+ * runtime and closed once the last runtime retaining it is released, the next runtime then retains a new default transport.
+ */
+public final class HttpServiceTransport implements AutoCloseable {
+
+  /**
+   * The default transport, shared throughout the runtime, guarded by the class. Null if not yet created or closed.
+   */
+  private static @Nullable HttpServiceTransport defaultTransport;
+
+  /**
+   * Number of runtimes retaining the default transport, guarded by the class.
+   */
+  private static int numDefaultTransportReferences = 0;
+
+  /**
+   * Default number of HTTP/2 connections per origin.
+   */
+  private static final int DEFAULT_HTTP2_CONNECTIONS_PER_ORIGIN = 2;
+
+  /**
+   * Executor used by the HTTP clients and for handling responses.
+   */
+  private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-service-", 0).factory());
+
+  /**
+   * HTTP clients by origin and HTTP version.
+   */
+  private final Map<String, List<HttpClient>> httpClients = new ConcurrentHashMap<>();
+
+  /**
+   * Number of HTTP/2 connections per origin.
+   */
+  private final int http2ConnectionsPerOrigin;
+
+  /**
+   * Initializes this transport.
+   */
+  public HttpServiceTransport() {
+    this(DEFAULT_HTTP2_CONNECTIONS_PER_ORIGIN);
+  }
+
+  /**
+   * Initializes this transport.
+   *
+   * @param http2ConnectionsPerOrigin Number of HTTP/2 connections per origin.
+   * @throws IllegalArgumentException If the number of HTTP/2 connections is not positive.
+   */
+  public HttpServiceTransport(int http2ConnectionsPerOrigin) throws IllegalArgumentException {
+    if (http2ConnectionsPerOrigin <= 0) {
+      throw new IllegalArgumentException("The number of HTTP/2 connections per origin must be positive");
+    }
+
+    this.http2ConnectionsPerOrigin = http2ConnectionsPerOrigin;
+  }
+
+  /**
+   * Returns the default transport, creating it if it does not exist.
+   *
+   * @return Default transport.
+   */
+  public static synchronized HttpServiceTransport getDefault() {
+    if (defaultTransport == null) {
+      defaultTransport = new HttpServiceTransport();
+    }
+
+    return defaultTransport;
+  }
+
+  /**
+   * Retains the default transport, such that it is not closed until released.
+   */
+  public static synchronized void retainDefault() {
+    ++numDefaultTransportReferences;
+  }
+
+  /**
+   * Returns the number of runtimes retaining the default transport.
+   *
+   * @return Number of references.
+   */
+  static synchronized int getDefaultReferences() {
+    return numDefaultTransportReferences;
+  }
+
+  /**
+   * Releases the default transport, closing it once no longer retained.
+   */
+  public static synchronized void releaseDefault() {
+    if (numDefaultTransportReferences == 0 || --numDefaultTransportReferences > 0) {
+      return;
+    }
+
+    if (defaultTransport != null) {
+      defaultTransport.close();
+      defaultTransport = null;
+    }
+  }
+
+  /**
+   * Returns the HTTP clients of an origin for an HTTP version, creating them if they do not exist.
+   *
+   * @param scheme  Scheme.
+   * @param host    Host.
+   * @param port    Port.
+   * @param version HTTP version.
+   * @return HTTP clients, a single client for HTTP/1.1.
+   */
+  public List<HttpClient> getHttpClients(String scheme, String host, int port, Version version) {
+    return httpClients.computeIfAbsent("%s://%s:%d/%s".formatted(scheme, host, port, version), key -> {
+      final var count = version == Version.HTTP_2 ? http2ConnectionsPerOrigin : 1;
+
+      final var clients = new ArrayList<HttpClient>(count);
+
+      for (int i = 0; i < count; ++i) {
+        clients.add(HttpClient.newBuilder()
+            .version(version)
+            .executor(executor)
+            .build());
+      }
+
+      return List.copyOf(clients);
+    });
+  }
+
+  /**
+   * Closes all HTTP clients of this transport, waiting for outstanding requests to complete.
+   */
+  @Override
+  public void close() {
+    httpClients.values().forEach(clients -> clients.forEach(HttpClient::close));
+    httpClients.clear();
+
+    executor.close();
+  }
+
+  /**
+   * Returns the executor for handling responses.
+   *
+   * @return Executor.
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Returns the number of HTTP clients of this transport.
+   *
+   * @return Number of HTTP clients.
+   */
+  public int getHttpClientCount() {
+    return httpClients.values().stream()
+        .mapToInt(List::size)
+        .sum();
+  }
+}
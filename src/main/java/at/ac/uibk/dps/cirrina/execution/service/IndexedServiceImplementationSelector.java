@@ -0,0 +1,78 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import com.google.common.collect.Multimap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Indexed service implementation selector, indexes the candidate service implementations per name once, such that selecting does not
+ * allocate.
+ * <p>
+ * The candidates are indexed when this service implementation selector is initialized, service implementations added to the known service
+ * implementations afterward are not selected.
+ */
+public abstract class IndexedServiceImplementationSelector extends ServiceImplementationSelector {
+
+  /**
+   * Candidate service implementations by name.
+   */
+  private final Map<String, ServiceImplementation[]> candidates = new HashMap<>();
+
+  /**
+   * Candidate local service implementations by name.
+   */
+  private final Map<String, ServiceImplementation[]> localCandidates = new HashMap<>();
+
+  /**
+   * Initializes this service implementation selector.
+   *
+   * @param serviceImplementations Known service implementations.
+   */
+  public IndexedServiceImplementationSelector(Multimap<String, ServiceImplementation> serviceImplementations) {
+    super(serviceImplementations);
+
+    for (final var name : serviceImplementations.keySet()) {
+      final var serviceImplementationsWithName = serviceImplementations.get(name);
+
+      candidates.put(name, serviceImplementationsWithName.toArray(ServiceImplementation[]::new));
+
+      final var localServiceImplementationsWithName = serviceImplementationsWithName.stream()
+          .filter(ServiceImplementation::isLocal)
+          .toArray(ServiceImplementation[]::new);
+
+      if (localServiceImplementationsWithName.length > 0) {
+        localCandidates.put(name, localServiceImplementationsWithName);
+      }
+    }
+  }
+
+  /**
+   * Selects, given the known service implementations, a matching service implementation. If a local service implementation is requested,
+   * the selected service implementation is required to be a local service implementation.
+   *
+   * @param name  Name of the requested service implementation.
+   * @param local Whether the local implementation is required to be a local service implementation.
+   * @return Selected service implementation.
+   */
+  @Override
+  public Optional<ServiceImplementation> select(String name, boolean local) {
+    final var candidatesWithName = (local ? localCandidates : candidates).get(name);
+
+    if (candidatesWithName == null) {
+      return Optional.empty();
+    }
+
+    return Optional.of(candidatesWithName.length == 1 ? candidatesWithName[0] : select(name, local, candidatesWithName));
+  }
+
+  /**
+   * Selects one of at least two candidate service implementations.
+   *
+   * @param name       Name of the requested service implementation.
+   * @param local      Whether the local implementation is required to be a local service implementation.
+   * @param candidates Candidate service implementations, must not be modified.
+   * @return Selected service implementation.
+   */
+  protected abstract ServiceImplementation select(String name, boolean local, ServiceImplementation[] candidates);
+}
@@ -0,0 +1,42 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import com.google.common.collect.Multimap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Least-outstanding-requests service implementation selector, selects the candidate service implementation with the fewest invocations
+ * in-flight.
+ * <p>
+ * Candidates are scanned from a random offset, such that ties are not always broken in favor of the same service implementation.
+ */
+public class LeastOutstandingRequestsServiceImplementationSelector extends IndexedServiceImplementationSelector {
+
+  /**
+   * Initializes this service implementation selector.
+   *
+   * @param serviceImplementations Known service implementations.
+   */
+  public LeastOutstandingRequestsServiceImplementationSelector(Multimap<String, ServiceImplementation> serviceImplementations) {
+    super(serviceImplementations);
+  }
+
+  @Override
+  protected ServiceImplementation select(String name, boolean local, ServiceImplementation[] candidates) {
+    final var offset = ThreadLocalRandom.current().nextInt(candidates.length);
+
+    var selected = candidates[offset];
+    var selectedInFlight = selected.getStatistics().getInFlight();
+
+    for (int i = 1; i < candidates.length && selectedInFlight > 0; ++i) {
+      final var candidate = candidates[(offset + i) % candidates.length];
+      final var candidateInFlight = candidate.getStatistics().getInFlight();
+
+      if (candidateInFlight < selectedInFlight) {
+        selected = candidate;
+        selectedInFlight = candidateInFlight;
+      }
+    }
+
+    return selected;
+  }
+}
@@ -0,0 +1,44 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import com.google.common.collect.Multimap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices service implementation selector, selects the less loaded of two random candidate service implementations.
+ * <p>
+ * The load of a service implementation is its number of invocations in-flight, ties are broken by the lower average latency. Comparing two
+ * random candidates avoids that concurrent selections all pick the same least loaded service implementation, while still avoiding heavily
+ * loaded ones.
+ */
+public class PowerOfTwoChoicesServiceImplementationSelector extends IndexedServiceImplementationSelector {
+
+  /**
+   * Initializes this service implementation selector.
+   *
+   * @param serviceImplementations Known service implementations.
+   */
+  public PowerOfTwoChoicesServiceImplementationSelector(Multimap<String, ServiceImplementation> serviceImplementations) {
+    super(serviceImplementations);
+  }
+
+  @Override
+  protected ServiceImplementation select(String name, boolean local, ServiceImplementation[] candidates) {
+    final var random = ThreadLocalRandom.current();
+
+    // Pick two distinct candidates
+    final var first = random.nextInt(candidates.length);
+    final var second = (first + 1 + random.nextInt(candidates.length - 1)) % candidates.length;
+
+    final var firstStatistics = candidates[first].getStatistics();
+    final var secondStatistics = candidates[second].getStatistics();
+
+    final var firstInFlight = firstStatistics.getInFlight();
+    final var secondInFlight = secondStatistics.getInFlight();
+
+    if (firstInFlight != secondInFlight) {
+      return candidates[firstInFlight < secondInFlight ? first : second];
+    }
+
+    return candidates[firstStatistics.getLatencyInMs() <= secondStatistics.getLatencyInMs() ? first : second];
+  }
+}
@@ -4,7 +4,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import java.util.ArrayList;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RandomServiceImplementationSelector extends ServiceImplementationSelector {
 
@@ -35,7 +35,7 @@ public class RandomServiceImplementationSelector extends ServiceImplementationSe
     }
 
     ServiceImplementation randomImplementation = serviceImplementationsWithName.get(
-        new Random().nextInt(serviceImplementationsWithName.size()));
+        ThreadLocalRandom.current().nextInt(serviceImplementationsWithName.size()));
 
     return Optional.of(randomImplementation);
   }
@@ -16,6 +16,11 @@ public abstract class ServiceImplementation {
   private final double cost;
   private final boolean local;
 
+  /**
+   * Measured statistics of the invocations of this service implementation.
+   */
+  private final ServiceImplementationStatistics statistics = new ServiceImplementationStatistics();
+
   /**
    * Initializes this service implementation.
    *
@@ -47,6 +52,15 @@ public abstract class ServiceImplementation {
    */
   public abstract float getPerformance();
 
+  /**
+   * Returns the measured statistics of the invocations of this service implementation.
+   *
+   * @return Statistics.
+   */
+  public ServiceImplementationStatistics getStatistics() {
+    return statistics;
+  }
+
   /**
    * Returns whether this service implementation is local.
    *
@@ -5,6 +5,7 @@ import at.ac.uibk.dps.cirrina.csml.description.ServiceImplementationDescription;
 import at.ac.uibk.dps.cirrina.execution.service.HttpServiceImplementation.Parameters;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import java.net.http.HttpClient;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,12 +51,26 @@ public class ServiceImplementationBuilder {
     switch (serviceImplementationDescription) {
       case HttpServiceImplementationDescription s -> {
         return new HttpServiceImplementation(
-            new Parameters(s.getName(), s.getCost(), s.isLocal(), s.getScheme(), s.getHost(), s.getPort(), s.getEndPoint(), s.getMethod()));
+            new Parameters(s.getName(), s.getCost(), s.isLocal(), s.getScheme(), s.getHost(), s.getPort(), s.getEndPoint(), s.getMethod(),
+                toHttpVersion(s.getVersion())));
       }
       default -> throw new IllegalStateException(String.format("Unexpected value: %s", serviceImplementationDescription.getType()));
     }
   }
 
+  /**
+   * Converts an HTTP version of a description to an HTTP client version.
+   *
+   * @param version HTTP version of a description.
+   * @return HTTP client version.
+   */
+  private static HttpClient.Version toHttpVersion(HttpServiceImplementationDescription.Version version) {
+    return switch (version) {
+      case HTTP_1_1 -> HttpClient.Version.HTTP_1_1;
+      case HTTP_2 -> HttpClient.Version.HTTP_2;
+    };
+  }
+
   /**
    * Builds the service implementations.
    *
@@ -7,6 +7,11 @@ public abstract class ServiceImplementationSelector {
 
   protected final Multimap<String, ServiceImplementation> serviceImplementations;
 
+  /**
+   * Coalescer of the invocations of the known service implementations.
+   */
+  private final ServiceInvocationCoalescer invocationCoalescer = new ServiceInvocationCoalescer();
+
   /**
    * Initializes this service implementation selector.
    *
@@ -24,4 +29,14 @@ public abstract class ServiceImplementationSelector {
    * @return Selected service implementation.
    */
   public abstract Optional<ServiceImplementation> select(String name, boolean local);
+
+  /**
+   * Returns the coalescer of the invocations of the known service implementations, shared by all state machine instances using this service
+   * implementation selector.
+   *
+   * @return Service invocation coalescer.
+   */
+  public ServiceInvocationCoalescer getInvocationCoalescer() {
+    return invocationCoalescer;
+  }
 }
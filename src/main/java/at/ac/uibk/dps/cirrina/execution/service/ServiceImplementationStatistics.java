@@ -0,0 +1,187 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service implementation statistics, measures the latency, in-flight invocations and error rate of a service implementation.
+ * <p>
+ * Latency and error rate are kept as exponentially weighted moving averages, where the weight of a sample depends on the time elapsed since
+ * the previous sample, such that the averages follow the recent behavior of a service implementation regardless of its invocation rate. The
+ * error rate additionally decays while no invocations complete, such that a service implementation that failed is eventually selected
+ * again.
+ * <p>
+ * Statistics are updated without locking, invocations may complete concurrently.
+ */
+public final class ServiceImplementationStatistics {
+
+  /**
+   * Default time constant of the moving averages in milliseconds.
+   */
+  private static final double DEFAULT_TIME_CONSTANT_IN_MS = 10_000.0;
+
+  /**
+   * Latency assumed before the first invocation completes in milliseconds, optimistic such that new service implementations are selected.
+   */
+  private static final double INITIAL_LATENCY_IN_MS = 1.0;
+
+  /**
+   * Minimum weight of a sample.
+   */
+  private static final double MINIMUM_WEIGHT = 0.01;
+
+  /**
+   * Minimum success rate used for the performance, such that the performance remains positive.
+   */
+  private static final double MINIMUM_SUCCESS_RATE = 0.01;
+
+  /**
+   * Time constant of the moving averages in milliseconds.
+   */
+  private final double timeConstantInMs;
+
+  /**
+   * Number of invocations in-flight.
+   */
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /**
+   * The current averages.
+   */
+  private final AtomicReference<Averages> averages = new AtomicReference<>(new Averages(INITIAL_LATENCY_IN_MS, 0.0, 0L, false));
+
+  /**
+   * Initializes service implementation statistics with the default time constant.
+   */
+  public ServiceImplementationStatistics() {
+    this(DEFAULT_TIME_CONSTANT_IN_MS);
+  }
+
+  /**
+   * Initializes service implementation statistics.
+   *
+   * @param timeConstantInMs Time constant of the moving averages in milliseconds, the time after which a sample weighs approximately 37%.
+   * @throws IllegalArgumentException If the time constant is not positive.
+   */
+  public ServiceImplementationStatistics(double timeConstantInMs) throws IllegalArgumentException {
+    if (timeConstantInMs <= 0.0) {
+      throw new IllegalArgumentException("The time constant must be positive");
+    }
+
+    this.timeConstantInMs = timeConstantInMs;
+  }
+
+  private static double elapsedInMs(long elapsedInNs) {
+    return (double) elapsedInNs / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Records the start of an invocation.
+   */
+  public void begin() {
+    inFlight.incrementAndGet();
+  }
+
+  /**
+   * Records the completion of an invocation.
+   *
+   * @param latencyInMs Latency of the invocation in milliseconds.
+   * @param failed      True if the invocation failed, otherwise false.
+   */
+  public void end(double latencyInMs, boolean failed) {
+    inFlight.decrementAndGet();
+
+    final var now = System.nanoTime();
+
+    averages.updateAndGet(current -> {
+      // The first sample replaces the initial latency
+      if (!current.isMeasured()) {
+        return new Averages(latencyInMs, failed ? 1.0 : 0.0, now, true);
+      }
+
+      final var weight = weightOf(now - current.updatedTime());
+
+      return new Averages(
+          current.latencyInMs() + weight * (latencyInMs - current.latencyInMs()),
+          current.errorRate() + weight * ((failed ? 1.0 : 0.0) - current.errorRate()),
+          now,
+          true
+      );
+    });
+  }
+
+  /**
+   * Returns the performance, the expected rate of successful invocations, accounting for the invocations in-flight.
+   * <p>
+   * A service implementation twice as fast, or with half the invocations in-flight, has twice the performance.
+   *
+   * @return Performance.
+   */
+  public float getPerformance() {
+    final var successRate = Math.max(1.0 - getErrorRate(), MINIMUM_SUCCESS_RATE);
+
+    return (float) (successRate / (getLatencyInMs() * (getInFlight() + 1)));
+  }
+
+  /**
+   * Returns the weight of a sample, given the time elapsed since the previous sample.
+   *
+   * @param elapsedInNs Elapsed time in nanoseconds.
+   * @return Weight, between 0 and 1.
+   */
+  private double weightOf(long elapsedInNs) {
+    // Concurrent samples still carry a minimum weight, to not be ignored entirely
+    return Math.max(1.0 - Math.exp(-elapsedInMs(elapsedInNs) / timeConstantInMs), MINIMUM_WEIGHT);
+  }
+
+  /**
+   * Returns the average latency.
+   *
+   * @return Latency in milliseconds.
+   */
+  public double getLatencyInMs() {
+    return Math.max(averages.get().latencyInMs(), Double.MIN_NORMAL);
+  }
+
+  /**
+   * Returns the average error rate, decayed by the time elapsed since the last invocation completed.
+   *
+   * @return Error rate, between 0 and 1.
+   */
+  public double getErrorRate() {
+    final var current = averages.get();
+
+    if (!current.isMeasured()) {
+      return 0.0;
+    }
+
+    return current.errorRate() * Math.exp(-elapsedInMs(System.nanoTime() - current.updatedTime()) / timeConstantInMs);
+  }
+
+  /**
+   * Returns the number of invocations in-flight.
+   *
+   * @return Number of invocations in-flight.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Moving averages.
+   *
+   * @param latencyInMs Average latency in milliseconds.
+   * @param errorRate   Average error rate.
+   * @param updatedTime Time of the last update in nanoseconds.
+   * @param isMeasured  True if at least one invocation completed, otherwise false.
+   */
+  private record Averages(
+      double latencyInMs,
+      double errorRate,
+      long updatedTime,
+      boolean isMeasured
+  ) {
+
+  }
+}
@@ -0,0 +1,127 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.ContextVariableExchange;
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service invocation coalescer, shares one in-flight invocation among identical concurrent invocations of a service type.
+ * <p>
+ * Invocations are identical if they request the same service type, with the same locality and the same serialized input. The first
+ * invocation is performed, identical invocations made while it is in-flight complete with its output instead. Once the invocation
+ * completes, the next identical invocation is performed again. Coalescing is therefore only correct for idempotent service types.
+ * <p>
+ * Each coalesced invocation receives its own copy of the output, such that the output values are not shared between state machine
+ * instances.
+ */
+public final class ServiceInvocationCoalescer {
+
+  /**
+   * Invocations in-flight by key.
+   */
+  private final Map<Key, CompletableFuture<List<ContextVariable>>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a copy of service output.
+   *
+   * @param output Service output.
+   * @return Copy of the service output.
+   * @throws UnsupportedOperationException If the service output could not be copied.
+   */
+  private static List<ContextVariable> copyOf(List<ContextVariable> output) throws UnsupportedOperationException {
+    return output.stream()
+        .map(variable -> ContextVariableExchange.fromProto(new ContextVariableExchange(variable).toProto()))
+        .toList();
+  }
+
+  /**
+   * Invokes a service type, unless an identical invocation is in-flight, in which case the output of that invocation is shared.
+   *
+   * @param serviceType Service type.
+   * @param local       Whether the service implementation is required to be a local service implementation.
+   * @param input       Input to the service invocation.
+   * @param invoker     Performs the invocation, only called if no identical invocation is in-flight.
+   * @return The service invocation output.
+   * @throws IOException                   If the service invocation failed.
+   * @throws UnsupportedOperationException If the input could not be serialized.
+   */
+  public CompletableFuture<List<ContextVariable>> invoke(String serviceType, boolean local, List<ContextVariable> input, Invoker invoker)
+      throws IOException, UnsupportedOperationException {
+    final var key = new Key(serviceType, local, input.stream()
+        .map(variable -> new ContextVariableExchange(variable).toProto().toByteString())
+        .toList());
+
+    final var invocation = new CompletableFuture<List<ContextVariable>>();
+
+    // Share an identical invocation in-flight
+    final var existing = inFlight.putIfAbsent(key, invocation);
+
+    if (existing != null) {
+      return existing.thenApply(ServiceInvocationCoalescer::copyOf);
+    }
+
+    try {
+      invoker.invoke().whenComplete((output, e) -> {
+        // Remove the invocation before completing it, such that later identical invocations are performed again
+        inFlight.remove(key, invocation);
+
+        if (e != null) {
+          invocation.completeExceptionally(e);
+        } else {
+          invocation.complete(output);
+        }
+      });
+    } catch (IOException | RuntimeException e) {
+      inFlight.remove(key, invocation);
+      invocation.completeExceptionally(e);
+
+      throw e;
+    }
+
+    return invocation;
+  }
+
+  /**
+   * Returns the number of invocations in-flight.
+   *
+   * @return Number of invocations in-flight.
+   */
+  public int getInFlight() {
+    return inFlight.size();
+  }
+
+  /**
+   * Performs a service invocation.
+   */
+  @FunctionalInterface
+  public interface Invoker {
+
+    /**
+     * Performs the service invocation.
+     *
+     * @return The service invocation output.
+     * @throws IOException If the service invocation failed.
+     */
+    CompletableFuture<List<ContextVariable>> invoke() throws IOException;
+  }
+
+  /**
+   * Identity of an invocation.
+   *
+   * @param serviceType Service type.
+   * @param local       Whether the service implementation is required to be a local service implementation.
+   * @param input       Serialized input.
+   */
+  private record Key(
+      String serviceType,
+      boolean local,
+      List<ByteString> input
+  ) {
+
+  }
+}
@@ -0,0 +1,120 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Weighted round-robin service implementation selector, cycles through the candidate service implementations, selecting each in proportion
+ * to its weight.
+ * <p>
+ * The weight of a service implementation is inversely proportional to its cost, the cheapest service implementation is selected up to
+ * {@link #MAXIMUM_WEIGHT} times as often as the others. The order of selection is computed once, interleaving the service implementations
+ * by smooth weighted round-robin, such that selecting only increments a counter.
+ */
+public class WeightedRoundRobinServiceImplementationSelector extends IndexedServiceImplementationSelector {
+
+  /**
+   * Weight of the cheapest service implementation.
+   */
+  private static final int MAXIMUM_WEIGHT = 10;
+
+  /**
+   * Selection schedules by name.
+   */
+  private final Map<String, Schedule> schedules = new HashMap<>();
+
+  /**
+   * Selection schedules of the local service implementations by name.
+   */
+  private final Map<String, Schedule> localSchedules = new HashMap<>();
+
+  /**
+   * Initializes this service implementation selector.
+   *
+   * @param serviceImplementations Known service implementations.
+   */
+  public WeightedRoundRobinServiceImplementationSelector(Multimap<String, ServiceImplementation> serviceImplementations) {
+    super(serviceImplementations);
+
+    for (final var name : serviceImplementations.keySet()) {
+      final var serviceImplementationsWithName = serviceImplementations.get(name);
+
+      schedules.put(name, scheduleOf(serviceImplementationsWithName));
+
+      final var localServiceImplementationsWithName = serviceImplementationsWithName.stream()
+          .filter(ServiceImplementation::isLocal)
+          .toList();
+
+      if (!localServiceImplementationsWithName.isEmpty()) {
+        localSchedules.put(name, scheduleOf(localServiceImplementationsWithName));
+      }
+    }
+  }
+
+  /**
+   * Returns the selection schedule of a collection of service implementations.
+   *
+   * @param serviceImplementations Service implementations.
+   * @return Selection schedule.
+   */
+  private static Schedule scheduleOf(Collection<ServiceImplementation> serviceImplementations) {
+    final var candidates = serviceImplementations.toArray(ServiceImplementation[]::new);
+
+    final var minCost = serviceImplementations.stream().mapToDouble(ServiceImplementation::getCost).min().orElse(1);
+
+    final var weights = new int[candidates.length];
+    var totalWeight = 0;
+
+    for (int i = 0; i < candidates.length; ++i) {
+      final var cost = candidates[i].getCost();
+
+      weights[i] = cost <= minCost ? MAXIMUM_WEIGHT : (int) Math.max(Math.round(MAXIMUM_WEIGHT * minCost / cost), 1);
+      totalWeight += weights[i];
+    }
+
+    // Interleave the service implementations, each round selects the candidate with the highest current weight
+    final var order = new ArrayList<ServiceImplementation>(totalWeight);
+    final var currentWeights = new int[candidates.length];
+
+    for (int round = 0; round < totalWeight; ++round) {
+      var selected = 0;
+
+      for (int i = 0; i < candidates.length; ++i) {
+        currentWeights[i] += weights[i];
+
+        if (currentWeights[i] > currentWeights[selected]) {
+          selected = i;
+        }
+      }
+
+      currentWeights[selected] -= totalWeight;
+      order.add(candidates[selected]);
+    }
+
+    return new Schedule(order.toArray(ServiceImplementation[]::new), new AtomicInteger());
+  }
+
+  @Override
+  protected ServiceImplementation select(String name, boolean local, ServiceImplementation[] candidates) {
+    final var schedule = (local ? localSchedules : schedules).get(name);
+
+    return schedule.order()[Math.floorMod(schedule.next().getAndIncrement(), schedule.order().length)];
+  }
+
+  /**
+   * Selection schedule.
+   *
+   * @param order Service implementations in order of selection.
+   * @param next  Counter of selections, the next selection.
+   */
+  private record Schedule(
+      ServiceImplementation[] order,
+      AtomicInteger next
+  ) {
+
+  }
+}
@@ -0,0 +1,27 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+/**
+ * Execution mode, determines how a runtime executes its state machine instances.
+ * <p>
+ * Every state machine instance spends most of its life waiting for events. Running each instance on a platform thread therefore reserves a
+ * full thread stack per instance, which limits the number of instances a runtime can host. Virtual threads park without holding on to a
+ * carrier thread, allowing a runtime to host a much larger number of mostly idle instances. An event loop multiplexes all instances onto a
+ * fixed number of workers, idle instances then do not occupy any thread at all.
+ */
+public enum ExecutionMode {
+  /**
+   * Each state machine instance runs on its own platform thread, taken from a cached thread pool.
+   */
+  Platform,
+
+  /**
+   * Each state machine instance runs on its own virtual thread.
+   */
+  Virtual,
+
+  /**
+   * State machine instances are scheduled onto one of a fixed number of workers, one per available processor, whenever they receive
+   * events.
+   */
+  EventLoop
+}
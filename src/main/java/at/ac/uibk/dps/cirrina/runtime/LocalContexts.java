@@ -0,0 +1,20 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+/**
+ * Local contexts, determines how the local contexts of state machine instances and their states are implemented.
+ * <p>
+ * Local contexts are only accessed by the owning state machine instance, except for assignments of service output, which complete
+ * asynchronously. Single-writer local contexts are not synchronized, all mutations are therefore routed through the state machine
+ * instance, which executes them in between handling events.
+ */
+public enum LocalContexts {
+  /**
+   * Local contexts are concurrent in-memory contexts, mutations are applied on the thread that performs them.
+   */
+  Concurrent,
+
+  /**
+   * Local contexts are single-writer in-memory contexts, mutations are applied by the owning state machine instance.
+   */
+  SingleWriter
+}
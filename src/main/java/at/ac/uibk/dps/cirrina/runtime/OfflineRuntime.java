@@ -50,6 +50,18 @@ public class OfflineRuntime extends Runtime {
     super(name, eventHandler, persistentContext, getOpenTelemetry());
   }
 
+  /**
+   * Initializes this offline runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param options           Runtime options.
+   */
+  public OfflineRuntime(String name, EventHandler eventHandler, Context persistentContext, RuntimeOptions options) {
+    super(name, eventHandler, persistentContext, getOpenTelemetry(), options);
+  }
+
   /**
    * Returns a local OpenTelemetry instance that logs to the standard output stream.
    *
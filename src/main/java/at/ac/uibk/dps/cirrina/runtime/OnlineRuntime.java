@@ -5,8 +5,14 @@ import at.ac.uibk.dps.cirrina.csml.description.JobDescription;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
 import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
+import at.ac.uibk.dps.cirrina.execution.service.LeastOutstandingRequestsServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.execution.service.PowerOfTwoChoicesServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.execution.service.RandomServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementation;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationBuilder;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.execution.service.WeightedRoundRobinServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.runtime.job.Job;
 import at.ac.uibk.dps.cirrina.runtime.job.JobListener;
 import at.ac.uibk.dps.cirrina.runtime.job.JobMonitor;
@@ -64,7 +70,30 @@ public class OnlineRuntime extends Runtime implements JobListener {
       CuratorFramework curatorFramework,
       boolean deleteJob
   ) {
-    super(name, eventHandler, persistentContext, openTelemetry);
+    this(name, eventHandler, persistentContext, openTelemetry, curatorFramework, deleteJob, RuntimeOptions.defaults());
+  }
+
+  /**
+   * Initializes this online runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param openTelemetry     OpenTelemetry.
+   * @param curatorFramework  CuratorFramework.
+   * @param deleteJob         Delete job when consumed.
+   * @param options           Runtime options.
+   */
+  public OnlineRuntime(
+      String name,
+      EventHandler eventHandler,
+      Context persistentContext,
+      OpenTelemetry openTelemetry,
+      CuratorFramework curatorFramework,
+      boolean deleteJob,
+      RuntimeOptions options
+  ) {
+    super(name, eventHandler, persistentContext, openTelemetry, options);
 
     this.deleteJob = deleteJob;
 
@@ -118,13 +147,29 @@ public class OnlineRuntime extends Runtime implements JobListener {
     }
   }
 
+  /**
+   * Creates a service implementation selector according to the service selection of the runtime options.
+   *
+   * @param serviceImplementations Known service implementations.
+   * @return Service implementation selector.
+   */
+  private ServiceImplementationSelector newServiceImplementationSelector(Multimap<String, ServiceImplementation> serviceImplementations) {
+    return switch (options.serviceSelection()) {
+      case Random -> new RandomServiceImplementationSelector(serviceImplementations);
+      case Optimal -> new OptimalServiceImplementationSelector(serviceImplementations);
+      case PowerOfTwoChoices -> new PowerOfTwoChoicesServiceImplementationSelector(serviceImplementations);
+      case LeastOutstandingRequests -> new LeastOutstandingRequestsServiceImplementationSelector(serviceImplementations);
+      case WeightedRoundRobin -> new WeightedRoundRobinServiceImplementationSelector(serviceImplementations);
+    };
+  }
+
   private void startJob(JobDescription jobDescription) {
     // Create the collaborative state machine from the description
     final var collaborativeStateMachine = CollaborativeStateMachineClassBuilder.from(jobDescription.getCollaborativeStateMachine())
         .build();
 
     // Acquire the service implementation selector
-    final var serviceImplementationSelector = new RandomServiceImplementationSelector(
+    final var serviceImplementationSelector = newServiceImplementationSelector(
         ServiceImplementationBuilder.from(jobDescription.getServiceImplementations()).build());
 
     // Acquire the state machine name
@@ -1,26 +1,45 @@
 package at.ac.uibk.dps.cirrina.runtime;
 
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_CONTEXT_CACHE_HITS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_CONTEXT_CACHE_MISSES;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EXPRESSION_CACHE_EVICTIONS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EXPRESSION_CACHE_HITS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EXPRESSION_CACHE_MISSES;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_CONTEXT_CACHE_HIT_RATIO;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_CONTEXT_CACHE_PENDING_WRITES;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_CONTEXT_CACHE_STALENESS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EXPRESSION_CACHE_SIZE;
+
 import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
 import at.ac.uibk.dps.cirrina.classes.statemachine.StateMachineClass;
+import at.ac.uibk.dps.cirrina.execution.object.context.CachedNatsContext;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import at.ac.uibk.dps.cirrina.execution.service.HttpServiceTransport;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.EventLoopStateMachineScheduler;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.StateMachineScheduler;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.ThreadStateMachineScheduler;
+import at.ac.uibk.dps.cirrina.runtime.scheduler.TimingWheel;
 import at.ac.uibk.dps.cirrina.utils.Id;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.trace.Tracer;
 import jakarta.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EventListener;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -60,6 +79,27 @@ public abstract class Runtime implements EventListener {
    */
   protected final Context persistentContext;
 
+  /**
+   * Extent containing the persistent context, shared by all state machine instances.
+   */
+  private final Extent extent;
+
+  /**
+   * Timing wheel, schedules the timeout actions of all state machine instances.
+   */
+  private final TimingWheel timingWheel = new TimingWheel();
+
+  /**
+   * Executor of the timeout actions delivered by the timing wheel, such that a blocking timeout action does not delay the other timeouts.
+   */
+  private final ExecutorService timeoutActionExecutor = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("timeout-action-", 0).factory());
+
+  /**
+   * Flag that indicates if the timing wheel and observable instruments are released, after all state machine instances have completed.
+   */
+  private final AtomicBoolean isReleased = new AtomicBoolean();
+
   /**
    * OpenTelemetry.
    */
@@ -76,14 +116,24 @@ public abstract class Runtime implements EventListener {
   protected final Meter meter;
 
   /**
-   * StateClass machine instance executor service, manages running state machine instances.
+   * Observable instruments registered with the meter, closed on shutdown.
    */
-  private final ExecutorService stateMachineInstanceExecutorService = Executors.newCachedThreadPool();
+  private final List<AutoCloseable> observableInstruments;
 
   /**
-   * List of instantiated state machines.
+   * Runtime options.
    */
-  private final Queue<StateMachine> stateMachines = new ConcurrentLinkedQueue<>();
+  protected final RuntimeOptions options;
+
+  /**
+   * State machine instance scheduler, manages running state machine instances.
+   */
+  private final StateMachineScheduler stateMachineScheduler;
+
+  /**
+   * Registry of instantiated state machines.
+   */
+  private final StateMachineRegistry stateMachines = new StateMachineRegistry();
 
   /**
    * Initializes this runtime instance.
@@ -94,18 +144,89 @@ public abstract class Runtime implements EventListener {
    * @param openTelemetry     OpenTelemetry.
    */
   public Runtime(String name, EventHandler eventHandler, Context persistentContext, OpenTelemetry openTelemetry) {
+    this(name, eventHandler, persistentContext, openTelemetry, RuntimeOptions.defaults());
+  }
+
+  /**
+   * Initializes this runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param openTelemetry     OpenTelemetry.
+   * @param options           Runtime options.
+   */
+  public Runtime(
+      String name,
+      EventHandler eventHandler,
+      Context persistentContext,
+      OpenTelemetry openTelemetry,
+      RuntimeOptions options
+  ) {
     this.name = name;
 
     // Keep dependencies
     this.eventHandler = eventHandler;
     this.persistentContext = persistentContext;
     this.openTelemetry = openTelemetry;
+    this.options = options;
+
+    this.extent = new Extent(persistentContext);
+
+    // Retain the HTTP service transport shared by the service implementations, until released
+    HttpServiceTransport.retainDefault();
 
     // Create an OpenTelemetry tracer
     this.tracer = this.openTelemetry.getTracer("runtime");
 
     // Create an OpenTelemetry meter
     meter = this.openTelemetry.getMeter("runtime");
+
+    // Observe the expression cache
+    observableInstruments = new ArrayList<>(List.of(
+        meter.counterBuilder(COUNTER_EXPRESSION_CACHE_HITS)
+            .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.getCacheStats().hitCount())),
+        meter.counterBuilder(COUNTER_EXPRESSION_CACHE_MISSES)
+            .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.getCacheStats().missCount())),
+        meter.counterBuilder(COUNTER_EXPRESSION_CACHE_EVICTIONS)
+            .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.getCacheStats().evictionCount())),
+        meter.gaugeBuilder(GAUGE_EXPRESSION_CACHE_SIZE).ofLongs()
+            .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.getCacheSize()))
+    ));
+
+    // Observe the persistent context cache, if cached
+    if (persistentContext instanceof CachedNatsContext cachedNatsContext) {
+      observableInstruments.addAll(List.of(
+          meter.counterBuilder(COUNTER_CONTEXT_CACHE_HITS)
+              .buildWithCallback(measurement -> measurement.record(cachedNatsContext.getHits())),
+          meter.counterBuilder(COUNTER_CONTEXT_CACHE_MISSES)
+              .buildWithCallback(measurement -> measurement.record(cachedNatsContext.getMisses())),
+          meter.gaugeBuilder(GAUGE_CONTEXT_CACHE_HIT_RATIO)
+              .buildWithCallback(measurement -> measurement.record(cachedNatsContext.getHitRatio())),
+          meter.gaugeBuilder(GAUGE_CONTEXT_CACHE_STALENESS).ofLongs()
+              .buildWithCallback(measurement -> measurement.record(cachedNatsContext.getStalenessInMs())),
+          meter.gaugeBuilder(GAUGE_CONTEXT_CACHE_PENDING_WRITES).ofLongs()
+              .buildWithCallback(measurement -> measurement.record(cachedNatsContext.getPendingWrites()))
+      ));
+    }
+
+    // Create the scheduler according to the execution mode
+    this.stateMachineScheduler = newStateMachineScheduler(options.executionMode());
+  }
+
+  /**
+   * Constructs a new state machine instance scheduler according to the provided execution mode.
+   *
+   * @param executionMode Execution mode.
+   * @return State machine instance scheduler.
+   */
+  private static StateMachineScheduler newStateMachineScheduler(ExecutionMode executionMode) {
+    return switch (executionMode) {
+      case Platform -> new ThreadStateMachineScheduler(Executors.newCachedThreadPool());
+      case Virtual -> new ThreadStateMachineScheduler(
+          Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("state-machine-", 0).factory()));
+      case EventLoop -> new EventLoopStateMachineScheduler();
+    };
   }
 
   /**
@@ -115,9 +236,17 @@ public abstract class Runtime implements EventListener {
    * @return The state machine instance or an empty optional if no state machine instance was found for the given instance id.
    */
   public Optional<StateMachine> findInstance(Id stateMachineId) {
-    return stateMachines.stream()
-        .filter(stateMachineInstance -> stateMachineInstance.getStateMachineInstanceId().equals(stateMachineId))
-        .findFirst();
+    return stateMachines.find(stateMachineId);
+  }
+
+  /**
+   * Find all nested state machine instances of a parent state machine instance.
+   *
+   * @param parentStateMachineId Parent state machine instance id.
+   * @return The nested state machine instances.
+   */
+  public Collection<StateMachine> findNestedInstances(Id parentStateMachineId) {
+    return stateMachines.findByParentId(parentStateMachineId);
   }
 
   /**
@@ -142,6 +271,9 @@ public abstract class Runtime implements EventListener {
 
   /**
    * Instantiate a collection of state machines.
+   * <p>
+   * The state machine instances are executed once all of them are created, such that events raised upon entering their initial states are
+   * received by all of them.
    *
    * @param stateMachineClasses           StateClass machines to instantiate.
    * @param serviceImplementationSelector Service implementation selector.
@@ -156,38 +288,57 @@ public abstract class Runtime implements EventListener {
       @Nullable Id parentInstanceId,
       double endTime
   ) throws UnsupportedOperationException {
-    var instanceIds = new ArrayList<Id>();
+    final var stateMachineInstances = new ArrayList<StateMachine>();
 
+    addInstances(stateMachineClasses, serviceImplementationSelector, parentInstanceId, endTime, stateMachineInstances);
+
+    // Execute
+    for (final var stateMachineInstance : stateMachineInstances) {
+      stateMachineScheduler.submit(stateMachineInstance);
+    }
+
+    return stateMachineInstances.stream()
+        .map(StateMachine::getStateMachineInstanceId)
+        .toList();
+  }
+
+  /**
+   * Creates the state machine instance hierarchies of a collection of state machines, without executing them.
+   *
+   * @param stateMachineClasses           StateClass machines to instantiate.
+   * @param serviceImplementationSelector Service implementation selector.
+   * @param parentInstanceId              ID of parent state machine instance.
+   * @param endTime                       The end time of this instance.
+   * @param stateMachineInstances         Created state machine instances, parents before their nested state machine instances.
+   * @throws UnsupportedOperationException If a state machine could not be instantiated.
+   */
+  private void addInstances(
+      List<StateMachineClass> stateMachineClasses,
+      ServiceImplementationSelector serviceImplementationSelector,
+      @Nullable Id parentInstanceId,
+      double endTime,
+      List<StateMachine> stateMachineInstances
+  ) throws UnsupportedOperationException {
     for (var stateMachine : stateMachineClasses) {
       // Instantiate the state machine instance hierarchy
       try {
         // Parent
-        var instanceId = newInstance(stateMachine, serviceImplementationSelector, parentInstanceId, endTime);
-        instanceIds.add(instanceId);
+        final var stateMachineInstance = newInstance(stateMachine, serviceImplementationSelector, parentInstanceId, endTime);
+        stateMachineInstances.add(stateMachineInstance);
 
-        final var nestedStateMachineIds = new ArrayList<Id>();
-
-        // Add nested state machines
+        // Add nested state machines, the parent finds its children through the registry
         if (!stateMachine.getNestedStateMachineClasses().isEmpty()) {
-          nestedStateMachineIds.addAll(
-              newInstances(stateMachine.getNestedStateMachineClasses(), serviceImplementationSelector, instanceId, endTime));
+          addInstances(stateMachine.getNestedStateMachineClasses(), serviceImplementationSelector,
+              stateMachineInstance.getStateMachineInstanceId(), endTime, stateMachineInstances);
         }
-
-        // Add to the collection of created state machine instance IDs
-        instanceIds.addAll(nestedStateMachineIds);
-
-        // Provide the parent state machine with the IDs of its children
-        findInstance(instanceId).get().setNestedStateMachineIds(nestedStateMachineIds);
       } catch (UnsupportedOperationException e) {
         throw new UnsupportedOperationException("Could not instantiate state machine", e);
       }
     }
-
-    return instanceIds;
   }
 
   /**
-   * Instantiate a state machine.
+   * Instantiate a state machine, the state machine instance is added to this runtime but not yet executed.
    * <p>
    * The runtime cannot be shut down, otherwise an exception is thrown.
    *
@@ -195,17 +346,17 @@ public abstract class Runtime implements EventListener {
    * @param serviceImplementationSelector Service implementation selector.
    * @param parentInstanceId              ID of parent state machine instance.
    * @param endTime                       The end time of this instance.
-   * @return Instance ID.
+   * @return State machine instance.
    * @throws UnsupportedOperationException If the runtime is shut down.
    * @throws UnsupportedOperationException If the parent state machine could not be found.
    */
-  protected Id newInstance(
+  private StateMachine newInstance(
       StateMachineClass stateMachineClass,
       ServiceImplementationSelector serviceImplementationSelector,
       @Nullable Id parentInstanceId,
       double endTime
   ) throws UnsupportedOperationException {
-    if (stateMachineInstanceExecutorService.isShutdown()) {
+    if (stateMachineScheduler.isShutdown()) {
       throw new UnsupportedOperationException("Runtime is shut down");
     }
 
@@ -225,6 +376,8 @@ public abstract class Runtime implements EventListener {
     // Create the state machine instance
     final var stateMachineInstance = new StateMachine(
         this,
+        stateMachineScheduler,
+        EventMailbox.newEventMailbox(options.eventQueueCapacity(), options.eventQueueOverflowPolicy()),
         stateMachineClass,
         serviceImplementationSelector,
         openTelemetry,
@@ -236,20 +389,18 @@ public abstract class Runtime implements EventListener {
     eventHandler.addListener(stateMachineInstance);
 
     // Add to the collection of state machine instances
-    stateMachines.add(stateMachineInstance);
+    stateMachines.add(stateMachineInstance, parentInstanceId);
 
-    // Execute
-    stateMachineInstanceExecutorService.submit(stateMachineInstance);
+    logger.info("Created an instance of '{}' with ID '{}'", stateMachineName, stateMachineInstance.getStateMachineInstanceId().toString());
 
-    final var stateMachineInstanceId = stateMachineInstance.getStateMachineInstanceId();
-
-    logger.info("Created an instance of '{}' with ID '{}'", stateMachineName, stateMachineInstanceId.toString());
-
-    return stateMachineInstanceId;
+    return stateMachineInstance;
   }
 
   public void remove(StateMachine stateMachine) {
     stateMachines.remove(stateMachine);
+
+    // A removed state machine instance no longer receives events
+    eventHandler.removeListener(stateMachine);
   }
 
   /**
@@ -269,7 +420,10 @@ public abstract class Runtime implements EventListener {
       shutdown();
 
       // Wait for completion
-      return stateMachineInstanceExecutorService.awaitTermination(timeoutInMs, TimeUnit.MILLISECONDS);
+      if (stateMachineScheduler.awaitTermination(timeoutInMs, TimeUnit.MILLISECONDS)) {
+        release();
+        return true;
+      }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
@@ -279,15 +433,53 @@ public abstract class Runtime implements EventListener {
 
   /**
    * Shutdown, will trigger all currently executing state machine instances to be completed and no new instances to be accepted.
+   * <p>
+   * The timing wheel, observable instruments and HTTP service transport are released once all state machine instances have completed,
+   * since completing state machine instances may still arm timeouts, report measurements and invoke services.
    *
    * @throws UnsupportedOperationException If the runtime is already shut down.
    */
   public void shutdown() throws UnsupportedOperationException {
-    if (stateMachineInstanceExecutorService.isShutdown()) {
+    if (stateMachineScheduler.isShutdown()) {
       throw new UnsupportedOperationException("Runtime is already shut down");
     }
 
-    stateMachineInstanceExecutorService.shutdown();
+    stateMachineScheduler.shutdown();
+
+    // Release in the background, the caller is not required to wait for completion
+    Thread.ofVirtual().name("runtime-release").start(() -> {
+      try {
+        stateMachineScheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        release();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  /**
+   * Releases the timing wheel, observable instruments and HTTP service transport, once all state machine instances have completed.
+   * Releasing more than once has no effect.
+   */
+  private void release() {
+    if (!isReleased.compareAndSet(false, true)) {
+      return;
+    }
+
+    timingWheel.shutdown();
+    timeoutActionExecutor.shutdown();
+
+    HttpServiceTransport.releaseDefault();
+
+    // Stop observing
+    for (final var observableInstrument : observableInstruments) {
+      try {
+        observableInstrument.close();
+      } catch (Exception e) {
+        logger.warn("Failed to close an observable instrument: {}", e.getMessage());
+      }
+    }
   }
 
   /**
@@ -296,7 +488,7 @@ public abstract class Runtime implements EventListener {
    * @return True if shut down, otherwise false.
    */
   public boolean isShutdown() {
-    return stateMachineInstanceExecutorService.isShutdown();
+    return stateMachineScheduler.isShutdown();
   }
 
   /**
@@ -305,7 +497,16 @@ public abstract class Runtime implements EventListener {
    * @return Extent.
    */
   public Extent getExtent() {
-    return new Extent(persistentContext);
+    return extent;
+  }
+
+  /**
+   * Returns this runtime's persistent context.
+   *
+   * @return Persistent context.
+   */
+  public Context getPersistentContext() {
+    return persistentContext;
   }
 
   /**
@@ -317,6 +518,33 @@ public abstract class Runtime implements EventListener {
     return eventHandler;
   }
 
+  /**
+   * Returns this runtime's timing wheel.
+   *
+   * @return Timing wheel.
+   */
+  public TimingWheel getTimingWheel() {
+    return timingWheel;
+  }
+
+  /**
+   * Returns this runtime's executor of timeout actions.
+   *
+   * @return Timeout action executor.
+   */
+  public Executor getTimeoutActionExecutor() {
+    return timeoutActionExecutor;
+  }
+
+  /**
+   * Returns this runtime's options.
+   *
+   * @return Runtime options.
+   */
+  public RuntimeOptions getOptions() {
+    return options;
+  }
+
   /**
    * Returns the number of state machines.
    *
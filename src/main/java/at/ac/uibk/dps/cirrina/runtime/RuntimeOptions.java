@@ -0,0 +1,102 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox.OverflowPolicy;
+
+/**
+ * Runtime options, tune how a runtime executes its state machine instances.
+ *
+ * @param executionMode            Execution mode of state machine instances.
+ * @param eventQueueCapacity       Capacity of the event queue of each state machine instance, or zero for an unbounded event queue.
+ * @param eventQueueOverflowPolicy Overflow policy applied when an event queue is full.
+ * @param timeoutDelivery          Delivery of expired timeouts.
+ * @param localContexts            Implementation of local contexts.
+ * @param batchPersistentWrites    Batch the persistent context assignments made while handling an event.
+ * @param serviceSelection         Selection of service implementations.
+ */
+public record RuntimeOptions(
+    ExecutionMode executionMode,
+    int eventQueueCapacity,
+    OverflowPolicy eventQueueOverflowPolicy,
+    TimeoutDelivery timeoutDelivery,
+    LocalContexts localContexts,
+    boolean batchPersistentWrites,
+    ServiceSelection serviceSelection
+) {
+
+  /**
+   * Returns the default runtime options.
+   *
+   * @return Default runtime options.
+   */
+  public static RuntimeOptions defaults() {
+    return new RuntimeOptions(ExecutionMode.Platform, 0, OverflowPolicy.Block, TimeoutDelivery.Scheduler,
+        LocalContexts.Concurrent, false, ServiceSelection.Random);
+  }
+
+  /**
+   * Returns a copy of these runtime options with a different execution mode.
+   *
+   * @param executionMode Execution mode.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withExecutionMode(ExecutionMode executionMode) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+
+  /**
+   * Returns a copy of these runtime options with a different event queue configuration.
+   *
+   * @param eventQueueCapacity       Event queue capacity, or zero for an unbounded event queue.
+   * @param eventQueueOverflowPolicy Event queue overflow policy.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withEventQueue(int eventQueueCapacity, OverflowPolicy eventQueueOverflowPolicy) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+
+  /**
+   * Returns a copy of these runtime options with a different timeout delivery.
+   *
+   * @param timeoutDelivery Timeout delivery.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withTimeoutDelivery(TimeoutDelivery timeoutDelivery) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+
+  /**
+   * Returns a copy of these runtime options with a different implementation of local contexts.
+   *
+   * @param localContexts Implementation of local contexts.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withLocalContexts(LocalContexts localContexts) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+
+  /**
+   * Returns a copy of these runtime options with batching of persistent context assignments enabled or disabled.
+   *
+   * @param batchPersistentWrites True to batch the persistent context assignments made while handling an event, otherwise false.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withBatchPersistentWrites(boolean batchPersistentWrites) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+
+  /**
+   * Returns a copy of these runtime options with a different selection of service implementations.
+   *
+   * @param serviceSelection Selection of service implementations.
+   * @return Runtime options.
+   */
+  public RuntimeOptions withServiceSelection(ServiceSelection serviceSelection) {
+    return new RuntimeOptions(executionMode, eventQueueCapacity, eventQueueOverflowPolicy, timeoutDelivery, localContexts,
+        batchPersistentWrites, serviceSelection);
+  }
+}
@@ -0,0 +1,34 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+/**
+ * Service selection, determines how a service implementation is selected among the service implementations of a job.
+ * <p>
+ * Load-aware selections rely on the invocations in-flight measured per service implementation, the service implementations of a job are
+ * shared by its state machine instances.
+ */
+public enum ServiceSelection {
+  /**
+   * A random matching service implementation is selected.
+   */
+  Random,
+
+  /**
+   * The matching service implementation that minimizes cost and maximizes measured performance is selected.
+   */
+  Optimal,
+
+  /**
+   * The less loaded of two random matching service implementations is selected.
+   */
+  PowerOfTwoChoices,
+
+  /**
+   * The matching service implementation with the fewest invocations in-flight is selected.
+   */
+  LeastOutstandingRequests,
+
+  /**
+   * Matching service implementations are selected in turn, in inverse proportion to their cost.
+   */
+  WeightedRoundRobin
+}
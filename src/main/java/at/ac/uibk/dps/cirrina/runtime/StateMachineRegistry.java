@@ -0,0 +1,137 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import at.ac.uibk.dps.cirrina.utils.Id;
+import jakarta.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State machine registry, keeps the state machine instances of a runtime indexed by instance ID and by parent instance ID.
+ * <p>
+ * All lookups are constant time, as are adding and removing a state machine instance. The parent instance ID index is used to propagate
+ * internal events to nested state machine instances.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class StateMachineRegistry {
+
+  /**
+   * State machine instances by instance ID.
+   */
+  private final Map<Id, StateMachine> stateMachinesById = new ConcurrentHashMap<>();
+
+  /**
+   * Nested state machine instances by parent instance ID.
+   */
+  private final Map<Id, Set<StateMachine>> stateMachinesByParentId = new ConcurrentHashMap<>();
+
+  /**
+   * Parent instance IDs by instance ID, required to update the parent index upon removal.
+   */
+  private final Map<Id, Id> parentIdsById = new ConcurrentHashMap<>();
+
+  /**
+   * Adds a state machine instance.
+   *
+   * @param stateMachine     State machine instance.
+   * @param parentInstanceId ID of the parent state machine instance or null.
+   * @throws IllegalArgumentException If a state machine instance with the same ID is already added.
+   */
+  public void add(StateMachine stateMachine, @Nullable Id parentInstanceId) throws IllegalArgumentException {
+    final var instanceId = stateMachine.getStateMachineInstanceId();
+
+    if (stateMachinesById.putIfAbsent(instanceId, stateMachine) != null) {
+      throw new IllegalArgumentException("A state machine instance with ID '%s' already exists".formatted(instanceId.toString()));
+    }
+
+    if (parentInstanceId != null) {
+      parentIdsById.put(instanceId, parentInstanceId);
+
+      addToParentIndex(parentInstanceId, stateMachine);
+    }
+  }
+
+  /**
+   * Removes a state machine instance. Removing a state machine instance that is not added has no effect.
+   *
+   * @param stateMachine State machine instance.
+   */
+  public void remove(StateMachine stateMachine) {
+    final var instanceId = stateMachine.getStateMachineInstanceId();
+
+    if (!stateMachinesById.remove(instanceId, stateMachine)) {
+      return;
+    }
+
+    final var parentInstanceId = parentIdsById.remove(instanceId);
+
+    if (parentInstanceId != null) {
+      removeFromParentIndex(parentInstanceId, stateMachine);
+    }
+  }
+
+  /**
+   * Finds a state machine instance by its instance ID.
+   *
+   * @param instanceId Instance ID.
+   * @return The state machine instance or empty if no state machine instance was found.
+   */
+  public Optional<StateMachine> find(Id instanceId) {
+    return Optional.ofNullable(stateMachinesById.get(instanceId));
+  }
+
+  /**
+   * Finds all nested state machine instances of a parent state machine instance.
+   * <p>
+   * The returned collection is an unmodifiable view, it is not copied and reflects concurrent additions and removals.
+   *
+   * @param parentInstanceId Parent instance ID.
+   * @return Nested state machine instances.
+   */
+  public Collection<StateMachine> findByParentId(Id parentInstanceId) {
+    final var stateMachines = stateMachinesByParentId.get(parentInstanceId);
+
+    return stateMachines == null ? Set.of() : Collections.unmodifiableSet(stateMachines);
+  }
+
+  /**
+   * Adds a state machine instance to the parent instance ID index.
+   *
+   * @param parentInstanceId Parent instance ID.
+   * @param stateMachine     State machine instance.
+   */
+  private void addToParentIndex(Id parentInstanceId, StateMachine stateMachine) {
+    stateMachinesByParentId.compute(parentInstanceId, (k, stateMachines) -> {
+      final var result = stateMachines == null ? ConcurrentHashMap.<StateMachine>newKeySet() : stateMachines;
+      result.add(stateMachine);
+      return result;
+    });
+  }
+
+  /**
+   * Removes a state machine instance from the parent instance ID index, dropping the index entry once it is empty.
+   *
+   * @param parentInstanceId Parent instance ID.
+   * @param stateMachine     State machine instance.
+   */
+  private void removeFromParentIndex(Id parentInstanceId, StateMachine stateMachine) {
+    stateMachinesByParentId.computeIfPresent(parentInstanceId, (k, stateMachines) -> {
+      stateMachines.remove(stateMachine);
+      return stateMachines.isEmpty() ? null : stateMachines;
+    });
+  }
+
+  /**
+   * Returns the number of state machine instances.
+   *
+   * @return Number of state machine instances.
+   */
+  public int size() {
+    return stateMachinesById.size();
+  }
+}
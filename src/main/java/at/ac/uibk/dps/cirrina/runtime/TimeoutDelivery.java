@@ -0,0 +1,20 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+/**
+ * Timeout delivery, determines on which thread the actions of expired timeouts are executed.
+ * <p>
+ * Executing timeout actions as soon as they expire runs them concurrently with the state machine instance handling its events.
+ * Delivering expired timeouts through the event queue of the state machine instance instead keeps all execution of a state machine
+ * instance on a single thread at a time.
+ */
+public enum TimeoutDelivery {
+  /**
+   * Timeout actions are executed as soon as they expire, on a virtual thread handed off from the timing wheel thread.
+   */
+  Scheduler,
+
+  /**
+   * Expired timeouts enqueue a synthetic timeout event, the timeout action is executed by the state machine instance when handling it.
+   */
+  Mailbox
+}
@@ -0,0 +1,293 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Event loop state machine scheduler, multiplexes state machine instances onto a fixed number of single-threaded workers.
+ * <p>
+ * Each state machine instance is pinned to a worker. A state machine instance is scheduled onto its worker when it receives an event and is
+ * not already scheduled, it then handles a bounded batch of events before yielding the worker to the next scheduled state machine
+ * instance. Idle state machine instances do not occupy any thread.
+ * <p>
+ * A state machine instance is scheduled at most once at any point in time, therefore it is only ever executed by a single thread at a
+ * time.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class EventLoopStateMachineScheduler extends StateMachineScheduler {
+
+  /**
+   * Default maximum number of events handled by a state machine instance before yielding.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  /**
+   * Single-threaded workers.
+   */
+  private final ExecutorService[] workers;
+
+  /**
+   * Maximum number of events handled by a state machine instance before yielding.
+   */
+  private final int batchSize;
+
+  /**
+   * Worker threads.
+   */
+  private final Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Currently scheduled state machine instances.
+   */
+  private final Set<StateMachine> scheduledStateMachines = ConcurrentHashMap.newKeySet();
+
+  /**
+   * State machine instances that are submitted and not yet stopped.
+   */
+  private final Set<StateMachine> activeStateMachines = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Lock, guards waiting for all active state machine instances to be stopped.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Condition, signalled when the last active state machine instance is stopped.
+   */
+  private final Condition noActiveStateMachines = lock.newCondition();
+
+  /**
+   * Flag that indicates if this scheduler is shut down.
+   */
+  private volatile boolean isShutdown = false;
+
+  /**
+   * Initializes this event loop state machine scheduler with one worker per available processor and the default batch size.
+   */
+  public EventLoopStateMachineScheduler() {
+    this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Initializes this event loop state machine scheduler.
+   *
+   * @param numWorkers Number of workers.
+   * @param batchSize  Maximum number of events handled by a state machine instance before yielding.
+   * @throws IllegalArgumentException If the number of workers or batch size is not positive.
+   */
+  public EventLoopStateMachineScheduler(int numWorkers, int batchSize) throws IllegalArgumentException {
+    if (numWorkers <= 0 || batchSize <= 0) {
+      throw new IllegalArgumentException("The number of workers and batch size must be positive");
+    }
+
+    this.batchSize = batchSize;
+
+    // Create the workers
+    final var platformThreadFactory = Thread.ofPlatform().name("event-loop-", 0).factory();
+
+    final ThreadFactory threadFactory = runnable -> {
+      final var thread = platformThreadFactory.newThread(runnable);
+      workerThreads.add(thread);
+      return thread;
+    };
+
+    workers = new ExecutorService[numWorkers];
+
+    for (var i = 0; i < numWorkers; ++i) {
+      workers[i] = Executors.newSingleThreadExecutor(threadFactory);
+    }
+  }
+
+  /**
+   * Submits a state machine instance for execution, the state machine instance is started on its worker.
+   *
+   * @param stateMachine State machine instance.
+   * @throws UnsupportedOperationException If the scheduler is shut down.
+   */
+  @Override
+  public void submit(StateMachine stateMachine) throws UnsupportedOperationException {
+    if (isShutdown) {
+      throw new UnsupportedOperationException("Scheduler is shut down");
+    }
+
+    // Mark as scheduled before marking as active, events received before being started are handled after starting
+    scheduledStateMachines.add(stateMachine);
+
+    activeStateMachines.add(stateMachine);
+
+    try {
+      workerOf(stateMachine).execute(() -> {
+        stateMachine.start();
+
+        release(stateMachine);
+      });
+    } catch (RejectedExecutionException e) {
+      scheduledStateMachines.remove(stateMachine);
+      activeStateMachines.remove(stateMachine);
+
+      throw new UnsupportedOperationException("Scheduler is shut down", e);
+    }
+  }
+
+  /**
+   * Signals that a state machine instance has received an event, scheduling the state machine instance if not already scheduled.
+   *
+   * @param stateMachine State machine instance.
+   */
+  @Override
+  public void signal(StateMachine stateMachine) {
+    schedule(stateMachine);
+  }
+
+  /**
+   * Returns a flag that indicates if the current thread may block while offering an event to a state machine instance.
+   * <p>
+   * A worker may never block, since the state machine instance could be pinned to the same worker.
+   *
+   * @param stateMachine State machine instance the event is offered to.
+   * @return True if the current thread may block, otherwise false.
+   */
+  @Override
+  public boolean mayBlock(StateMachine stateMachine) {
+    return !workerThreads.contains(Thread.currentThread());
+  }
+
+  /**
+   * Shuts down this scheduler. The workers are shut down once all active state machine instances are stopped.
+   */
+  @Override
+  public void shutdown() {
+    isShutdown = true;
+
+    if (activeStateMachines.isEmpty()) {
+      shutdownWorkers();
+    }
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    final var deadline = System.nanoTime() + unit.toNanos(timeout);
+
+    // Wait for all state machine instances to be stopped
+    lock.lock();
+    try {
+      var remaining = unit.toNanos(timeout);
+
+      while (!activeStateMachines.isEmpty()) {
+        if (remaining <= 0) {
+          return false;
+        }
+
+        remaining = noActiveStateMachines.awaitNanos(remaining);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // Wait for all workers to be terminated
+    for (final var worker : workers) {
+      if (!worker.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return isShutdown;
+  }
+
+  /**
+   * Schedules a state machine instance onto its worker, if it is submitted and not already scheduled.
+   * <p>
+   * A state machine instance that is not yet submitted can already receive events from the state machine instances submitted before it,
+   * these events are handled once it is started.
+   *
+   * @param stateMachine State machine instance.
+   */
+  private void schedule(StateMachine stateMachine) {
+    if (stateMachine.isStopped() || !activeStateMachines.contains(stateMachine) || !scheduledStateMachines.add(stateMachine)) {
+      return;
+    }
+
+    try {
+      workerOf(stateMachine).execute(() -> {
+        stateMachine.drain(batchSize);
+
+        release(stateMachine);
+      });
+    } catch (RejectedExecutionException e) {
+      // The workers are only shut down once all state machine instances are stopped
+      scheduledStateMachines.remove(stateMachine);
+    }
+  }
+
+  /**
+   * Releases a state machine instance from its worker, after it has been executed.
+   * <p>
+   * If the state machine instance is stopped, it is no longer considered active. Otherwise, if it has pending events, it is scheduled
+   * again. Pending events are checked after un-scheduling, ensuring that an event received concurrently is not missed.
+   *
+   * @param stateMachine State machine instance.
+   */
+  private void release(StateMachine stateMachine) {
+    scheduledStateMachines.remove(stateMachine);
+
+    if (stateMachine.isStopped()) {
+      if (activeStateMachines.remove(stateMachine) && activeStateMachines.isEmpty()) {
+        onNoActiveStateMachines();
+      }
+      return;
+    }
+
+    if (stateMachine.hasPendingEvents()) {
+      schedule(stateMachine);
+    }
+  }
+
+  /**
+   * Handles the last active state machine instance being stopped.
+   */
+  private void onNoActiveStateMachines() {
+    lock.lock();
+    try {
+      noActiveStateMachines.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    if (isShutdown) {
+      shutdownWorkers();
+    }
+  }
+
+  /**
+   * Shuts down all workers.
+   */
+  private void shutdownWorkers() {
+    for (final var worker : workers) {
+      worker.shutdown();
+    }
+  }
+
+  /**
+   * Returns the worker a state machine instance is pinned to.
+   *
+   * @param stateMachine State machine instance.
+   * @return Worker.
+   */
+  private ExecutorService workerOf(StateMachine stateMachine) {
+    return workers[Math.floorMod(stateMachine.getStateMachineInstanceId().hashCode(), workers.length)];
+  }
+}
@@ -0,0 +1,65 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State machine scheduler, determines where and when state machine instances handle their received events.
+ * <p>
+ * A state machine instance is submitted once, after which it is started. Whenever the state machine instance receives an event, it signals
+ * the scheduler, which in turn is responsible for letting the state machine instance drain its event queue.
+ *
+ * @see ThreadStateMachineScheduler
+ * @see EventLoopStateMachineScheduler
+ */
+public abstract class StateMachineScheduler {
+
+  /**
+   * Submits a state machine instance for execution.
+   *
+   * @param stateMachine State machine instance.
+   * @throws UnsupportedOperationException If the scheduler is shut down.
+   */
+  public abstract void submit(StateMachine stateMachine) throws UnsupportedOperationException;
+
+  /**
+   * Signals that a state machine instance has received an event.
+   *
+   * @param stateMachine State machine instance.
+   */
+  public abstract void signal(StateMachine stateMachine);
+
+  /**
+   * Returns a flag that indicates if the current thread may block while offering an event to a state machine instance.
+   * <p>
+   * A state machine instance offering an event to itself may never block, since it is the only thread that makes space in its event queue.
+   *
+   * @param stateMachine State machine instance the event is offered to.
+   * @return True if the current thread may block, otherwise false.
+   */
+  public boolean mayBlock(StateMachine stateMachine) {
+    return !stateMachine.isExecutingOnCurrentThread();
+  }
+
+  /**
+   * Shuts down this scheduler, currently executing state machine instances are completed and no new state machine instances are accepted.
+   */
+  public abstract void shutdown();
+
+  /**
+   * Blocks until all state machine instances have completed after a shutdown, or the timeout is reached.
+   *
+   * @param timeout Timeout.
+   * @param unit    Timeout unit.
+   * @return True if all state machine instances have completed, otherwise false.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public abstract boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Returns a flag that indicates if this scheduler is shut down.
+   *
+   * @return True if shut down, otherwise false.
+   */
+  public abstract boolean isShutdown();
+}
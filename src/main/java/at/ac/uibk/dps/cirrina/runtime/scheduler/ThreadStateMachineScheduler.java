@@ -0,0 +1,97 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Thread state machine scheduler, executes each state machine instance on a dedicated thread provided by an executor service.
+ * <p>
+ * The thread of a state machine instance blocks while the state machine instance awaits events.
+ */
+public final class ThreadStateMachineScheduler extends StateMachineScheduler {
+
+  /**
+   * Scheduler logger.
+   */
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * Executor service, provides a thread per state machine instance.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * Initializes this thread state machine scheduler.
+   *
+   * @param executorService Executor service providing a thread per state machine instance.
+   */
+  public ThreadStateMachineScheduler(ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+  /**
+   * Submits a state machine instance for execution, the state machine instance is executed on its own thread until it is stopped.
+   *
+   * @param stateMachine State machine instance.
+   * @throws UnsupportedOperationException If the scheduler is shut down.
+   */
+  @Override
+  public void submit(StateMachine stateMachine) throws UnsupportedOperationException {
+    try {
+      executorService.submit(() -> run(stateMachine));
+    } catch (RejectedExecutionException e) {
+      throw new UnsupportedOperationException("Scheduler is shut down", e);
+    }
+  }
+
+  /**
+   * Signals that a state machine instance has received an event, waking up its thread.
+   *
+   * @param stateMachine State machine instance.
+   */
+  @Override
+  public void signal(StateMachine stateMachine) {
+    stateMachine.signalEvent();
+  }
+
+  @Override
+  public void shutdown() {
+    executorService.shutdown();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executorService.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executorService.isShutdown();
+  }
+
+  /**
+   * Runs a state machine instance until it is stopped.
+   *
+   * @param stateMachine State machine instance.
+   */
+  private void run(StateMachine stateMachine) {
+    stateMachine.start();
+
+    try {
+      while (!stateMachine.isStopped()) {
+        stateMachine.awaitEvent();
+        stateMachine.drain(Integer.MAX_VALUE);
+      }
+    } catch (InterruptedException e) {
+      logger.info("{} is interrupted", stateMachine.getId());
+
+      stateMachine.stop();
+
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,573 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import jakarta.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Timing wheel, a hashed timing wheel that schedules timeouts for all state machine instances of a runtime on a single thread.
+ * <p>
+ * The wheel consists of a power-of-two number of buckets, each covering one tick. A timeout is placed in the bucket of its deadline tick,
+ * together with the number of full rotations remaining until it expires, therefore arbitrarily long delays are supported without a
+ * hierarchy of wheels. Deadlines saturate instead of overflowing, a delay that exceeds the range of the clock (about 292 years) never
+ * expires. Starting and cancelling a timeout are O(1), expiry is O(1) per timeout.
+ * <p>
+ * Timeouts are started and cancelled through lock-free queues that are drained by the worker thread at every tick, only the worker thread
+ * accesses the buckets. Expired tasks are executed on the worker thread and are expected to be short.
+ * <p>
+ * The worker thread is started when the first timeout is scheduled. While no timeouts are scheduled, the worker thread parks until the
+ * next timeout is scheduled instead of ticking.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class TimingWheel {
+
+  /**
+   * Default tick duration in milliseconds.
+   */
+  public static final long DEFAULT_TICK_DURATION_IN_MS = 1;
+
+  /**
+   * Default number of buckets.
+   */
+  public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+  /**
+   * The timing wheel logger.
+   */
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * Duration of a single tick in nanoseconds.
+   */
+  private final long tickDurationInNs;
+
+  /**
+   * Buckets, one per tick within a rotation.
+   */
+  private final Bucket[] wheel;
+
+  /**
+   * Mask to compute the bucket index of a tick.
+   */
+  private final int mask;
+
+  /**
+   * Timeouts that are started but not yet placed in a bucket.
+   */
+  private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Timeouts that are cancelled but not yet removed from their bucket.
+   */
+  private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Start time in nanoseconds, deadlines are relative to the start time.
+   */
+  private final long startTimeInNs = System.nanoTime();
+
+  /**
+   * Flag that indicates if the worker thread is started.
+   */
+  private final AtomicBoolean isStarted = new AtomicBoolean(false);
+
+  /**
+   * Worker thread.
+   */
+  private final Thread workerThread;
+
+  /**
+   * Flag that indicates if this timing wheel is shut down.
+   */
+  private volatile boolean isShutdown = false;
+
+  /**
+   * Flag that indicates if the worker thread is idle, an idle worker thread is parked and needs to be unparked when a timeout is
+   * scheduled.
+   */
+  private volatile boolean isIdle = false;
+
+  /**
+   * Current tick, only accessed by the worker thread.
+   */
+  private long tick;
+
+  /**
+   * Number of timeouts placed in a bucket, only accessed by the worker thread.
+   */
+  private long numTimeouts;
+
+  /**
+   * Initializes this timing wheel with the default tick duration and number of buckets.
+   */
+  public TimingWheel() {
+    this(DEFAULT_TICK_DURATION_IN_MS, DEFAULT_WHEEL_SIZE);
+  }
+
+  /**
+   * Initializes this timing wheel.
+   * <p>
+   * The number of buckets is rounded up to the next power of two.
+   *
+   * @param tickDurationInMs Duration of a single tick in milliseconds.
+   * @param wheelSize        Number of buckets.
+   * @throws IllegalArgumentException If the tick duration or number of buckets is not positive.
+   */
+  public TimingWheel(long tickDurationInMs, int wheelSize) throws IllegalArgumentException {
+    if (tickDurationInMs <= 0) {
+      throw new IllegalArgumentException("The tick duration must be positive, got '%s'".formatted(tickDurationInMs));
+    }
+
+    if (wheelSize <= 0 || wheelSize > 1 << 30) {
+      throw new IllegalArgumentException("The wheel size must be positive and at most 2^30, got '%s'".formatted(wheelSize));
+    }
+
+    this.tickDurationInNs = TimeUnit.MILLISECONDS.toNanos(tickDurationInMs);
+
+    // Round up to the next power of two
+    final var size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+
+    this.wheel = new Bucket[size];
+    this.mask = size - 1;
+
+    for (var i = 0; i < size; ++i) {
+      wheel[i] = new Bucket();
+    }
+
+    this.workerThread = Thread.ofPlatform()
+        .name("timing-wheel")
+        .daemon(true)
+        .unstarted(this::run);
+  }
+
+  /**
+   * Schedules a one-shot timeout.
+   *
+   * @param task      Task to execute on expiry.
+   * @param delayInMs Delay in milliseconds.
+   * @return Timeout.
+   * @throws IllegalStateException If this timing wheel is shut down.
+   */
+  public Timeout schedule(Runnable task, long delayInMs) throws IllegalStateException {
+    return schedule(task, delayInMs, 0);
+  }
+
+  /**
+   * Schedules a timeout. A periodic timeout is re-armed with its period after each expiry, until cancelled.
+   *
+   * @param task       Task to execute on expiry.
+   * @param delayInMs  Delay in milliseconds.
+   * @param periodInMs Period in milliseconds, or zero for a one-shot timeout.
+   * @return Timeout.
+   * @throws IllegalStateException If this timing wheel is shut down.
+   */
+  public Timeout schedule(Runnable task, long delayInMs, long periodInMs) throws IllegalStateException {
+    if (isShutdown) {
+      throw new IllegalStateException("The timing wheel is shut down");
+    }
+
+    // Start the worker thread on first use
+    if (!isStarted.get() && isStarted.compareAndSet(false, true)) {
+      workerThread.start();
+    }
+
+    final var timeout = new Timeout(
+        task,
+        deadlineInNs(TimeUnit.MILLISECONDS.toNanos(Math.max(delayInMs, 0))),
+        TimeUnit.MILLISECONDS.toNanos(Math.max(periodInMs, 0))
+    );
+
+    pendingTimeouts.add(timeout);
+
+    // Wake up the worker thread in case it is idle, the timeout is added before the idle flag is read
+    if (isIdle) {
+      LockSupport.unpark(workerThread);
+    }
+
+    return timeout;
+  }
+
+  /**
+   * Shuts down this timing wheel. Timeouts that have not yet expired are discarded.
+   */
+  public void shutdown() {
+    isShutdown = true;
+
+    if (isStarted.get()) {
+      workerThread.interrupt();
+    }
+
+    pendingTimeouts.clear();
+  }
+
+  /**
+   * Returns a flag that indicates if this timing wheel is shut down.
+   *
+   * @return True if shut down, otherwise false.
+   */
+  public boolean isShutdown() {
+    return isShutdown;
+  }
+
+  /**
+   * Returns a flag that indicates if the worker thread is idle.
+   *
+   * @return True if idle, otherwise false.
+   */
+  boolean isIdle() {
+    return isIdle;
+  }
+
+  /**
+   * Worker loop, advances the wheel by one tick at a time.
+   */
+  private void run() {
+    // Start at the current tick, no ticks have passed for any bucket yet
+    tick = currentTimeInNs() / tickDurationInNs;
+
+    while (!isShutdown) {
+      // Park while no timeouts are scheduled, continuing with the current tick once woken up
+      if (numTimeouts == 0 && pendingTimeouts.isEmpty()) {
+        waitForTimeout();
+
+        tick = currentTimeInNs() / tickDurationInNs;
+
+        continue;
+      }
+
+      if (waitForNextTick() < 0) {
+        break;
+      }
+
+      removeCancelledTimeouts();
+      transferPendingTimeouts();
+
+      wheel[(int) (tick & mask)].expire();
+
+      ++tick;
+    }
+
+    // Release all timeouts
+    for (final var bucket : wheel) {
+      bucket.clear();
+    }
+
+    pendingTimeouts.clear();
+    cancelledTimeouts.clear();
+  }
+
+  /**
+   * Waits until a timeout is scheduled or this timing wheel is shut down.
+   */
+  private void waitForTimeout() {
+    // The idle flag is set before the pending timeouts are checked, a timeout scheduled concurrently either is observed here or unparks
+    isIdle = true;
+
+    while (!isShutdown && pendingTimeouts.isEmpty()) {
+      LockSupport.park(this);
+
+      // Clear the interrupt status, shutdown is signalled by the flag
+      Thread.interrupted();
+    }
+
+    isIdle = false;
+  }
+
+  /**
+   * Waits until the current tick has passed.
+   *
+   * @return Current time relative to the start time in nanoseconds, or a negative value if shut down while waiting.
+   */
+  private long waitForNextTick() {
+    final var deadline = tickDurationInNs * (tick + 1);
+
+    while (true) {
+      final var currentTime = currentTimeInNs();
+      final var sleepTimeInNs = deadline - currentTime;
+
+      if (sleepTimeInNs <= 0) {
+        return currentTime;
+      }
+
+      try {
+        TimeUnit.NANOSECONDS.sleep(sleepTimeInNs);
+      } catch (InterruptedException e) {
+        if (isShutdown) {
+          return -1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all cancelled timeouts from their bucket.
+   */
+  private void removeCancelledTimeouts() {
+    Timeout timeout;
+
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  /**
+   * Places all pending timeouts in their bucket.
+   */
+  private void transferPendingTimeouts() {
+    Timeout timeout;
+
+    while ((timeout = pendingTimeouts.poll()) != null) {
+      // Cancelled before being placed
+      if (timeout.isCancelled()) {
+        continue;
+      }
+
+      place(timeout);
+    }
+  }
+
+  /**
+   * Places a timeout in the bucket of its deadline tick.
+   *
+   * @param timeout Timeout to place.
+   */
+  private void place(Timeout timeout) {
+    final var deadlineTick = timeout.deadlineInNs / tickDurationInNs;
+
+    // Timeouts with a deadline that has already passed expire with the current tick
+    final var placementTick = Math.max(deadlineTick, tick);
+
+    timeout.remainingRounds = (placementTick - tick) / wheel.length;
+
+    wheel[(int) (placementTick & mask)].add(timeout);
+  }
+
+  /**
+   * Returns the deadline of a delay relative to the start time, saturating at the maximum value instead of overflowing.
+   *
+   * @param delayInNs Delay in nanoseconds.
+   * @return Deadline in nanoseconds.
+   */
+  private long deadlineInNs(long delayInNs) {
+    final var currentTime = currentTimeInNs();
+
+    return delayInNs > Long.MAX_VALUE - currentTime ? Long.MAX_VALUE : currentTime + delayInNs;
+  }
+
+  /**
+   * Returns the current time relative to the start time.
+   *
+   * @return Current time in nanoseconds.
+   */
+  private long currentTimeInNs() {
+    return System.nanoTime() - startTimeInNs;
+  }
+
+  /**
+   * Timeout, a handle to a scheduled task.
+   */
+  public final class Timeout {
+
+    /**
+     * Task to execute on expiry.
+     */
+    private final Runnable task;
+
+    /**
+     * Period in nanoseconds, or zero for a one-shot timeout.
+     */
+    private final long periodInNs;
+
+    /**
+     * Flag that indicates if this timeout is cancelled.
+     */
+    private final AtomicBoolean isCancelled = new AtomicBoolean(false);
+
+    /**
+     * Deadline relative to the start time of the timing wheel in nanoseconds.
+     */
+    private long deadlineInNs;
+
+    /**
+     * Number of rotations remaining until expiry.
+     */
+    private long remainingRounds;
+
+    /**
+     * Containing bucket, or null if not placed.
+     */
+    private @Nullable Bucket bucket;
+
+    private @Nullable Timeout previous;
+
+    private @Nullable Timeout next;
+
+    private Timeout(Runnable task, long deadlineInNs, long periodInNs) {
+      this.task = task;
+      this.deadlineInNs = deadlineInNs;
+      this.periodInNs = periodInNs;
+    }
+
+    /**
+     * Cancels this timeout. The task will not be executed after this method returns, unless it is already executing.
+     *
+     * @return True if this timeout was cancelled by this call, false if it was already cancelled.
+     */
+    public boolean cancel() {
+      if (!isCancelled.compareAndSet(false, true)) {
+        return false;
+      }
+
+      cancelledTimeouts.add(this);
+
+      return true;
+    }
+
+    /**
+     * Resets this timeout, cancelling it and scheduling its task again with the provided delay and the same period.
+     *
+     * @param delayInMs Delay in milliseconds.
+     * @return The new timeout.
+     * @throws IllegalStateException If the timing wheel is shut down.
+     */
+    public Timeout reset(long delayInMs) throws IllegalStateException {
+      cancel();
+
+      return schedule(task, delayInMs, TimeUnit.NANOSECONDS.toMillis(periodInNs));
+    }
+
+    /**
+     * Returns a flag that indicates if this timeout is cancelled.
+     *
+     * @return True if cancelled, otherwise false.
+     */
+    public boolean isCancelled() {
+      return isCancelled.get();
+    }
+
+    /**
+     * Executes the task of this timeout and re-arms it in case it is periodic.
+     */
+    private void expire() {
+      if (isCancelled()) {
+        return;
+      }
+
+      try {
+        task.run();
+      } catch (Exception e) {
+        logger.error("Timeout task failed: {}", e.getMessage(), e);
+      }
+
+      // Re-arm periodic timeouts with a fixed delay, they are placed with the next tick
+      if (periodInNs > 0 && !isCancelled()) {
+        deadlineInNs = deadlineInNs(periodInNs);
+
+        pendingTimeouts.add(this);
+      }
+    }
+  }
+
+  /**
+   * Bucket, a doubly-linked list of timeouts. Only accessed by the worker thread.
+   */
+  private final class Bucket {
+
+    private @Nullable Timeout head;
+
+    private @Nullable Timeout tail;
+
+    /**
+     * Adds a timeout to this bucket.
+     *
+     * @param timeout Timeout to add.
+     */
+    private void add(Timeout timeout) {
+      ++numTimeouts;
+
+      timeout.bucket = this;
+
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.previous = tail;
+        tail = timeout;
+      }
+    }
+
+    /**
+     * Removes a timeout from this bucket.
+     *
+     * @param timeout Timeout to remove.
+     * @return The next timeout in this bucket.
+     */
+    private @Nullable Timeout remove(Timeout timeout) {
+      --numTimeouts;
+
+      final var next = timeout.next;
+
+      if (timeout.previous != null) {
+        timeout.previous.next = next;
+      }
+
+      if (timeout.next != null) {
+        timeout.next.previous = timeout.previous;
+      }
+
+      if (timeout == head) {
+        head = next;
+      }
+
+      if (timeout == tail) {
+        tail = timeout.previous;
+      }
+
+      timeout.previous = null;
+      timeout.next = null;
+      timeout.bucket = null;
+
+      return next;
+    }
+
+    /**
+     * Expires all timeouts in this bucket that are due in the current rotation.
+     */
+    private void expire() {
+      var timeout = head;
+
+      while (timeout != null) {
+        if (timeout.isCancelled()) {
+          timeout = remove(timeout);
+        } else if (timeout.remainingRounds <= 0) {
+          final var next = remove(timeout);
+
+          timeout.expire();
+
+          timeout = next;
+        } else {
+          --timeout.remainingRounds;
+
+          timeout = timeout.next;
+        }
+      }
+    }
+
+    /**
+     * Removes all timeouts from this bucket.
+     */
+    private void clear() {
+      while (head != null) {
+        remove(head);
+      }
+    }
+  }
+}
@@ -49,6 +49,12 @@ public class Gauges {
         .build();
   }
 
+  public Attributes attributesForEventQueue() {
+    return Attributes.builder()
+        .put(ATTR_STATE_MACHINE_ID, stateMachineId)
+        .build();
+  }
+
   public void addGauge(String name) {
     gauges.put(name, meter.gaugeBuilder(name).build());
   }
@@ -5,11 +5,20 @@ public class SemanticConvention {
   // Counter names
   public static final String COUNTER_EVENTS_RECEIVED = "cirrina.events.received";
   public static final String COUNTER_EVENTS_HANDLED = "cirrina.events.handled";
+  public static final String COUNTER_EVENTS_DROPPED = "cirrina.events.dropped";
+  public static final String COUNTER_EVENTS_REJECTED = "cirrina.events.rejected";
 
   public static final String COUNTER_INVOCATIONS = "cirrina.invocations";
 
   public static final String COUNTER_STATE_MACHINE_INSTANCES = "cirrina.state_machine_instances";
 
+  public static final String COUNTER_EXPRESSION_CACHE_HITS = "cirrina.expression_cache.hits";
+  public static final String COUNTER_EXPRESSION_CACHE_MISSES = "cirrina.expression_cache.misses";
+  public static final String COUNTER_EXPRESSION_CACHE_EVICTIONS = "cirrina.expression_cache.evictions";
+
+  public static final String COUNTER_CONTEXT_CACHE_HITS = "cirrina.context_cache.hits";
+  public static final String COUNTER_CONTEXT_CACHE_MISSES = "cirrina.context_cache.misses";
+
   // Counter attributes
   public static final String COUNTER_ATTR_EVENT_CHANNEL = "cirrina.event.channel";
 
@@ -17,10 +26,18 @@ public class SemanticConvention {
   public static final String GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE = "cirrina.event.exclusive_response_time_ms";
   public static final String GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE = "cirrina.event.inclusive_response_time_ms";
 
+  public static final String GAUGE_EVENT_QUEUE_DEPTH = "cirrina.event.queue_depth";
+
   public static final String GAUGE_ACTION_DATA_LATENCY = "cirrina.action.data_latency_ms";
   public static final String GAUGE_ACTION_INVOKE_LATENCY = "cirrina.action.invoke_latency_ms";
   public static final String GAUGE_ACTION_RAISE_LATENCY = "cirrina.action.raise_latency_ms";
 
+  public static final String GAUGE_EXPRESSION_CACHE_SIZE = "cirrina.expression_cache.size";
+
+  public static final String GAUGE_CONTEXT_CACHE_HIT_RATIO = "cirrina.context_cache.hit_ratio";
+  public static final String GAUGE_CONTEXT_CACHE_STALENESS = "cirrina.context_cache.staleness_ms";
+  public static final String GAUGE_CONTEXT_CACHE_PENDING_WRITES = "cirrina.context_cache.pending_writes";
+
   // Gauge attributes
   public static final String GAUGE_ATTR_EVENT_CHANNEL = "cirrina.event.channel";
 
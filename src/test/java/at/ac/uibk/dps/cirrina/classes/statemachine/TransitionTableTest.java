@@ -0,0 +1,194 @@
+package at.ac.uibk.dps.cirrina.classes.statemachine;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.classes.state.StateClass;
+import at.ac.uibk.dps.cirrina.classes.transition.OnTransitionClass;
+import at.ac.uibk.dps.cirrina.classes.transition.TransitionClass;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TransitionTableTest {
+
+  private static final String DESCRIPTION = """
+      amends "modulepath:/pkl/CollaborativeStateMachineDescription.pkl"
+      import "modulepath:/pkl/CollaborativeStateMachineDescription.pkl" as CSM
+
+      name = "transitionTable"
+      version = "2.0"
+      stateMachines {
+          new CSM.StateMachineDescription {
+              name = "first"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e1"
+                              target = "b"
+                              guards {
+                                  new CSM.GuardDescription {
+                                      expression = "true"
+                                  }
+                              }
+                              `else` = "c"
+                          }
+                          new CSM.OnTransitionDescription {
+                              event = "e2"
+                          }
+                          new CSM.OnTransitionDescription {
+                              event = "e1"
+                              target = "c"
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "b"
+                      on {
+                          new CSM.OnTransitionDescription {
+                              event = "e2"
+                              target = "a"
+                          }
+                      }
+                      always {
+                          new CSM.TransitionDescription {
+                              target = "c"
+                              guards {
+                                  new CSM.GuardDescription {
+                                      expression = "true"
+                                  }
+                              }
+                              `else` = "a"
+                          }
+                          new CSM.TransitionDescription {
+                              target = "a"
+                          }
+                      }
+                  }
+                  new CSM.StateDescription {
+                      name = "c"
+                      terminal = true
+                  }
+              }
+          }
+          new CSM.StateMachineDescription {
+              name = "second"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                  }
+              }
+          }
+      }
+      """;
+
+  private static StateMachineClass stateMachineClass;
+
+  private static StateMachineClass otherStateMachineClass;
+
+  private static TransitionTable transitionTable;
+
+  @BeforeAll
+  public static void setUp() {
+    assertDoesNotThrow(() -> {
+      final var parser = new DescriptionParser<>(CollaborativeStateMachineDescription.class);
+      final var collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(DESCRIPTION)).build();
+
+      stateMachineClass = collaborativeStateMachineClass.findStateMachineClassByName("first").orElseThrow();
+      otherStateMachineClass = collaborativeStateMachineClass.findStateMachineClassByName("second").orElseThrow();
+
+      transitionTable = new TransitionTable(stateMachineClass);
+    });
+  }
+
+  @Test
+  public void testFindOnTransitions() {
+    final var a = findStateClass("a");
+    final var b = findStateClass("b");
+    final var c = findStateClass("c");
+
+    // Transitions of an event are kept in order of declaration, including transitions with an else target
+    final var e1 = transitionTable.findOnTransitions(a, "e1");
+
+    assertEquals(List.of(b, c), e1.stream().map(TransitionClass::getTarget).toList());
+    assertEquals(Optional.of("c"), e1.getFirst().getElse());
+    assertTrue(e1.getLast().getElse().isEmpty());
+
+    // A transition without a target is a self-transition
+    assertEquals(List.of(a), transitionTable.findOnTransitions(a, "e2").stream().map(TransitionClass::getTarget).toList());
+
+    // Event IDs are shared by all states, an event without transitions from a state has none
+    assertEquals(List.of(a), transitionTable.findOnTransitions(b, "e2").stream().map(TransitionClass::getTarget).toList());
+    assertTrue(transitionTable.findOnTransitions(b, "e1").isEmpty());
+    assertTrue(transitionTable.findOnTransitions(c, "e1").isEmpty());
+
+    // Unknown events have no transitions
+    assertTrue(transitionTable.findOnTransitions(a, "unknown").isEmpty());
+
+    // Looking up the same transitions returns the same list
+    assertSame(e1, transitionTable.findOnTransitions(a, "e1"));
+  }
+
+  @Test
+  public void testFindAlwaysTransitions() {
+    final var a = findStateClass("a");
+    final var b = findStateClass("b");
+    final var c = findStateClass("c");
+
+    // Event-less transitions are kept in order of declaration, including transitions with an else target
+    final var always = transitionTable.findAlwaysTransitions(b);
+
+    assertEquals(List.of(c, a), always.stream().map(TransitionClass::getTarget).toList());
+    assertEquals(Optional.of("a"), always.getFirst().getElse());
+    assertTrue(always.stream().noneMatch(OnTransitionClass.class::isInstance));
+
+    assertTrue(transitionTable.findAlwaysTransitions(a).isEmpty());
+    assertTrue(transitionTable.findAlwaysTransitions(c).isEmpty());
+  }
+
+  @Test
+  public void testMatchesStateMachineGraph() {
+    // The transition table is equivalent to filtering the outgoing edges of the state machine graph
+    for (final var stateClass : stateMachineClass.vertexSet()) {
+      for (final var eventName : List.of("e1", "e2", "unknown")) {
+        assertEquals(
+            stateMachineClass.outgoingEdgesOf(stateClass).stream()
+                .filter(OnTransitionClass.class::isInstance)
+                .map(OnTransitionClass.class::cast)
+                .filter(transition -> transition.getEventName().equals(eventName))
+                .toList(),
+            transitionTable.findOnTransitions(stateClass, eventName));
+      }
+
+      assertEquals(
+          stateMachineClass.outgoingEdgesOf(stateClass).stream()
+              .filter(transition -> !(transition instanceof OnTransitionClass))
+              .toList(),
+          transitionTable.findAlwaysTransitions(stateClass));
+    }
+  }
+
+  @Test
+  public void testUnknownState() {
+    // States are compared by identity, a state of another state machine class with the same name is not part of the table
+    final var otherStateClass = otherStateMachineClass.findStateClassByName("a").orElseThrow();
+
+    assertThrows(IllegalArgumentException.class, () -> transitionTable.findOnTransitions(otherStateClass, "e1"));
+    assertThrows(IllegalArgumentException.class, () -> transitionTable.findAlwaysTransitions(otherStateClass));
+  }
+
+  private static StateClass findStateClass(String name) {
+    return stateMachineClass.findStateClassByName(name).orElseThrow();
+  }
+}
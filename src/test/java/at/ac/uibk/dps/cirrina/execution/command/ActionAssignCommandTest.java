@@ -0,0 +1,159 @@
+package at.ac.uibk.dps.cirrina.execution.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.AssignActionDescription;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextVariableDescription;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.Type;
+import at.ac.uibk.dps.cirrina.execution.object.action.ActionBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import java.io.IOException;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+class ActionAssignCommandTest {
+
+  private static ActionAssignCommand newCommand(String name, String value) {
+    final var action = ActionBuilder.from(new AssignActionDescription(Type.ASSIGN, new ContextVariableDescription(name, value))).build();
+
+    return (ActionAssignCommand) CommandFactory.createActionCommand(action);
+  }
+
+  @Test
+  void testIncrement() throws Exception {
+    try (var context = new InMemoryContext(true)) {
+      context.create("v", 1);
+      context.create("l", 1L);
+      context.create("d", 1.5);
+      context.create("s", "a");
+      context.create("delta", 2);
+
+      final var extent = new Extent(context);
+
+      // Literal and variable deltas
+      final var increment = newCommand("v", "v + 1");
+
+      assertTrue(increment.isIncrement());
+
+      increment.assign(extent);
+      assertEquals(2, context.get("v"));
+
+      newCommand("v", "v + delta").assign(extent);
+      assertEquals(4, context.get("v"));
+
+      newCommand("v", "v + -5").assign(extent);
+      assertEquals(-1, context.get("v"));
+
+      // Integral, floating point and string sums
+      newCommand("l", "l + 1").assign(extent);
+      assertEquals(2L, context.get("l"));
+
+      newCommand("d", "d + 1").assign(extent);
+      assertEquals(2.5, context.get("d"));
+
+      newCommand("s", "s + 'b'").assign(extent);
+      assertEquals("ab", context.get("s"));
+
+      // An integer sum that overflows becomes a long
+      context.assign("v", Integer.MAX_VALUE);
+
+      increment.assign(extent);
+      assertEquals(Integer.MAX_VALUE + 1L, context.get("v"));
+    }
+  }
+
+  @Test
+  void testIncrementOfCurrentValue() throws Exception {
+    try (var context = new ConcurrentlyAssignedContext(10)) {
+      context.create("v", 1);
+
+      final var extent = new Extent(context);
+
+      // The delta is added to the current value, not to the value resolved before the update
+      newCommand("v", "v + 1").assign(extent);
+
+      assertEquals(11, context.get("v"));
+    }
+  }
+
+  @Test
+  void testReEvaluation() throws Exception {
+    try (var context = new ConcurrentlyAssignedContext(10)) {
+      context.create("v", 1);
+
+      final var extent = new Extent(context);
+
+      // Expressions other than increments are re-evaluated against the current value
+      final var product = newCommand("v", "v * 2");
+
+      assertTrue(product.isReadModifyWrite());
+      assertFalse(product.isIncrement());
+
+      product.assign(extent);
+      assertEquals(20, context.get("v"));
+    }
+
+    try (var context = new InMemoryContext(true)) {
+      context.create("s", "a");
+
+      final var extent = new Extent(context);
+
+      // Increments of which the sum is not supported for the value types fall back to re-evaluation
+      final var append = newCommand("s", "s + 1");
+
+      assertTrue(append.isIncrement());
+
+      append.assign(extent);
+      assertEquals("a1", context.get("s"));
+    }
+  }
+
+  @Test
+  void testNonMatchingPattern() throws Exception {
+    try (var context = new InMemoryContext(true)) {
+      context.create("v", 1);
+      context.create("w", 5);
+
+      final var extent = new Extent(context);
+
+      // An assignment that does not reference the variable is not a read-modify-write
+      final var assignment = newCommand("v", "w + 1");
+
+      assertFalse(assignment.isReadModifyWrite());
+      assertFalse(assignment.isIncrement());
+
+      assignment.assign(extent);
+      assertEquals(6, context.get("v"));
+
+      // A delta that references the variable, or a different operator, is not an increment
+      assertFalse(newCommand("v", "v + v").isIncrement());
+      assertFalse(newCommand("v", "v - 1").isIncrement());
+      assertFalse(newCommand("v", "1 + v").isIncrement());
+      assertFalse(newCommand("v", "v + 1 + 1").isIncrement());
+
+      newCommand("v", "v + v").assign(extent);
+      assertEquals(12, context.get("v"));
+    }
+  }
+
+  /**
+   * In-memory context that applies updates to a fixed current value, as if the variable was assigned concurrently.
+   */
+  private static final class ConcurrentlyAssignedContext extends InMemoryContext {
+
+    private final Object currentValue;
+
+    ConcurrentlyAssignedContext(Object currentValue) {
+      super(true);
+      this.currentValue = currentValue;
+    }
+
+    @Override
+    public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+      return assign(name, updateFunction.apply(currentValue));
+    }
+  }
+}
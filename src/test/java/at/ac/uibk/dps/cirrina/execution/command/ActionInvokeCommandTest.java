@@ -0,0 +1,109 @@
+package at.ac.uibk.dps.cirrina.execution.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextVariableDescription;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.InvokeActionDescription;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.Type;
+import at.ac.uibk.dps.cirrina.execution.object.action.ActionBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachineEventHandler;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementation;
+import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.tracing.Counters;
+import at.ac.uibk.dps.cirrina.tracing.Gauges;
+import com.google.common.collect.ArrayListMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ActionInvokeCommandTest {
+
+  @Test
+  void testCoalescedSelection() throws Exception {
+    final var invocations = new ArrayList<CompletableFuture<List<ContextVariable>>>();
+
+    final var serviceImplementation = new ServiceImplementation("service", 1.0, true) {
+
+      @Override
+      public CompletableFuture<List<ContextVariable>> invoke(List<ContextVariable> input, String id) {
+        final var invocation = new CompletableFuture<List<ContextVariable>>();
+
+        invocations.add(invocation);
+
+        return invocation;
+      }
+
+      @Override
+      public float getPerformance() {
+        return 1.0f;
+      }
+
+      @Override
+      public String getInformationString() {
+        return "service";
+      }
+    };
+
+    final var numSelections = new AtomicInteger();
+
+    final var serviceImplementationSelector = new ServiceImplementationSelector(ArrayListMultimap.create()) {
+
+      @Override
+      public Optional<ServiceImplementation> select(String name, boolean local) {
+        numSelections.incrementAndGet();
+
+        return Optional.of(serviceImplementation);
+      }
+    };
+
+    final var command = CommandFactory.createActionCommand(ActionBuilder.from(new InvokeActionDescription(
+        Type.INVOKE, "service", true, true, List.of(new ContextVariableDescription("v", "1")), List.of(), List.of())).build());
+
+    final var executionContext = newExecutionContext(serviceImplementationSelector);
+
+    // Identical invocations in-flight share the performed invocation, without selecting a service implementation of their own
+    command.execute(executionContext);
+    command.execute(executionContext);
+    command.execute(executionContext);
+
+    assertEquals(1, numSelections.get());
+    assertEquals(1, invocations.size());
+
+    invocations.getFirst().complete(List.of());
+
+    // Once completed, the next invocation is performed and selects again
+    command.execute(executionContext);
+
+    assertEquals(2, numSelections.get());
+    assertEquals(2, invocations.size());
+  }
+
+  private static ExecutionContext newExecutionContext(ServiceImplementationSelector serviceImplementationSelector) {
+    final var scope = mock(Scope.class);
+
+    when(scope.getExtent()).thenReturn(new Extent(new InMemoryContext(true)));
+    when(scope.getId()).thenReturn("id");
+
+    return new ExecutionContext(
+        scope,
+        null,
+        serviceImplementationSelector,
+        mock(StateMachineEventHandler.class),
+        mock(EventListener.class),
+        mock(Gauges.class, RETURNS_DEEP_STUBS),
+        mock(Counters.class, RETURNS_DEEP_STUBS),
+        false,
+        Runnable::run
+    );
+  }
+}
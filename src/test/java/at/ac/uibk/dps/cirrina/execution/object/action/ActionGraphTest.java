@@ -0,0 +1,52 @@
+package at.ac.uibk.dps.cirrina.execution.object.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ActionGraphTest {
+
+  @Test
+  public void testOrderedActionsAfterRemove() {
+    final var actionGraph = new ActionGraph();
+
+    final var a = newRaiseAction("a");
+    final var b = newRaiseAction("b");
+    final var c = newRaiseAction("c");
+
+    actionGraph.addVertex(a);
+    actionGraph.addVertex(b);
+    actionGraph.addVertex(c);
+
+    actionGraph.addEdge(b, a);
+    actionGraph.addEdge(c, b);
+
+    assertEquals(List.of(c, b, a), actionGraph.getOrderedActions());
+
+    // Removing an edge recomputes the order
+    actionGraph.removeEdge(c, b);
+    actionGraph.addEdge(a, c);
+
+    assertEquals(List.of(b, a, c), actionGraph.getOrderedActions());
+
+    final var edge = actionGraph.getEdge(a, c);
+
+    actionGraph.removeEdge(edge);
+    actionGraph.addEdge(c, b);
+
+    assertEquals(List.of(c, b, a), actionGraph.getOrderedActions());
+
+    // Removing a vertex recomputes the order
+    actionGraph.removeVertex(b);
+
+    assertEquals(2, actionGraph.getOrderedActions().size());
+    assertEquals(List.of(), actionGraph.getOrderedActions().stream().filter(action -> action == b).toList());
+  }
+
+  private static RaiseAction newRaiseAction(String name) {
+    return new RaiseAction(new RaiseAction.Parameters(new Event(name, EventChannel.INTERNAL, List.of())));
+  }
+}
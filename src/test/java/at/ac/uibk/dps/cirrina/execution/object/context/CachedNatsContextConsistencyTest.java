@@ -0,0 +1,439 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.CachedNatsContext.Consistency;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.ValueExchange;
+import io.nats.client.Connection;
+import io.nats.client.JetStream;
+import io.nats.client.JetStreamApiException;
+import io.nats.client.KeyValue;
+import io.nats.client.KeyValueManagement;
+import io.nats.client.Nats;
+import io.nats.client.api.KeyValueEntry;
+import io.nats.client.api.KeyValueOperation;
+import io.nats.client.api.KeyValueWatcher;
+import io.nats.client.impl.NatsKeyValueWatchSubscription;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+/**
+ * Tests the consistency modes of the cached NATS context against an in-memory bucket, of which the watch only delivers updates when
+ * requested, such that the local copy can be made to lag behind the bucket.
+ */
+public class CachedNatsContextConsistencyTest {
+
+  private static final String BUCKET_NAME = "persistent";
+
+  /**
+   * Interval between writing pending assignments, long enough for pending assignments to only be written when flushed explicitly.
+   */
+  private static final long FLUSH_INTERVAL_IN_MS = 3_600_000;
+
+  @Test
+  void testLookup() throws Exception {
+    final var bucket = new FakeBucket();
+
+    try (var context = newContext(bucket, Consistency.Strong, 0)) {
+      assertNull(context.lookup("testVar"));
+      assertThrows(IOException.class, () -> context.get("testVar"));
+
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+
+      assertEquals(42, context.lookup("testVar"));
+
+      // A failure to read is not reported as absence
+      bucket.setFailing(true);
+
+      assertThrows(UncheckedIOException.class, () -> context.lookup("testVar"));
+      assertThrows(IOException.class, () -> context.get("testVar"));
+
+      bucket.setFailing(false);
+    }
+  }
+
+  @Test
+  void testStrong() throws Exception {
+    final var bucket = new FakeBucket();
+
+    try (var context = newContext(bucket, Consistency.Strong, 0)) {
+      assertDoesNotThrow(() -> context.create("testVar", 1));
+
+      // Another writer updates the bucket, the watch has not yet delivered the update
+      bucket.write("testVar", 2);
+
+      assertEquals(2, context.get("testVar"));
+
+      // Once delivered, the latest revision is cached and decoding is skipped
+      bucket.deliver();
+
+      final var misses = context.getMisses();
+
+      assertEquals(2, context.get("testVar"));
+      assertEquals(misses, context.getMisses());
+    }
+  }
+
+  @Test
+  void testBoundedStaleness() throws Exception {
+    final var bucket = new FakeBucket();
+
+    try (var context = newContext(bucket, Consistency.BoundedStaleness, 250)) {
+      assertDoesNotThrow(() -> context.create("testVar", 1));
+
+      // Another writer updates the bucket, the local copy is served while it is not stale
+      bucket.write("testVar", 2);
+
+      assertEquals(1, context.get("testVar"));
+      assertEquals(1, context.lookup("testVar"));
+
+      // The local copy is stale, the latest revision is read from the bucket
+      Thread.sleep(500);
+
+      assertEquals(2, context.get("testVar"));
+
+      // Delivered updates are applied to the local copy without reading the bucket
+      bucket.write("testVar", 3);
+      bucket.deliver();
+
+      final var reads = bucket.getReads();
+
+      assertEquals(3, context.get("testVar"));
+      assertEquals(reads, bucket.getReads());
+    }
+  }
+
+  @Test
+  void testLocalFirstWriteBehind() throws Exception {
+    final var bucket = new FakeBucket();
+
+    try (var context = newContext(bucket, Consistency.LocalFirst, 0)) {
+      assertDoesNotThrow(() -> context.create("testVar", 0));
+
+      final var writes = bucket.getWrites();
+
+      // Assignments are applied to the local copy only
+      assertDoesNotThrow(() -> {
+        context.assign("testVar", 1);
+        context.assign("testVar", 2);
+        context.update("testVar", value -> (int) value + 1);
+      });
+
+      assertEquals(3, context.get("testVar"));
+      assertEquals(0, bucket.read("testVar"));
+      assertEquals(1, context.getPendingWrites());
+
+      // Only the latest assignment is written
+      context.flush();
+
+      assertEquals(3, bucket.read("testVar"));
+      assertEquals(writes + 1, bucket.getWrites());
+      assertEquals(0, context.getPendingWrites());
+
+      // A delivered update of another writer supersedes the written assignment
+      bucket.write("testVar", 4);
+      bucket.deliver();
+
+      assertEquals(4, context.get("testVar"));
+    }
+  }
+
+  @Test
+  void testLocalFirstSupersession() throws Exception {
+    final var bucket = new FakeBucket();
+
+    try (var context = newContext(bucket, Consistency.LocalFirst, 0)) {
+      assertDoesNotThrow(() -> context.create("testVar", 0));
+
+      final var writes = bucket.getWrites();
+
+      // An assignment that could not be written remains pending
+      assertDoesNotThrow(() -> context.assign("testVar", 1));
+
+      bucket.setFailing(true);
+
+      context.flush();
+
+      assertEquals(1, context.getPendingWrites());
+
+      // A later assignment supersedes the pending assignment
+      assertDoesNotThrow(() -> context.assign("testVar", 2));
+
+      bucket.setFailing(false);
+
+      context.flush();
+
+      assertEquals(2, bucket.read("testVar"));
+      assertEquals(writes + 1, bucket.getWrites());
+      assertEquals(0, context.getPendingWrites());
+
+      // An update of another writer does not replace a pending assignment
+      assertDoesNotThrow(() -> context.assign("testVar", 3));
+
+      bucket.write("testVar", 4);
+      bucket.deliver();
+
+      assertEquals(3, context.get("testVar"));
+
+      // A deletion discards the pending assignment
+      assertDoesNotThrow(() -> context.delete("testVar"));
+
+      context.flush();
+
+      assertNull(bucket.read("testVar"));
+      assertNull(context.lookup("testVar"));
+    }
+  }
+
+  @Test
+  void testWatchStructureChanged() throws Exception {
+    final var bucket = new FakeBucket();
+
+    bucket.write("initialVar", 0);
+
+    try (var context = newContext(bucket, Consistency.LocalFirst, 0)) {
+      // The watch initially delivers the current values
+      assertEquals(0, context.lookup("initialVar"));
+
+      var structureVersion = context.getStructureVersion();
+
+      // Another writer creates a variable
+      bucket.write("testVar", 1);
+
+      assertEquals(structureVersion, context.getStructureVersion());
+
+      bucket.deliver();
+
+      assertTrue(context.getStructureVersion() > structureVersion);
+      assertEquals(1, context.lookup("testVar"));
+
+      // Another writer assigns to the variable, which does not change the structure
+      structureVersion = context.getStructureVersion();
+
+      bucket.write("testVar", 2);
+      bucket.deliver();
+
+      assertEquals(structureVersion, context.getStructureVersion());
+      assertEquals(2, context.lookup("testVar"));
+
+      // Another writer deletes the variable
+      bucket.remove("testVar");
+      bucket.deliver();
+
+      assertTrue(context.getStructureVersion() > structureVersion);
+      assertNull(context.lookup("testVar"));
+      assertFalse(context.getAll().stream().anyMatch(variable -> variable.name().equals("testVar")));
+    }
+  }
+
+  private static CachedNatsContext newContext(FakeBucket bucket, Consistency consistency, long maxStalenessInMs) throws Exception {
+    final var connection = mock(Connection.class);
+    final var keyValueManagement = mock(KeyValueManagement.class);
+
+    when(connection.keyValueManagement()).thenReturn(keyValueManagement);
+    when(keyValueManagement.getBucketNames()).thenReturn(List.of(BUCKET_NAME));
+    when(connection.keyValue(BUCKET_NAME)).thenReturn(bucket.getKeyValue());
+    when(connection.jetStream()).thenReturn(mock(JetStream.class));
+
+    try (var nats = mockStatic(Nats.class)) {
+      nats.when(() -> Nats.connect(anyString())).thenReturn(connection);
+
+      return new CachedNatsContext(
+          new NatsContext(true, "nats://localhost:4222", BUCKET_NAME), consistency, maxStalenessInMs, FLUSH_INTERVAL_IN_MS);
+    }
+  }
+
+  /**
+   * In-memory bucket. Every write is stored at the next revision immediately, but only delivered to watchers once delivery is
+   * requested.
+   */
+  private static final class FakeBucket {
+
+    private final KeyValue keyValue = mock(KeyValue.class, this::answer);
+
+    private final Map<String, KeyValueEntry> entries = new HashMap<>();
+
+    private final List<KeyValueEntry> undelivered = new ArrayList<>();
+
+    private final List<KeyValueWatcher> watchers = new ArrayList<>();
+
+    private long revision = 0;
+
+    private int reads = 0;
+
+    private int writes = 0;
+
+    private boolean isFailing = false;
+
+    /**
+     * Writes a value as another writer would, without delivering it.
+     */
+    synchronized void write(String name, Object value) {
+      store(name, KeyValueOperation.PUT, new ValueExchange(value).toBytes());
+    }
+
+    /**
+     * Deletes a value as another writer would, without delivering it.
+     */
+    synchronized void remove(String name) {
+      store(name, KeyValueOperation.DELETE, null);
+    }
+
+    /**
+     * Reads the decoded value stored in the bucket, bypassing the key-value.
+     */
+    synchronized Object read(String name) {
+      final var entry = entries.get(name);
+
+      return entry != null && entry.getOperation() == KeyValueOperation.PUT ? ValueExchange.fromBytes(entry.getValue()).getValue() : null;
+    }
+
+    /**
+     * Delivers all undelivered entries to the watchers.
+     */
+    void deliver() {
+      final List<KeyValueEntry> delivered;
+      final List<KeyValueWatcher> currentWatchers;
+
+      synchronized (this) {
+        delivered = List.copyOf(undelivered);
+        currentWatchers = List.copyOf(watchers);
+
+        undelivered.clear();
+      }
+
+      for (final var entry : delivered) {
+        currentWatchers.forEach(watcher -> watcher.watch(entry));
+      }
+    }
+
+    synchronized void setFailing(boolean isFailing) {
+      this.isFailing = isFailing;
+    }
+
+    synchronized int getReads() {
+      return reads;
+    }
+
+    synchronized int getWrites() {
+      return writes;
+    }
+
+    KeyValue getKeyValue() {
+      return keyValue;
+    }
+
+    private synchronized Object answer(InvocationOnMock invocation) throws Exception {
+      final var arguments = invocation.getArguments();
+
+      switch (invocation.getMethod().getName()) {
+        case "getBucketName" -> {
+          return BUCKET_NAME;
+        }
+        case "watchAll" -> {
+          final var watcher = (KeyValueWatcher) arguments[0];
+
+          // The watch initially delivers the current value of each key
+          entries.values().stream()
+              .filter(entry -> entry.getOperation() == KeyValueOperation.PUT)
+              .forEach(watcher::watch);
+
+          watcher.endOfData();
+          watchers.add(watcher);
+
+          return mock(NatsKeyValueWatchSubscription.class);
+        }
+        default -> {
+        }
+      }
+
+      if (isFailing) {
+        throw new IOException("Bucket unavailable");
+      }
+
+      final var name = arguments.length > 0 && arguments[0] instanceof String key ? key : null;
+      final var entry = name != null ? entries.get(name) : null;
+      final var isPresent = entry != null && entry.getOperation() == KeyValueOperation.PUT;
+
+      return switch (invocation.getMethod().getName()) {
+        case "get" -> {
+          ++reads;
+
+          yield isPresent ? entry : null;
+        }
+        case "keys" -> entries.values().stream()
+            .filter(value -> value.getOperation() == KeyValueOperation.PUT)
+            .map(KeyValueEntry::getKey)
+            .toList();
+        case "put" -> {
+          ++writes;
+
+          yield store(name, KeyValueOperation.PUT, (byte[]) arguments[1]);
+        }
+        case "create" -> {
+          if (isPresent) {
+            throw wrongLastSequence();
+          }
+
+          ++writes;
+
+          yield store(name, KeyValueOperation.PUT, (byte[]) arguments[1]);
+        }
+        case "update" -> {
+          if (!isPresent || entry.getRevision() != (long) arguments[2]) {
+            throw wrongLastSequence();
+          }
+
+          ++writes;
+
+          yield store(name, KeyValueOperation.PUT, (byte[]) arguments[1]);
+        }
+        case "delete" -> {
+          store(name, KeyValueOperation.DELETE, null);
+
+          yield null;
+        }
+        default -> throw new UnsupportedOperationException(invocation.getMethod().getName());
+      };
+    }
+
+    private long store(String name, KeyValueOperation operation, byte[] data) {
+      final var entry = mock(KeyValueEntry.class);
+
+      when(entry.getKey()).thenReturn(name);
+      when(entry.getValue()).thenReturn(data);
+      when(entry.getRevision()).thenReturn(++revision);
+      when(entry.getOperation()).thenReturn(operation);
+      when(entry.getCreated()).thenReturn(ZonedDateTime.now());
+
+      entries.put(name, entry);
+      undelivered.add(entry);
+
+      return revision;
+    }
+
+    private static JetStreamApiException wrongLastSequence() {
+      final var exception = mock(JetStreamApiException.class);
+
+      when(exception.getApiErrorCode()).thenReturn(10071);
+
+      return exception;
+    }
+  }
+}
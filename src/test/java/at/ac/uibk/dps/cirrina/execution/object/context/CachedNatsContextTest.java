@@ -0,0 +1,21 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.CachedNatsContext.Consistency;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Disabled;
+
+@Disabled
+public class CachedNatsContextTest extends ContextTest {
+
+  @Override
+  protected Context createContext() {
+    String natsServerURL = System.getenv("NATS_SERVER_URL");
+
+    Assumptions.assumeFalse(natsServerURL == null, "Skipping cached NATS persistent context test");
+
+    return assertDoesNotThrow(() -> new CachedNatsContext(
+        new NatsContext(true, natsServerURL, "persistent"), Consistency.Strong, 100, 10));
+  }
+}
@@ -3,8 +3,10 @@ package at.ac.uibk.dps.cirrina.execution.object.context;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 
@@ -37,6 +39,17 @@ public abstract class ContextTest {
     }
   }
 
+  @Test
+  void testTryGet() throws Exception {
+    try (var context = createContext()) {
+      assertTrue(context.tryGet("testVar").isEmpty());
+
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+
+      assertEquals(Optional.of(42), context.tryGet("testVar"));
+    }
+  }
+
   @Test
   void testAssign() throws Exception {
     try (var context = createContext()) {
@@ -57,6 +70,41 @@ public abstract class ContextTest {
     }
   }
 
+  @Test
+  void testUpdate() throws Exception {
+    try (var context = createContext()) {
+      assertDoesNotThrow(() -> {
+        context.create("testVar", 42);
+        context.update("testVar", value -> (int) value + 1);
+      });
+
+      var v = assertDoesNotThrow(() -> context.get("testVar"));
+      assertEquals(43, v);
+
+      assertThrows(IOException.class, () -> context.update("nonExistentVar", value -> value));
+    }
+  }
+
+  @Test
+  void testBatchedAssign() throws Exception {
+    try (var context = createContext()) {
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+
+      context.beginBatch();
+
+      assertDoesNotThrow(() -> context.assign("testVar", 100));
+
+      // Batched assignments are visible to the batching thread
+      var v = assertDoesNotThrow(() -> context.get("testVar"));
+      assertEquals(100, v);
+
+      assertDoesNotThrow(context::flushBatch);
+
+      v = assertDoesNotThrow(() -> context.get("testVar"));
+      assertEquals(100, v);
+    }
+  }
+
   @Test
   void testDelete() throws Exception {
     try (var context = createContext()) {
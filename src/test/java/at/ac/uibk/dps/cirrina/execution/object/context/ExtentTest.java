@@ -0,0 +1,120 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ExtentTest {
+
+  @Test
+  void testResolveHighestPriority() {
+    final var low = new InMemoryContext(true);
+    final var high = new InMemoryContext(true);
+
+    final var extent = new Extent(low).extend(high);
+
+    assertDoesNotThrow(() -> low.create("v", 1));
+    assertEquals(Optional.of(1), extent.resolve("v"));
+
+    // Creating a variable in a higher priority context shadows the resolved variable
+    assertDoesNotThrow(() -> high.create("v", 2));
+    assertEquals(Optional.of(2), extent.resolve("v"));
+
+    // Deleting the variable reveals the lower priority variable again
+    assertDoesNotThrow(() -> high.delete("v"));
+    assertEquals(Optional.of(1), extent.resolve("v"));
+  }
+
+  @Test
+  void testResolveMissing() {
+    final var extent = new Extent(new InMemoryContext(true), new InMemoryContext(true));
+
+    assertTrue(extent.resolve("v").isEmpty());
+  }
+
+  @Test
+  void testTrySet() {
+    final var low = new InMemoryContext(true);
+    final var high = new InMemoryContext(true);
+
+    final var extent = new Extent(low, high);
+
+    assertDoesNotThrow(() -> low.create("v", 1));
+    assertEquals(Optional.of(1), extent.resolve("v"));
+
+    final var result = assertDoesNotThrow(() -> extent.trySet("v", 2));
+
+    assertSame(low, result.context());
+    assertEquals(Optional.of(2), extent.resolve("v"));
+
+    assertDoesNotThrow(() -> high.create("v", 3));
+
+    assertSame(high, assertDoesNotThrow(() -> extent.trySet("v", 4)).context());
+    assertEquals(Optional.of(2), low.tryGet("v"));
+
+    assertThrows(IOException.class, () -> extent.trySet("w", 1));
+  }
+
+  @Test
+  void testTryUpdate() {
+    final var low = new InMemoryContext(true);
+    final var high = new InMemoryContext(true);
+
+    final var extent = new Extent(low, high);
+
+    assertDoesNotThrow(() -> low.create("v", 1));
+
+    final var result = assertDoesNotThrow(() -> extent.tryUpdate("v", value -> (int) value + 1));
+
+    assertSame(low, result.context());
+    assertEquals(Optional.of(2), extent.resolve("v"));
+
+    assertThrows(IOException.class, () -> extent.tryUpdate("w", value -> value));
+
+    // Creating a variable in a higher priority context shadows the updated variable
+    assertDoesNotThrow(() -> high.create("v", 10));
+
+    assertSame(high, assertDoesNotThrow(() -> extent.tryUpdate("v", value -> (int) value + 1)).context());
+    assertEquals(Optional.of(2), low.tryGet("v"));
+    assertEquals(Optional.of(11), high.tryGet("v"));
+  }
+
+  @Test
+  void testTryUpdateReadsOnce() {
+    final var numReads = new AtomicInteger();
+
+    final var low = new InMemoryContext(true) {
+
+      @Override
+      public Object get(String name) throws IOException {
+        numReads.incrementAndGet();
+        return super.get(name);
+      }
+
+      @Override
+      public Object lookup(String name) {
+        numReads.incrementAndGet();
+        return super.lookup(name);
+      }
+    };
+
+    final var extent = new Extent(low, new InMemoryContext(true));
+
+    assertDoesNotThrow(() -> low.create("v", 1));
+
+    // The location is resolved by updating, the value is not read beforehand
+    for (var i = 0; i < 3; ++i) {
+      assertSame(low, assertDoesNotThrow(() -> extent.tryUpdate("v", value -> (int) value + 1)).context());
+    }
+
+    assertEquals(0, numReads.get());
+    assertEquals(Optional.of(4), low.tryGet("v"));
+  }
+}
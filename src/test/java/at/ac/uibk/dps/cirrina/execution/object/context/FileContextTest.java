@@ -0,0 +1,153 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileContextTest extends ContextTest {
+
+  @TempDir
+  Path directory;
+
+  private int contextCount = 0;
+
+  @Override
+  protected Context createContext() {
+    try {
+      return new FileContext(true, directory.resolve("context" + contextCount++));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  void testRecover() throws Exception {
+    try (var context = new FileContext(true, directory)) {
+      assertDoesNotThrow(() -> {
+        context.create("a", 1);
+        context.create("b", "text");
+        context.create("c", 3.0);
+        context.assign("a", 2);
+        context.delete("c");
+      });
+    }
+
+    try (var context = new FileContext(true, directory)) {
+      assertEquals(2, context.lookup("a"));
+      assertEquals("text", context.lookup("b"));
+      assertNull(context.lookup("c"));
+      assertEquals(2, context.getAll().size());
+    }
+  }
+
+  @Test
+  void testRecoverEveryWrite() throws Exception {
+    try (var context = new FileContext(true, directory, FileContext.SyncPolicy.EveryWrite)) {
+      assertDoesNotThrow(() -> {
+        context.create("a", 1);
+        context.update("a", value -> (int) value + 1);
+        context.create("b", 3);
+        context.delete("b");
+      });
+    }
+
+    try (var context = new FileContext(true, directory, FileContext.SyncPolicy.EveryWrite)) {
+      assertEquals(2, context.lookup("a"));
+      assertNull(context.lookup("b"));
+    }
+  }
+
+  @Test
+  void testConcurrentUpdate() throws Exception {
+    final var threadCount = 8;
+    final var updatesPerThread = 1_000;
+
+    try (var context = new FileContext(true, directory)) {
+      context.create("a", 0);
+
+      // Concurrent read-modify-write updates must not be lost
+      try (var executorService = Executors.newFixedThreadPool(threadCount)) {
+        for (var i = 0; i < threadCount; ++i) {
+          executorService.submit(() -> {
+            for (var j = 0; j < updatesPerThread; ++j) {
+              assertDoesNotThrow(() -> context.update("a", value -> (int) value + 1));
+            }
+          });
+        }
+      }
+
+      assertEquals(threadCount * updatesPerThread, context.lookup("a"));
+    }
+
+    try (var context = new FileContext(true, directory)) {
+      assertEquals(threadCount * updatesPerThread, context.lookup("a"));
+    }
+  }
+
+  @Test
+  void testRecoverTornWrite() throws Exception {
+    try (var context = new FileContext(true, directory)) {
+      assertDoesNotThrow(() -> context.create("a", 1));
+    }
+
+    // Simulate a crash during an append, by writing an incomplete record following the last record
+    final int logSize;
+
+    try (var context = new FileContext(true, directory)) {
+      logSize = context.getLogSize();
+    }
+
+    try (var channel = FileChannel.open(directory.resolve("context.log"), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 1000), logSize);
+    }
+
+    try (var context = new FileContext(true, directory)) {
+      assertEquals(1, context.lookup("a"));
+      assertEquals(logSize, context.getLogSize());
+
+      // Records appended after recovery are not affected by the discarded record
+      assertDoesNotThrow(() -> context.create("b", 2));
+    }
+
+    try (var context = new FileContext(true, directory)) {
+      assertEquals(1, context.lookup("a"));
+      assertEquals(2, context.lookup("b"));
+    }
+  }
+
+  @Test
+  void testCompact() throws Exception {
+    try (var context = new FileContext(true, directory)) {
+      assertDoesNotThrow(() -> context.create("a", 0));
+
+      for (int i = 1; i <= 100_000; ++i) {
+        final var value = i;
+
+        assertDoesNotThrow(() -> context.assign("a", value));
+      }
+
+      // Superseded records are compacted automatically
+      assertTrue(context.getLogSize() < 1 << 20);
+
+      context.compact();
+
+      assertEquals(100_000, context.lookup("a"));
+      assertEquals(1, context.getAll().size());
+    }
+
+    try (var context = new FileContext(true, directory)) {
+      assertEquals(100_000, context.lookup("a"));
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SingleWriterContextTest {
+
+  @Test
+  void testCreateAssignDelete() throws Exception {
+    try (var context = new SingleWriterContext(true)) {
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+      assertThrows(IOException.class, () -> context.create("testVar", 42));
+
+      assertDoesNotThrow(() -> context.assign("testVar", 100));
+      assertEquals(100, assertDoesNotThrow(() -> context.get("testVar")));
+
+      assertDoesNotThrow(() -> context.delete("testVar"));
+      assertThrows(IOException.class, () -> context.get("testVar"));
+      assertThrows(IOException.class, () -> context.assign("testVar", 1));
+      assertThrows(IOException.class, () -> context.delete("testVar"));
+
+      // The reserved slot is reused
+      assertDoesNotThrow(() -> context.create("testVar", 7));
+      assertEquals(7, assertDoesNotThrow(() -> context.get("testVar")));
+    }
+  }
+
+  @Test
+  void testDeclaredVariables() throws Exception {
+    try (var context = new SingleWriterContext(true, List.of("a", "b"))) {
+      // Declared variables do not exist until created
+      assertNull(context.lookup("a"));
+      assertTrue(context.getAll().isEmpty());
+      assertThrows(IOException.class, () -> context.assign("a", 1));
+
+      assertDoesNotThrow(() -> context.create("a", 1));
+      assertDoesNotThrow(() -> context.create("b", 2));
+
+      assertEquals(1, context.lookup("a"));
+      assertEquals(2, context.lookup("b"));
+      assertEquals(2, context.getAll().size());
+    }
+  }
+
+  @Test
+  void testGrow() throws Exception {
+    try (var context = new SingleWriterContext(true)) {
+      final int variableCount = 1000;
+
+      for (int i = 0; i < variableCount; ++i) {
+        final var value = i;
+
+        assertDoesNotThrow(() -> context.create("var" + value, value));
+      }
+
+      for (int i = 0; i < variableCount; ++i) {
+        assertEquals(i, context.lookup("var" + i));
+      }
+
+      assertEquals(variableCount, context.getAll().size());
+    }
+  }
+
+  @Test
+  void testStructureVersion() throws Exception {
+    try (var context = new SingleWriterContext(true)) {
+      final var initialVersion = context.getStructureVersion();
+
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+      assertTrue(context.getStructureVersion() > initialVersion);
+
+      final var createdVersion = context.getStructureVersion();
+
+      assertDoesNotThrow(() -> context.assign("testVar", 100));
+      assertEquals(createdVersion, context.getStructureVersion());
+    }
+  }
+}
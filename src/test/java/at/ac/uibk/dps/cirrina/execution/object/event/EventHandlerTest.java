@@ -0,0 +1,133 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class EventHandlerTest {
+
+  private static EventHandler newEventHandler() {
+    return new EventHandler() {
+
+      @Override
+      public void close() {
+
+      }
+
+      @Override
+      public void sendEvent(Event event, String source) {
+        propagateEvent(event);
+      }
+
+      @Override
+      public void subscribe(String subject) {
+
+      }
+
+      @Override
+      public void unsubscribe(String subject) {
+
+      }
+
+      @Override
+      public void subscribe(String source, String subject) {
+
+      }
+
+      @Override
+      public void unsubscribe(String source, String subject) {
+
+      }
+    };
+  }
+
+  @Test
+  void testRouting() throws Exception {
+    final var eventHandler = newEventHandler();
+
+    final var all = new RecordingEventListener(null, true);
+    final var a = new RecordingEventListener(Set.of("a"), true);
+    final var ab = new RecordingEventListener(Set.of("a", "b"), true);
+
+    eventHandler.addListener(all);
+    eventHandler.addListener(a);
+    eventHandler.addListener(ab);
+
+    eventHandler.sendEvent(new Event("a", EventChannel.GLOBAL, List.of()), "source");
+    eventHandler.sendEvent(new Event("b", EventChannel.GLOBAL, List.of()), "source");
+    eventHandler.sendEvent(new Event("c", EventChannel.GLOBAL, List.of()), "source");
+
+    assertEquals(List.of("a", "b", "c"), all.received);
+    assertEquals(List.of("a"), a.received);
+    assertEquals(List.of("a", "b"), ab.received);
+
+    // A removed listener no longer receives events
+    eventHandler.removeListener(ab);
+
+    eventHandler.sendEvent(new Event("b", EventChannel.GLOBAL, List.of()), "source");
+
+    assertEquals(List.of("a", "b"), ab.received);
+  }
+
+  @Test
+  void testRejectingListenerIsRemoved() throws Exception {
+    final var eventHandler = newEventHandler();
+
+    final var rejecting = new RecordingEventListener(Set.of("a"), false);
+
+    eventHandler.addListener(rejecting);
+
+    eventHandler.sendEvent(new Event("a", EventChannel.GLOBAL, List.of()), "source");
+    eventHandler.sendEvent(new Event("a", EventChannel.GLOBAL, List.of()), "source");
+
+    assertEquals(List.of("a"), rejecting.received);
+  }
+
+  @Test
+  void testSubjectMatches() {
+    assertTrue(EventHandler.subjectMatches("source.a", "source.a"));
+    assertFalse(EventHandler.subjectMatches("source.a", "source.b"));
+    assertFalse(EventHandler.subjectMatches("source.a", "source.ab"));
+    assertFalse(EventHandler.subjectMatches("source.a", "source.a.b"));
+
+    assertTrue(EventHandler.subjectMatches("*.a", "source.a"));
+    assertTrue(EventHandler.subjectMatches("global.*", "global.a"));
+    assertFalse(EventHandler.subjectMatches("global.*", "global.a.b"));
+    assertFalse(EventHandler.subjectMatches("global.*", "peripheral.a"));
+
+    assertTrue(EventHandler.subjectMatches("global.>", "global.a.b"));
+    assertFalse(EventHandler.subjectMatches("global.>", "global"));
+  }
+
+  private static final class RecordingEventListener implements EventListener {
+
+    private final Set<String> eventNames;
+
+    private final boolean accept;
+
+    private final List<String> received = new ArrayList<>();
+
+    private RecordingEventListener(Set<String> eventNames, boolean accept) {
+      this.eventNames = eventNames;
+      this.accept = accept;
+    }
+
+    @Override
+    public boolean onReceiveEvent(Event event) {
+      received.add(event.getName());
+      return accept;
+    }
+
+    @Override
+    public Optional<Set<String>> getSubscribedEventNames() {
+      return Optional.ofNullable(eventNames);
+    }
+  }
+}
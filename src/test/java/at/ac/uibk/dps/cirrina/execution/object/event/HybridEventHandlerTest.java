@@ -0,0 +1,144 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import io.nats.client.Message;
+import io.nats.client.MessageHandler;
+import io.nats.client.Nats;
+import io.nats.client.impl.Headers;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the hybrid event handler against a mocked NATS connection, of which the message handlers of the dispatchers are invoked directly.
+ */
+class HybridEventHandlerTest {
+
+  private Connection connection;
+
+  private final List<MessageHandler> messageHandlers = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    connection = mock(Connection.class);
+
+    // The first dispatcher receives events, the second receives the subscriptions of the remote event handlers
+    when(connection.createDispatcher(any(MessageHandler.class))).thenAnswer(invocation -> {
+      messageHandlers.add(invocation.getArgument(0));
+
+      return mock(Dispatcher.class);
+    });
+  }
+
+  @Test
+  void testHybridEventHandlerSendEveryEvent() throws Exception {
+    final var received = new LinkedBlockingQueue<Event>();
+
+    try (var eventHandler = newEventHandler(false)) {
+      eventHandler.addListener(received::add);
+
+      eventHandler.subscribe("e1");
+
+      // The event is propagated in-memory by reference, and sent through NATS without any announced subscription
+      final var e1 = new Event("e1", EventChannel.EXTERNAL, List.of());
+
+      eventHandler.sendEvent(e1, "source");
+
+      assertSame(e1, received.poll(1, TimeUnit.SECONDS));
+
+      final var headers = ArgumentCaptor.forClass(Headers.class);
+      final var data = ArgumentCaptor.forClass(byte[].class);
+
+      verify(connection).publish(eq("source.e1"), headers.capture(), data.capture());
+
+      // The event received back through NATS is already propagated in-memory
+      getEventMessageHandler().onMessage(newMessage("source.e1", headers.getValue(), data.getValue()));
+
+      assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+
+      // Events of other processes are propagated
+      getEventMessageHandler().onMessage(newMessage("source.e1", null, new EventExchange(e1).toBytes()));
+
+      final var remote = received.poll(1, TimeUnit.SECONDS);
+
+      assertNotSame(e1, remote);
+      assertEquals("e1", remote.getName());
+    }
+  }
+
+  @Test
+  void testHybridEventHandlerSendInterestOnly() throws Exception {
+    try (var eventHandler = newEventHandler(true)) {
+      final var e1 = new Event("e1", EventChannel.EXTERNAL, List.of());
+
+      // Without an announced subscription the event is not sent through NATS
+      eventHandler.sendEvent(e1, "source");
+
+      verify(connection, never()).publish(anyString(), any(Headers.class), any(byte[].class));
+
+      // A remote hybrid event handler announces a subscription
+      getInterestMessageHandler().onMessage(newMessage("_cirrina.interest.add", null, "remote *.e1".getBytes(StandardCharsets.UTF_8)));
+
+      eventHandler.sendEvent(e1, "source");
+      eventHandler.sendEvent(new Event("e2", EventChannel.EXTERNAL, List.of()), "source");
+
+      verify(connection, times(1)).publish(eq("source.e1"), any(Headers.class), any(byte[].class));
+      verify(connection, never()).publish(eq("source.e2"), any(Headers.class), any(byte[].class));
+
+      // The remote hybrid event handler retracts its subscriptions
+      getInterestMessageHandler().onMessage(newMessage("_cirrina.interest.clear", null, "remote".getBytes(StandardCharsets.UTF_8)));
+
+      eventHandler.sendEvent(e1, "source");
+
+      verify(connection, times(1)).publish(eq("source.e1"), any(Headers.class), any(byte[].class));
+    }
+  }
+
+  private HybridEventHandler newEventHandler(boolean isInterestOnly) throws Exception {
+    try (var nats = mockStatic(Nats.class)) {
+      nats.when(() -> Nats.connect(anyString())).thenReturn(connection);
+
+      return new HybridEventHandler("nats://localhost:4222", isInterestOnly);
+    }
+  }
+
+  private MessageHandler getEventMessageHandler() {
+    return messageHandlers.get(0);
+  }
+
+  private MessageHandler getInterestMessageHandler() {
+    return messageHandlers.get(1);
+  }
+
+  private static Message newMessage(String subject, Headers headers, byte[] data) {
+    final var message = mock(Message.class);
+
+    when(message.getSubject()).thenReturn(subject);
+    when(message.getHeaders()).thenReturn(headers);
+    when(message.getData()).thenReturn(data);
+
+    return message;
+  }
+}
@@ -0,0 +1,51 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class InMemoryEventHandlerTest {
+
+  @Test
+  void testInMemoryEventHandlerSendReceive() throws Exception {
+    final var received = new LinkedBlockingQueue<Event>();
+
+    try (var eventHandler = new InMemoryEventHandler()) {
+      eventHandler.addListener(event -> received.add(event));
+
+      eventHandler.subscribe("e1");
+      eventHandler.subscribe("source", "e2");
+      eventHandler.subscribe(EventHandler.GLOBAL_SOURCE, "*");
+
+      final var e1 = new Event("e1", EventChannel.EXTERNAL, List.of());
+      final var e2 = new Event("e2", EventChannel.EXTERNAL, List.of());
+      final var e3 = new Event("e3", EventChannel.GLOBAL, List.of());
+
+      // Events are propagated by reference, in order
+      eventHandler.sendEvent(e1, "source");
+      eventHandler.sendEvent(e2, "source");
+      eventHandler.sendEvent(e3, "source");
+
+      assertSame(e1, received.poll(1, TimeUnit.SECONDS));
+      assertSame(e2, received.poll(1, TimeUnit.SECONDS));
+      assertSame(e3, received.poll(1, TimeUnit.SECONDS));
+
+      // Events of which the subject is not subscribed to are not propagated
+      eventHandler.sendEvent(e2, "other");
+
+      eventHandler.unsubscribe("e1");
+      eventHandler.sendEvent(e1, "source");
+
+      // Events are propagated in order, receiving a later event first shows that the earlier events were dropped
+      eventHandler.sendEvent(e3, "source");
+
+      assertSame(e3, received.poll(1, TimeUnit.SECONDS));
+      assertTrue(received.isEmpty());
+    }
+  }
+}
@@ -3,15 +3,32 @@ package at.ac.uibk.dps.cirrina.execution.object.event;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
 
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.ContextVariableDescription;
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventDescription;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import io.nats.client.MessageHandler;
+import io.nats.client.Nats;
+import io.nats.client.impl.Headers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
@@ -168,4 +185,46 @@ class NatsEventHandlerTest {
 
     natsEventHandler.close();
   }
+
+  @Test
+  void testNatsEventHandlerRetryFailedBatch() throws Exception {
+    final var connection = mock(Connection.class);
+    final var published = new LinkedBlockingQueue<byte[]>();
+    final var numAttempts = new AtomicInteger();
+
+    when(connection.createDispatcher(any(MessageHandler.class))).thenReturn(mock(Dispatcher.class));
+
+    // The first attempt to publish a batch fails
+    doAnswer(invocation -> {
+      if (numAttempts.incrementAndGet() == 1) {
+        throw new IllegalStateException("Connection is closed");
+      }
+
+      published.add(invocation.getArgument(2));
+
+      return null;
+    }).when(connection).publish(anyString(), any(Headers.class), any(byte[].class));
+
+    final NatsEventHandler natsEventHandler;
+
+    try (var nats = mockStatic(Nats.class)) {
+      nats.when(() -> Nats.connect(anyString())).thenReturn(connection);
+
+      natsEventHandler = new NatsEventHandler("nats://localhost:4222", 10, 100);
+    }
+
+    natsEventHandler.sendEvent(new Event("e1", EventChannel.EXTERNAL, List.of()), "source");
+    natsEventHandler.sendEvent(new Event("e1", EventChannel.EXTERNAL, List.of()), "source");
+
+    // The failed batch remains pending and is published once the next linger window ends
+    final var batch = published.poll(5, TimeUnit.SECONDS);
+
+    assertNotNull(batch);
+    assertEquals(2, numAttempts.get());
+    assertEquals(2, EventExchange.fromBatchBytesLazily(batch).size());
+
+    natsEventHandler.close();
+
+    assertNull(published.poll());
+  }
 }
@@ -1,8 +1,10 @@
 package at.ac.uibk.dps.cirrina.execution.object.exchange;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
@@ -30,4 +32,56 @@ class EventExchangeTest {
       assertFalse(eventIn.getData().getFirst().isLazy());
     });
   }
+
+  @Test
+  void testFromBytesLazily() {
+    var stringVariable = new ContextVariable("varName", "some string");
+    var bytesVariable = new ContextVariable("bytesName", new byte[]{1, 2, 3});
+
+    assertDoesNotThrow(() -> {
+      var eventOut = new Event("name", EventChannel.GLOBAL, List.of(stringVariable, bytesVariable));
+      var data = new EventExchange(eventOut).toBytes();
+
+      var eventIn = EventExchange.fromBytesLazily(data);
+
+      assertEquals(eventOut.getCreatedTime(), eventIn.getCreatedTime());
+      assertEquals(eventOut.getId(), eventIn.getId());
+      assertEquals("name", eventIn.getName());
+      assertEquals("GLOBAL", eventIn.getChannel().name());
+
+      // The data is only decoded once accessed
+      assertFalse(eventIn.isDataDecoded());
+
+      assertEquals(2, eventIn.getData().size());
+      assertTrue(eventIn.isDataDecoded());
+
+      assertEquals("varName", eventIn.getData().getFirst().name());
+      assertEquals("some string", eventIn.getData().getFirst().value());
+      assertEquals("bytesName", eventIn.getData().get(1).name());
+      assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) eventIn.getData().get(1).value());
+    });
+  }
+
+  @Test
+  void testBatchToFromBytes() {
+    assertDoesNotThrow(() -> {
+      var eventsOut = List.of(
+          new Event("a", EventChannel.EXTERNAL, List.of(new ContextVariable("varName", 1))),
+          new Event("b", EventChannel.EXTERNAL, List.of())
+      );
+
+      var data = EventExchange.toBatchBytes(eventsOut.stream()
+          .map(event -> new EventExchange(event).toProto())
+          .toList());
+
+      var eventsIn = EventExchange.fromBatchBytesLazily(data);
+
+      assertEquals(2, eventsIn.size());
+      assertEquals(eventsOut.get(0).getId(), eventsIn.get(0).getId());
+      assertEquals("a", eventsIn.get(0).getName());
+      assertEquals(1, eventsIn.get(0).getData().getFirst().value());
+      assertEquals(eventsOut.get(1).getId(), eventsIn.get(1).getId());
+      assertTrue(eventsIn.get(1).getData().isEmpty());
+    });
+  }
 }
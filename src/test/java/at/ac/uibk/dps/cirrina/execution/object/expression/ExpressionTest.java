@@ -2,7 +2,10 @@ package at.ac.uibk.dps.cirrina.execution.object.expression;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -114,4 +117,25 @@ class ExpressionTest {
           () -> ExpressionBuilder.from("let varTemp = varInvalid; varTemp").build().execute(extent));
     }
   }
+
+  @Test
+  void testExpressionCached() {
+    final var expression = ExpressionBuilder.from("1 + 2 + 3").build();
+
+    assertSame(expression, ExpressionBuilder.from("1 + 2 + 3").build());
+    assertNotSame(expression, ExpressionBuilder.from("1 + 2 + 4").build());
+
+    // Expressions that could not be parsed are not cached
+    assertThrows(UnsupportedOperationException.class, () -> ExpressionBuilder.from("1 + ").build());
+    assertThrows(UnsupportedOperationException.class, () -> ExpressionBuilder.from("1 + ").build());
+  }
+
+  @Test
+  void testExpressionReferences() {
+    final var expression = ExpressionBuilder.from("counter + step.size").build();
+
+    assertTrue(expression.references("counter"));
+    assertTrue(expression.references("step"));
+    assertFalse(expression.references("size"));
+  }
 }
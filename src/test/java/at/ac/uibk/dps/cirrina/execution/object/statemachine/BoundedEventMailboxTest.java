@@ -0,0 +1,137 @@
+package at.ac.uibk.dps.cirrina.execution.object.statemachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox.OfferResult;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.EventMailbox.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BoundedEventMailboxTest {
+
+  private static Event newEvent(String name) {
+    return new Event(name, EventChannel.INTERNAL, List.of());
+  }
+
+  @Test
+  void testCapacity() {
+    assertEquals(1, new BoundedEventMailbox(1, OverflowPolicy.Reject).getCapacity());
+    assertEquals(4, new BoundedEventMailbox(3, OverflowPolicy.Reject).getCapacity());
+    assertEquals(8, new BoundedEventMailbox(8, OverflowPolicy.Reject).getCapacity());
+
+    assertThrows(IllegalArgumentException.class, () -> new BoundedEventMailbox(0, OverflowPolicy.Reject));
+  }
+
+  @Test
+  void testOrder() {
+    final var mailbox = new BoundedEventMailbox(4, OverflowPolicy.Reject);
+
+    // Wrap around multiple times
+    for (var lap = 0; lap < 3; ++lap) {
+      for (var i = 0; i < 4; ++i) {
+        assertEquals(OfferResult.Accepted, mailbox.offer(newEvent("e" + i), false));
+      }
+
+      assertEquals(4, mailbox.size());
+
+      for (var i = 0; i < 4; ++i) {
+        assertEquals("e" + i, mailbox.poll().getName());
+      }
+
+      assertTrue(mailbox.isEmpty());
+      assertNull(mailbox.poll());
+    }
+  }
+
+  @Test
+  void testOverflowPolicies() {
+    final var dropOldest = new BoundedEventMailbox(2, OverflowPolicy.DropOldest);
+
+    dropOldest.offer(newEvent("a"), false);
+    dropOldest.offer(newEvent("b"), false);
+
+    assertEquals(OfferResult.DroppedOldest, dropOldest.offer(newEvent("c"), false));
+    assertEquals("b", dropOldest.poll().getName());
+    assertEquals("c", dropOldest.poll().getName());
+
+    final var dropNewest = new BoundedEventMailbox(2, OverflowPolicy.DropNewest);
+
+    dropNewest.offer(newEvent("a"), false);
+    dropNewest.offer(newEvent("b"), false);
+
+    assertEquals(OfferResult.DroppedNewest, dropNewest.offer(newEvent("c"), false));
+    assertEquals("a", dropNewest.poll().getName());
+    assertEquals("b", dropNewest.poll().getName());
+
+    final var reject = new BoundedEventMailbox(2, OverflowPolicy.Reject);
+
+    reject.offer(newEvent("a"), false);
+    reject.offer(newEvent("b"), false);
+
+    assertEquals(OfferResult.Rejected, reject.offer(newEvent("c"), false));
+
+    // A blocking overflow policy rejects if the producer may not block
+    final var block = new BoundedEventMailbox(1, OverflowPolicy.Block);
+
+    block.offer(newEvent("a"), false);
+
+    assertEquals(OfferResult.Rejected, block.offer(newEvent("b"), false));
+  }
+
+  @Test
+  void testConcurrentProducers() throws InterruptedException {
+    final var numProducers = 4;
+    final var numEventsPerProducer = 10_000;
+
+    final var mailbox = new BoundedEventMailbox(64, OverflowPolicy.Block);
+    final var started = new CountDownLatch(numProducers);
+
+    try (final var executor = Executors.newFixedThreadPool(numProducers)) {
+      for (var p = 0; p < numProducers; ++p) {
+        final var producer = p;
+
+        executor.submit(() -> {
+          started.countDown();
+
+          for (var i = 0; i < numEventsPerProducer; ++i) {
+            mailbox.offer(newEvent(producer + ":" + i), true);
+          }
+        });
+      }
+
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      // Consume all events, events of the same producer are received in order
+      final var next = new ArrayList<Integer>(List.of(0, 0, 0, 0));
+      var received = 0;
+
+      while (received < numProducers * numEventsPerProducer) {
+        final var event = mailbox.poll();
+
+        if (event == null) {
+          Thread.onSpinWait();
+          continue;
+        }
+
+        final var parts = event.getName().split(":");
+        final var producer = Integer.parseInt(parts[0]);
+
+        assertEquals(next.get(producer), Integer.parseInt(parts[1]));
+
+        next.set(producer, next.get(producer) + 1);
+        ++received;
+      }
+    }
+
+    assertTrue(mailbox.isEmpty());
+  }
+}
@@ -0,0 +1,316 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+
+/**
+ * Plain-text HTTP/2 (h2c) echo service, a stand-in for services supporting HTTP/2, which responds with the request body.
+ * <p>
+ * The JDK HTTP client establishes h2c connections by upgrading an HTTP/1.1 request, which the built-in JDK server does not support. This
+ * stand-in accepts the upgrade and bridges the connection to an HTTP/2-only server, passing the upgraded request on as stream 1. The
+ * request headers are encoded as literals without indexing, such that the header compression state of the client is not affected.
+ */
+final class H2cEchoServer implements AutoCloseable {
+
+  private static final byte[] SWITCHING_PROTOCOLS =
+      "HTTP/1.1 101 Switching Protocols\r\nConnection: Upgrade\r\nUpgrade: h2c\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+  private static final int PREFACE_LENGTH = 24;
+
+  private static final int FRAME_HEADER_LENGTH = 9;
+
+  private static final int MAX_FRAME_SIZE = 16384;
+
+  private static final int TYPE_DATA = 0x0;
+
+  private static final int TYPE_HEADERS = 0x1;
+
+  private static final int FLAG_END_STREAM = 0x1;
+
+  private static final int FLAG_END_HEADERS = 0x4;
+
+  private final HttpAsyncServer h2Server;
+
+  private final InetSocketAddress h2Address;
+
+  private final ServerSocket serverSocket;
+
+  private final AtomicInteger numUpgrades = new AtomicInteger();
+
+  /**
+   * Initializes and starts this echo service on an ephemeral port of the loopback address.
+   *
+   * @throws IOException If the echo service could not be started.
+   */
+  H2cEchoServer() throws IOException {
+    h2Server = H2ServerBootstrap.bootstrap()
+        .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+        .register("*", new EchoHandler())
+        .create();
+
+    h2Server.start();
+
+    try {
+      h2Address = (InetSocketAddress) h2Server.listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), URIScheme.HTTP)
+          .get()
+          .getAddress();
+    } catch (InterruptedException | ExecutionException e) {
+      h2Server.close(CloseMode.IMMEDIATE);
+
+      throw new IOException("Could not start the HTTP/2 server", e);
+    }
+
+    serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+
+    Thread.ofVirtual().name("h2c-accept").start(this::accept);
+  }
+
+  /**
+   * Returns the port of this echo service.
+   *
+   * @return Port.
+   */
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Returns the number of connections upgraded to HTTP/2.
+   *
+   * @return Number of upgraded connections.
+   */
+  int getUpgradeCount() {
+    return numUpgrades.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+
+    h2Server.close(CloseMode.IMMEDIATE);
+  }
+
+  private void accept() {
+    while (!serverSocket.isClosed()) {
+      try {
+        final var socket = serverSocket.accept();
+
+        Thread.ofVirtual().name("h2c-upgrade").start(() -> upgrade(socket));
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void upgrade(Socket socket) {
+    try (socket; var backend = new Socket(h2Address.getAddress(), h2Address.getPort())) {
+      final var clientIn = socket.getInputStream();
+      final var clientOut = socket.getOutputStream();
+
+      // Read the HTTP/1.1 request to upgrade
+      final var requestLine = readLine(clientIn).split(" ");
+      final var headers = readHeaders(clientIn);
+
+      if (requestLine.length != 3 || !"h2c".equalsIgnoreCase(headers.get("upgrade"))) {
+        clientOut.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        return;
+      }
+
+      final var body = clientIn.readNBytes(Integer.parseInt(headers.getOrDefault("content-length", "0")));
+
+      clientOut.write(SWITCHING_PROTOCOLS);
+      clientOut.flush();
+
+      numUpgrades.incrementAndGet();
+
+      // The connection preface of the client is its preface followed by a settings frame
+      final var backendOut = backend.getOutputStream();
+
+      backendOut.write(clientIn.readNBytes(PREFACE_LENGTH));
+
+      final var settingsHeader = clientIn.readNBytes(FRAME_HEADER_LENGTH);
+      final var settingsLength = ((settingsHeader[0] & 0xff) << 16) | ((settingsHeader[1] & 0xff) << 8) | (settingsHeader[2] & 0xff);
+
+      backendOut.write(settingsHeader);
+      backendOut.write(clientIn.readNBytes(settingsLength));
+
+      // Pass the upgraded request on as stream 1
+      final var headerBlock = new ByteArrayOutputStream();
+
+      writeHeader(headerBlock, ":method", requestLine[0]);
+      writeHeader(headerBlock, ":scheme", "http");
+      writeHeader(headerBlock, ":path", requestLine[1]);
+      writeHeader(headerBlock, ":authority", headers.getOrDefault("host", ""));
+
+      for (final var header : List.of("content-type", "cirrina-sender-id")) {
+        if (headers.containsKey(header)) {
+          writeHeader(headerBlock, header, headers.get(header));
+        }
+      }
+
+      writeFrame(backendOut, TYPE_HEADERS, FLAG_END_HEADERS | (body.length == 0 ? FLAG_END_STREAM : 0), headerBlock.toByteArray(), 0,
+          headerBlock.size());
+
+      for (var offset = 0; offset < body.length; offset += MAX_FRAME_SIZE) {
+        final var length = Math.min(MAX_FRAME_SIZE, body.length - offset);
+
+        writeFrame(backendOut, TYPE_DATA, offset + length == body.length ? FLAG_END_STREAM : 0, body, offset, length);
+      }
+
+      backendOut.flush();
+
+      // Relay the remainder of the connection in both directions
+      final var relay = Thread.ofVirtual().name("h2c-relay").start(() -> relay(backend, socket));
+
+      relay(socket, backend);
+
+      relay.join();
+    } catch (IOException | RuntimeException e) {
+      // The connection is closed
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void relay(Socket from, Socket to) {
+    try {
+      from.getInputStream().transferTo(to.getOutputStream());
+    } catch (IOException e) {
+      // The connection is closed
+    } finally {
+      try {
+        from.close();
+        to.close();
+      } catch (IOException e) {
+        // Already closed
+      }
+    }
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    final var line = new ByteArrayOutputStream();
+
+    int c;
+
+    while ((c = in.read()) != '\n') {
+      if (c < 0) {
+        throw new IOException("Unexpected end of the request");
+      }
+
+      if (c != '\r') {
+        line.write(c);
+      }
+    }
+
+    return line.toString(StandardCharsets.US_ASCII);
+  }
+
+  private static Map<String, String> readHeaders(InputStream in) throws IOException {
+    final var headers = new HashMap<String, String>();
+
+    for (var line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+      final var separator = line.indexOf(':');
+
+      headers.put(line.substring(0, separator).trim().toLowerCase(), line.substring(separator + 1).trim());
+    }
+
+    return headers;
+  }
+
+  private static void writeHeader(ByteArrayOutputStream out, String name, String value) {
+    final var nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+    final var valueBytes = value.getBytes(StandardCharsets.US_ASCII);
+
+    // Literal header field without indexing, with a new name
+    out.write(0x00);
+
+    writeLength(out, nameBytes.length);
+    out.writeBytes(nameBytes);
+
+    writeLength(out, valueBytes.length);
+    out.writeBytes(valueBytes);
+  }
+
+  private static void writeLength(ByteArrayOutputStream out, int length) {
+    // String length with a 7-bit prefix, without Huffman coding
+    if (length < 0x7f) {
+      out.write(length);
+      return;
+    }
+
+    out.write(0x7f);
+
+    var remaining = length - 0x7f;
+
+    while (remaining >= 0x80) {
+      out.write((remaining & 0x7f) | 0x80);
+      remaining >>>= 7;
+    }
+
+    out.write(remaining);
+  }
+
+  private static void writeFrame(OutputStream out, int type, int flags, byte[] payload, int offset, int length) throws IOException {
+    out.write(new byte[]{
+        (byte) (length >>> 16), (byte) (length >>> 8), (byte) length,
+        (byte) type,
+        (byte) flags,
+        0, 0, 0, 1
+    });
+
+    out.write(payload, offset, length);
+  }
+
+  /**
+   * Handler responding with the request body.
+   */
+  private static final class EchoHandler implements AsyncServerRequestHandler<Message<HttpRequest, byte[]>> {
+
+    @Override
+    public AsyncRequestConsumer<Message<HttpRequest, byte[]>> prepare(
+        HttpRequest request,
+        EntityDetails entityDetails,
+        HttpContext context
+    ) {
+      return new BasicRequestConsumer<>(entityDetails != null ? new BasicAsyncEntityConsumer() : null);
+    }
+
+    @Override
+    public void handle(Message<HttpRequest, byte[]> request, ResponseTrigger responseTrigger, HttpContext context)
+        throws HttpException, IOException {
+      final var body = request.getBody() != null ? request.getBody() : new byte[0];
+
+      responseTrigger.submitResponse(
+          new BasicResponseProducer(200, new BasicAsyncEntityProducer(body, ContentType.APPLICATION_OCTET_STREAM)), context);
+    }
+  }
+}
@@ -17,6 +17,7 @@ import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.http.HttpClient.Version;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -139,7 +140,8 @@ public class HttpServiceImplementationTest {
                 "localhost",
                 8000,
                 "/plus",
-                Method.POST));
+                Method.POST,
+                Version.HTTP_1_1));
 
             final var output = service.invoke(variables, "some-id").get();
 
@@ -160,7 +162,8 @@ public class HttpServiceImplementationTest {
                 "localhost",
                 8000,
                 "/error",
-                Method.POST));
+                Method.POST,
+                Version.HTTP_1_1));
 
             service.invoke(new ArrayList<ContextVariable>(), "some-id").get();
           });
@@ -175,7 +178,8 @@ public class HttpServiceImplementationTest {
                 "localhost",
                 8000,
                 "/broken-response1",
-                Method.POST));
+                Method.POST,
+                Version.HTTP_1_1));
 
             service.invoke(new ArrayList<ContextVariable>(), "some-id").get();
           });
@@ -190,7 +194,8 @@ public class HttpServiceImplementationTest {
                 "localhost",
                 8000,
                 "/broken-response2",
-                Method.POST));
+                Method.POST,
+                Version.HTTP_1_1));
 
             service.invoke(new ArrayList<ContextVariable>(), "some-id").get();
           });
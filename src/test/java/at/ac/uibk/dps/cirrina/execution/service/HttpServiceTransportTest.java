@@ -0,0 +1,166 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Method;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.service.HttpServiceImplementation.Parameters;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient.Version;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class HttpServiceTransportTest {
+
+  @Test
+  void testHttpClientPerOrigin() {
+    try (var transport = new HttpServiceTransport()) {
+      final var a = transport.getHttpClients("http", "localhost", 8000, Version.HTTP_1_1);
+
+      assertEquals(1, a.size());
+      assertSame(a, transport.getHttpClients("http", "localhost", 8000, Version.HTTP_1_1));
+      assertNotSame(a, transport.getHttpClients("http", "localhost", 8001, Version.HTTP_1_1));
+      assertNotSame(a, transport.getHttpClients("https", "localhost", 8000, Version.HTTP_1_1));
+
+      assertEquals(3, transport.getHttpClientCount());
+    }
+  }
+
+  @Test
+  void testHttp2ConnectionsPerOrigin() {
+    try (var transport = new HttpServiceTransport(4)) {
+      final var clients = transport.getHttpClients("http", "localhost", 8000, Version.HTTP_2);
+
+      assertEquals(4, clients.size());
+      assertEquals(Version.HTTP_2, clients.getFirst().version());
+
+      // HTTP/1.1 clients of the same origin are kept separately
+      assertEquals(1, transport.getHttpClients("http", "localhost", 8000, Version.HTTP_1_1).size());
+    }
+  }
+
+  @Test
+  void testConnectionReuse() throws Exception {
+    final var httpServer = HttpServer.create(new InetSocketAddress(0), 0);
+
+    // Each distinct remote address is a connection opened by a client
+    final var connections = ConcurrentHashMap.<InetSocketAddress>newKeySet();
+
+    httpServer.createContext("/empty", exchange -> {
+      connections.add(exchange.getRemoteAddress());
+
+      exchange.getRequestBody().readAllBytes();
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+
+    httpServer.start();
+
+    try (var transport = new HttpServiceTransport()) {
+      // Service implementations of separate jobs, sharing the transport
+      final var services = new ArrayList<HttpServiceImplementation>();
+
+      for (int i = 0; i < 10; ++i) {
+        services.add(new HttpServiceImplementation(new Parameters(
+            "http",
+            1.0f,
+            false,
+            "http",
+            "localhost",
+            httpServer.getAddress().getPort(),
+            "/empty",
+            Method.POST,
+            Version.HTTP_1_1), transport));
+      }
+
+      for (int i = 0; i < 1000; ++i) {
+        assertEquals(List.of(), services.get(i % services.size()).invoke(List.of(), "some-id").get());
+      }
+
+      assertEquals(1, transport.getHttpClientCount());
+
+      // Sequential invocations reuse a single keep-alive connection, rather than one connection per service implementation
+      assertEquals(1, connections.size(), "Opened %d connections".formatted(connections.size()));
+    } finally {
+      httpServer.stop(0);
+    }
+  }
+
+  @Test
+  void testHttp2Multiplexing() throws Exception {
+    try (var echoServer = new H2cEchoServer(); var transport = new HttpServiceTransport(2)) {
+      final var service = new HttpServiceImplementation(new Parameters(
+          "echo",
+          1.0f,
+          false,
+          "http",
+          "localhost",
+          echoServer.getPort(),
+          "/echo",
+          Method.POST,
+          Version.HTTP_2), transport);
+
+      final var payload = new byte[1024];
+
+      Arrays.fill(payload, (byte) 42);
+
+      // Establish the connection of each HTTP/2 client, concurrent invocations on a new client each attempt an upgrade of their own
+      for (int i = 0; i < 2; ++i) {
+        service.invoke(List.of(), "some-id").get(10, TimeUnit.SECONDS);
+      }
+
+      final var invocations = new ArrayList<CompletableFuture<List<ContextVariable>>>();
+
+      for (int i = 0; i < 64; ++i) {
+        invocations.add(service.invoke(List.of(new ContextVariable("payload", payload)), "some-id"));
+      }
+
+      for (final var invocation : invocations) {
+        final var output = invocation.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, output.size());
+        assertEquals("payload", output.getFirst().name());
+        assertArrayEquals(payload, (byte[]) output.getFirst().value());
+      }
+
+      // Concurrent invocations are multiplexed over one upgraded connection per HTTP/2 client
+      assertEquals(2, echoServer.getUpgradeCount());
+    }
+  }
+
+  @Test
+  void testReleaseDefault() {
+    // Runtimes of other tests may retain the default transport
+    final var numReferences = HttpServiceTransport.getDefaultReferences();
+
+    HttpServiceTransport.retainDefault();
+    HttpServiceTransport.retainDefault();
+
+    final var transport = HttpServiceTransport.getDefault();
+
+    assertEquals(numReferences + 2, HttpServiceTransport.getDefaultReferences());
+
+    HttpServiceTransport.releaseDefault();
+
+    assertSame(transport, HttpServiceTransport.getDefault());
+
+    HttpServiceTransport.releaseDefault();
+
+    assertEquals(numReferences, HttpServiceTransport.getDefaultReferences());
+
+    // The default transport is closed once the last reference is released
+    assumeTrue(numReferences == 0, "The default transport is retained elsewhere");
+
+    assertNotSame(transport, HttpServiceTransport.getDefault());
+  }
+}
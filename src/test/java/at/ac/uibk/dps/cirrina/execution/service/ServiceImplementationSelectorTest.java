@@ -2,11 +2,15 @@ package at.ac.uibk.dps.cirrina.execution.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription;
 import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Method;
+import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Version;
 import at.ac.uibk.dps.cirrina.csml.description.ServiceImplementationDescription;
 import at.ac.uibk.dps.cirrina.csml.description.ServiceImplementationDescription.ServiceImplementationType;
+import com.google.common.collect.Multimap;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -19,7 +23,7 @@ class ServiceImplementationSelectorTest {
     // Service one
     {
       final var service = new HttpServiceImplementationDescription("A", 1.0, true, ServiceImplementationType.HTTP, "http", "localhost",
-          12345, "", Method.GET);
+          12345, "", Method.GET, Version.HTTP_1_1);
 
       serviceDescriptions[0] = service;
     }
@@ -27,7 +31,7 @@ class ServiceImplementationSelectorTest {
     // Service two
     {
       final var service = new HttpServiceImplementationDescription("A", 0.5, false, ServiceImplementationType.HTTP, "http", "localhost",
-          12345, "", Method.GET);
+          12345, "", Method.GET, Version.HTTP_1_1);
 
       serviceDescriptions[1] = service;
     }
@@ -35,7 +39,7 @@ class ServiceImplementationSelectorTest {
     // Service three
     {
       final var service = new HttpServiceImplementationDescription("B", 0.4, false, ServiceImplementationType.HTTP, "http", "localhost",
-          12345, "", Method.GET);
+          12345, "", Method.GET, Version.HTTP_1_1);
 
       serviceDescriptions[2] = service;
     }
@@ -43,7 +47,7 @@ class ServiceImplementationSelectorTest {
     // Service four
     {
       final var service = new HttpServiceImplementationDescription("B", 0.2, false, ServiceImplementationType.HTTP, "http", "localhost",
-          12345, "", Method.GET);
+          12345, "", Method.GET, Version.HTTP_1_1);
 
       serviceDescriptions[3] = service;
     }
@@ -51,7 +55,7 @@ class ServiceImplementationSelectorTest {
     // Service five
     {
       final var service = new HttpServiceImplementationDescription("C", 1.0, true, ServiceImplementationType.HTTP, "http", "localhost",
-          12345, "", Method.GET);
+          12345, "", Method.GET, Version.HTTP_1_1);
 
       serviceDescriptions[4] = service;
     }
@@ -68,4 +72,66 @@ class ServiceImplementationSelectorTest {
 
     // TODO: Add additional tests
   }
+
+  @Test
+  void testSelectLeastLoaded() {
+    final var services = newServices();
+
+    final var loaded = services.get("A").stream().filter(service -> service.getCost() == 1.0).findFirst().orElseThrow();
+    final var idle = services.get("A").stream().filter(service -> service.getCost() == 0.5).findFirst().orElseThrow();
+
+    loaded.getStatistics().begin();
+
+    final var powerOfTwoChoicesSelector = new PowerOfTwoChoicesServiceImplementationSelector(services);
+    final var leastOutstandingRequestsSelector = new LeastOutstandingRequestsServiceImplementationSelector(services);
+
+    // With two candidates, both are always compared
+    for (int i = 0; i < 100; ++i) {
+      assertSame(idle, powerOfTwoChoicesSelector.select("A", false).orElseThrow());
+      assertSame(idle, leastOutstandingRequestsSelector.select("A", false).orElseThrow());
+    }
+
+    // A local service implementation is required to be selected, regardless of its load
+    assertSame(loaded, powerOfTwoChoicesSelector.select("A", true).orElseThrow());
+    assertSame(loaded, leastOutstandingRequestsSelector.select("A", true).orElseThrow());
+
+    assertTrue(powerOfTwoChoicesSelector.select("B", true).isEmpty());
+    assertTrue(leastOutstandingRequestsSelector.select("D", false).isEmpty());
+  }
+
+  @Test
+  void testSelectWeightedRoundRobin() {
+    final var services = newServices();
+
+    final var serviceSelector = new WeightedRoundRobinServiceImplementationSelector(services);
+
+    // Service implementations are selected in inverse proportion to their cost, 0.2 is selected twice as often as 0.4
+    var cheapSelections = 0;
+
+    for (int i = 0; i < 150; ++i) {
+      if (serviceSelector.select("B", false).orElseThrow().getCost() == 0.2) {
+        ++cheapSelections;
+      }
+    }
+
+    assertEquals(100, cheapSelections);
+
+    assertEquals(1.0, serviceSelector.select("C", true).orElseThrow().getCost(), 0.0001);
+    assertTrue(serviceSelector.select("B", true).isEmpty());
+  }
+
+  private static Multimap<String, ServiceImplementation> newServices() {
+    return ServiceImplementationBuilder.from(List.of(
+        new HttpServiceImplementationDescription("A", 1.0, true, ServiceImplementationType.HTTP, "http", "localhost", 12345, "",
+            Method.GET, Version.HTTP_1_1),
+        new HttpServiceImplementationDescription("A", 0.5, false, ServiceImplementationType.HTTP, "http", "localhost", 12345, "",
+            Method.GET, Version.HTTP_1_1),
+        new HttpServiceImplementationDescription("B", 0.4, false, ServiceImplementationType.HTTP, "http", "localhost", 12345, "",
+            Method.GET, Version.HTTP_1_1),
+        new HttpServiceImplementationDescription("B", 0.2, false, ServiceImplementationType.HTTP, "http", "localhost", 12345, "",
+            Method.GET, Version.HTTP_1_1),
+        new HttpServiceImplementationDescription("C", 1.0, true, ServiceImplementationType.HTTP, "http", "localhost", 12345, "",
+            Method.GET, Version.HTTP_1_1)
+    )).build();
+  }
 }
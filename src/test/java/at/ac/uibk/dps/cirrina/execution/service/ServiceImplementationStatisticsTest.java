@@ -0,0 +1,69 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ServiceImplementationStatisticsTest {
+
+  @Test
+  void testLatency() {
+    final var fast = new ServiceImplementationStatistics();
+    final var slow = new ServiceImplementationStatistics();
+
+    // Unmeasured service implementations perform equally
+    assertEquals(fast.getPerformance(), slow.getPerformance());
+
+    fast.begin();
+    fast.end(10.0, false);
+
+    slow.begin();
+    slow.end(100.0, false);
+
+    assertEquals(10.0, fast.getLatencyInMs(), 0.0001);
+    assertEquals(100.0, slow.getLatencyInMs(), 0.0001);
+    assertTrue(fast.getPerformance() > slow.getPerformance());
+
+    // Later samples move the average towards the new latency
+    slow.begin();
+    slow.end(10.0, false);
+
+    assertTrue(slow.getLatencyInMs() < 100.0);
+  }
+
+  @Test
+  void testInFlight() {
+    final var statistics = new ServiceImplementationStatistics();
+
+    statistics.begin();
+    statistics.end(10.0, false);
+
+    final var idlePerformance = statistics.getPerformance();
+
+    statistics.begin();
+
+    assertEquals(1, statistics.getInFlight());
+    assertEquals(idlePerformance / 2, statistics.getPerformance(), 0.0001);
+
+    statistics.end(10.0, false);
+
+    assertEquals(0, statistics.getInFlight());
+  }
+
+  @Test
+  void testErrorRate() throws InterruptedException {
+    final var statistics = new ServiceImplementationStatistics(1.0);
+
+    statistics.begin();
+    statistics.end(10.0, true);
+
+    assertTrue(statistics.getErrorRate() > 0.0);
+    assertTrue(statistics.getPerformance() > 0.0);
+
+    // The error rate decays while no invocations complete
+    Thread.sleep(20);
+
+    assertTrue(statistics.getErrorRate() < 0.01);
+  }
+}
@@ -0,0 +1,87 @@
+package at.ac.uibk.dps.cirrina.execution.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ServiceInvocationCoalescerTest {
+
+  @Test
+  void testCoalesceIdenticalInvocations() {
+    final var coalescer = new ServiceInvocationCoalescer();
+
+    final var invocations = new AtomicInteger();
+    final var pending = new CompletableFuture<List<ContextVariable>>();
+
+    final ServiceInvocationCoalescer.Invoker invoker = () -> {
+      invocations.incrementAndGet();
+      return pending;
+    };
+
+    assertDoesNotThrow(() -> {
+      final var first = coalescer.invoke("A", false, List.of(new ContextVariable("v", 1)), invoker);
+      final var second = coalescer.invoke("A", false, List.of(new ContextVariable("v", 1)), invoker);
+
+      // Invocations with a different input, service type or locality are not coalesced
+      coalescer.invoke("A", false, List.of(new ContextVariable("v", 2)), CompletableFuture::new);
+      coalescer.invoke("B", false, List.of(new ContextVariable("v", 1)), CompletableFuture::new);
+      coalescer.invoke("A", true, List.of(new ContextVariable("v", 1)), CompletableFuture::new);
+
+      assertEquals(1, invocations.get());
+      assertEquals(4, coalescer.getInFlight());
+
+      final var output = List.of(new ContextVariable("result", List.of(1, 2, 3)));
+
+      pending.complete(output);
+
+      // Each invocation receives the output, coalesced invocations receive a copy
+      assertEquals(output, first.get());
+      assertEquals(output, second.get());
+      assertNotSame(first.get(), second.get());
+
+      // A completed invocation is no longer shared
+      assertEquals(3, coalescer.getInFlight());
+
+      coalescer.invoke("A", false, List.of(new ContextVariable("v", 1)), invoker);
+
+      assertEquals(2, invocations.get());
+    });
+  }
+
+  @Test
+  void testCoalesceFailedInvocations() {
+    final var coalescer = new ServiceInvocationCoalescer();
+
+    final var pending = new CompletableFuture<List<ContextVariable>>();
+
+    assertDoesNotThrow(() -> {
+      final var first = coalescer.invoke("A", false, List.of(), () -> pending);
+      final var second = coalescer.invoke("A", false, List.of(), () -> pending);
+
+      pending.completeExceptionally(new IOException("Failed"));
+
+      assertTrue(first.isCompletedExceptionally());
+      assertTrue(second.isCompletedExceptionally());
+      assertThrows(CompletionException.class, second::join);
+
+      assertEquals(0, coalescer.getInFlight());
+    });
+
+    // A failure to invoke is thrown to the invoking caller only
+    assertThrows(IOException.class, () -> coalescer.invoke("A", false, List.of(), () -> {
+      throw new IOException("Failed");
+    }));
+
+    assertEquals(0, coalescer.getInFlight());
+  }
+}
@@ -0,0 +1,207 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.utils.Id;
+import com.google.common.collect.ArrayListMultimap;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class StateMachineRegistryTest {
+
+  private static final String NESTED_DESCRIPTION = """
+      amends "modulepath:/pkl/CollaborativeStateMachineDescription.pkl"
+      import "modulepath:/pkl/CollaborativeStateMachineDescription.pkl" as CSM
+
+      name = "registry"
+      version = "2.0"
+      stateMachines {
+          new CSM.StateMachineDescription {
+              name = "parent"
+              states {
+                  new CSM.StateDescription {
+                      name = "a"
+                      initial = true
+                  }
+              }
+              stateMachines {
+                  new CSM.StateMachineDescription {
+                      name = "first"
+                      states {
+                          new CSM.StateDescription {
+                              name = "a"
+                              initial = true
+                          }
+                      }
+                  }
+                  new CSM.StateMachineDescription {
+                      name = "second"
+                      states {
+                          new CSM.StateDescription {
+                              name = "a"
+                              initial = true
+                          }
+                      }
+                  }
+              }
+          }
+      }
+      """;
+
+  private static OfflineRuntime runtime;
+
+  private static StateMachine parent;
+
+  private static StateMachine first;
+
+  private static StateMachine second;
+
+  @BeforeAll
+  public static void setUp() {
+    assertDoesNotThrow(() -> {
+      final var parser = new DescriptionParser<>(CollaborativeStateMachineDescription.class);
+      final var collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(NESTED_DESCRIPTION)).build();
+
+      runtime = new OfflineRuntime("runtime", new NoOpEventHandler(), new InMemoryContext(true));
+
+      // Instance IDs are returned parent first, followed by the nested state machine instances
+      final var instanceIds = runtime.newInstance(collaborativeStateMachineClass,
+          new OptimalServiceImplementationSelector(ArrayListMultimap.create()));
+
+      assertEquals(3, instanceIds.size());
+
+      parent = runtime.findInstance(instanceIds.get(0)).orElseThrow();
+      first = runtime.findInstance(instanceIds.get(1)).orElseThrow();
+      second = runtime.findInstance(instanceIds.get(2)).orElseThrow();
+    });
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    runtime.shutdown();
+  }
+
+  @Test
+  public void testAddAndFind() {
+    final var registry = newRegistry();
+
+    assertEquals(3, registry.size());
+
+    assertSame(parent, registry.find(parent.getStateMachineInstanceId()).orElseThrow());
+    assertSame(first, registry.find(first.getStateMachineInstanceId()).orElseThrow());
+    assertSame(second, registry.find(second.getStateMachineInstanceId()).orElseThrow());
+
+    assertTrue(registry.find(new Id()).isEmpty());
+
+    assertEquals(Set.of(first, second), Set.copyOf(registry.findByParentId(parent.getStateMachineInstanceId())));
+    assertTrue(registry.findByParentId(first.getStateMachineInstanceId()).isEmpty());
+  }
+
+  @Test
+  public void testAddDuplicate() {
+    final var registry = newRegistry();
+
+    assertThrows(IllegalArgumentException.class, () -> registry.add(first, null));
+
+    // The failed addition must not touch the parent instance ID index
+    assertEquals(Set.of(first, second), Set.copyOf(registry.findByParentId(parent.getStateMachineInstanceId())));
+    assertEquals(3, registry.size());
+  }
+
+  @Test
+  public void testRemove() {
+    final var registry = newRegistry();
+    final var nested = registry.findByParentId(parent.getStateMachineInstanceId());
+
+    registry.remove(first);
+
+    assertTrue(registry.find(first.getStateMachineInstanceId()).isEmpty());
+    assertEquals(Set.of(second), Set.copyOf(nested));
+
+    registry.remove(second);
+
+    // Removing the last nested instance drops the parent instance ID index entry
+    assertTrue(registry.findByParentId(parent.getStateMachineInstanceId()).isEmpty());
+    assertEquals(1, registry.size());
+
+    // Removing an instance that is not added has no effect
+    registry.remove(second);
+
+    assertEquals(1, registry.size());
+
+    // A removed instance can be added again, with a different parent
+    registry.add(second, first.getStateMachineInstanceId());
+
+    assertTrue(registry.findByParentId(parent.getStateMachineInstanceId()).isEmpty());
+    assertEquals(Set.of(second), Set.copyOf(registry.findByParentId(first.getStateMachineInstanceId())));
+
+    registry.remove(parent);
+    registry.remove(second);
+
+    assertEquals(0, registry.size());
+    assertTrue(registry.findByParentId(first.getStateMachineInstanceId()).isEmpty());
+  }
+
+  @Test
+  public void testRuntimeFindNestedInstances() {
+    assertEquals(Set.of(first, second), Set.copyOf(runtime.findNestedInstances(parent.getStateMachineInstanceId())));
+    assertTrue(runtime.findNestedInstances(first.getStateMachineInstanceId()).isEmpty());
+  }
+
+  private static StateMachineRegistry newRegistry() {
+    final var registry = new StateMachineRegistry();
+
+    registry.add(parent, null);
+    registry.add(first, parent.getStateMachineInstanceId());
+    registry.add(second, parent.getStateMachineInstanceId());
+
+    return registry;
+  }
+
+  private static final class NoOpEventHandler extends EventHandler {
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void sendEvent(Event event, String source) {
+
+    }
+
+    @Override
+    public void subscribe(String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+
+    }
+
+    @Override
+    public void subscribe(String source, String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String source, String subject) {
+
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package at.ac.uibk.dps.cirrina.runtime.offline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.ExecutionMode;
+import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeOptions;
+import com.google.common.collect.ArrayListMultimap;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class BatchedPersistentWritesTest {
+
+  private static CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  @BeforeAll
+  public static void setUp() {
+    final var json = DefaultDescriptions.pingPong;
+
+    final var parser = new DescriptionParser<>(CollaborativeStateMachineDescription.class);
+    Assertions.assertDoesNotThrow(() -> {
+      collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(json)).build();
+    });
+  }
+
+  @ParameterizedTest
+  @EnumSource(ExecutionMode.class)
+  void testRaiseAfterBatchedAssignment(ExecutionMode executionMode) {
+    Assertions.assertDoesNotThrow(() -> {
+      final var persistentContext = new BatchingContext();
+
+      persistentContext.create("v", 0);
+
+      final var numSent = new AtomicInteger();
+      final var numOvertaken = new AtomicInteger();
+
+      final var eventHandler = new EventHandler() {
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public void sendEvent(Event event, String source) {
+          numSent.incrementAndGet();
+
+          // Events raised after assigning v may only be sent once the assignment is written
+          if (persistentContext.isBatching()) {
+            numOvertaken.incrementAndGet();
+          }
+
+          propagateEvent(event);
+        }
+
+        @Override
+        public void subscribe(String subject) {
+
+        }
+
+        @Override
+        public void unsubscribe(String subject) {
+
+        }
+
+        @Override
+        public void subscribe(String source, String subject) {
+
+        }
+
+        @Override
+        public void unsubscribe(String source, String subject) {
+
+        }
+      };
+
+      final var runtime = new OfflineRuntime("runtime", eventHandler, persistentContext,
+          RuntimeOptions.defaults()
+              .withExecutionMode(executionMode)
+              .withBatchPersistentWrites(true));
+
+      runtime.newInstance(collaborativeStateMachineClass, new OptimalServiceImplementationSelector(ArrayListMultimap.create()));
+
+      assertTrue(runtime.waitForCompletion(10000));
+
+      assertEquals(100, persistentContext.get("v"));
+
+      assertTrue(numSent.get() > 0);
+      assertEquals(0, numOvertaken.get());
+    });
+  }
+
+  /**
+   * In-memory context that batches the assignments of the current thread, making them visible to other threads once the batch is
+   * flushed.
+   */
+  private static final class BatchingContext extends InMemoryContext {
+
+    private final ThreadLocal<Map<String, Object>> batches = new ThreadLocal<>();
+
+    BatchingContext() {
+      super(true);
+    }
+
+    @Override
+    public Object get(String name) throws IOException {
+      final var batch = batches.get();
+
+      if (batch != null && batch.containsKey(name)) {
+        return batch.get(name);
+      }
+
+      return super.get(name);
+    }
+
+    @Override
+    public @Nullable Object lookup(String name) {
+      final var batch = batches.get();
+
+      if (batch != null && batch.containsKey(name)) {
+        return batch.get(name);
+      }
+
+      return super.lookup(name);
+    }
+
+    @Override
+    public int assign(String name, Object value) throws IOException {
+      final var batch = batches.get();
+
+      if (batch == null) {
+        return super.assign(name, value);
+      }
+
+      get(name);
+      batch.put(name, value);
+
+      return 0;
+    }
+
+    @Override
+    public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+      return assign(name, updateFunction.apply(get(name)));
+    }
+
+    @Override
+    public void beginBatch() {
+      if (batches.get() == null) {
+        batches.set(new HashMap<>());
+      }
+    }
+
+    @Override
+    public void flushBatch() throws IOException {
+      final var batch = batches.get();
+
+      batches.remove();
+
+      if (batch != null) {
+        for (final var assignment : batch.entrySet()) {
+          super.assign(assignment.getKey(), assignment.getValue());
+        }
+      }
+    }
+
+    /**
+     * Returns a flag that indicates if the current thread has batched assignments that are not yet written.
+     *
+     * @return True if batching assignments, otherwise false.
+     */
+    boolean isBatching() {
+      final var batch = batches.get();
+
+      return batch != null && !batch.isEmpty();
+    }
+  }
+}
@@ -13,12 +13,16 @@ import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
 import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.ExecutionMode;
 import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeOptions;
 import com.google.common.collect.ArrayListMultimap;
 import java.io.IOException;
+import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 
 public class PingPongTest {
@@ -53,14 +57,21 @@ public class PingPongTest {
 
         return super.assign(name, value);
       }
+
+      @Override
+      public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+        // Read-modify-write assignments are updates, route them through assign such that the assigned values are checked
+        return assign(name, updateFunction.apply(get(name)));
+      }
     };
 
     mockPersistentContext.create("v", 0);
     return mockPersistentContext;
   }
 
-  @Test
-  void testPingPongExecute() {
+  @ParameterizedTest
+  @EnumSource(ExecutionMode.class)
+  void testPingPongExecute(ExecutionMode executionMode) {
     Assertions.assertDoesNotThrow(() -> {
       final var mockEventHandler = new EventHandler() {
 
@@ -97,7 +108,8 @@ public class PingPongTest {
 
       final var mockPersistentContext = getMockPersistentContext();
 
-      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext);
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext,
+          RuntimeOptions.defaults().withExecutionMode(executionMode));
       final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
 
       final var instances = runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
@@ -9,6 +9,7 @@ import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeSta
 import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
 import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription;
 import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Method;
+import at.ac.uibk.dps.cirrina.csml.description.HttpServiceImplementationDescription.Version;
 import at.ac.uibk.dps.cirrina.csml.description.ServiceImplementationDescription;
 import at.ac.uibk.dps.cirrina.csml.description.ServiceImplementationDescription.ServiceImplementationType;
 import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
@@ -149,7 +150,7 @@ public class ServiceInvocationTest {
 
       {
         var service = new HttpServiceImplementationDescription("increment", 1.0, true, ServiceImplementationType.HTTP, "http", "localhost",
-            8000, "/increment", Method.GET);
+            8000, "/increment", Method.GET, Version.HTTP_1_1);
 
         serviceDescriptions[0] = service;
       }
@@ -14,11 +14,15 @@ import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
 import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
 import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeOptions;
+import at.ac.uibk.dps.cirrina.runtime.TimeoutDelivery;
 import com.google.common.collect.ArrayListMultimap;
 import java.io.IOException;
+import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class TimeoutTest {
 
@@ -52,14 +56,21 @@ public class TimeoutTest {
 
         return super.assign(name, value);
       }
+
+      @Override
+      public int update(String name, UnaryOperator<Object> updateFunction) throws IOException {
+        // Read-modify-write assignments are updates, route them through assign such that the assigned values are checked
+        return assign(name, updateFunction.apply(get(name)));
+      }
     };
 
     mockPersistentContext.create("v", 0);
     return mockPersistentContext;
   }
 
-  @Test
-  void testTimeoutExecute() {
+  @ParameterizedTest
+  @EnumSource(TimeoutDelivery.class)
+  void testTimeoutExecute(TimeoutDelivery timeoutDelivery) {
     Assertions.assertDoesNotThrow(() -> {
       final var mockEventHandler = new EventHandler() {
 
@@ -96,7 +107,8 @@ public class TimeoutTest {
 
       var mockPersistentContext = getMockPersistentContext();
 
-      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext);
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext,
+          RuntimeOptions.defaults().withTimeoutDelivery(timeoutDelivery));
       final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
 
       final var instances = runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
@@ -0,0 +1,107 @@
+package at.ac.uibk.dps.cirrina.runtime.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+  @Test
+  void testOneShot() throws Exception {
+    final var timingWheel = new TimingWheel();
+    final var latch = new CountDownLatch(1);
+
+    final var start = System.nanoTime();
+
+    timingWheel.schedule(latch::countDown, 50);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+    timingWheel.shutdown();
+  }
+
+  @Test
+  void testPeriodic() throws Exception {
+    final var timingWheel = new TimingWheel();
+    final var latch = new CountDownLatch(3);
+
+    final var timeout = timingWheel.schedule(latch::countDown, 10, 10);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(timeout.cancel());
+    assertFalse(timeout.cancel());
+
+    timingWheel.shutdown();
+  }
+
+  @Test
+  void testCancel() throws Exception {
+    final var timingWheel = new TimingWheel(1, 8);
+    final var count = new AtomicInteger();
+
+    // Spans multiple rotations of the wheel
+    final var timeout = timingWheel.schedule(count::incrementAndGet, 20);
+    final var latch = new CountDownLatch(1);
+
+    timingWheel.schedule(latch::countDown, 40);
+
+    assertTrue(timeout.cancel());
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(0, count.get());
+
+    timingWheel.shutdown();
+
+    assertThrows(IllegalStateException.class, () -> timingWheel.schedule(count::incrementAndGet, 10));
+  }
+
+  @Test
+  void testIdle() throws Exception {
+    final var timingWheel = new TimingWheel();
+
+    for (var i = 0; i < 2; ++i) {
+      final var latch = new CountDownLatch(1);
+
+      timingWheel.schedule(latch::countDown, 10);
+
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+      // Without scheduled timeouts the worker thread parks, and is woken up by the next timeout
+      final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+      while (!timingWheel.isIdle() && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      assertTrue(timingWheel.isIdle());
+    }
+
+    timingWheel.shutdown();
+  }
+
+  @Test
+  void testLongDelay() throws Exception {
+    final var timingWheel = new TimingWheel();
+    final var count = new AtomicInteger();
+    final var latch = new CountDownLatch(1);
+
+    // A delay that exceeds the range of the clock saturates instead of expiring immediately
+    final var timeout = timingWheel.schedule(count::incrementAndGet, Long.MAX_VALUE);
+
+    timingWheel.schedule(latch::countDown, 20);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(0, count.get());
+    assertFalse(timingWheel.isIdle());
+
+    assertTrue(timeout.cancel());
+
+    timingWheel.shutdown();
+  }
+}